@@ -0,0 +1,56 @@
+package randvar;
+
+import umontreal.ssj.probdist.*;
+import umontreal.ssj.rng.*;
+import umontreal.ssj.util.Chrono;
+
+/**
+ * Compares the speed of three ways of generating values from a
+ * `DiscreteDistributionInt` with a precomputed table, for the Poisson,
+ * binomial and negative binomial distributions with large means: inversion by
+ * binary search in the table (the default), inversion with a guide table
+ * (`setGuideTable(true)`), and the alias method (`aliasInt`). The two
+ * inversion methods must return exactly the same values; the sum of the
+ * values is printed to check this. The alias method gives a different sum,
+ * since it maps the uniforms differently.
+ */
+public class DiscreteInversionSpeed {
+
+   static Chrono timer = new Chrono();
+
+   public static void testInversion(DiscreteDistributionInt dist, RandomStream stream, int n, boolean guided) {
+      long sum = 0;
+      dist.setGuideTable(guided);
+      stream.resetStartStream();
+      timer.init();
+      for (int i = 0; i < n; i++)
+         sum += dist.inverseFInt(stream.nextDouble());
+      System.out.println((guided ? "  guide table:   " : "  binary search: ") + timer.getSeconds()
+            + " seconds,  sum = " + sum);
+   }
+
+   public static void testAlias(DiscreteDistributionInt dist, RandomStream stream, int n) {
+      long sum = 0;
+      stream.resetStartStream();
+      timer.init();
+      for (int i = 0; i < n; i++)
+         sum += dist.aliasInt(stream.nextDouble());
+      System.out.println("  alias method:  " + timer.getSeconds() + " seconds,  sum = " + sum);
+   }
+
+   public static void main(String[] args) {
+      int n = 10000000;
+      DiscreteDistributionInt[] dists = { new PoissonDist(1000.0), new PoissonDist(50000.0),
+            new BinomialDist(100000, 0.3), new NegativeBinomialDist(50.0, 0.01) };
+      RandomStream stream = new MRG32k3a();
+      for (int rep = 0; rep < 2; rep++) { // The first round warms up the JIT compiler.
+         for (DiscreteDistributionInt dist : dists) {
+            System.out.println(dist + ", " + n + " values:");
+            testInversion(dist, stream, n, false);
+            testInversion(dist, stream, n, true);
+            testAlias(dist, stream, n);
+         }
+         System.out.println();
+      }
+   }
+}
@@ -0,0 +1,57 @@
+package randvar;
+
+import umontreal.ssj.probdist.*;
+import umontreal.ssj.randvar.*;
+import umontreal.ssj.rng.*;
+import umontreal.ssj.util.Chrono;
+
+/**
+ * Compares the speed of the normal and exponential random variate generators
+ * of `randvar`, with the streams `MRG32k3a` and `LFSR113`. Each generator fills
+ * an array of `n` variates by `nextArrayOfDouble`, `numArrays` times, and the
+ * mean and variance of all the variates are printed as a sanity check. The
+ * ziggurat generators should be the fastest; inversion is the only method
+ * that uses exactly one uniform per variate.
+ */
+public class ZigguratSpeed {
+
+   static Chrono timer = new Chrono();
+
+   public static void test(RandomVariateGen gen, int n, int numArrays) {
+      double[] v = new double[n];
+      double sum = 0.0, sum2 = 0.0;
+      gen.getStream().resetStartStream();
+      timer.init();
+      for (int k = 0; k < numArrays; k++) {
+         gen.nextArrayOfDouble(v, 0, n);
+         for (int i = 0; i < n; i++) {
+            sum += v[i];
+            sum2 += v[i] * v[i];
+         }
+      }
+      double seconds = timer.getSeconds();
+      double m = sum / ((double) n * numArrays);
+      double var = sum2 / ((double) n * numArrays) - m * m;
+      String name = gen.getClass().getSimpleName() + "                         ";
+      System.out.printf("  %s %6.3f seconds,  mean = %8.5f,  variance = %8.5f%n", name.substring(0, 26), seconds,
+            m, var);
+   }
+
+   public static void main(String[] args) {
+      int n = 10000;
+      int numArrays = 2000; // 2 * 10^7 variates per generator
+      RandomStream[] streams = { new MRG32k3a(), new LFSR113() };
+      for (int rep = 0; rep < 2; rep++) { // The first round warms up the JIT compiler.
+         for (RandomStream s : streams) {
+            System.out.println("Stream " + s.getClass().getSimpleName() + ", " + (long) n * numArrays
+                  + " variates per generator:");
+            RandomVariateGen[] gens = { new NormalGen(s), new NormalBoxMullerGen(s), new NormalPolarGen(s),
+                  new NormalKindermannRamageGen(s), new NormalACRGen(s), new NormalZigguratGen(s),
+                  new ExponentialGen(s, 1.0), new ExponentialZigguratGen(s, 1.0) };
+            for (RandomVariateGen gen : gens)
+               test(gen, n, rep == 0 ? numArrays / 10 : numArrays);
+         }
+         System.out.println();
+      }
+   }
+}
@@ -0,0 +1,55 @@
+package rng;
+
+import umontreal.ssj.rng.*;
+import umontreal.ssj.util.Chrono;
+
+/**
+ * Compares the speed of `nextArrayOfDouble` with that of successive calls to
+ * `nextDouble`, for the generators MRG32k3a and MRG31k3p. Both methods must
+ * return exactly the same numbers; the sum of all the numbers is printed to
+ * check this.
+ */
+public class TestArrayOfDoubleSpeed {
+
+   static Chrono timer = new Chrono();
+
+   public static void testScalar(RandomStream stream, int numBlocks, double[] u) {
+      double sum = 0.0;
+      stream.resetStartStream();
+      timer.init();
+      for (int b = 0; b < numBlocks; b++) {
+         for (int i = 0; i < u.length; i++)
+            u[i] = stream.nextDouble();
+         for (int i = 0; i < u.length; i++)
+            sum += u[i];
+      }
+      System.out.println("  nextDouble():        " + timer.getSeconds() + " seconds,  sum = " + sum);
+   }
+
+   public static void testArray(RandomStream stream, int numBlocks, double[] u) {
+      double sum = 0.0;
+      stream.resetStartStream();
+      timer.init();
+      for (int b = 0; b < numBlocks; b++) {
+         stream.nextArrayOfDouble(u, 0, u.length);
+         for (int i = 0; i < u.length; i++)
+            sum += u[i];
+      }
+      System.out.println("  nextArrayOfDouble(): " + timer.getSeconds() + " seconds,  sum = " + sum);
+   }
+
+   public static void main(String[] args) {
+      int numBlocks = 100000;
+      double[] u = new double[1000];
+      RandomStream[] streams = { new MRG32k3a(), new MRG31k3p() };
+      for (int rep = 0; rep < 2; rep++) { // The first round warms up the JIT compiler.
+         for (RandomStream stream : streams) {
+            System.out.println(stream.getClass().getSimpleName() + ", " + numBlocks + " blocks of " + u.length
+                  + " numbers:");
+            testScalar(stream, numBlocks, u);
+            testArray(stream, numBlocks, u);
+         }
+         System.out.println();
+      }
+   }
+}
@@ -0,0 +1,62 @@
+package simevents;
+
+import umontreal.ssj.rng.*;
+import umontreal.ssj.randvar.ExponentialGen;
+import umontreal.ssj.simevents.*;
+import umontreal.ssj.simevents.eventlist.*;
+import umontreal.ssj.util.Chrono;
+
+/**
+ * Compares the speed of the event list implementations with the classic
+ * *hold model*: the event list initially contains `n` events, and each event,
+ * when it occurs, schedules a new event after an exponential delay, so the
+ * number of pending events remains `n`. Each list processes the same sequence
+ * of events; the final simulation time is printed to check this.
+ */
+public class HoldModel {
+
+   static final int NUM_HOLDS = 5000000; // Number of events processed.
+
+   static class Hold extends Event {
+      RandomStream stream;
+      int[] count;
+
+      public Hold(Simulator sim, RandomStream stream, int[] count) {
+         super(sim);
+         this.stream = stream;
+         this.count = count;
+      }
+
+      public void actions() {
+         if (++count[0] >= NUM_HOLDS)
+            simulator().stop();
+         else
+            schedule(ExponentialGen.nextDouble(stream, 1.0));
+      }
+   }
+
+   public static void hold(String name, EventList list, int n) {
+      MRG32k3a stream = new MRG32k3a();
+      stream.setSeed(new long[] { 12345, 12345, 12345, 12345, 12345, 12345 });
+      Simulator sim = new Simulator();
+      sim.init(list);
+      int[] count = new int[1];
+      for (int i = 0; i < n; i++)
+         new Hold(sim, stream, count).schedule(ExponentialGen.nextDouble(stream, 1.0));
+      Chrono timer = new Chrono();
+      sim.start();
+      System.out.printf("  %-15s %8.3f seconds,  final time = %.6f%n", name, timer.getSeconds(), sim.time());
+   }
+
+   public static void main(String[] args) {
+      int[] sizes = { 1000, 100000, 1000000 };
+      for (int n : sizes) {
+         System.out.println("n = " + n + " pending events, " + NUM_HOLDS + " holds:");
+         hold("SplayTree", new SplayTree(), n);
+         hold("Henriksen", new Henriksen(), n);
+         hold("DaryHeap", new DaryHeap(), n);
+         hold("CalendarQueue", new CalendarQueue(), n);
+         System.out.println();
+      }
+   }
+}
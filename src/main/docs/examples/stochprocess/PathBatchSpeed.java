@@ -0,0 +1,74 @@
+package stochprocess;
+
+import umontreal.ssj.rng.*;
+import umontreal.ssj.stochprocess.*;
+import umontreal.ssj.util.Chrono;
+
+/**
+ * Compares the speed of three ways of generating many paths of a geometric
+ * Brownian motion with 252 observation times from given uniforms, for the
+ * sequential, bridge, and PCA samplings of the underlying Brownian motion:
+ * one `generatePath(double[])` per path (the path must then be read before
+ * the next call), `generatePaths` in sequential mode, and `generatePaths` in
+ * parallel mode. The paths are generated in blocks of `blockSize` and the
+ * average of the arithmetic means of the observations over all paths is
+ * printed; it must be the same for the three methods.
+ */
+public class PathBatchSpeed {
+
+   static Chrono timer = new Chrono();
+
+   static double sumOfMeans(double[] path, int d) {
+      double sum = 0.0;
+      for (int j = 1; j <= d; j++)
+         sum += path[j];
+      return sum / d;
+   }
+
+   public static void test(StochasticProcess process, RandomStream stream, double[][] uniforms, int numBlocks,
+         int mode) {
+      int d = process.getNumObservationTimes();
+      int blockSize = uniforms.length;
+      double[][] paths = new double[blockSize][d + 1];
+      stream.resetStartStream();
+      double sum = 0.0;
+      timer.init();
+      for (int b = 0; b < numBlocks; b++) {
+         for (int i = 0; i < blockSize; i++)
+            stream.nextArrayOfDouble(uniforms[i], 0, d);
+         if (mode == 0) {
+            for (int i = 0; i < blockSize; i++)
+               sum += sumOfMeans(process.generatePath(uniforms[i]), d);
+         } else {
+            process.generatePaths(uniforms, paths, mode == 2);
+            for (int i = 0; i < blockSize; i++)
+               sum += sumOfMeans(paths[i], d);
+         }
+      }
+      String[] names = { "generatePath:          ", "generatePaths:         ", "generatePaths parallel:" };
+      System.out.println("  " + names[mode] + " " + timer.getSeconds() + " seconds,  average = "
+            + sum / ((double) numBlocks * blockSize));
+   }
+
+   public static void main(String[] args) {
+      int d = 252;
+      int blockSize = 1 << 14;
+      int numBlocks = 16; // 2^18 paths in total
+      double[][] uniforms = new double[blockSize][d];
+      RandomStream stream = new MRG32k3a();
+      RandomStream dummy = new MRG32k3a();
+      BrownianMotion[] bms = { new BrownianMotion(0.0, 0.0, 1.0, dummy),
+            new BrownianMotionBridge(0.0, 0.0, 1.0, dummy), new BrownianMotionPCA(0.0, 0.0, 1.0, dummy) };
+      for (int rep = 0; rep < 2; rep++) { // The first round warms up the JIT compiler.
+         for (BrownianMotion bm : bms) {
+            GeometricBrownianMotion gbm = new GeometricBrownianMotion(100.0, 0.05, 0.2, bm);
+            gbm.setObservationTimes(1.0 / d, d);
+            System.out.println("GBM with " + bm.getClass().getSimpleName() + ", "
+                  + (rep == 0 ? 2 : numBlocks) * blockSize + " paths:");
+            for (int mode = 0; mode < 3; mode++)
+               test(gbm, stream, uniforms, rep == 0 ? 2 : numBlocks, mode);
+         }
+         System.out.println();
+      }
+   }
+}
@@ -23,6 +23,7 @@
  */
 package umontreal.ssj.discrepancy;
 
+import java.util.Arrays;
 import umontreal.ssj.hups.PointSet;
 
 /**
@@ -133,15 +134,7 @@ public class DiscL2Hickernell extends Discrepancy {
          sum += prod;
       }
 
-      double sum2 = 0.0;
-      for (int i = 0; i < N - 1; ++i) {
-         for (int j = i + 1; j < N; ++j) {
-            double prod = 1.0;
-            for (int k = 0; k < s; ++k)
-               prod *= 2.0 - Math.max(points[i][k], points[j][k]);
-            sum2 += prod;
-         }
-      }
+      double sum2 = pairSum(points, N, s);
 
       disc += (sum + 2.0 * sum2) / ((long) N * N);
       disc += Math.pow(4.0 / 3.0, s);
@@ -170,11 +163,13 @@ public class DiscL2Hickernell extends Discrepancy {
       for (int i = 0; i < n; ++i)
          sum += T[i];
 
+      // sum of max(T[i], T[j]) over i < j: the k-th smallest value is the
+      // maximum of k pairs
+      double[] sorted = Arrays.copyOf(T, n);
+      Arrays.sort(sorted);
       double sum2 = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j)
-            sum2 += Math.max(T[i], T[j]);
-      }
+      for (int k = 1; k < n; ++k)
+         sum2 += k * sorted[k];
 
       disc -= (sum + 2.0 * sum2) / ((long) n * n);
       disc += 1.0 / 3.0;
@@ -183,4 +178,21 @@ public class DiscL2Hickernell extends Discrepancy {
       return Math.sqrt(disc);
    }
 
+   void pairKernel(double x, double[] y, int lo, int hi, double[] prod) {
+      for (int j = lo; j < hi; j++)
+         prod[j - lo] *= 2.0 - Math.max(x, y[j]);
+   }
+
+   double pointKernel(double x) {
+      return (3.0 - x * x) / 2.0;
+   }
+
+   double kernelMean(int s) {
+      return Math.pow(4.0 / 3.0, s);
+   }
+
+   double shiftKernel(double emax, double eprod) {
+      return 2.0 - emax;
+   }
+
 }
\ No newline at end of file
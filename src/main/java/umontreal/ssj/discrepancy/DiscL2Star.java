@@ -137,15 +137,7 @@ public class DiscL2Star extends Discrepancy {
          sum += prod;
       }
 
-      double sum2 = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j) {
-            double prod = 1.0;
-            for (int k = 0; k < s; ++k)
-               prod *= 1.0 - Math.max(points[i][k], points[j][k]);
-            sum2 += prod;
-         }
-      }
+      double sum2 = pairSum(points, n, s);
 
       disc += (sum + 2.0 * sum2) / ((long) n * n);
       disc += Math.pow(1.0 / 3.0, s);
@@ -174,4 +166,21 @@ public class DiscL2Star extends Discrepancy {
       return Math.sqrt(W2 / n);
    }
 
+   void pairKernel(double x, double[] y, int lo, int hi, double[] prod) {
+      for (int j = lo; j < hi; j++)
+         prod[j - lo] *= 1.0 - Math.max(x, y[j]);
+   }
+
+   double pointKernel(double x) {
+      return (1.0 - x) * (1.0 + x) / 2.0;
+   }
+
+   double kernelMean(int s) {
+      return Math.pow(1.0 / 3.0, s);
+   }
+
+   double shiftKernel(double emax, double eprod) {
+      return 1.0 - emax;
+   }
+
 }
\ No newline at end of file
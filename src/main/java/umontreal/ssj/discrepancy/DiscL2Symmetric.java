@@ -23,6 +23,7 @@
  */
 package umontreal.ssj.discrepancy;
 
+import java.util.Arrays;
 import umontreal.ssj.hups.PointSet;
 
 /**
@@ -109,18 +110,9 @@ public class DiscL2Symmetric extends Discrepancy {
       }
       double disc = -2.0 * sum / n;
 
-      sum = n;
-      double sum2 = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j) {
-            double prod = 1.0;
-            for (int k = 0; k < s; ++k)
-               prod *= 1.0 - Math.abs(points[i][k] - points[j][k]);
-            sum2 += prod;
-         }
-      }
+      double sum2 = pairSum(points, n, s);
 
-      disc += (sum + 2.0 * sum2) * Math.pow(2.0, s) / ((long) n * n);
+      disc += (Math.pow(2.0, s) * n + 2.0 * sum2) / ((long) n * n);
       disc += Math.pow(4.0 / 3.0, s);
       if (disc < 0.0)
          return -1.0;
@@ -140,11 +132,13 @@ public class DiscL2Symmetric extends Discrepancy {
          sum += T[i] * (1.0 - T[i]);
       double disc = -4.0 * sum / n;
 
+      // sum of |T[i] - T[j]| over i < j: the k-th smallest value is added k
+      // times and subtracted n - 1 - k times
+      double[] sorted = Arrays.copyOf(T, n);
+      Arrays.sort(sorted);
       sum = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j)
-            sum += Math.abs(T[i] - T[j]);
-      }
+      for (int k = 0; k < n; ++k)
+         sum += (2 * k - n + 1) * sorted[k];
 
       disc -= 4.0 * sum / ((long) n * n);
       disc += 4.0 / 3.0;
@@ -153,4 +147,21 @@ public class DiscL2Symmetric extends Discrepancy {
       return Math.sqrt(disc);
    }
 
+   void pairKernel(double x, double[] y, int lo, int hi, double[] prod) {
+      for (int j = lo; j < hi; j++)
+         prod[j - lo] *= 2.0 * (1.0 - Math.abs(x - y[j]));
+   }
+
+   double pointKernel(double x) {
+      return 1.5 - 2.0 * (0.5 - x) * (0.5 - x);
+   }
+
+   double kernelMean(int s) {
+      return Math.pow(4.0 / 3.0, s);
+   }
+
+   double shiftKernel(double emax, double eprod) {
+      return 4.0 * (1.0 - emax);
+   }
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@
  */
 package umontreal.ssj.discrepancy;
 
+import java.util.Arrays;
 import umontreal.ssj.hups.PointSet;
 
 /**
@@ -113,15 +114,7 @@ public class DiscL2Unanchored extends Discrepancy {
       }
       double disc = sum / n * (1.0 / n - Math.pow(0.5, (double) (s - 1)));
 
-      sum = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j) {
-            double prod = 1.0;
-            for (int k = 0; k < s; ++k)
-               prod *= Math.min(points[i][k], points[j][k]) - points[i][k] * points[j][k];
-            sum += prod;
-         }
-      }
+      sum = pairSum(points, n, s);
 
       disc += 2.0 * sum / ((long) n * n);
       disc += Math.pow(1.0 / 12.0, s);
@@ -143,11 +136,20 @@ public class DiscL2Unanchored extends Discrepancy {
          sum += T[i] * (1.0 - T[i]);
       double disc = -(1.0 - 1.0 / n) * sum / n;
 
+      // sum of min(T[i], T[j]) - T[i] T[j] over i < j: the k-th smallest
+      // value is the minimum of n - 1 - k pairs, and the sum of the products
+      // is ((sum T[i])^2 - sum T[i]^2) / 2
+      double[] sorted = Arrays.copyOf(T, n);
+      Arrays.sort(sorted);
       double sum2 = 0.0;
-      for (int i = 0; i < n - 1; ++i) {
-         for (int j = i + 1; j < n; ++j)
-            sum2 += Math.min(T[i], T[j]) - T[i] * T[j];
+      double sumT = 0.0;
+      double sumT2 = 0.0;
+      for (int k = 0; k < n; ++k) {
+         sum2 += (n - 1 - k) * sorted[k];
+         sumT += sorted[k];
+         sumT2 += sorted[k] * sorted[k];
       }
+      sum2 -= 0.5 * (sumT * sumT - sumT2);
 
       disc += 2.0 * sum2 / ((long) n * n);
       disc += 1.0 / 12.0;
@@ -156,4 +158,21 @@ public class DiscL2Unanchored extends Discrepancy {
       return Math.sqrt(disc);
    }
 
+   void pairKernel(double x, double[] y, int lo, int hi, double[] prod) {
+      for (int j = lo; j < hi; j++)
+         prod[j - lo] *= Math.min(x, y[j]) - x * y[j];
+   }
+
+   double pointKernel(double x) {
+      return x * (1.0 - x) / 2.0;
+   }
+
+   double kernelMean(int s) {
+      return Math.pow(1.0 / 12.0, s);
+   }
+
+   double shiftKernel(double emax, double eprod) {
+      return 1.0 - emax - eprod;
+   }
+
 }
\ No newline at end of file
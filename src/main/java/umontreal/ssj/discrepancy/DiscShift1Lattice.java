@@ -151,4 +151,19 @@ public class DiscShift1Lattice extends DiscShift1 {
       return Math.sqrt(disc);
    }
 
+   boolean latticeFactor(int r, int n, double[] phi) {
+      final double c = gamma[r] * gamma[r];
+      for (int k = 0; k < n; ++k) {
+         double u = (double) k / n;
+         phi[k] = c * (u * (u - 1.0) + UNSIX); // Bernoulli(2, u)
+      }
+      return true;
+   }
+
+   double latticeValue(double disc) {
+      if (disc < 0.0)
+         return -1.0;
+      return Math.sqrt(disc);
+   }
+
 }
\ No newline at end of file
@@ -164,4 +164,21 @@ public class DiscShift2Lattice extends DiscShift2 {
       return Math.sqrt(disc);
    }
 
+   boolean latticeFactor(int r, int n, double[] phi) {
+      double[] C = setC(gamma[r]);
+      for (int k = 0; k < n; ++k) {
+         double u = (double) k / n;
+         double pol1 = u * (u - 1.0) + UNSIX; // Bernoulli(2, u)
+         double pol2 = ((u - 2.0) * u + 1.0) * u * u - UNTRENTE; // Bernoulli(4,h)
+         phi[k] = C[0] * pol1 - C[1] * pol2;
+      }
+      return true;
+   }
+
+   double latticeValue(double disc) {
+      if (disc < 0.0)
+         return -1.0;
+      return Math.sqrt(disc);
+   }
+
 }
\ No newline at end of file
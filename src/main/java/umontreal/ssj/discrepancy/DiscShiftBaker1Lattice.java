@@ -218,4 +218,17 @@ public class DiscShiftBaker1Lattice extends DiscShiftBaker1 {
       return Math.sqrt(disc);
    }
 
+   boolean latticeFactor(int r, int n, double[] phi) {
+      double[] C = setC(gamma[r]);
+      for (int k = 0; k < n; ++k)
+         phi[k] = -computeFactor((double) k / n, C[0], C[1], C[2]);
+      return true;
+   }
+
+   double latticeValue(double disc) {
+      if (disc < 0.0)
+         return -1.0;
+      return Math.sqrt(disc);
+   }
+
 }
\ No newline at end of file
@@ -23,6 +23,10 @@
  */
 package umontreal.ssj.discrepancy;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import umontreal.ssj.hups.*;
 import cern.colt.list.DoubleArrayList;
 import umontreal.ssj.util.PrintfFormat;
@@ -39,6 +43,7 @@ public abstract class Discrepancy {
    protected double[][] Points; // Points[n][s]: n points in s dimensions
    protected int dim; // Dimension of points
    protected int numPoints; // Number of points
+   protected boolean parallel; // true to compute the sums over pairs in parallel
 //   protected boolean primeF;                  // true if numPoints is prime
 //   protected boolean power2F;                 // true if numPoints is a power of 2
 
@@ -48,6 +53,7 @@ public abstract class Discrepancy {
    static final double DTIERS = 2.0 / 3.0;
    static final double STIERS = 7.0 / 3.0;
    static final double QTIERS = 14.0 / 3.0;
+   static final int TILE = 128; // points per tile in the sums over pairs
 
    static protected void setONES(int s) {
       if (s < ONES.length)
@@ -347,4 +353,217 @@ public abstract class Discrepancy {
       return getClass().getSimpleName();
    }
 
+   /**
+    * Sets the parallel mode. For the discrepancies whose formula has a sum of
+    * a kernel over all the pairs of points, as the @f$\mathcal{L}_2@f$
+    * discrepancies, the @f$O(n^2s)@f$ sum is always computed by square tiles
+    * of points, so that the coordinates of a tile stay in the cache; in
+    * parallel mode, the rows of tiles are also distributed over the threads of
+    * the common fork-join pool. The partial sums are added in the same order
+    * in both modes, so the results do not depend on the mode nor on the
+    * number of threads. By default, the parallel mode is off.
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   /**
+    * Returns `true` if the parallel mode is on; see #setParallel.
+    */
+   public boolean isParallel() {
+      return parallel;
+   }
+
+   /**
+    * Computes the root mean square of the discrepancy of `set` over uniform
+    * random shifts, in @f$O(ns)@f$ time instead of @f$O(n^2s)@f$. If `set` is a
+    * @ref umontreal.ssj.hups.Rank1Lattice, the average is over the shifts
+    * modulo 1 of all the points by the same uniform vector, and if `set` is a
+    * @ref umontreal.ssj.hups.DigitalNetBase2, it is over the random digital
+    * shifts in base 2. In both cases, the points form a group, and the mean
+    * of the kernel over the shifts depends only on the difference of the two
+    * points, so the sum over the @f$n^2@f$ pairs of points reduces to
+    * @f$n@f$ times a sum over the differences with one point. This gives the
+    * expected squared discrepancy of a randomly shifted lattice or net, as
+    * used in randomized quasi-Monte Carlo, but not the discrepancy of `set`
+    * itself. A shift already applied to `set` does not change the result.
+    * This is supported by the @f$\mathcal{L}_2@f$ discrepancies
+    * @ref DiscL2Hickernell, @ref DiscL2Star, @ref DiscL2Symmetric and
+    * @ref DiscL2Unanchored. Returns @f$-1@f$ if the computed mean square is
+    * negative because of rounding errors.
+    *
+    * @param set lattice or digital net
+    * @return the square root of the mean squared discrepancy over the shifts
+    * @exception IllegalArgumentException      if `set` is neither a
+    *                                          `Rank1Lattice` nor a
+    *                                          `DigitalNetBase2`
+    * @exception UnsupportedOperationException if this discrepancy does not
+    *                                          support this method
+    */
+   public double computeShiftAverage(PointSet set) {
+      final boolean digital;
+      if (set instanceof Rank1Lattice)
+         digital = false;
+      else if (set instanceof DigitalNetBase2)
+         digital = true;
+      else
+         throw new IllegalArgumentException("set must be a Rank1Lattice or a DigitalNetBase2");
+      final int n = set.getNumPoints();
+      final int s = set.getDimension();
+      final double mean = kernelMean(s);
+      if (Double.isNaN(mean))
+         throw new UnsupportedOperationException(getName() + " does not support random shifts");
+      double[] x0 = new double[s];
+      double[] x = new double[s];
+      PointSetIterator it = set.iterator();
+      it.nextPoint(x0, s);
+      double sum = 0.0;
+      for (int i = 0; i < n; i++) {
+         if (i == 0)
+            System.arraycopy(x0, 0, x, 0, s);
+         else
+            it.nextPoint(x, s);
+         double prod = 1.0;
+         for (int j = 0; j < s; j++) {
+            // mean of max(u, v) and of uv for u uniform and v = u shifted by
+            // the difference of the two points
+            double emax, eprod;
+            if (digital) {
+               // with 53 bits, xor-ing the points also cancels the 1/2 of
+               // the last digit added by the iterators of shifted nets
+               final long z = (long) (x[j] * TWO53) ^ (long) (x0[j] * TWO53);
+               if (z == 0) {
+                  emax = 0.5;
+                  eprod = 1.0 / 3.0;
+               } else {
+                  // v is the position of the first nonzero digit of z
+                  final int v = Long.numberOfLeadingZeros(z) - 10;
+                  emax = 0.5 + Math.scalb(1.0, -v - 1);
+                  double sum4 = 0.0; // sum of 4^{-i} over the nonzero digits i of z
+                  for (long t = z; t != 0; t &= t - 1)
+                     sum4 += Math.scalb(1.0, 2 * Long.numberOfTrailingZeros(t) - 106);
+                  eprod = 1.0 / 3.0 - 0.5 * sum4;
+               }
+            } else {
+               double d = x[j] - x0[j];
+               if (d < 0.0)
+                  d += 1.0;
+               final double dd = d * (1.0 - d);
+               emax = 0.5 + dd;
+               eprod = 1.0 / 3.0 - 0.5 * dd;
+            }
+            prod *= shiftKernel(emax, eprod);
+         }
+         sum += prod;
+      }
+      final double disc = sum / n - mean;
+      if (disc < 0.0)
+         return -1.0;
+      return Math.sqrt(disc);
+   }
+
+   private static final double TWO53 = 9007199254740992.0; // 2^53
+
+   // The L2 discrepancies of the form
+   //    D^2 = C - (2/n) sum_i prod_k h(x_ik) + (1/n^2) sum_{i,j} prod_k k(x_ik, x_jk)
+   // override these methods. pairKernel multiplies prod[j - lo] by
+   // k(x, y[j]) for lo <= j < hi, and is used by pairSum. kernelMean returns
+   // C, the mean of the kernel in dimension s, and shiftKernel returns the
+   // mean of k(u, v) over a random shift, given emax, the mean of max(u, v),
+   // and eprod, the mean of uv; they are used by computeShiftAverage.
+   // pointKernel returns h(x); it is used with the others by
+   // IncrementalDiscrepancy.
+
+   void pairKernel(double x, double[] y, int lo, int hi, double[] prod) {
+      throw new UnsupportedOperationException(getName() + " has no kernel");
+   }
+
+   double pointKernel(double x) {
+      return Double.NaN;
+   }
+
+   double kernelMean(int s) {
+      return Double.NaN;
+   }
+
+   double shiftKernel(double emax, double eprod) {
+      return Double.NaN;
+   }
+
+   // Returns the sum of prod_k k(x_ik, x_jk) over the pairs of points
+   // 0 <= i < j < n, with k given by pairKernel. The sum is done by rows of
+   // TILE x TILE tiles, on the coordinates stored by columns.
+   double pairSum(double[][] points, int n, int s) {
+      final double[][] cols = new double[s][n];
+      for (int i = 0; i < n; i++)
+         for (int k = 0; k < s; k++)
+            cols[k][i] = points[i][k];
+      return pairSumColumns(cols, n, s);
+   }
+
+   // Same as pairSum, with cols[k][i] the coordinate k of point i.
+   double pairSumColumns(final double[][] cols, final int n, final int s) {
+      final int numRows = (n + TILE - 1) / TILE;
+      final double[] rowSums = new double[numRows];
+      if (parallel && numRows > 1) {
+         List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(numRows);
+         for (int r = 0; r < numRows; r++) {
+            final int row = r;
+            tasks.add(ForkJoinTask.adapt(new Runnable() {
+               public void run() {
+                  rowSums[row] = rowSum(cols, n, s, row);
+               }
+            }));
+         }
+         ForkJoinTask.invokeAll(tasks);
+      } else {
+         for (int r = 0; r < numRows; r++)
+            rowSums[r] = rowSum(cols, n, s, r);
+      }
+      double sum = 0.0;
+      for (int r = 0; r < numRows; r++)
+         sum += rowSums[r];
+      return sum;
+   }
+
+   // Sum over the pairs i < j with i in tile row row.
+   private double rowSum(double[][] cols, int n, int s, int row) {
+      final int iLo = row * TILE;
+      final int iHi = Math.min(n, iLo + TILE);
+      final double[] prod = new double[TILE];
+      double sum = 0.0;
+      for (int jLo = iLo; jLo < n; jLo += TILE) {
+         final int jHi = Math.min(n, jLo + TILE);
+         for (int i = iLo; i < iHi; i++) {
+            final int lo = Math.max(jLo, i + 1);
+            if (lo >= jHi)
+               continue;
+            final int len = jHi - lo;
+            Arrays.fill(prod, 0, len, 1.0);
+            for (int k = 0; k < s; k++)
+               pairKernel(cols[k][i], cols[k], lo, jHi, prod);
+            for (int t = 0; t < len; t++)
+               sum += prod[t];
+         }
+      }
+      return sum;
+   }
+
+   // The discrepancies of lattices of the form
+   //    V = value((1/n) sum_{k=0}^{n-1} prod_{r=0}^{s-1} [1 + phi_r(u_kr)]),
+   // where phi_r depends only on the weights of coordinate r, override these
+   // two methods; they are used by SearcherFastCBC.
+
+   // Puts phi_r(k/n) in phi[k] for k = 0, ..., n-1 and returns true, or
+   // returns false if this discrepancy does not have the above form.
+   boolean latticeFactor(int r, int n, double[] phi) {
+      return false;
+   }
+
+   // Returns the discrepancy V for the given mean of the products minus 1,
+   // which is computed directly to avoid the cancellation in mean - 1.
+   double latticeValue(double excess) {
+      return -1;
+   }
+
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+/*
+ * Class:        IncrementalDiscrepancy
+ * Description:  L2 discrepancy of a point set that grows point by point or
+                 coordinate by coordinate
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.discrepancy;
+
+import java.util.Arrays;
+import umontreal.ssj.hups.PointSet;
+import umontreal.ssj.hups.PointSetIterator;
+
+/**
+ * This class computes an @f$\mathcal{L}_2@f$ discrepancy of a point set that
+ * grows one point or one coordinate at a time, as the first @f$n@f$ points of
+ * an extensible sequence such as @ref umontreal.ssj.hups.SobolSequence,
+ * @ref umontreal.ssj.hups.KorobovLatticeSequence or
+ * @ref umontreal.ssj.hups.HaltonSequence. The discrepancy must be one of
+ * @ref DiscL2Hickernell, @ref DiscL2Star, @ref DiscL2Symmetric or
+ * @ref DiscL2Unanchored, whose square has the form
+ * @f[
+ *   [\mathcal{D}(\mathcal{P})]^2 = C_s - \frac{2}{n} \sum_{i=0}^{n-1}
+ *   \prod_{k=0}^{s-1} h(z_{ik}) + \frac{1}{n^2} \sum_{i=0}^{n-1}
+ *   \sum_{j=0}^{n-1} \prod_{k=0}^{s-1} K(z_{ik}, z_{jk}).
+ * @f]
+ * The object keeps the points and the three sums. Adding point @f$n@f$ adds
+ * its terms with the @f$n@f$ previous points to the double sum, in
+ * @f$O(ns)@f$ time instead of the @f$O(n^2s)@f$ time of a new call to
+ * {@link Discrepancy#compute(double[][],int,int) compute}, so the
+ * discrepancy can be followed as @f$n@f$ grows, for example to stop when it
+ * falls below a given bound. The discrepancy returned by #compute after each
+ * addition is the same as that of the discrepancy object for the same points,
+ * up to rounding errors.
+ *
+ * A coordinate can also be added to all the points. If the object was
+ * created with `keepPairs` set to `true`, it also keeps the product
+ * @f$\prod_k K(z_{ik}, z_{jk})@f$ of each pair of points, and multiplies it
+ * by the term of the new coordinate, in @f$O(n^2)@f$ time; this needs
+ * @f$n^2/2@f$ doubles of memory, which is about 1 GB for @f$n = 2^{14}@f$.
+ * Otherwise, the double sum is recomputed from the points in @f$O(n^2s)@f$
+ * time, and the memory is @f$O(ns)@f$.
+ *
+ * <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
+ */
+public class IncrementalDiscrepancy {
+   private Discrepancy disc;
+   private boolean keepPairs;
+   private int n; // number of points
+   private int s; // dimension
+   private double[][] cols; // cols[k][i]: coordinate k of point i
+   private double[] hProd; // hProd[i]: prod_k h(z_ik)
+   private double[] diag; // diag[i]: prod_k K(z_ik, z_ik)
+   private double[][] pairs; // pairs[i][j]: prod_k K(z_ik, z_jk) for j < i
+   private double sumH, sumDiag, sumPairs; // sums over i, and over j < i
+   private double[] prod; // work array
+
+   /**
+    * Creates an object for the discrepancy `disc` of points in dimension
+    * @f$s@f$, with no points, which does not keep the products of the pairs
+    * of points.
+    *
+    * @param disc the discrepancy
+    * @param s    initial dimension of the points
+    * @exception IllegalArgumentException if `disc` is not one of the
+    *                                     discrepancies above
+    */
+   public IncrementalDiscrepancy(Discrepancy disc, int s) {
+      this(disc, s, false);
+   }
+
+   /**
+    * Creates an object for the discrepancy `disc` of points in dimension
+    * @f$s@f$, with no points. If `keepPairs` is `true`, the products of the
+    * pairs of points are kept, and #addCoordinate takes @f$O(n^2)@f$ time
+    * instead of @f$O(n^2s)@f$, with @f$O(n^2)@f$ memory.
+    *
+    * @param disc      the discrepancy
+    * @param s         initial dimension of the points
+    * @param keepPairs `true` to keep the products of the pairs of points
+    * @exception IllegalArgumentException if `disc` is not one of the
+    *                                     discrepancies above
+    */
+   public IncrementalDiscrepancy(Discrepancy disc, int s, boolean keepPairs) {
+      if (Double.isNaN(disc.pointKernel(0.5)))
+         throw new IllegalArgumentException(disc.getName() + " cannot be computed incrementally");
+      if (s < 1)
+         throw new IllegalArgumentException("s < 1");
+      this.disc = disc;
+      this.keepPairs = keepPairs;
+      this.s = s;
+      clear();
+   }
+
+   /**
+    * Removes all the points, and keeps the dimension.
+    */
+   public void clear() {
+      n = 0;
+      cols = new double[s][16];
+      hProd = new double[16];
+      diag = new double[16];
+      pairs = keepPairs ? new double[16][] : null;
+      prod = new double[16];
+      sumH = sumDiag = sumPairs = 0.0;
+   }
+
+   /**
+    * Adds the point `x`, whose first @f$s@f$ coordinates are used, in
+    * @f$O(ns)@f$ time.
+    *
+    * @param x the new point
+    */
+   public void addPoint(double[] x) {
+      if (x.length < s)
+         throw new IllegalArgumentException("x has less than s coordinates");
+      ensureCapacity(n + 1);
+      double h = 1.0;
+      for (int k = 0; k < s; k++) {
+         cols[k][n] = x[k];
+         h *= disc.pointKernel(x[k]);
+      }
+      // prod[j] for j < n is the term of the pair (n, j), and prod[n] the
+      // term of the pair (n, n)
+      Arrays.fill(prod, 0, n + 1, 1.0);
+      for (int k = 0; k < s; k++)
+         disc.pairKernel(x[k], cols[k], 0, n + 1, prod);
+      double sum = 0.0;
+      for (int j = 0; j < n; j++)
+         sum += prod[j];
+      if (keepPairs)
+         pairs[n] = Arrays.copyOf(prod, n);
+      hProd[n] = h;
+      diag[n] = prod[n];
+      sumH += h;
+      sumDiag += prod[n];
+      sumPairs += sum;
+      n++;
+   }
+
+   /**
+    * Adds the points of `set` that were not added yet, that is, the points
+    * @f$n, …, N-1@f$ of `set`, where @f$N@f$ is its number of points. The
+    * first @f$n@f$ points of `set` must be those already added; this is the
+    * case for an extensible sequence after a call to a method that increases
+    * its number of points, such as
+    * {@link umontreal.ssj.hups.SobolSequence#extendSequence(int)
+    * extendSequence}. The points are obtained from an iterator of `set`, so
+    * a random shift of `set`, if any, is applied.
+    *
+    * @param set point set whose first @f$n@f$ points are those already added
+    * @exception IllegalArgumentException if the dimension of `set` is less
+    *                                     than @f$s@f$
+    */
+   public void addPoints(PointSet set) {
+      if (set.getDimension() < s)
+         throw new IllegalArgumentException("the dimension of set is less than s");
+      final int numPoints = set.getNumPoints();
+      if (numPoints <= n)
+         return;
+      double[] x = new double[s];
+      PointSetIterator it = set.iterator();
+      it.setCurPointIndex(n);
+      while (n < numPoints) {
+         it.nextPoint(x, s);
+         addPoint(x);
+      }
+   }
+
+   /**
+    * Adds coordinate @f$s@f$ to the @f$n@f$ points, whose values are
+    * `values[0..n-1]`, and increases the dimension by 1. This takes
+    * @f$O(n^2)@f$ time if the products of the pairs of points are kept, and
+    * @f$O(n^2s)@f$ time otherwise.
+    *
+    * @param values the new coordinate of each point
+    */
+   public void addCoordinate(double[] values) {
+      if (values.length < n)
+         throw new IllegalArgumentException("values has less than n elements");
+      cols = Arrays.copyOf(cols, s + 1);
+      cols[s] = Arrays.copyOf(values, hProd.length);
+      final double[] col = cols[s];
+      s++;
+      sumH = sumDiag = 0.0;
+      for (int i = 0; i < n; i++) {
+         hProd[i] *= disc.pointKernel(col[i]);
+         prod[0] = diag[i];
+         disc.pairKernel(col[i], col, i, i + 1, prod);
+         diag[i] = prod[0];
+         sumH += hProd[i];
+         sumDiag += diag[i];
+      }
+      if (keepPairs) {
+         double sum = 0.0;
+         for (int i = 1; i < n; i++) {
+            final double[] row = pairs[i];
+            disc.pairKernel(col[i], col, 0, i, row);
+            for (int j = 0; j < i; j++)
+               sum += row[j];
+         }
+         sumPairs = sum;
+      } else
+         sumPairs = disc.pairSumColumns(cols, n, s);
+   }
+
+   /**
+    * Adds coordinate @f$s@f$ of the first @f$n@f$ points of `set` to the
+    * points; see #addCoordinate(double[]).
+    *
+    * @param set point set whose first @f$n@f$ points are those already
+    *            added, in dimension at least @f$s+1@f$
+    */
+   public void addCoordinate(PointSet set) {
+      if (set.getDimension() <= s)
+         throw new IllegalArgumentException("the dimension of set is not larger than s");
+      if (set.getNumPoints() < n)
+         throw new IllegalArgumentException("set has less than n points");
+      double[] values = new double[n];
+      PointSetIterator it = set.iterator();
+      for (int i = 0; i < n; i++) {
+         it.setCurPointIndex(i);
+         it.setCurCoordIndex(s);
+         values[i] = it.nextCoordinate();
+      }
+      addCoordinate(values);
+   }
+
+   /**
+    * Returns the discrepancy of the points added so far, or @f$-1@f$ if its
+    * square, computed from the sums, is negative because of rounding errors.
+    */
+   public double compute() {
+      if (n == 0)
+         throw new IllegalStateException("no points");
+      final double nn = (double) n * n;
+      final double d2 = disc.kernelMean(s) - 2.0 * sumH / n + (sumDiag + 2.0 * sumPairs) / nn;
+      if (d2 < 0.0)
+         return -1.0;
+      return Math.sqrt(d2);
+   }
+
+   /**
+    * Returns the number of points @f$n@f$ added so far.
+    */
+   public int getNumPoints() {
+      return n;
+   }
+
+   /**
+    * Returns the current dimension @f$s@f$ of the points.
+    */
+   public int getDimension() {
+      return s;
+   }
+
+   /**
+    * Returns the discrepancy given to the constructor.
+    */
+   public Discrepancy getDiscrepancy() {
+      return disc;
+   }
+
+   /**
+    * Returns `true` if the products of the pairs of points are kept.
+    */
+   public boolean getKeepPairs() {
+      return keepPairs;
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   private void ensureCapacity(int size) {
+      if (size <= hProd.length)
+         return;
+      final int cap = Math.max(size, 2 * hProd.length);
+      for (int k = 0; k < s; k++)
+         cols[k] = Arrays.copyOf(cols[k], cap);
+      hProd = Arrays.copyOf(hProd, cap);
+      diag = Arrays.copyOf(diag, cap);
+      prod = new double[cap];
+      if (keepPairs)
+         pairs = Arrays.copyOf(pairs, cap);
+   }
+}
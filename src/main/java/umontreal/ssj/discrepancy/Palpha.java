@@ -206,7 +206,7 @@ public class Palpha extends Discrepancy {
       for (int i = 0; i < N; ++i) {
          double prod = 1.0;
          for (int j = 0; j < s; ++j) {
-            double u = Points[i][j];
+            double u = points[i][j];
             prod *= 1.0 + C[j] * (u * (u - 1.0) + UNSIX);
          }
          sum += prod;
@@ -224,7 +224,7 @@ public class Palpha extends Discrepancy {
       for (int i = 0; i < N; ++i) {
          double prod = 1.0;
          for (int j = 0; j < s; ++j) {
-            double u = Points[i][j];
+            double u = points[i][j];
             prod *= 1.0 - C[j] * (((u - 2.0) * u + 1.0) * u * u - UNTRENTE);
          }
          sum += prod;
@@ -242,7 +242,7 @@ public class Palpha extends Discrepancy {
       for (int i = 0; i < N; ++i) {
          double prod = 1.0;
          for (int j = 0; j < s; ++j) {
-            double u = Points[i][j];
+            double u = points[i][j];
             prod *= 1.0 + C[j] * ((((u - 3.0) * u + 2.5) * u * u - 0.5) * u * u + QUARAN);
          }
          sum += prod;
@@ -260,7 +260,7 @@ public class Palpha extends Discrepancy {
       for (int i = 0; i < N; ++i) {
          double prod = 1.0;
          for (int j = 0; j < s; ++j) {
-            double u = Points[i][j];
+            double u = points[i][j];
             prod *= 1.0 - C[j] * (((((u - 4.0) * u + QTIERS) * u * u - STIERS) * u * u + DTIERS) * u * u - UNTRENTE);
          }
          sum += prod;
@@ -269,6 +269,38 @@ public class Palpha extends Discrepancy {
       return beta[0] * (sum - 1.0);
    }
 
+   boolean latticeFactor(int r, int n, double[] phi) {
+      // without weights, beta[r+1] is 1; the shared ONES is not used, so that
+      // this method has no side effect and can be called from several threads
+      final double beta = gamma == null ? 1.0 : gamma[r + 1];
+      final double c = Math.pow(2.0 * Math.PI * beta, (double) alpha) / Num.factorial(alpha);
+      for (int k = 0; k < n; ++k) {
+         double u = (double) k / n;
+         switch (alpha) {
+         case 2:
+            phi[k] = c * (u * (u - 1.0) + UNSIX);
+            break;
+         case 4:
+            phi[k] = -c * (((u - 2.0) * u + 1.0) * u * u - UNTRENTE);
+            break;
+         case 6:
+            phi[k] = c * ((((u - 3.0) * u + 2.5) * u * u - 0.5) * u * u + QUARAN);
+            break;
+         case 8:
+            phi[k] = -c * (((((u - 4.0) * u + QTIERS) * u * u - STIERS) * u * u + DTIERS) * u * u - UNTRENTE);
+            break;
+         default:
+            throw new IllegalArgumentException("alpha must be one of {2, 4, 6, 8}");
+         }
+      }
+      return true;
+   }
+
+   double latticeValue(double excess) {
+      double beta0 = (gamma == null) ? 1.0 : gamma[0];
+      return beta0 * excess;
+   }
+
    public String toString() {
       StringBuffer sb = new StringBuffer(getName() + ":" + PrintfFormat.NEWLINE);
       sb.append("n = " + numPoints + ",   dim = " + dim + PrintfFormat.NEWLINE);
@@ -58,6 +58,7 @@ public class Searcher {
    protected int[] bestAs; // best generator vector for lattices
    protected boolean primeN = false; // true if n is prime
    protected boolean power2F = false; // true if n is a power of 2
+   private double[][] points; // points of the last lattice examined
 
    protected void print(int[] y, int s) {
       // For debugging
@@ -101,6 +102,33 @@ public class Searcher {
       }
    }
 
+   /**
+    * Returns the discrepancy of the lattice with @f$n@f$ points and generator
+    * @f$(a_0,…,a_{s-1})@f$, with the weights @f$\gamma_j@f$ of the search.
+    * The points are computed directly into an array kept between the calls,
+    * instead of being read from a new @ref umontreal.ssj.hups.Rank1Lattice
+    * at each call, which takes much longer than the discrepancy itself.
+    */
+   protected double computeLattice(int n, int[] a, int s) {
+      if (s == 1) {
+         lat = new Rank1Lattice(n, a, s);
+         return disc.compute(lat, gamma);
+      }
+      if (points == null || points.length < n || points[0].length < s)
+         points = new double[n][Math.max(s, disc.getDimension())];
+      for (int j = 0; j < s; j++) {
+         final int aj = a[j] % n;
+         int r = 0; // i a_j mod n
+         for (int i = 0; i < n; i++) {
+            points[i][j] = (double) r / n;
+            r += aj;
+            if (r >= n)
+               r -= n;
+         }
+      }
+      return disc.compute(points, n, s, gamma);
+   }
+
    private double exhaust(int s, boolean relPrime) {
       // If relPrime is true, only the multipliers y_j relatively prime to n
       // are considered; otherwise, all multipliers are.
@@ -117,8 +145,7 @@ public class Searcher {
 
       while (y[1] < n) {
          // print (y, s);
-         lat = new Rank1Lattice(n, y, s);
-         err = disc.compute(lat, gamma);
+         err = computeLattice(n, y, s);
          // System.out.printf (" disc = %8.4f%n", err);
          if (err < bestVal) {
             bestVal = err;
@@ -161,8 +188,7 @@ public class Searcher {
             }
          }
          // print (y, s);
-         lat = new Rank1Lattice(n, y, s);
-         err = disc.compute(lat, gamma);
+         err = computeLattice(n, y, s);
          if (err < bestVal) {
             bestVal = err;
             for (j = 1; j < s; j++)
@@ -24,7 +24,7 @@
  */
 package umontreal.ssj.discrepancy;
 
-import umontreal.ssj.hups.Rank1Lattice;
+import java.util.Arrays;
 import umontreal.ssj.util.Num;
 
 /**
@@ -41,24 +41,97 @@ import umontreal.ssj.util.Num;
  * different lattices with @f$n@f$, @f$s@f$ and @f$\gamma_j@f$ fixed in order to
  * find the best amongst those examined.
  *
+ * For the discrepancies of the form
+ * @f$V = \frac{1}{n}\sum_{k=0}^{n-1}\prod_{j}[1 + \phi_j(u_{kj})]@f$ up to
+ * constants, such as @ref Palpha and the discrepancies supported by
+ * @ref SearcherFastCBC, the products over the components already chosen are
+ * kept, and each value of the next component is examined in @f$O(n)@f$ time
+ * instead of @f$O(nj)@f$ for component @f$j@f$.
+ *
+ * In the exhaustive searches, the values of @f$a_j@f$ whose discrepancies
+ * differ from the smallest one by less than about @f$10^{-10}@f$ times the
+ * size of the terms summed to compute them are considered tied, and the
+ * smallest @f$a_j@f$ among them is kept. Such values differ only by rounding
+ * errors, for example for @f$a_j@f$ and @f$n - a_j@f$, so the result does not
+ * depend on how the discrepancies are computed.
+ *
  * <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
  */
 public class SearcherCBC extends Searcher {
+   // Two values of the discrepancy are tied if they differ by less than TIE
+   // times the sum of the absolute values of their terms.
+   static final double TIE = 1.0e-10;
    protected double[] bestVals; // best value of discr in dim 0, 1, ..., (s-1)
+   // For the discrepancies with lattice factors, phi[k] = phi_j(k/n) for the
+   // current component j, and p0[k] = prod_{r<j} [1 + phi_r(u_kr)] - 1;
+   // otherwise p0 is null.
+   private double[] phi, p0;
+
+   // Sets p0 for the component a_0 = 1.
+   private void initProducts(int n) {
+      p0 = null;
+      if (!disc.latticeFactor(0, 1, new double[1]))
+         return;
+      phi = new double[n];
+      p0 = new double[n];
+      disc.latticeFactor(0, n, p0);
+   }
+
+   // Returns the discrepancy in dimension j + 1 with the component bestAs[j],
+   // and adds this component to p0 if add is true.
+   private double trial(int n, int j, boolean add) {
+      if (p0 == null)
+         return computeLattice(n, bestAs, j + 1);
+      return disc.latticeValue(trialSum(n, j, add) / n);
+   }
+
+   // Same as trial, but returns n times the mean of the products minus 1,
+   // before latticeValue. Requires p0 != null.
+   private double trialSum(int n, int j, boolean add) {
+      final int a = bestAs[j] % n;
+      double sum = 0.0;
+      int ka = 0;
+      for (int k = 0; k < n; k++) {
+         // (1 + p0)(1 + phi) - 1
+         final double v = p0[k] + phi[ka] * (1.0 + p0[k]);
+         if (add)
+            p0[k] = v;
+         sum += v;
+         ka += a;
+         if (ka >= n)
+            ka -= n;
+      }
+      return sum;
+   }
 
    private double exhaust(int s, boolean relPrime) {
       int n = disc.getNumPoints();
       gamma = disc.getGamma();
       int pos = -1;
-      double err;
       double best = 0;
       int i, j;
       bestAs[0] = 1;
       bestVals[0] = -1;
+      initProducts(n);
 
+      final double[] errs = new double[n];
       for (j = 1; j < s; j++) {
-         best = Double.MAX_VALUE;
-         pos = -1;
+         if (p0 != null)
+            disc.latticeFactor(j, n, phi);
+         Arrays.fill(errs, Double.POSITIVE_INFINITY);
+         // For the discrepancies with lattice factors, errs holds the sums of
+         // the terms, which are compared with the bound scale on the sums of
+         // their absolute values.
+         double scale = 0.0;
+         if (p0 != null) {
+            double absP0 = 0.0, absPhi = 0.0, maxFactor = 0.0;
+            for (int k = 0; k < n; k++) {
+               absP0 += Math.abs(p0[k]);
+               absPhi += Math.abs(phi[k]);
+               maxFactor = Math.max(maxFactor, Math.abs(1.0 + p0[k]));
+            }
+            scale = absP0 + absPhi * maxFactor;
+         }
          for (i = 1; i < n; i++) {
             if (relPrime) {
                // Consider only values i relatively prime to n
@@ -72,21 +145,36 @@ public class SearcherCBC extends Searcher {
             }
             bestAs[j] = i;
             // print (bestAs, j + 1);
-            lat = new Rank1Lattice(n, bestAs, j + 1);
-            err = disc.compute(lat, gamma);
-            if (err < best) {
-               best = err;
-               pos = i;
-            }
+            errs[i] = (p0 == null) ? trial(n, j, false) : trialSum(n, j, false);
          }
+         pos = smallestTied(errs, scale);
+         best = (p0 == null) ? errs[pos] : disc.latticeValue(errs[pos] / n);
          bestAs[j] = pos;
          bestVals[j] = best;
+         if (p0 != null)
+            trial(n, j, true);
       }
 
       bestVal = best;
       return best;
    }
 
+   // Returns the smallest index i >= 1 such that errs[i] is tied with the
+   // smallest value, i.e., exceeds it by at most TIE * (|smallest| + scale),
+   // so the choice among values that differ only by rounding errors does not
+   // depend on how they were computed.
+   static int smallestTied(double[] errs, double scale) {
+      double best = Double.POSITIVE_INFINITY;
+      for (int i = 1; i < errs.length; i++)
+         if (errs[i] < best)
+            best = errs[i];
+      final double tie = best + TIE * (Math.abs(best) + scale);
+      int i = 1;
+      while (!(errs[i] <= tie))
+         i++;
+      return i;
+   }
+
    private double random(int s, int k, boolean relPrime) {
       int n = disc.getNumPoints();
       if (k >= n)
@@ -100,8 +188,11 @@ public class SearcherCBC extends Searcher {
       int i, j;
       bestAs[0] = 1;
       bestVals[0] = -1;
+      initProducts(n);
 
       for (j = 1; j < s; j++) {
+         if (p0 != null)
+            disc.latticeFactor(j, n, phi);
          best = Double.MAX_VALUE;
          i = 0;
          while (i < k) {
@@ -116,8 +207,7 @@ public class SearcherCBC extends Searcher {
             }
             i++;
             // print (bestAs, j + 1);
-            lat = new Rank1Lattice(n, bestAs, j + 1);
-            err = disc.compute(lat, gamma);
+            err = trial(n, j, false);
             if (err < best) {
                best = err;
                pos = bestAs[j];
@@ -125,6 +215,8 @@ public class SearcherCBC extends Searcher {
          }
          bestAs[j] = pos;
          bestVals[j] = best;
+         if (p0 != null)
+            trial(n, j, true);
       }
 
       bestVal = best;
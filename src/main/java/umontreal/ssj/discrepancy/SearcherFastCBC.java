@@ -0,0 +1,527 @@
+/*
+ * Class:        SearcherFastCBC
+ * Description:  searches the best rank-1 lattices with the fast
+                 component-by-component (CBC) construction
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.discrepancy;
+
+import java.util.Arrays;
+
+/**
+ * This class implements the *fast* component-by-component (CBC) construction
+ * of Nuyens and Cools @cite rCOO06b, @cite iNUY12a&thinsp; for rank-1
+ * lattices. It applies to the discrepancies of lattices that can be written as
+ * @f[
+ *   V = \frac{1}{n}\sum_{k=0}^{n-1} \prod_{r=0}^{s-1}
+ *       \left[1 + \phi_r(u_{kr})\right],
+ * @f]
+ * up to a monotone transformation, where @f$u_{kr} = \{k a_r / n\}@f$ and
+ * the function @f$\phi_r@f$ depends only on the weight of coordinate
+ * @f$r@f$. These are @ref Palpha, @ref DiscShift1Lattice,
+ * @ref DiscShift2Lattice and @ref DiscShiftBaker1Lattice. The number of
+ * points @f$n@f$ must be prime or a power of 2.
+ *
+ * As in @ref SearcherCBC, @f$a_0 = 1@f$, and the components
+ * @f$a_1, a_2, …@f$ are chosen one at a time, each one minimizing the
+ * discrepancy of the projection on the first coordinates, but only over the
+ * values @f$a_j@f$ relatively prime to @f$n@f$. Once the previous components
+ * are fixed, the discrepancies for all these values are the entries of a
+ * matrix-vector product. When @f$n@f$ is prime, the multiplicative group
+ * modulo @f$n@f$ is cyclic, and a reordering of the rows and columns by
+ * powers of a primitive root makes this matrix circulant; the product is then
+ * computed with the fast Fourier transform (FFT). When @f$n = 2^m@f$, the
+ * group of odd residues modulo @f$2^e@f$ is generated by @f$-1@f$ and 5, and
+ * the matrix splits into @f$m@f$ blocks, each made of circulant matrices. The
+ * search for each component thus takes @f$O(n\log n)@f$ time instead of
+ * @f$O(n^2)@f$, and the whole search takes @f$O(sn\log n)@f$ time with
+ * @f$O(n)@f$ memory, or @f$O(sn)@f$ memory with order-dependent weights.
+ *
+ * Besides the product weights of the discrepancy, one may give
+ * *order-dependent* weights @f$\Gamma_\ell@f$, in which case the weight of
+ * the projection on the set of coordinates @f$\mathfrak{u}@f$ is
+ * @f$\Gamma_{|\mathfrak{u}|}@f$ times the product of the weights of these
+ * coordinates; this gives *product and order-dependent* (POD) weights. The
+ * searches then minimize the discrepancy @f$V@f$ with the products replaced
+ * by @f$1 + \sum_{\mathfrak{u}\neq\emptyset} \Gamma_{|\mathfrak{u}|}
+ * \prod_{r\in\mathfrak{u}} \phi_r(u_{kr})@f$.
+ *
+ * The FFT is used only to choose each component; the values of the
+ * discrepancy returned by the searches and by #getBestVals are computed
+ * directly. The choice of each component is made as in @ref SearcherCBC,
+ * keeping the smallest @f$a_j@f$ among those whose discrepancies differ only
+ * by rounding errors, so the rounding errors of the FFT do not change the
+ * choice and both exhaustive searches return the same vector. Only the
+ * exhaustive searches over the values relatively prime to @f$n@f$ use the
+ * fast algorithm; the random searches are those of @ref SearcherCBC, and
+ * ignore the order-dependent weights.
+ *
+ * <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
+ */
+public class SearcherFastCBC extends SearcherCBC {
+   private static final int SMALL = 32; // groups of order <= SMALL are done directly
+   private double[] orderWeights; // Gamma_l, or null for product weights
+   private double[] cosTable, sinTable; // cos and -sin(2 pi i / L), i < L/2, for the FFT
+   // Sum over k of the terms of the discrepancy and of their absolute values,
+   // set by update.
+   private double lastSum, lastAbsSum;
+
+   /**
+    * Same as {@link #SearcherFastCBC(Discrepancy,boolean,double[])
+    * SearcherFastCBC(disc, primeN, null)}, with product weights only.
+    */
+   public SearcherFastCBC(Discrepancy disc, boolean primeN) {
+      this(disc, primeN, null);
+   }
+
+   /**
+    * The number of points @f$n@f$, the dimension @f$s@f$, and the weights must
+    * be given in `disc`, as for @ref SearcherCBC. The flag `primeN` indicates
+    * whether @f$n@f$ is prime; otherwise, @f$n@f$ must be a power of 2. If
+    * `orderWeights` is not `null`, the order-dependent weight
+    * @f$\Gamma_\ell@f$ is `orderWeights[l]`, for @f$\ell= 1, …, s@f$.
+    *
+    * @param disc         discrepancy to minimize
+    * @param primeN       `true` if @f$n@f$ is prime
+    * @param orderWeights the order-dependent weights, or `null`
+    * @exception IllegalArgumentException if `disc` is not one of the
+    *                                     discrepancies given above, or if
+    *                                     @f$n@f$ is neither prime nor a power
+    *                                     of 2
+    */
+   public SearcherFastCBC(Discrepancy disc, boolean primeN, double[] orderWeights) {
+      super(disc, primeN);
+      int n = disc.getNumPoints();
+      if (primeN ? !isPrime(n) : !power2F)
+         throw new IllegalArgumentException("n must be prime or a power of 2");
+      if (!disc.latticeFactor(0, 1, new double[1]))
+         throw new IllegalArgumentException(disc.getName() + " is not supported by the fast CBC search");
+      if (orderWeights != null && orderWeights.length <= disc.getDimension())
+         throw new IllegalArgumentException("orderWeights must have length s + 1");
+      this.orderWeights = orderWeights;
+   }
+
+   /**
+    * Fast exhaustive CBC search in dimension @f$s@f$. When @f$n@f$ is prime,
+    * all the values @f$a_j = 1, …, n-1@f$ are relatively prime to @f$n@f$ and
+    * this is the same search as in
+    * {@link SearcherCBC#exhaust(int) SearcherCBC.exhaust(s)}, but fast.
+    * Otherwise, this calls
+    * {@link SearcherCBC#exhaust(int) SearcherCBC.exhaust(s)}, which also
+    * considers the even values of @f$a_j@f$ and ignores the order-dependent
+    * weights. Returns the best value of the discrepancy in dimension @f$s@f$.
+    */
+   public double exhaust(int s) {
+      if (primeN)
+         return fastCBC(s);
+      return super.exhaust(s);
+   }
+
+   /**
+    * Fast exhaustive CBC search in dimension @f$s@f$, over the values of
+    * @f$a_j@f$ relatively prime to @f$n@f$. Returns the best value of the
+    * discrepancy in dimension @f$s@f$.
+    */
+   public double exhaustPrime(int s) {
+      return fastCBC(s);
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   private double fastCBC(int s) {
+      final int n = disc.getNumPoints();
+      if (s < 1 || s > disc.getDimension())
+         throw new IllegalArgumentException("s must be in [1, " + disc.getDimension() + "]");
+      final double[] phi = new double[n];
+      final double[] q = new double[n];
+      final double[] t = new double[n];
+      // With product weights, p[0][k] = prod_r [1 + phi_r(u_kr)] - 1. With
+      // order-dependent weights, p[l][k], l >= 1, is the sum over the sets u of
+      // l coordinates, among those already chosen, of prod_{r in u} phi_r(u_kr),
+      // and p[0] is not used since this sum is 1 for l = 0. Leaving out the
+      // constant terms keeps the precision of the small values.
+      final double[][] p = new double[orderWeights == null ? 1 : s + 1][];
+      if (orderWeights == null)
+         p[0] = new double[n];
+      final int[] perm = primeN ? powers(primitiveRoot(n), n, n - 1) : null;
+      int L = 1;
+      while (L < (primeN ? 2 * n - 3 : n / 4))
+         L <<= 1;
+      initTwiddles(L);
+
+      for (int j = 0; j < s; j++) {
+         disc.latticeFactor(j, n, phi);
+         int a = 1;
+         if (j > 0) {
+            // q[k] is the factor of phi_j(u_kj) in the discrepancy, up to a
+            // constant. Since k -> k*z mod n is a permutation for all the
+            // admissible z, sum_k phi[k*z mod n] does not depend on z, and any
+            // constant can be subtracted from q; the mean is subtracted to
+            // reduce the rounding errors of the convolutions.
+            if (orderWeights == null)
+               System.arraycopy(p[0], 0, q, 0, n);
+            else {
+               Arrays.fill(q, 0.0);
+               for (int l = 2; l <= j + 1; l++) {
+                  final double g = orderWeights[l];
+                  final double[] pl = p[l - 1];
+                  for (int k = 0; k < n; k++)
+                     q[k] += g * pl[k];
+               }
+            }
+            final double g1 = (orderWeights == null) ? 1.0 : orderWeights[1];
+            double mean = 0.0;
+            double maxFactor = 0.0;
+            for (int k = 0; k < n; k++) {
+               mean += q[k];
+               maxFactor = Math.max(maxFactor, Math.abs(g1 + q[k]));
+            }
+            mean /= n;
+            for (int k = 0; k < n; k++)
+               q[k] -= mean;
+            if (primeN)
+               productPrime(phi, q, t, perm);
+            else
+               productPower2(phi, q, t);
+            // The sum of the terms of the discrepancy for a_j = z is c + t[z],
+            // and the sum of their absolute values is at most scale.
+            double sumPhi = 0.0;
+            double absPhi = 0.0;
+            for (int k = 0; k < n; k++) {
+               sumPhi += phi[k];
+               absPhi += Math.abs(phi[k]);
+            }
+            final double c = lastSum + (g1 + mean) * sumPhi;
+            final double scale = lastAbsSum + absPhi * maxFactor;
+            for (int z = 1; z < n; z++)
+               t[z] = (!primeN && (z & 1) == 0) ? Double.POSITIVE_INFINITY : c + t[z];
+            a = smallestTied(t, scale);
+         }
+         bestAs[j] = a;
+         bestVals[j] = update(p, phi, a, j);
+      }
+      bestVal = bestVals[s - 1];
+      return bestVal;
+   }
+
+   // Adds coordinate j, with phi_j(u_kj) = phi[k*a mod n], to the state p, and
+   // returns the discrepancy in dimension j + 1. Also sets lastSum and
+   // lastAbsSum.
+   private double update(double[][] p, double[] phi, int a, int j) {
+      final int n = phi.length;
+      double sum = 0.0;
+      double abs = 0.0;
+      if (orderWeights == null) {
+         final double[] p0 = p[0];
+         int ka = 0;
+         for (int k = 0; k < n; k++) {
+            // (1 + p0)(1 + phi) - 1
+            p0[k] += phi[ka] * (1.0 + p0[k]);
+            sum += p0[k];
+            abs += Math.abs(p0[k]);
+            ka += a;
+            if (ka >= n)
+               ka -= n;
+         }
+      } else {
+         p[j + 1] = new double[n];
+         for (int l = j + 1; l >= 1; l--) {
+            final double[] pl = p[l];
+            final double[] pm = p[l - 1];
+            int ka = 0;
+            for (int k = 0; k < n; k++) {
+               pl[k] += (l == 1) ? phi[ka] : phi[ka] * pm[k];
+               ka += a;
+               if (ka >= n)
+                  ka -= n;
+            }
+         }
+         for (int k = 0; k < n; k++) {
+            double v = 0.0;
+            for (int l = 1; l <= j + 1; l++)
+               v += orderWeights[l] * p[l][k];
+            sum += v;
+            abs += Math.abs(v);
+         }
+      }
+      lastSum = sum;
+      lastAbsSum = abs;
+      return disc.latticeValue(sum / n);
+   }
+
+   // Computes t[z] = sum_k phi[k*z mod n] q[k] for z = 1, ..., n-1, n prime,
+   // where perm[i] = g^i mod n for a primitive root g. With z = g^i and
+   // k = g^{-j}, this is a cyclic convolution of length n - 1 in (i, j).
+   private void productPrime(double[] phi, double[] q, double[] t, int[] perm) {
+      final int m = perm.length;
+      final double t0 = phi[0] * q[0];
+      if (m <= SMALL) {
+         for (int z = 1; z <= m; z++) {
+            double sum = t0;
+            for (int k = 1; k <= m; k++)
+               sum += phi[(int) ((long) k * z % (m + 1))] * q[k];
+            t[z] = sum;
+         }
+         return;
+      }
+      final double[] f = new double[m];
+      final double[] g = new double[m];
+      for (int i = 0; i < m; i++) {
+         f[i] = phi[perm[i]];
+         g[i] = q[perm[i == 0 ? 0 : m - i]];
+      }
+      final double[] c = cyclicConvolution(f, g);
+      for (int i = 0; i < m; i++)
+         t[perm[i]] = c[i] + t0;
+   }
+
+   // Same as productPrime, for the odd z and n = 2^M. With k = 2^v u, u odd,
+   // k z mod n = 2^v (u z mod 2^e), e = M - v. For each v, the odd residues
+   // modulo 2^e are the +-5^a, so the sum over u is made of 4 cyclic
+   // convolutions of length 2^(e-2), in (a, b) with z = +-5^a and u = +-5^-b.
+   private void productPower2(double[] phi, double[] q, double[] t) {
+      final int n = phi.length;
+      final double t0 = phi[0] * q[0];
+      for (int z = 1; z < n; z += 2)
+         t[z] = t0;
+      for (int v = 0; (1 << v) < n; v++) {
+         final int ne = n >> v; // 2^e
+         final int mask = ne - 1;
+         final double[] te = new double[ne]; // te[r] for r odd, the sum for z = r mod 2^e
+         if (ne / 2 <= SMALL) {
+            for (int r = 1; r < ne; r += 2) {
+               double sum = 0.0;
+               for (int u = 1; u < ne; u += 2)
+                  sum += phi[((u * r) & mask) << v] * q[u << v];
+               te[r] = sum;
+            }
+         } else {
+            final int h = ne / 4;
+            final int[] five = powers(5, ne, h);
+            final double[] fp = new double[h];
+            final double[] fm = new double[h];
+            final double[] qp = new double[h];
+            final double[] qm = new double[h];
+            for (int i = 0; i < h; i++) {
+               fp[i] = phi[five[i] << v];
+               fm[i] = phi[(ne - five[i]) << v];
+               final int u = five[i == 0 ? 0 : h - i]; // 5^-i
+               qp[i] = q[u << v];
+               qm[i] = q[(ne - u) << v];
+            }
+            final double[][] cp = cyclicConvolution2(fp, fm, qp, qm);
+            for (int i = 0; i < h; i++) {
+               te[five[i]] = cp[0][i];
+               te[ne - five[i]] = cp[1][i];
+            }
+         }
+         for (int z = 1; z < n; z += 2)
+            t[z] += te[z & mask];
+      }
+   }
+
+   // Returns the cyclic convolution c[i] = sum_j f[(i - j) mod m] g[j].
+   private double[] cyclicConvolution(double[] f, double[] g) {
+      final int m = f.length;
+      if ((m & (m - 1)) == 0) {
+         final double[][] F = fftReal(f, m);
+         final double[][] G = fftReal(g, m);
+         multiply(F, G, F);
+         fft(F[0], F[1], true);
+         return F[0];
+      }
+      // Linear convolution of length 2m - 1, folded modulo m.
+      int L = 1;
+      while (L < 2 * m - 1)
+         L <<= 1;
+      final double[][] F = fftReal(f, L);
+      final double[][] G = fftReal(g, L);
+      multiply(F, G, F);
+      fft(F[0], F[1], true);
+      final double[] c = new double[m];
+      for (int i = 0; i < m; i++)
+         c[i] = F[0][i] + (i + m < L ? F[0][i + m] : 0.0);
+      return c;
+   }
+
+   // Returns {fp*qp + fm*qm, fm*qp + fp*qm}, where * is the cyclic convolution
+   // of length h, a power of 2.
+   private double[][] cyclicConvolution2(double[] fp, double[] fm, double[] qp, double[] qm) {
+      final int h = fp.length;
+      final double[][] FP = fftReal(fp, h);
+      final double[][] FM = fftReal(fm, h);
+      final double[][] QP = fftReal(qp, h);
+      final double[][] QM = fftReal(qm, h);
+      final double[] re0 = new double[h];
+      final double[] im0 = new double[h];
+      final double[] re1 = new double[h];
+      final double[] im1 = new double[h];
+      for (int i = 0; i < h; i++) {
+         re0[i] = FP[0][i] * QP[0][i] - FP[1][i] * QP[1][i] + FM[0][i] * QM[0][i] - FM[1][i] * QM[1][i];
+         im0[i] = FP[0][i] * QP[1][i] + FP[1][i] * QP[0][i] + FM[0][i] * QM[1][i] + FM[1][i] * QM[0][i];
+         re1[i] = FM[0][i] * QP[0][i] - FM[1][i] * QP[1][i] + FP[0][i] * QM[0][i] - FP[1][i] * QM[1][i];
+         im1[i] = FM[0][i] * QP[1][i] + FM[1][i] * QP[0][i] + FP[0][i] * QM[1][i] + FP[1][i] * QM[0][i];
+      }
+      fft(re0, im0, true);
+      fft(re1, im1, true);
+      return new double[][] { re0, re1 };
+   }
+
+   // C = A * B, elementwise on complex vectors {re, im}; C may be A or B.
+   private static void multiply(double[][] A, double[][] B, double[][] C) {
+      final int L = A[0].length;
+      for (int i = 0; i < L; i++) {
+         final double re = A[0][i] * B[0][i] - A[1][i] * B[1][i];
+         final double im = A[0][i] * B[1][i] + A[1][i] * B[0][i];
+         C[0][i] = re;
+         C[1][i] = im;
+      }
+   }
+
+   // Returns the FFT {re, im} of x padded with zeros to length L.
+   private double[][] fftReal(double[] x, int L) {
+      final double[] re = new double[L];
+      final double[] im = new double[L];
+      System.arraycopy(x, 0, re, 0, x.length);
+      fft(re, im, false);
+      return new double[][] { re, im };
+   }
+
+   // Computes the tables of the FFT for the lengths up to L, a power of 2.
+   private void initTwiddles(int L) {
+      final int h = Math.max(1, L / 2);
+      cosTable = new double[h];
+      sinTable = new double[h];
+      for (int i = 0; i < h; i++) {
+         final double w = Math.PI * i / h;
+         cosTable[i] = Math.cos(w);
+         sinTable[i] = -Math.sin(w);
+      }
+   }
+
+   // In-place radix-2 FFT of length re.length, a power of 2 not larger than
+   // the length given to initTwiddles; the inverse transform is divided by the
+   // length.
+   private void fft(double[] re, double[] im, boolean inverse) {
+      final int L = re.length;
+      for (int i = 1, j = 0; i < L; i++) {
+         int bit = L >> 1;
+         for (; (j & bit) != 0; bit >>= 1)
+            j ^= bit;
+         j ^= bit;
+         if (i < j) {
+            double tmp = re[i];
+            re[i] = re[j];
+            re[j] = tmp;
+            tmp = im[i];
+            im[i] = im[j];
+            im[j] = tmp;
+         }
+      }
+      final double[] cos = cosTable;
+      final double[] sin = sinTable;
+      final double sign = inverse ? -1.0 : 1.0;
+      for (int len = 2; len <= L; len <<= 1) {
+         final int half = len >> 1;
+         final int step = 2 * cos.length / len;
+         for (int i = 0; i < L; i += len) {
+            for (int k = 0; k < half; k++) {
+               final double wr = cos[k * step];
+               final double wi = sign * sin[k * step];
+               final int a = i + k;
+               final int b = a + half;
+               final double xr = re[b] * wr - im[b] * wi;
+               final double xi = re[b] * wi + im[b] * wr;
+               re[b] = re[a] - xr;
+               im[b] = im[a] - xi;
+               re[a] += xr;
+               im[a] += xi;
+            }
+         }
+      }
+      if (inverse) {
+         final double f = 1.0 / L;
+         for (int i = 0; i < L; i++) {
+            re[i] *= f;
+            im[i] *= f;
+         }
+      }
+   }
+
+   // Returns {g^0, g^1, ..., g^(m-1)} mod n.
+   private static int[] powers(int g, int n, int m) {
+      final int[] pow = new int[m];
+      long x = 1;
+      for (int i = 0; i < m; i++) {
+         pow[i] = (int) x;
+         x = x * g % n;
+      }
+      return pow;
+   }
+
+   // Returns the smallest primitive root of the prime n.
+   private static int primitiveRoot(int n) {
+      if (n == 2)
+         return 1;
+      final int m = n - 1;
+      int[] factors = new int[32];
+      int nf = 0;
+      int r = m;
+      for (int d = 2; (long) d * d <= r; d++) {
+         if (r % d == 0) {
+            factors[nf++] = d;
+            while (r % d == 0)
+               r /= d;
+         }
+      }
+      if (r > 1)
+         factors[nf++] = r;
+      for (int g = 2;; g++) {
+         boolean ok = true;
+         for (int i = 0; i < nf && ok; i++)
+            ok = modPow(g, m / factors[i], n) != 1;
+         if (ok)
+            return g;
+      }
+   }
+
+   private static long modPow(long b, long e, long n) {
+      long r = 1;
+      b %= n;
+      while (e > 0) {
+         if ((e & 1) != 0)
+            r = r * b % n;
+         b = b * b % n;
+         e >>= 1;
+      }
+      return r;
+   }
+
+   private static boolean isPrime(int n) {
+      if (n < 2)
+         return false;
+      for (int d = 2; (long) d * d <= n; d++)
+         if (n % d == 0)
+            return false;
+      return true;
+   }
+}
@@ -25,7 +25,6 @@
 package umontreal.ssj.discrepancy;
 
 import umontreal.ssj.util.Num;
-import umontreal.ssj.hups.KorobovLattice;
 
 /**
  * This class implements searches to find the best *Korobov* lattices with
@@ -50,11 +49,11 @@ public class SearcherKorobov extends Searcher {
       System.out.printf("  a = %d%n", y);
    }
 
-   private void calcAs(int n, int s, int a) {
+   private void calcAs(int[] y, int n, int s, int a) {
       long b = a;
-      bestAs[0] = 1;
+      y[0] = 1;
       for (int j = 1; j < s; ++j)
-         bestAs[j] = (int) ((b * bestAs[j - 1]) % n);
+         y[j] = (int) ((b * y[j - 1]) % n);
    }
 
    private double exhaust(int s, boolean relPrime) {
@@ -63,6 +62,7 @@ public class SearcherKorobov extends Searcher {
       gamma = disc.getGamma();
       bestVal = Double.MAX_VALUE;
       bestA = -1;
+      int[] y = new int[s];
 
       for (int i = 2; i < n; i++) {
          if (relPrime) {
@@ -76,15 +76,15 @@ public class SearcherKorobov extends Searcher {
             }
          }
          // print (i);
-         lat = new KorobovLattice(n, i, s);
-         err = disc.compute(lat, gamma);
+         calcAs(y, n, s, i);
+         err = computeLattice(n, y, s);
          if (err < bestVal) {
             bestVal = err;
             bestA = i;
          }
       }
 
-      calcAs(n, s, bestA);
+      calcAs(bestAs, n, s, bestA);
       return bestVal;
    }
 
@@ -98,6 +98,7 @@ public class SearcherKorobov extends Searcher {
       double err;
       bestVal = Double.MAX_VALUE;
       bestA = -1;
+      int[] y = new int[s];
       int a;
       int i = 0;
 
@@ -112,16 +113,16 @@ public class SearcherKorobov extends Searcher {
             } while (relPrime && (Num.gcd(n, a) != 1));
          }
          // print (a);
-         lat = new KorobovLattice(n, a, s);
+         calcAs(y, n, s, a);
          i++;
-         err = disc.compute(lat, gamma);
+         err = computeLattice(n, y, s);
          if (err < bestVal) {
             bestVal = err;
             bestA = a;
          }
       }
 
-      calcAs(n, s, bestA);
+      calcAs(bestAs, n, s, bestA);
       return bestVal;
    }
 
@@ -62,7 +62,9 @@ public class GofStat {
     *      represents the @f$n@f$ observations contained in `data`, and @f$U@f$,
     *      the returned transformed observations. If `data` contains random
     *      variables from the distribution function `dist`, then the result will
-    *      contain uniform random variables over @f$[0,1]@f$.
+    *      contain uniform random variables over @f$[0,1]@f$. The values are
+    *      computed by the batch method
+    *      umontreal.ssj.probdist.Distribution.cdf(double[],double[],int,int).
     * @param data array of observations to be transformed
     * @param dist assumed distribution of the observations
     * @return the array of transformed observations
@@ -72,8 +74,7 @@ public class GofStat {
       int n = data.size();
 
       double[] u = new double[n];
-      for (int i = 0; i < n; i++)
-         u[i] = dist.cdf(v[i]);
+      dist.cdf(v, u, 0, n);
       return new DoubleArrayList(u);
    }
 
@@ -120,6 +120,116 @@ public class DigitalNetBase2 extends DigitalNet {
       return new DigitalNetBase2IteratorNoGray();
    }
 
+   /**
+    * Generates the points `startPoint` to `startPoint + count - 1`, in the same
+    * order and with the same values as those returned by the Gray code iterator
+    * #iterator, and puts the first `d` coordinates of point `startPoint + i` in
+    * the flat array `out`. If `pointMajor` is `true`, coordinate @f$j@f$ of
+    * point `startPoint + i` is put in `out[i*d + j]`, otherwise it is put in
+    * `out[j*count + i]`. The current digital shift, if any, is applied. This is
+    * much faster than calling the iterator point by point when many points are
+    * needed, because all the coordinates are updated in a single loop over the
+    * generator matrices.
+    *
+    * @param out        the array in which the coordinates are returned
+    * @param startPoint index of the first point to generate
+    * @param count      number of points to generate
+    * @param d          number of coordinates for each point
+    * @param pointMajor `true` to store the points one after the other, `false`
+    *                   to store the coordinates one after the other
+    */
+   public void fillPoints(double[] out, int startPoint, int count, int d, boolean pointMajor) {
+      if (startPoint < 0 || count < 0 || startPoint + count > numPoints)
+         throw new IllegalArgumentException("Points " + startPoint + " to " + (startPoint + count - 1)
+               + " are not in the point set");
+      if (d > dim)
+         throw new IllegalArgumentException("d is larger than the dimension");
+      if (out.length < count * d)
+         throw new IllegalArgumentException("The array is too small");
+      int[] cur = initBlock(startPoint, d);
+      int[] cols = columnsForBlock(d);
+      double eps = digitalShift == null ? 0.0 : 0.5 / Num.TWOEXP[outDigits];
+      for (int i = 0; i < count; i++) {
+         if (pointMajor) {
+            int start = i * d;
+            for (int j = 0; j < d; j++)
+               out[start + j] = cur[j] * normFactor + eps;
+         } else {
+            for (int j = 0; j < d; j++)
+               out[j * count + i] = cur[j] * normFactor + eps;
+         }
+         nextInBlock(cur, cols, startPoint + i, d);
+      }
+   }
+
+   /**
+    * Similar to #fillPoints(double[],int,int,int,boolean), except that the
+    * coordinates of point `startPoint + i` are put in `out[i][0..d-1]`, where `d`
+    * is the length of `out[i]`, which must not exceed the dimension.
+    *
+    * @param out        the array in which the points are returned
+    * @param startPoint index of the first point to generate
+    * @param count      number of points to generate
+    */
+   public void fillPoints(double[][] out, int startPoint, int count) {
+      if (startPoint < 0 || count < 0 || startPoint + count > numPoints)
+         throw new IllegalArgumentException("Points " + startPoint + " to " + (startPoint + count - 1)
+               + " are not in the point set");
+      if (count == 0)
+         return;
+      int d = out[0].length;
+      if (d > dim)
+         throw new IllegalArgumentException("The points have more coordinates than the dimension");
+      int[] cur = initBlock(startPoint, d);
+      int[] cols = columnsForBlock(d);
+      double eps = digitalShift == null ? 0.0 : 0.5 / Num.TWOEXP[outDigits];
+      for (int i = 0; i < count; i++) {
+         double[] p = out[i];
+         for (int j = 0; j < d; j++)
+            p[j] = cur[j] * normFactor + eps;
+         nextInBlock(cur, cols, startPoint + i, d);
+      }
+   }
+
+   // Returns the first d coordinates of point i, as integers, including the
+   // digital shift. The shift is extended to d coordinates if needed, as in the
+   // iterator.
+   private int[] initBlock(int i, int d) {
+      int[] cur = new int[d];
+      if (digitalShift != null) {
+         if (dimShift < d)
+            addRandomShift(dimShift, d, shiftStream);
+         for (int j = 0; j < d; j++)
+            cur[j] = digitalShift[j];
+      }
+      int grayCode = i ^ (i >> 1);
+      for (int pos = 0; (grayCode >> pos) != 0; pos++)
+         if (((grayCode >> pos) & 1) != 0)
+            for (int j = 0; j < d; j++)
+               cur[j] ^= genMat[j * numCols + pos];
+      return cur;
+   }
+
+   // Returns the columns of the first d generator matrices, with column c of
+   // C_j at position c*d + j, so the columns used at each step are contiguous.
+   private int[] columnsForBlock(int d) {
+      int[] cols = new int[numCols * d];
+      for (int j = 0; j < d; j++)
+         for (int c = 0; c < numCols; c++)
+            cols[c * d + j] = genMat[j * numCols + c];
+      return cols;
+   }
+
+   // Moves cur from point i to point i+1 in Gray code order.
+   private void nextInBlock(int[] cur, int[] cols, int i, int d) {
+      int pos = Integer.numberOfTrailingZeros(~i); // Position of change in Gray code.
+      if (pos < numCols) {
+         int start = pos * d;
+         for (int j = 0; j < d; j++)
+            cur[j] ^= cols[start + j];
+      }
+   }
+
    public String toString() {
       StringBuffer sb = new StringBuffer("DigitalNetBase2: ");
       sb.append(super.toString());
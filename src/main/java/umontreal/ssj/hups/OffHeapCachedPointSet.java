@@ -0,0 +1,523 @@
+/*
+ * Class:        OffHeapCachedPointSet
+ * Description:  point set cached outside the Java heap
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001--2018  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.hups;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import umontreal.ssj.util.PrintfFormat;
+import umontreal.ssj.util.multidimsort.MultiDimSort;
+import umontreal.ssj.rng.RandomStream;
+
+/**
+ * Same as @ref CachedPointSet, except that the cached points are stored
+ * contiguously outside the Java heap, either in direct buffers or in a
+ * memory-mapped file, instead of in a `double[][]` array. The coordinates of
+ * each point are stored one after the other, so there is no array object per
+ * point, and the size of the cache is not limited by the size of the heap. This
+ * is useful for the very large point sets used, e.g., with the Array-RQMC
+ * method, for which a `double[][]` array puts a heavy load on the garbage
+ * collector. Since Java buffers are indexed by `int`, the points are stored in
+ * segments of at most @f$2^{30}@f$ bytes each.
+ *
+ * When the cache is stored in a file, it can be reopened later, possibly by
+ * another JVM, with the constructor #OffHeapCachedPointSet(File). A reopened
+ * cache has no underlying point set; it can then be randomized only by a random
+ * shift modulo 1, which is added to the coordinates when they are read and does
+ * not modify the file.
+ *
+ * As in @ref CachedPointSet, the methods #sortByCoordinate, #sort and
+ * #stripCoordinates affect only the cached points, and #randomize randomizes
+ * the underlying point set and re-caches the points, in the same storage.
+ *
+ * <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
+ */
+public class OffHeapCachedPointSet extends PointSet {
+   private static final int MAGIC = 0x53534a50; // "SSJP"
+   private static final int VERSION = 1;
+   private static final int HEADER_BYTES = 32;
+   private static final int MAX_SEGMENT_DOUBLES = 1 << 27; // 2^30 bytes.
+
+   protected PointSet P; // Original PointSet which is cached in the present object.
+   int fromPoint = 0; // Number of skipped points (usually 0).
+   int fromDim = 0; // Number of skipped coordinates (usually 0).
+   boolean randomizeParent = true;
+
+   private int stride; // Number of coordinates stored for each point.
+   private int firstCoord = 0; // Number of coordinates removed by stripCoordinates.
+   private int segShift; // Each segment contains 2^segShift points.
+   private int segMask;
+   private ByteBuffer[] bytes; // Storage, one buffer per segment.
+   private DoubleBuffer[] segs; // Views of bytes as doubles.
+   private MappedByteBuffer header; // Null if not stored in a file.
+   private File file;
+
+   /**
+    * Creates a new `PointSet` object that caches, in direct buffers, the
+    * coordinates `fromDim` (inclusive) to `toDim` (exclusive) of the points
+    * numbered `fromPoint` (inclusive) to `toPoint` (exclusive) of `p`. The
+    * parameters have the same meaning as in
+    * {@link CachedPointSet#CachedPointSet(PointSet,int,int,int,int)
+    * CachedPointSet(p, fromPoint, toPoint, fromDim, toDim)}.
+    *
+    * @param p         point set to be cached
+    * @param fromPoint number of skipped points (usually 0)
+    * @param toPoint   1 + number of the last point selected from `p`
+    * @param fromDim   number of skipped coordinates (often 0)
+    * @param toDim     1 + index of last coordinate in the original points
+    */
+   public OffHeapCachedPointSet(PointSet p, int fromPoint, int toPoint, int fromDim, int toDim) {
+      init(p, fromPoint, toPoint, fromDim, toDim);
+      allocateDirect();
+      fillCache();
+   }
+
+   /**
+    * Same as {@link #OffHeapCachedPointSet(PointSet,int,int,int,int)
+    * OffHeapCachedPointSet(p, 0, n, 0, dim)}.
+    */
+   public OffHeapCachedPointSet(PointSet p, int n, int dim) {
+      this(p, 0, n, 0, dim);
+   }
+
+   /**
+    * Caches all the points of `p`, whose number of points and dimension must be
+    * finite.
+    *
+    * @param p point set to be cached
+    */
+   public OffHeapCachedPointSet(PointSet p) {
+      this(p, 0, p.getNumPoints(), 0, p.getDimension());
+   }
+
+   /**
+    * Same as {@link #OffHeapCachedPointSet(PointSet,int,int,int,int)
+    * OffHeapCachedPointSet(p, fromPoint, toPoint, fromDim, toDim)}, except that
+    * the points are cached in the memory-mapped file `file`, which is created or
+    * overwritten. The file can be reopened later with
+    * #OffHeapCachedPointSet(File).
+    *
+    * @param p         point set to be cached
+    * @param fromPoint number of skipped points (usually 0)
+    * @param toPoint   1 + number of the last point selected from `p`
+    * @param fromDim   number of skipped coordinates (often 0)
+    * @param toDim     1 + index of last coordinate in the original points
+    * @param file      file in which the points are stored
+    * @exception IOException if the file cannot be created or mapped
+    */
+   public OffHeapCachedPointSet(PointSet p, int fromPoint, int toPoint, int fromDim, int toDim, File file)
+         throws IOException {
+      init(p, fromPoint, toPoint, fromDim, toDim);
+      this.file = file;
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         raf.setLength(HEADER_BYTES + 8L * numPoints * stride);
+         FileChannel ch = raf.getChannel();
+         header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+         header.order(ByteOrder.LITTLE_ENDIAN);
+         allocateMapped(ch);
+      } finally {
+         raf.close(); // The mappings remain valid.
+      }
+      fillCache();
+   }
+
+   /**
+    * Reopens the points cached in `file` by
+    * {@link #OffHeapCachedPointSet(PointSet,int,int,int,int,File)
+    * OffHeapCachedPointSet(p, fromPoint, toPoint, fromDim, toDim, file)}. The
+    * file is mapped in memory, not read, so this is fast even for very large
+    * point sets. The returned point set has no underlying point set. Changes made
+    * by #sortByCoordinate, #sort and #stripCoordinates are written to the file.
+    *
+    * @param file file containing the cached points
+    * @exception IOException if the file cannot be opened or mapped
+    */
+   public OffHeapCachedPointSet(File file) throws IOException {
+      this.file = file;
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         FileChannel ch = raf.getChannel();
+         if (ch.size() < HEADER_BYTES)
+            throw new IllegalArgumentException("Not a cached point set file: " + file);
+         header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+         header.order(ByteOrder.LITTLE_ENDIAN);
+         if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Not a cached point set file: " + file);
+         numPoints = header.getInt(8);
+         stride = header.getInt(12);
+         firstCoord = header.getInt(16);
+         dim = header.getInt(20);
+         if (ch.size() < HEADER_BYTES + 8L * numPoints * stride)
+            throw new IllegalArgumentException("Truncated cached point set file: " + file);
+         setSegments();
+         allocateMapped(ch);
+      } finally {
+         raf.close();
+      }
+   }
+
+   private void init(PointSet p, int fromPoint, int toPoint, int fromDim, int toDim) {
+      if (p.getNumPoints() < toPoint - fromPoint)
+         throw new IllegalArgumentException("Cannot cache more points than in point set p.");
+      if (p.getDimension() < toDim - fromDim)
+         throw new IllegalArgumentException("Attempt to cache points using more coordinates than the dimension.");
+      if (toPoint == Integer.MAX_VALUE)
+         throw new IllegalArgumentException("Cannot cache infinite number of points");
+      if (toDim == Integer.MAX_VALUE)
+         throw new IllegalArgumentException("Cannot cache infinite dimensional points");
+      this.fromPoint = fromPoint;
+      numPoints = toPoint - fromPoint;
+      this.fromDim = fromDim;
+      dim = toDim - fromDim;
+      stride = dim;
+      this.P = p;
+      setSegments();
+   }
+
+   // Each segment holds a power of 2 number of points, so that the segment of
+   // a point is obtained by a shift.
+   private void setSegments() {
+      if (stride > MAX_SEGMENT_DOUBLES)
+         throw new IllegalArgumentException("Dimension too large");
+      segShift = 31 - Integer.numberOfLeadingZeros(MAX_SEGMENT_DOUBLES / Math.max(stride, 1));
+      segMask = (1 << segShift) - 1;
+   }
+
+   private int segmentBytes(int s) {
+      return 8 * Math.min(numPoints - (s << segShift), 1 << segShift) * stride;
+   }
+
+   private void allocateDirect() {
+      int numSegs = numPoints == 0 ? 0 : ((numPoints - 1) >>> segShift) + 1;
+      bytes = new ByteBuffer[numSegs];
+      segs = new DoubleBuffer[numSegs];
+      for (int s = 0; s < numSegs; s++) {
+         bytes[s] = ByteBuffer.allocateDirect(segmentBytes(s)).order(ByteOrder.nativeOrder());
+         segs[s] = bytes[s].asDoubleBuffer();
+      }
+   }
+
+   private void allocateMapped(FileChannel ch) throws IOException {
+      int numSegs = numPoints == 0 ? 0 : ((numPoints - 1) >>> segShift) + 1;
+      bytes = new ByteBuffer[numSegs];
+      segs = new DoubleBuffer[numSegs];
+      long segBytes = 8L * stride << segShift;
+      for (int s = 0; s < numSegs; s++) {
+         bytes[s] = ch.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + s * segBytes, segmentBytes(s))
+               .order(ByteOrder.LITTLE_ENDIAN);
+         segs[s] = bytes[s].asDoubleBuffer();
+      }
+   }
+
+   private void writeHeader() {
+      if (header == null)
+         return;
+      header.putInt(0, MAGIC);
+      header.putInt(4, VERSION);
+      header.putInt(8, numPoints);
+      header.putInt(12, stride);
+      header.putInt(16, firstCoord);
+      header.putInt(20, dim);
+   }
+
+   /**
+    * Caches the points of the underlying point set, and writes the header of the
+    * file if the points are stored in a file.
+    */
+   protected void fillCache() {
+      firstCoord = 0;
+      dim = stride;
+      PointSetIterator itr = P.iterator();
+      if (fromPoint > 0)
+         itr.setCurPointIndex(fromPoint);
+      double[] row = new double[stride];
+      for (int i = 0; i < numPoints; i++) {
+         itr.nextPoint(row, fromDim, stride);
+         writeRow(i, row);
+      }
+      writeHeader();
+   }
+
+   private void readRow(int i, double[] row) {
+      DoubleBuffer seg = segs[i >>> segShift];
+      int k = (i & segMask) * stride;
+      for (int j = 0; j < stride; j++)
+         row[j] = seg.get(k + j);
+   }
+
+   private void writeRow(int i, double[] row) {
+      DoubleBuffer seg = segs[i >>> segShift];
+      int k = (i & segMask) * stride;
+      for (int j = 0; j < stride; j++)
+         seg.put(k + j, row[j]);
+   }
+
+   /**
+    * Constructs and returns a point set iterator that gets the values directly
+    * from the cache.
+    */
+   public PointSetIterator iterator() {
+      return new OffHeapCachedPointSetIterator();
+   }
+
+   /**
+    * Same as umontreal.ssj.hups.CachedPointSet.setRandomizeParent.
+    */
+   public void setRandomizeParent(boolean randomizeParent) {
+      this.randomizeParent = randomizeParent;
+   }
+
+   /**
+    * Generates a random shift, adds it to the contained point set, and re-caches
+    * the points. If there is no underlying point set, the random shift is
+    * instead added modulo 1 to the cached points when they are read, as in
+    * @ref PointSet.
+    */
+   public void addRandomShift(int d1, int d2, RandomStream stream) {
+      if (P == null)
+         super.addRandomShift(d1, d2, stream);
+      else {
+         P.addRandomShift(d1, d2, stream);
+         fillCache();
+      }
+   }
+
+   /**
+    * Erases the current random shift of the underlying point set and re-caches
+    * the points, or erases the shift of this point set if there is no
+    * underlying point set.
+    */
+   public void clearRandomShift() {
+      if (P == null)
+         super.clearRandomShift();
+      else {
+         P.clearRandomShift();
+         fillCache();
+      }
+   }
+
+   /**
+    * Randomizes the underlying point set using `rand` and re-caches the points in
+    * the same storage. If `setRandomizeParent(false)` was called, or if there is
+    * no underlying point set, this method invokes `rand.randomize(this)` instead.
+    */
+   public void randomize(PointSetRandomization rand) {
+      if (randomizeParent && P != null) {
+         rand.randomize(P);
+         fillCache();
+      } else {
+         rand.randomize(this);
+      }
+   }
+
+   /**
+    * Sorts the cached points by increasing order of coordinate `j`. The sort is
+    * stable and moves the points within the cache, using only an index of
+    * @f$n@f$ integers and keys of @f$n@f$ doubles on the heap.
+    */
+   public void sortByCoordinate(int j) {
+      if (j < 0 || j >= dim)
+         throw new IllegalArgumentException("Invalid coordinate index: " + j);
+      double[] key = new double[numPoints];
+      int[] index = new int[numPoints];
+      for (int i = 0; i < numPoints; i++) {
+         key[i] = getCoordinate(i, j);
+         index[i] = i;
+      }
+      sortIndex(index, key);
+      permute(index);
+   }
+
+   /**
+    * Sorts the cached points with the given
+    * @ref umontreal.ssj.util.MultiDimSort sorting algorithm `sort`. Only the
+    * first `sort.dimension()` coordinates of each point are copied on the heap
+    * for the sort; the points are then moved within the cache.
+    */
+   public <T> void sort(MultiDimSort<T> sort) {
+      int d = sort.dimension();
+      if (d > dim)
+         throw new IllegalArgumentException("Sort dimension larger than the dimension of the points");
+      // The last coordinate of each row keeps the index of the point.
+      double[][] rows = new double[numPoints][d + 1];
+      for (int i = 0; i < numPoints; i++) {
+         for (int j = 0; j < d; j++)
+            rows[i][j] = getCoordinate(i, j);
+         rows[i][d] = i;
+      }
+      sort.sort(rows);
+      int[] index = new int[numPoints];
+      for (int i = 0; i < numPoints; i++)
+         index[i] = (int) rows[i][d];
+      rows = null;
+      permute(index);
+   }
+
+   // Stable bottom-up merge sort of index by increasing key[index[i]].
+   private static void sortIndex(int[] index, double[] key) {
+      int n = index.length;
+      int[] a = index;
+      int[] b = new int[n];
+      for (int width = 1; width < n; width *= 2) {
+         for (int lo = 0; lo < n; lo += 2 * width) {
+            int mid = Math.min(lo + width, n);
+            int hi = Math.min(lo + 2 * width, n);
+            int i = lo, j = mid;
+            for (int k = lo; k < hi; k++) {
+               if (i < mid && (j >= hi || key[a[i]] <= key[a[j]]))
+                  b[k] = a[i++];
+               else
+                  b[k] = a[j++];
+            }
+         }
+         int[] t = a;
+         a = b;
+         b = t;
+      }
+      if (a != index)
+         System.arraycopy(a, 0, index, 0, n);
+   }
+
+   // Moves point index[i] to position i, for all i, following the cycles of the
+   // permutation.
+   private void permute(int[] index) {
+      boolean[] done = new boolean[numPoints];
+      double[] first = new double[stride];
+      double[] row = new double[stride];
+      for (int k = 0; k < numPoints; k++) {
+         if (done[k])
+            continue;
+         done[k] = true;
+         if (index[k] == k)
+            continue;
+         readRow(k, first);
+         int cur = k;
+         while (index[cur] != k) {
+            int next = index[cur];
+            readRow(next, row);
+            writeRow(cur, row);
+            done[next] = true;
+            cur = next;
+         }
+         writeRow(cur, first);
+      }
+   }
+
+   /**
+    * Removes the first `d` coordinates of each cached point. This only changes
+    * the offset of the first retained coordinate, so no data is moved.
+    */
+   public void stripCoordinates(int d) {
+      if (d < 0 || d > dim)
+         throw new IllegalArgumentException("Invalid number of coordinates: " + d);
+      firstCoord += d;
+      dim -= d;
+      writeHeader();
+   }
+
+   /**
+    * Forces the changes made to the cached points to be written to the file, if
+    * they are stored in a file. Otherwise, does nothing.
+    */
+   public void force() {
+      if (header == null)
+         return;
+      header.force();
+      for (ByteBuffer b : bytes)
+         ((MappedByteBuffer) b).force();
+   }
+
+   /**
+    * Returns the file in which the points are stored, or `null` if they are
+    * stored in direct buffers.
+    */
+   public File getFile() {
+      return file;
+   }
+
+   /**
+    * Returns the reference point set that was passed to the constructor, or
+    * `null` if the points were reopened from a file.
+    */
+   public PointSet getParentPointSet() {
+      return P;
+   }
+
+   public double getCoordinate(int i, int j) {
+      double u = segs[i >>> segShift].get((i & segMask) * stride + firstCoord + j);
+      if (P == null && j < dimShift) {
+         u += shift[j];
+         if (u >= 1.0)
+            u -= 1.0;
+      }
+      return u;
+   }
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer("Off-heap cached point set" + PrintfFormat.NEWLINE);
+      sb.append(super.toString());
+      if (file != null)
+         sb.append(PrintfFormat.NEWLINE + "File: " + file);
+      if (P != null) {
+         sb.append(PrintfFormat.NEWLINE + "Cached point set information {" + PrintfFormat.NEWLINE);
+         sb.append(P.toString());
+         sb.append(PrintfFormat.NEWLINE + "}");
+      }
+      return sb.toString();
+   }
+
+// %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+//
+
+   /**
+    * This class implements a @ref OffHeapCachedPointSet iterator which takes
+    * the values directly in the buffers in which the points are cached.
+    */
+   protected class OffHeapCachedPointSetIterator extends DefaultPointSetIterator {
+
+      public void nextCoordinates(double p[], int d) {
+         if (getCurPointIndex() >= numPoints || getCurCoordIndex() + d > getDimension())
+            outOfBounds();
+         if (P == null && dimShift > 0) {
+            for (int j = 0; j < d; j++)
+               p[j] = getCoordinate(curPointIndex, curCoordIndex++);
+            return;
+         }
+         DoubleBuffer seg = segs[curPointIndex >>> segShift];
+         int k = (curPointIndex & segMask) * stride + firstCoord + curCoordIndex;
+         for (int j = 0; j < d; j++)
+            p[j] = seg.get(k + j);
+         curCoordIndex += d;
+      }
+
+   }
+
+}
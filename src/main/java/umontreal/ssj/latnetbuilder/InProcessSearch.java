@@ -0,0 +1,802 @@
+/*
+ * Class:        InProcessSearch
+ * Description:  Java implementation of the lattice searches of LatNet Builder
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2018  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package umontreal.ssj.latnetbuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import umontreal.ssj.discrepancy.Palpha;
+import umontreal.ssj.discrepancy.Searcher;
+import umontreal.ssj.discrepancy.SearcherCBC;
+import umontreal.ssj.discrepancy.SearcherFastCBC;
+import umontreal.ssj.discrepancy.SearcherKorobov;
+import umontreal.ssj.hups.DigitalNetBase2;
+import umontreal.ssj.hups.Rank1Lattice;
+import umontreal.ssj.rng.MRG32k3a;
+import umontreal.ssj.rng.RandomStream;
+import umontreal.ssj.util.Chrono;
+import umontreal.ssj.util.Num;
+
+/**
+ * Searches for ordinary and polynomial lattice rules in the same way as
+ * LatNet Builder, but in Java, for the searches of @ref Search done in
+ * process; see Search.setInProcess. The parameters are read from the string
+ * fields of the @ref Search object, with the syntax of the command line of
+ * LatNet Builder.
+ *
+ * For ordinary lattices with the @f$P_\alpha@f$ figure, the criterion is
+ * that of @ref umontreal.ssj.discrepancy.Palpha, with
+ * @f$\beta_{j+1} = \gamma_j^{1/\alpha}@f$. With product weights, the
+ * searches are done by the searchers of @ref umontreal.ssj.discrepancy,
+ * and the merit is computed by `Palpha`. The other searches, for
+ * order-dependent or POD weights, for polynomial lattice rules, whose kernel
+ * is the Walsh kernel of Dick and Pillichshammer, and for the spectral
+ * figure, are done here, with the kernel of `Palpha` for ordinary lattices,
+ * except the fast CBC construction, which uses
+ * @ref umontreal.ssj.discrepancy.SearcherFastCBC when @f$n@f$ is prime or a
+ * power of 2.
+ */
+final class InProcessSearch {
+   private static final double[] HERMITE = { 1.0, 4.0 / 3.0, 2.0, 4.0, 8.0, 64.0 / 3.0, 64.0, 256.0 }; // gamma_d^d
+
+   private final boolean polynomial; // true for polynomial lattice rules
+   private int n; // number of points
+   private int s; // dimension
+   private int m; // n = 2^m, for polynomial lattice rules
+   private int modulus; // modulus polynomial of degree m, bit i is the coefficient of z^i
+   private int alpha; // alpha of P_alpha, or 0 for the spectral figure
+   private double normType; // q, or infinity
+   private double[] gamma; // product weights, gamma[j] for coordinate j
+   private double[] orderWeights; // Gamma_l for l = 1, ..., s, or null
+   private String method; // exploration method
+   private int numRand; // number of random samples, for random explorations
+   private int[] units; // admissible values of the components
+   private RandomStream stream = new MRG32k3a();
+   private Palpha palpha; // P_alpha of ordinary lattices, or null
+
+   // Coordinate-uniform figures: omega[i] is the kernel at i/n, pointIndex[r] is
+   // v_m(r/P) times n for polynomial lattice rules, and the criterion is
+   // (1/n) sum_k sum_u w_u prod_{j in u} gamma_j omega(x_kj).
+   private double[] omega;
+   private int[] pointIndex;
+   private double[] e; // product weights: e[k] = prod_j [1 + gamma_j omega(x_kj)] - 1
+   private double[][] p; // order-dependent weights: p[l][k], sums over the sets of l coordinates
+   private double[] w; // factor of omega(x_kj) for the current coordinate j
+   private int[] idx; // index of x_kj in omega for the current candidate
+   private int[] rem; // work array for polynomial lattice rules
+   private double sum; // sum of the criterion over the points
+
+   // Spectral figure: gen is the generating vector, acc the merit of the
+   // coordinates already added, and subsets[i] are the projections, with
+   // weights subsetWeights[i], to examine when adding a coordinate.
+   private int[] gen;
+   private double acc;
+   private int[][] subsets;
+   private double[] subsetWeights;
+
+   private InProcessSearch(Search search, boolean polynomial) {
+      this.polynomial = polynomial;
+      if (search.multilevel)
+         throw new IllegalArgumentException("multilevel searches are not supported in process");
+      if (search.filters != null && search.filters.size() > 0)
+         throw new IllegalArgumentException("filters are not supported in process");
+      if (!search.interlacing().equals("1"))
+         throw new IllegalArgumentException("interlaced searches are not supported in process");
+      s = Integer.parseInt(search.dimension.trim());
+      if (s < 1)
+         throw new IllegalArgumentException("dimension must be positive");
+      long size = parseSize(search.sizeParameter);
+      if (size < 2 || size > Integer.MAX_VALUE)
+         throw new IllegalArgumentException("size parameter out of range: " + search.sizeParameter);
+      n = (int) size;
+      if (polynomial) {
+         if ((n & (n - 1)) != 0 || n > (1 << 30))
+            throw new IllegalArgumentException("the number of points must be a power of 2, at most 2^30");
+         m = Integer.numberOfTrailingZeros(n);
+         modulus = firstIrreducible(m);
+         units = null; // all the nonzero polynomials of degree < m
+      } else
+         units = units(n);
+
+      String fig = search.figure.trim();
+      if (fig.startsWith("CU:P")) {
+         alpha = Integer.parseInt(fig.substring(4));
+         if (alpha < 2 || (!polynomial && (alpha > 8 || alpha % 2 != 0)))
+            throw new IllegalArgumentException("figure " + fig + " is not supported in process");
+      } else if (fig.equals("spectral") && !polynomial)
+         alpha = 0;
+      else
+         throw new IllegalArgumentException("figure " + fig + " is not supported in process");
+      String q = search.normType.trim();
+      normType = q.equals("inf") ? Double.POSITIVE_INFINITY : Double.parseDouble(q);
+      if (alpha > 0 && normType != 2.0)
+         throw new IllegalArgumentException("coordinate-uniform figures require norm type 2");
+      if (!(normType >= 1.0))
+         throw new IllegalArgumentException("norm type must be >= 1 or inf");
+
+      if (search.weights.size() != 1)
+         throw new IllegalArgumentException("exactly one set of weights is supported in process");
+      parseWeights(search.weights.get(0));
+
+      String[] tok = search.explorationMethod.trim().split(":");
+      method = tok[0];
+      if (method.startsWith("random"))
+         numRand = tok.length > 1 ? Integer.parseInt(tok[1]) : 1;
+   }
+
+   /**
+    * Runs the search of `search`, which must be an ordinary lattice search,
+    * and returns the lattice found.
+    */
+   static Rank1Lattice searchOrdinary(OrdinaryLatticeSearch search) {
+      Chrono timer = new Chrono();
+      InProcessSearch engine = new InProcessSearch(search, false);
+      int[] a = engine.run();
+      search.merit = engine.merit(a);
+      search.time = timer.getSeconds();
+      search.successful = true;
+      return new Rank1Lattice(engine.n, a, engine.s);
+   }
+
+   /**
+    * Runs the search of `search`, which must be a polynomial lattice search,
+    * and returns the polynomial lattice rule found, as a digital net.
+    */
+   static DigitalNetBase2 searchPolynomial(PolynomialLatticeSearch search) {
+      Chrono timer = new Chrono();
+      InProcessSearch engine = new InProcessSearch(search, true);
+      int[] a = engine.run();
+      search.merit = engine.merit(a);
+      final int m = engine.m;
+      int[][][] mats = new int[engine.s][m][m];
+      for (int j = 0; j < engine.s; j++) {
+         int t = a[j];
+         for (int c = 0; c < m; c++) {
+            // column c holds the digits of v_m(z^c q_j(z) / P(z))
+            int x = engine.pointIndex[t];
+            for (int r = 0; r < m; r++)
+               mats[j][r][c] = (x >>> (m - 1 - r)) & 1;
+            t = mulMod(t, 2, engine.modulus, m);
+         }
+      }
+      search.time = timer.getSeconds();
+      search.successful = true;
+      return search.new DigitalNetBase2FromLatNetBuilder(m, m, engine.s, 1, mats);
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   // Returns the best generating vector found by the exploration method.
+   private int[] run() {
+      init();
+      int[] a = new int[s];
+      String meth = method.toLowerCase();
+      if (meth.equals("fast-cbc") && alpha == 0)
+         throw new IllegalArgumentException("fast-CBC requires a coordinate-uniform figure");
+      if (meth.equals("fast-cbc") && fastCBC(a))
+         return a;
+      if (palpha != null && orderWeights == null)
+         return searchPalpha(meth);
+      if (meth.equals("full-cbc") || meth.equals("fast-cbc") || meth.equals("random-cbc")) {
+         reset();
+         a[0] = 1;
+         prepare(0);
+         add(0, 1);
+         final int size = numUnits();
+         for (int j = 1; j < s; j++) {
+            prepare(j);
+            final int num = meth.equals("random-cbc") ? numRand : size;
+            double best = Double.MAX_VALUE;
+            int bestA = unit(0);
+            for (int i = 0; i < num; i++) {
+               int c = meth.equals("random-cbc") ? randomUnit() : unit(i);
+               double v = trial(j, c);
+               if (v < best) {
+                  best = v;
+                  bestA = c;
+               }
+            }
+            a[j] = bestA;
+            add(j, bestA);
+         }
+         return a;
+      }
+      int[] b = new int[s];
+      double best = Double.MAX_VALUE;
+      if (meth.equals("korobov") || meth.equals("random-korobov")) {
+         final boolean random = meth.equals("random-korobov");
+         final int num = random ? numRand : numUnits();
+         for (int i = 0; i < num; i++) {
+            int c = random ? randomUnit() : unit(i);
+            b[0] = 1;
+            for (int j = 1; j < s; j++)
+               b[j] = polynomial ? mulMod(b[j - 1], c, modulus, m) : (int) ((long) b[j - 1] * c % n);
+            double v = evaluate(b);
+            if (v < best) {
+               best = v;
+               System.arraycopy(b, 0, a, 0, s);
+            }
+         }
+      } else if (meth.equals("random")) {
+         for (int i = 0; i < numRand; i++) {
+            b[0] = 1;
+            for (int j = 1; j < s; j++)
+               b[j] = randomUnit();
+            double v = evaluate(b);
+            if (v < best) {
+               best = v;
+               System.arraycopy(b, 0, a, 0, s);
+            }
+         }
+      } else if (meth.equals("exhaustive")) {
+         // all the vectors with b[0] = 1, in lexicographic order
+         final int size = numUnits();
+         int[] ind = new int[s];
+         b[0] = 1;
+         for (int j = 1; j < s; j++)
+            b[j] = unit(0);
+         for (;;) {
+            double v = evaluate(b);
+            if (v < best) {
+               best = v;
+               System.arraycopy(b, 0, a, 0, s);
+            }
+            int j = s - 1;
+            while (j >= 1 && ind[j] == size - 1) {
+               ind[j] = 0;
+               b[j] = unit(0);
+               j--;
+            }
+            if (j < 1)
+               break;
+            b[j] = unit(++ind[j]);
+         }
+      } else
+         throw new IllegalArgumentException("exploration method " + method + " is not supported in process");
+      return a;
+   }
+
+   // Returns the best generating vector found by the searchers of
+   // umontreal.ssj.discrepancy, for P_alpha with product weights.
+   private int[] searchPalpha(String meth) {
+      final boolean primeN = units.length == n - 1;
+      if (s == 1 || units.length == 1) {
+         // a single generating vector: the searchers need s >= 2, and
+         // SearcherKorobov starts at a = 2
+         int[] a = new int[s];
+         Arrays.fill(a, 1);
+         return a;
+      }
+      Searcher searcher;
+      if (meth.equals("full-cbc") || meth.equals("fast-cbc")) {
+         searcher = new SearcherCBC(palpha, primeN);
+         searcher.exhaustPrime(s);
+      } else if (meth.equals("random-cbc")) {
+         searcher = new SearcherCBC(palpha, primeN);
+         searcher.randomPrime(s, numRand);
+      } else if (meth.equals("korobov")) {
+         searcher = new SearcherKorobov(palpha, primeN);
+         searcher.exhaustPrime(s);
+      } else if (meth.equals("random-korobov")) {
+         searcher = new SearcherKorobov(palpha, primeN);
+         searcher.randomPrime(s, numRand);
+      } else if (meth.equals("random")) {
+         searcher = new Searcher(palpha, primeN);
+         searcher.randomPrime(s, numRand);
+      } else if (meth.equals("exhaustive")) {
+         searcher = new Searcher(palpha, primeN);
+         searcher.exhaustPrime(s);
+      } else
+         throw new IllegalArgumentException("exploration method " + method + " is not supported in process");
+      return searcher.getBestAs().clone();
+   }
+
+   // Tries the fast CBC construction of SearcherFastCBC, which requires n prime
+   // or a power of 2. Returns false if it cannot be used.
+   private boolean fastCBC(int[] a) {
+      if (polynomial || (units.length != n - 1 && (n & (n - 1)) != 0))
+         return false;
+      SearcherFastCBC searcher = new SearcherFastCBC(palpha, units.length == n - 1, orderWeights);
+      searcher.exhaustPrime(s);
+      System.arraycopy(searcher.getBestAs(), 0, a, 0, s);
+      return true;
+   }
+
+   private void init() {
+      if (alpha == 0) {
+         gen = new int[s];
+         return;
+      }
+      omega = new double[n];
+      if (polynomial) {
+         // Walsh kernel of Dick and Pillichshammer: omega(x) = mu - b^{v-1}(mu + 1)
+         // for x in [2^{-v}, 2^{1-v}), with b = 2^{1-alpha} and mu = 1/(1-b)
+         final double b = Math.pow(2.0, 1 - alpha);
+         final double mu = 1.0 / (1.0 - b);
+         omega[0] = mu;
+         for (int v = 1; v <= m; v++) {
+            final double val = mu - Math.pow(b, v - 1) * (mu + 1.0);
+            for (int i = 1 << (m - v); i < 1 << (m - v + 1); i++)
+               omega[i] = val;
+         }
+         pointIndex = new int[n];
+         for (int r = 0; r < n; r++) {
+            int x = 0;
+            int t = r;
+            for (int i = 0; i < m; i++) {
+               t <<= 1;
+               final int bit = (t >>> m) & 1;
+               if (bit != 0)
+                  t ^= modulus;
+               x = (x << 1) | bit;
+            }
+            pointIndex[r] = x;
+         }
+         rem = new int[n];
+      } else {
+         // the factor of Palpha for coordinate j is beta[j+1]^alpha omega(x)
+         double[] beta = new double[s + 1];
+         beta[0] = 1.0;
+         for (int j = 0; j < s; j++)
+            beta[j + 1] = Math.pow(gamma[j], 1.0 / alpha);
+         palpha = new Palpha(n, s, beta, alpha);
+         // omega(x) is the P_alpha of the single point x in dimension 1
+         Palpha kernel = new Palpha(alpha);
+         final double[] unit = { 1.0, 1.0 };
+         double[][] x = new double[1][1];
+         for (int i = 0; i < n; i++) {
+            x[0][0] = (double) i / n;
+            omega[i] = kernel.compute(x, 1, 1, unit);
+         }
+      }
+      w = new double[n];
+      idx = new int[n];
+      if (orderWeights == null)
+         e = new double[n];
+      else
+         p = new double[s + 1][];
+   }
+
+   // Removes all the coordinates.
+   private void reset() {
+      if (alpha == 0) {
+         acc = 0.0;
+         return;
+      }
+      sum = 0.0;
+      if (orderWeights == null)
+         Arrays.fill(e, 0.0);
+      else
+         for (int l = 1; l <= s; l++)
+            p[l] = null;
+   }
+
+   // Prepares the addition of coordinate j.
+   private void prepare(int j) {
+      if (alpha == 0) {
+         ArrayList<int[]> list = new ArrayList<int[]>();
+         ArrayList<Double> weights = new ArrayList<Double>();
+         int[] u = new int[j + 1];
+         u[0] = j;
+         addSubsets(list, weights, u, 1, j - 1, gamma[j]);
+         subsets = list.toArray(new int[list.size()][]);
+         subsetWeights = new double[weights.size()];
+         for (int i = 0; i < subsetWeights.length; i++)
+            subsetWeights[i] = weights.get(i);
+         return;
+      }
+      if (orderWeights == null) {
+         for (int k = 0; k < n; k++)
+            w[k] = 1.0 + e[k];
+      } else {
+         Arrays.fill(w, orderWeights[1]);
+         for (int l = 2; l <= j + 1; l++) {
+            final double g = orderWeights[l];
+            final double[] pl = p[l - 1];
+            for (int k = 0; k < n; k++)
+               w[k] += g * pl[k];
+         }
+      }
+   }
+
+   // Adds to list the projections made of u[0..size-1] and of coordinates
+   // <= last, with at least 2 coordinates and a nonzero weight.
+   private void addSubsets(ArrayList<int[]> list, ArrayList<Double> weights, int[] u, int size, int last,
+         double prod) {
+      if (prod == 0.0)
+         return;
+      if (size >= 2) {
+         final double wu = (orderWeights == null) ? prod : prod * orderWeights[size];
+         if (wu != 0.0) {
+            list.add(Arrays.copyOf(u, size));
+            weights.add(wu);
+         }
+      }
+      if (orderWeights != null && size < s) {
+         // stop when all the order-dependent weights of larger orders are 0
+         boolean zero = true;
+         for (int l = size + 1; l <= s && zero; l++)
+            zero = orderWeights[l] == 0.0;
+         if (zero)
+            return;
+      }
+      for (int r = last; r >= 0; r--) {
+         u[size] = r;
+         addSubsets(list, weights, u, size + 1, r - 1, prod * gamma[r]);
+      }
+   }
+
+   // Returns the value to minimize if coordinate j has the component c.
+   private double trial(int j, int c) {
+      if (alpha == 0) {
+         gen[j] = c;
+         double v = acc;
+         for (int i = 0; i < subsets.length; i++) {
+            final double d = spectral(subsets[i]);
+            if (normType == Double.POSITIVE_INFINITY)
+               v = Math.max(v, subsetWeights[i] * d);
+            else
+               v += subsetWeights[i] * Math.pow(d, normType);
+         }
+         return v;
+      }
+      setIndices(c);
+      final double g = gamma[j];
+      double v = 0.0;
+      for (int k = 0; k < n; k++)
+         v += omega[idx[k]] * w[k];
+      return sum + g * v;
+   }
+
+   // Adds coordinate j with the component c; prepare(j) must have been called.
+   private void add(int j, int c) {
+      sum = trial(j, c);
+      if (alpha == 0) {
+         acc = sum;
+         return;
+      }
+      final double g = gamma[j];
+      if (orderWeights == null) {
+         for (int k = 0; k < n; k++)
+            e[k] += g * omega[idx[k]] * (1.0 + e[k]);
+      } else {
+         p[j + 1] = new double[n];
+         for (int l = j + 1; l >= 1; l--) {
+            final double[] pl = p[l];
+            final double[] pm = p[l - 1];
+            for (int k = 0; k < n; k++)
+               pl[k] += (l == 1) ? g * omega[idx[k]] : g * omega[idx[k]] * pm[k];
+         }
+      }
+   }
+
+   // Returns the merit of the generating vector a found by the search.
+   private double merit(int[] a) {
+      if (palpha != null && orderWeights == null)
+         return Math.sqrt(palpha.compute(new Rank1Lattice(n, a, s), palpha.getGamma()));
+      return evaluate(a);
+   }
+
+   // Returns the merit of the coordinates added.
+   private double merit() {
+      if (alpha == 0)
+         return (normType == Double.POSITIVE_INFINITY) ? acc : Math.pow(acc, 1.0 / normType);
+      return Math.sqrt(sum / n);
+   }
+
+   // Returns the merit of the generating vector a.
+   private double evaluate(int[] a) {
+      reset();
+      for (int j = 0; j < s; j++) {
+         prepare(j);
+         add(j, a[j]);
+      }
+      return merit();
+   }
+
+   // Sets idx[k] to the index of x_kj in omega, for the component c.
+   private void setIndices(int c) {
+      if (polynomial) {
+         // k(z) c(z) mod P, from the products z^i c(z) mod P
+         int[] t = new int[m];
+         t[0] = c;
+         for (int i = 1; i < m; i++)
+            t[i] = mulMod(t[i - 1], 2, modulus, m);
+         rem[0] = 0;
+         idx[0] = pointIndex[0];
+         for (int k = 1; k < n; k++) {
+            rem[k] = rem[k & (k - 1)] ^ t[Integer.numberOfTrailingZeros(k)];
+            idx[k] = pointIndex[rem[k]];
+         }
+      } else {
+         long kc = 0;
+         for (int k = 0; k < n; k++) {
+            idx[k] = (int) kc;
+            kc += c;
+            if (kc >= n)
+               kc -= n;
+         }
+      }
+   }
+
+   // Normalized spectral test of the projection u of the lattice with
+   // generating vector gen: the upper bound on the length of a shortest
+   // nonzero vector of the dual lattice, divided by that length.
+   private double spectral(int[] u) {
+      final int d = u.length;
+      long[][] b = new long[d][d];
+      final long inv = inverse(gen[u[0]], n);
+      b[0][0] = n;
+      for (int i = 1; i < d; i++) {
+         long r = n - gen[u[i]] * inv % n;
+         if (r > n / 2)
+            r -= n;
+         b[i][0] = r;
+         b[i][i] = 1;
+      }
+      final double len2 = shortest(b, d);
+      double g;
+      if (d <= HERMITE.length)
+         g = Math.pow(HERMITE[d - 1], 1.0 / d);
+      else
+         // Minkowski bound, from the volume of the unit ball
+         g = 4.0 * Math.exp(-2.0 / d * (0.5 * d * Math.log(Math.PI) - Num.lnGamma(0.5 * d + 1.0)));
+      return Math.sqrt(g) * Math.pow(n, 1.0 / d) / Math.sqrt(len2);
+   }
+
+   // Returns the squared length of a shortest nonzero vector of the lattice
+   // with basis b, which is reduced with the LLL algorithm then searched with
+   // the Fincke-Pohst enumeration.
+   private static double shortest(long[][] b, int d) {
+      double[][] mu = new double[d][d];
+      double[] bb = new double[d];
+      gramSchmidt(b, d, mu, bb);
+      int k = 1;
+      while (k < d) {
+         for (int j = k - 1; j >= 0; j--) {
+            final long r = Math.round(mu[k][j]);
+            if (r != 0) {
+               for (int i = 0; i < d; i++)
+                  b[k][i] -= r * b[j][i];
+               for (int i = 0; i < j; i++)
+                  mu[k][i] -= r * mu[j][i];
+               mu[k][j] -= r;
+            }
+         }
+         if (bb[k] >= (0.99 - mu[k][k - 1] * mu[k][k - 1]) * bb[k - 1])
+            k++;
+         else {
+            long[] t = b[k];
+            b[k] = b[k - 1];
+            b[k - 1] = t;
+            gramSchmidt(b, d, mu, bb);
+            k = Math.max(k - 1, 1);
+         }
+      }
+      double best = Double.MAX_VALUE;
+      for (int i = 0; i < d; i++) {
+         double len = 0.0;
+         for (int l = 0; l < d; l++)
+            len += (double) b[i][l] * b[i][l];
+         best = Math.min(best, len);
+      }
+      return enumerate(b, d, mu, bb, new long[d], d - 1, 0.0, best);
+   }
+
+   private static double enumerate(long[][] b, int d, double[][] mu, double[] bb, long[] x, int k, double partial,
+         double best) {
+      double c = 0.0;
+      for (int i = k + 1; i < d; i++)
+         c -= x[i] * mu[i][k];
+      final double r = Math.sqrt(Math.max(0.0, (best - partial) / bb[k]));
+      final long hi = (long) Math.floor(c + r + 1e-9);
+      for (long xk = (long) Math.ceil(c - r - 1e-9); xk <= hi; xk++) {
+         final double np = partial + (xk - c) * (xk - c) * bb[k];
+         if (np > best * (1.0 + 1e-9))
+            continue;
+         x[k] = xk;
+         if (k > 0)
+            best = enumerate(b, d, mu, bb, x, k - 1, np, best);
+         else {
+            double len = 0.0;
+            for (int l = 0; l < d; l++) {
+               long v = 0;
+               for (int i = 0; i < d; i++)
+                  v += x[i] * b[i][l];
+               len += (double) v * v;
+            }
+            if (len > 0.0 && len < best)
+               best = len;
+         }
+      }
+      x[k] = 0;
+      return best;
+   }
+
+   private static void gramSchmidt(long[][] b, int d, double[][] mu, double[] bb) {
+      double[][] bs = new double[d][d];
+      for (int i = 0; i < d; i++) {
+         for (int l = 0; l < d; l++)
+            bs[i][l] = b[i][l];
+         for (int j = 0; j < i; j++) {
+            double dot = 0.0;
+            for (int l = 0; l < d; l++)
+               dot += b[i][l] * bs[j][l];
+            mu[i][j] = dot / bb[j];
+            for (int l = 0; l < d; l++)
+               bs[i][l] -= mu[i][j] * bs[j][l];
+         }
+         double len = 0.0;
+         for (int l = 0; l < d; l++)
+            len += bs[i][l] * bs[i][l];
+         bb[i] = len;
+      }
+   }
+
+   private int numUnits() {
+      return polynomial ? n - 1 : units.length;
+   }
+
+   private int unit(int i) {
+      return polynomial ? i + 1 : units[i];
+   }
+
+   private int randomUnit() {
+      return unit(stream.nextInt(0, numUnits() - 1));
+   }
+
+   // Values in [1, n) relatively prime to n.
+   private static int[] units(int n) {
+      int[] u = new int[n - 1];
+      int num = 0;
+      for (int a = 1; a < n; a++) {
+         int x = n, y = a;
+         while (y != 0) {
+            int t = x % y;
+            x = y;
+            y = t;
+         }
+         if (x == 1)
+            u[num++] = a;
+      }
+      return Arrays.copyOf(u, num);
+   }
+
+   private static long inverse(long a, long n) {
+      long t = 0, newT = 1, r = n, newR = a % n;
+      while (newR != 0) {
+         final long quo = r / newR;
+         long tmp = t - quo * newT;
+         t = newT;
+         newT = tmp;
+         tmp = r - quo * newR;
+         r = newR;
+         newR = tmp;
+      }
+      return t < 0 ? t + n : t;
+   }
+
+   // a(z) b(z) mod P(z), for a of degree < m
+   private static int mulMod(int a, int b, int p, int m) {
+      final int top = 1 << m;
+      int r = 0;
+      while (b != 0) {
+         if ((b & 1) != 0)
+            r ^= a;
+         b >>>= 1;
+         a <<= 1;
+         if ((a & top) != 0)
+            a ^= p;
+      }
+      return r;
+   }
+
+   // a(z) mod b(z)
+   private static int polyMod(int a, int b) {
+      final int db = 31 - Integer.numberOfLeadingZeros(b);
+      for (int da = 31 - Integer.numberOfLeadingZeros(a); da >= db; da = 31 - Integer.numberOfLeadingZeros(a))
+         a ^= b << (da - db);
+      return a;
+   }
+
+   // Smallest irreducible polynomial of degree m, by the test of Rabin.
+   private static int firstIrreducible(int m) {
+      for (int p = (1 << m) | 1;; p += 2) {
+         // z^{2^i} mod p for i = 1, ..., m
+         int[] zp = new int[m + 1];
+         zp[0] = polyMod(2, p);
+         for (int i = 1; i <= m; i++)
+            zp[i] = mulMod(zp[i - 1], zp[i - 1], p, m);
+         boolean irred = zp[m] == zp[0];
+         for (int t = 2; t <= m && irred; t++) {
+            if (m % t != 0 || !isPrime(t))
+               continue;
+            int a = p, b = zp[m / t] ^ zp[0];
+            while (b != 0) {
+               int r = polyMod(a, b);
+               a = b;
+               b = r;
+            }
+            irred = a == 1;
+         }
+         if (irred)
+            return p;
+      }
+   }
+
+   private static boolean isPrime(int t) {
+      for (int i = 2; i * i <= t; i++)
+         if (t % i == 0)
+            return false;
+      return true;
+   }
+
+   // Parses "n" or "b^e".
+   private static long parseSize(String size) {
+      String[] tok = size.trim().split("\\^");
+      if (tok.length == 1)
+         return Long.parseLong(tok[0]);
+      long b = Long.parseLong(tok[0]);
+      int e = Integer.parseInt(tok[1]);
+      long r = 1;
+      for (int i = 0; i < e && r <= Integer.MAX_VALUE; i++)
+         r *= b;
+      return r;
+   }
+
+   // Parses the product, order-dependent and POD weights, in the format of
+   // the toLatNetBuilder methods of the classes of
+   // umontreal.ssj.latnetbuilder.weights.
+   private void parseWeights(String weights) {
+      String[] tok = weights.trim().split(":");
+      gamma = new double[s];
+      if (tok[0].equals("product") && tok.length <= 3) {
+         setWeights(gamma, 0, tok[1], tok.length > 2 ? tok[2] : null);
+      } else if (tok[0].equals("order-dependent") && tok.length <= 3) {
+         Arrays.fill(gamma, 1.0);
+         orderWeights = new double[s + 1];
+         setWeights(orderWeights, 1, tok[1], tok.length > 2 ? tok[2] : null);
+      } else if (tok[0].equals("POD") && tok.length >= 3 && tok.length <= 5) {
+         // POD:default[:list]:default[:list]; with four fields, the second one
+         // is the list of order-dependent weights if it has a comma
+         final boolean odList = tok.length == 5 || (tok.length == 4 && tok[2].indexOf(',') >= 0);
+         final int i = odList ? 3 : 2;
+         orderWeights = new double[s + 1];
+         setWeights(orderWeights, 1, tok[1], odList ? tok[2] : null);
+         setWeights(gamma, 0, tok[i], tok.length > i + 1 ? tok[i + 1] : null);
+      } else
+         throw new IllegalArgumentException("weights " + weights + " are not supported in process");
+   }
+
+   private static void setWeights(double[] w, int first, String def, String list) {
+      Arrays.fill(w, first, w.length, Double.parseDouble(def));
+      if (list == null)
+         return;
+      String[] tok = list.split(",");
+      for (int i = 0; i < tok.length && first + i < w.length; i++)
+         w[first + i] = Double.parseDouble(tok[i]);
+   }
+}
@@ -40,6 +40,8 @@ public class OrdinaryLatticeSearch extends Search {
     */
    @Override
    public Rank1Lattice search() throws RuntimeException {
+      if (inProcess)
+         return InProcessSearch.searchOrdinary(this);
       ArrayList<String> res = executeCommandLine();
       int numPoints = Integer.parseInt(res.get(1).split("  //")[0]);
       int dimension = Integer.parseInt(res.get(2).split("  //")[0]);
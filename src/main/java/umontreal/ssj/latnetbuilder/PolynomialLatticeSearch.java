@@ -25,6 +25,8 @@
 
 package umontreal.ssj.latnetbuilder;
 
+import umontreal.ssj.hups.DigitalNetBase2;
+
 /**
  * Class for the search of good polynomial lattice rules using LatNet Builder.
  */
@@ -44,6 +46,16 @@ public class PolynomialLatticeSearch extends DigitalNetSearch {
       this.pointSetType = pointSetType;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public DigitalNetBase2 search() throws RuntimeException {
+      if (inProcess)
+         return InProcessSearch.searchPolynomial(this);
+      return super.search();
+   }
+
    /**
     * {@inheritDoc}
     */
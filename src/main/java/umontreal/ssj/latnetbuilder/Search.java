@@ -43,6 +43,13 @@ import umontreal.ssj.hups.PointSet;
  * "http://umontreal-simul.github.io/latnetbuilder/de/db5/cmdtut_summary.html">Summary
  * of Command-Line Options</a> of LatNet Builder for details about the various
  * fields of this class.
+ *
+ * By default, #search runs the LatNet Builder executable in a new process and
+ * reads its results from the output folder. For @ref OrdinaryLatticeSearch
+ * and @ref PolynomialLatticeSearch, the search can also be done in process,
+ * by a Java implementation of the most common searches, which avoids the
+ * cost of starting a process and writing files, and does not need LatNet
+ * Builder; see #setInProcess.
  */
 abstract public class Search {
 
@@ -63,6 +70,7 @@ abstract public class Search {
    boolean successful;
    double merit;
    double time;
+   boolean inProcess; // true to search in Java instead of calling LatNet Builder
 
    /**
     * Constructor.
@@ -314,6 +322,61 @@ abstract public class Search {
       this.pathToOutputFolder = path;
    }
 
+   /**
+    * Chooses whether #search is done in process, in Java, instead of by the
+    * LatNet Builder executable. This is supported only by
+    * @ref OrdinaryLatticeSearch and @ref PolynomialLatticeSearch, for a
+    * single level, without filters or interlacing, and with the following
+    * parameters:
+    * - figure of merit `CU:P`@f$\alpha@f$, with norm type 2, and @f$\alpha=
+    *   2, 4, 6, 8@f$ for ordinary lattices or any integer @f$\alpha\ge2@f$
+    *   for polynomial lattices, where the kernel is that of Dick and
+    *   Pillichshammer; or `spectral`, for ordinary lattices, with any norm
+    *   type, over the projections of order 2 or more;
+    * - one set of product, order-dependent or POD weights, in the format
+    *   returned by the `toLatNetBuilder` methods of the classes of
+    *   @ref umontreal.ssj.latnetbuilder.weights, with the weights already
+    *   raised to the power of the norm type, as in LatNet Builder;
+    * - exploration method `exhaustive`, `random:`@f$r@f$, `Korobov`,
+    *   `random-Korobov:`@f$r@f$, `full-CBC`, `random-CBC:`@f$r@f$ or
+    *   `fast-CBC`; the latter uses @ref umontreal.ssj.discrepancy.SearcherFastCBC
+    *   when the number of points of an ordinary lattice is prime or a power
+    *   of 2, and otherwise gives the same result as `full-CBC`; for ordinary
+    *   lattices with `CU:P`@f$\alpha@f$ and product weights, the other
+    *   methods use @ref umontreal.ssj.discrepancy.SearcherCBC,
+    *   @ref umontreal.ssj.discrepancy.SearcherKorobov and
+    *   @ref umontreal.ssj.discrepancy.Searcher, whose random searches use the
+    *   generator set by `Searcher.initGen`, and whose Korobov searches start
+    *   at @f$a=2@f$;
+    * - size parameter @f$n@f$ or @f$b^e@f$; for polynomial lattices, it must
+    *   be a power of 2, @f$2^m@f$, and the modulus is the smallest irreducible
+    *   polynomial of degree @f$m@f$.
+    *
+    * The components of the generating vectors are relatively prime to the
+    * modulus, and the first one is 1. The merit is
+    * @f$(\sum_{\mathfrak{u}} w_{\mathfrak{u}} D_{\mathfrak{u}}^q)^{1/q}@f$,
+    * or @f$\max_{\mathfrak{u}} w_{\mathfrak{u}} D_{\mathfrak{u}}@f$ if
+    * @f$q=\infty@f$, where @f$D_{\mathfrak{u}}^2@f$ is the
+    * @f$P_\alpha@f$ criterion of the projection @f$\mathfrak{u}@f$, or
+    * @f$D_{\mathfrak{u}}@f$ is the bound on the length of a shortest vector
+    * of its dual lattice divided by that length, for the spectral figure.
+    * The time returned by #time is that of the whole search.
+    *
+    * @param inProcess `true` to search in Java, `false` to call LatNet Builder
+    * @exception IllegalArgumentException when #search is called in process
+    *                                     with unsupported parameters
+    */
+   public void setInProcess(boolean inProcess) {
+      this.inProcess = inProcess;
+   }
+
+   /**
+    * Returns `true` if the search is done in process; see #setInProcess.
+    */
+   public boolean isInProcess() {
+      return inProcess;
+   }
+
    /*
     * public static Search fromJSON(String json) {
     * 
@@ -18,6 +18,8 @@
  * For this package to work, `LatNet Builder` must be installed and the path to it must be set correctly
  * inside the class @ref Search.  Note that `LatNet Builder` does not run directly under *Windows*,
  * but only under Linux or in Windows in a virtual machine; see the `LatNet Builder` documentation.
+ * The most common searches for ordinary and polynomial lattice rules can also be done in process,
+ * by a Java implementation that does not need `LatNet Builder`; see Search.setInProcess.
  * 
  */
 
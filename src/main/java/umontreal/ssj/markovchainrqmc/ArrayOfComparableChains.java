@@ -11,6 +11,10 @@ import java.io.IOException;
 import java.io.Writer;
 import java.io.FileWriter;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * This class provides tools to simulate an array of
@@ -68,6 +72,17 @@ import java.lang.reflect.Array;
  *      digital nets and lattice rules) and others for which all @f$\ell’ +
  *      d@f$ coordinates must be randomized (e.g., a stratified sample).
  *
+ *      In parallel mode (see #setParallel), the chains are advanced by chunks
+ *      of consecutive chains in the common fork-join pool. Each chain uses the
+ *      same point as in sequential mode, so the results do not change. The
+ *      chains must then not share mutable objects, and the point set must
+ *      support several iterators at the same time, which is the case for
+ *      @ref umontreal.ssj.hups.CachedPointSet. The sorts of @ref
+ *      umontreal.ssj.util.multidimsort.SplitSort, @ref
+ *      umontreal.ssj.util.multidimsort.BatchSort and @ref
+ *      umontreal.ssj.util.multidimsort.HilbertCurveSort have their own
+ *      parallel mode, which must be selected separately.
+ *
  *
  *      <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
  */
@@ -80,6 +95,7 @@ public class ArrayOfComparableChains<T extends MarkovChainComparable> {
    protected PointSetRandomization randomization;
    protected MultiDimSort<T> savedSort;
    protected int sortCoordPts = 0; // Point coordinates used to sort points.
+   protected boolean parallel = false; // True if the chains advance in parallel.
 
    /**
     * Performance measure at each step of the chain.
@@ -188,6 +204,22 @@ public class ArrayOfComparableChains<T extends MarkovChainComparable> {
       return savedSort;
    }
 
+   /**
+    * If `parallel` is `true`, the chains will be advanced in parallel at each
+    * step of the array-RQMC simulations; otherwise (the default), they are
+    * advanced one after the other.
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   /**
+    * Returns `true` if the chains are advanced in parallel.
+    */
+   public boolean isParallel() {
+      return parallel;
+   }
+
    /**
     * Randomized the point set `p` and Simulates the @f$n@f$ copies of the chain,
     * one step for each copy, using
@@ -216,25 +248,73 @@ public class ArrayOfComparableChains<T extends MarkovChainComparable> {
          else
             ((CachedPointSet) p).sortByCoordinate(0); // Sort by first coordinate.
       }
-      PointSetIterator stream = p.iterator();
-      stream.resetCurPointIndex(); // Go to first point.
-      int i = 0;
-      for (T mc : chains) { // Assume the chains are sorted
-         if (mc.hasStopped()) {
-            ++nStopped;
-         } else {
-            stream.setCurCoordIndex(sortCoordPts); // Skip first sortCoordPts coord.
-            mc.nextStep(stream); // simulate next step of the chain.
-            stream.resetNextSubstream(); // Go to next point.
-            if (mc.hasStopped())
+      if (parallel)
+         nStopped = nextStepParallel(p, sortCoordPts);
+      else {
+         PointSetIterator stream = p.iterator();
+         stream.resetCurPointIndex(); // Go to first point.
+         int i = 0;
+         for (T mc : chains) { // Assume the chains are sorted
+            if (mc.hasStopped()) {
                ++nStopped;
+            } else {
+               stream.setCurCoordIndex(sortCoordPts); // Skip first sortCoordPts coord.
+               mc.nextStep(stream); // simulate next step of the chain.
+               stream.resetNextSubstream(); // Go to next point.
+               if (mc.hasStopped())
+                  ++nStopped;
+            }
+            performances[i] = mc.getPerformance();
+            ++i;
          }
-         performances[i] = mc.getPerformance();
-         ++i;
       }
       return n - nStopped;
    }
 
+   // Advances the chains one step, by chunks processed in parallel, and returns
+   // the number of chains that are stopped after this step. As in the
+   // sequential loop, the stopped chains do not consume a point, so each chunk
+   // starts at the point whose index is the number of running chains before it.
+   private int nextStepParallel(PointSet p, final int sortCoordPts) {
+      int numChunks = Math.max(1, Math.min(n / 1024, 4 * ForkJoinPool.getCommonPoolParallelism()));
+      final int[] nStopped = new int[numChunks];
+      List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(numChunks);
+      int point = 0;
+      int lo = 0;
+      for (int c = 0; c < numChunks; c++) {
+         final int chunk = c;
+         final int from = lo;
+         final int to = (int) ((long) n * (c + 1) / numChunks);
+         final PointSetIterator stream = p.iterator();
+         stream.setCurPointIndex(point);
+         tasks.add(ForkJoinTask.adapt(new Runnable() {
+            public void run() {
+               for (int i = from; i < to; i++) {
+                  T mc = chains[i];
+                  if (mc.hasStopped()) {
+                     ++nStopped[chunk];
+                  } else {
+                     stream.setCurCoordIndex(sortCoordPts); // Skip first sortCoordPts coord.
+                     mc.nextStep(stream); // simulate next step of the chain.
+                     stream.resetNextSubstream(); // Go to next point.
+                     if (mc.hasStopped())
+                        ++nStopped[chunk];
+                  }
+                  performances[i] = mc.getPerformance();
+               }
+            }
+         }));
+         for (; lo < to; lo++)
+            if (!chains[lo].hasStopped())
+               ++point;
+      }
+      ForkJoinTask.invokeAll(tasks);
+      int sum = 0;
+      for (int c = 0; c < numChunks; c++)
+         sum += nStopped[c];
+      return sum;
+   }
+
    /**
     * This version uses the preselected randomization and sort, with `sortCoordPts
     * = 0`.
@@ -283,21 +363,25 @@ public class ArrayOfComparableChains<T extends MarkovChainComparable> {
             else
                ((CachedPointSet) p).sortByCoordinate(0); // Sort by first coordinate.
          }
-         PointSetIterator stream = p.iterator();
-         stream.resetCurPointIndex(); // Go to first point.
-         int i = 0;
-         for (T mc : chains) { // Assume the chains are sorted
-            if (mc.hasStopped()) {
-               numNotStopped--;
-            } else {
-               stream.setCurCoordIndex(sortCoordPts); // Skip first sortCoordPts coord.
-               mc.nextStep(stream); // simulate next step of the chain.
-               stream.resetNextSubstream(); // Go to next point.
-               if (mc.hasStopped())
+         if (parallel)
+            numNotStopped -= nextStepParallel(p, sortCoordPts);
+         else {
+            PointSetIterator stream = p.iterator();
+            stream.resetCurPointIndex(); // Go to first point.
+            int i = 0;
+            for (T mc : chains) { // Assume the chains are sorted
+               if (mc.hasStopped()) {
                   numNotStopped--;
+               } else {
+                  stream.setCurCoordIndex(sortCoordPts); // Skip first sortCoordPts coord.
+                  mc.nextStep(stream); // simulate next step of the chain.
+                  stream.resetNextSubstream(); // Go to next point.
+                  if (mc.hasStopped())
+                     numNotStopped--;
+               }
+               performances[i] = mc.getPerformance();
+               ++i;
             }
-            performances[i] = mc.getPerformance();
-            ++i;
          }
          ++step;
       }
@@ -7,6 +7,14 @@ import umontreal.ssj.stat.list.ListOfTallies;
 import umontreal.ssj.stat.list.lincv.ListOfTalliesWithCV;
 import umontreal.ssj.util.Chrono;
 import umontreal.ssj.util.PrintfFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Provides basic generic tools to perform RQMC experiments
@@ -48,6 +56,82 @@ public class RQMCExperiment extends MonteCarloExperiment {
       }
    }
 
+   /**
+    * Parallel version of
+    * {@link #simulReplicatesRQMC(MonteCarloModelDouble, PointSet, PointSetRandomization, int, Tally)}.
+    * The `m` replications are distributed over `models.length` worker threads.
+    * Worker @f$k@f$ simulates the model `models[k]` with the point set `sets[k]`,
+    * so the point sets in `sets` must be distinct objects that all contain the
+    * same (non-randomized) points, e.g., constructed with the same parameters,
+    * and the models must not share mutable state.
+    *
+    * Before each replication is handed to a worker, the point set of that worker
+    * is randomized with `rand` in the calling thread, in the order of the
+    * replications. The random numbers used by the randomizations are thus taken
+    * from the stream of `rand` exactly as in the sequential method, and each
+    * replication runs on its own randomized copy. The `m` averages are added to
+    * `statReps` in the order of the replications once they are all available, so
+    * the results are the same, bit for bit, as with the sequential method with
+    * `models[0]` and `sets[0]`, regardless of the number of threads.
+    *
+    * @param models   one model per worker thread
+    * @param sets     one copy of the point set per worker thread
+    * @param rand     the point set randomization, used only by the calling thread
+    * @param m        number of independent replications
+    * @param statReps statistical collector for the `m` RQMC averages
+    */
+   public static void simulReplicatesRQMCParallel(MonteCarloModelDouble[] models, PointSet[] sets,
+         PointSetRandomization rand, int m, Tally statReps) {
+      int numWorkers = models.length;
+      if (numWorkers < 1 || sets.length != numWorkers)
+         throw new IllegalArgumentException("need one model and one point set per worker");
+      int n = sets[0].getNumPoints();
+      for (int k = 1; k < numWorkers; k++)
+         if (sets[k] == sets[0] || sets[k].getNumPoints() != n)
+            throw new IllegalArgumentException("the point sets must be distinct copies of the same point set");
+      final double[] averages = new double[m];
+      final Tally[] statValues = new Tally[numWorkers];
+      final PointSetIterator[] streams = new PointSetIterator[numWorkers];
+      final BlockingQueue<Integer> freeWorkers = new ArrayBlockingQueue<Integer>(numWorkers);
+      for (int k = 0; k < numWorkers; k++) {
+         statValues[k] = new Tally();
+         streams[k] = sets[k].iterator();
+         freeWorkers.add(k);
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
+      List<Future<?>> results = new ArrayList<Future<?>>(m);
+      try {
+         for (int rep = 0; rep < m; rep++) {
+            final int k = freeWorkers.take();
+            final int r = rep;
+            rand.randomize(sets[k]);
+            results.add(executor.submit(new Runnable() {
+               public void run() {
+                  try {
+                     streams[k].resetStartStream();
+                     simulateRuns(models[k], n, streams[k], statValues[k]);
+                     averages[r] = statValues[k].average();
+                  } finally {
+                     freeWorkers.add(k);
+                  }
+               }
+            }));
+         }
+         for (Future<?> f : results)
+            f.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException("interrupted while waiting for the replications", e);
+      } catch (ExecutionException e) {
+         throw new IllegalStateException("a replication failed", e.getCause());
+      } finally {
+         executor.shutdownNow();
+      }
+      statReps.init();
+      for (int rep = 0; rep < m; rep++)
+         statReps.add(averages[rep]);
+   }
+
    /**
     * Same as `simulReplicatesRQMC`, except that all the `n` observations for each
     * the `m` replications are saved and returned in a new two-dimensional array
@@ -11,7 +11,8 @@ import java.util.*;
  * Partial variance estimator.
  *
  * Estimates partial variances of a model with respect to multiple coordinate
- * sets.
+ * sets. See also SobolIndicesEstimator, which also estimates total variances,
+ * shares the model runs between the sets and can run them in parallel.
  *
  * Reference: Monte Carlo estimators for small sensitivity indices I. M. Sobol'
  * and E. E. Myshetskaya Monte Carlo Methods Appl. Vol. 13 No. 5-6 (2007), pp.
@@ -132,18 +133,33 @@ public class PartialVarianceEstimator implements MonteCarloModel<double[]> {
 
       for (int j = 0; j < nSets; j++) {
 
-         // FIXME: check if the current coordinate set contains all coordinates
-         // and reuse var[nSets] if applicable.
-
-         s.setCoordinates(coordSets.get(j));
-         s.resetStartSubstream();
-         model.simulate(s);
-         double valPartial = model.getPerformance() - approxMean;
+         // reuse valAll and valNone for the sets that select all the
+         // coordinates or none of them
+         CoordinateSet cs = coordSets.get(j);
+         double valPartial;
+         if (cs.cardinality() == 0)
+            valPartial = valNone;
+         else if (containsAll(cs, model.getDimension()))
+            valPartial = valAll;
+         else {
+            s.setCoordinates(cs);
+            s.resetStartSubstream();
+            model.simulate(s);
+            valPartial = model.getPerformance() - approxMean;
+         }
 
          vars[j] = valAll * (valPartial - valNone);
       }
    }
 
+   // returns true if cs contains the coordinates 0, ..., dim - 1
+   private static boolean containsAll(CoordinateSet cs, int dim) {
+      for (int c = 0; c < dim; c++)
+         if (!cs.contains(c))
+            return false;
+      return true;
+   }
+
    public double[] getPerformance() {
       return vars;
    }
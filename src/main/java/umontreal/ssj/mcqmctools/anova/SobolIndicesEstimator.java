@@ -0,0 +1,397 @@
+package umontreal.ssj.mcqmctools.anova;
+
+import umontreal.ssj.rng.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Sobol' sensitivity indices estimator.
+ *
+ * Estimates the first-order (closed) and total Sobol' indices of a model with
+ * respect to multiple coordinate sets, with the pick-freeze design of Saltelli.
+ * Each sample draws two independent input points \f$\mathbf{a}\f$ and
+ * \f$\mathbf{b}\f$, and for each coordinate set \f$u\f$, the point
+ * \f$\mathbf{c}_u\f$ made of the coordinates of \f$\mathbf{b}\f$ in \f$u\f$
+ * and of \f$\mathbf{a}\f$ elsewhere. With \f$f\f$ the model minus the
+ * approximate mean, the estimators are averages over the samples of
+ *
+ * \li \f$f(\mathbf{b})\,[f(\mathbf{c}_u) - f(\mathbf{a})]\f$ for the closed
+ * first-order variance (Saltelli, 2010), the same as PartialVarianceEstimator;
+ * \li \f$[f(\mathbf{a}) - f(\mathbf{c}_u)]^2/2\f$ for the total variance
+ * (Jansen, 1999).
+ *
+ * The two base points are shared by all the sets, so the first-order and total
+ * indices of \f$d\f$ single coordinates take \f$d + 2\f$ model runs per
+ * sample. The evaluations are also shared between the sets that select the
+ * same coordinates: the empty set and the set of all the coordinates reuse
+ * \f$f(\mathbf{a})\f$ and \f$f(\mathbf{b})\f$, and duplicate sets are run
+ * once. See getNumEvaluations().
+ *
+ * The samples are simulated by batches: simulate(RandomStream, int) draws the
+ * base points of the batch, then runs the model on all the points of each
+ * evaluation in turn. When several copies of the model are given to the
+ * constructor and the parallel mode is on, the evaluations are distributed
+ * among the copies and run in parallel, one copy per thread; the results are
+ * the same as in sequential mode. The uniforms are drawn as in SplitStream,
+ * so for the same stream, the model is run on the same points as with
+ * PartialVarianceEstimator.
+ *
+ * The coordinate sets are read with CoordinateSet.contains() for the
+ * coordinates below the dimension of the model. Since CoordinateSetLong holds
+ * at most 64 coordinates, the constructors without coordinate sets, which
+ * consider each single coordinate, should be used for larger models.
+ *
+ * Reference: Variance based sensitivity analysis of model output. Design and
+ * estimator for the total sensitivity index. A. Saltelli, P. Annoni, I. Azzini,
+ * F. Campolongo, M. Ratto and S. Tarantola, Computer Physics Communications
+ * Vol. 181 No. 2 (2010), pp. 259-270
+ *
+ */
+public class SobolIndicesEstimator {
+
+   // copies of the model whose indices are to be estimated
+   protected MonteCarloModelDoubleRQMC[] models;
+
+   // approximation to the average
+   protected double approxMean;
+
+   // coordinate sets to be considered, or null for the single coordinates
+   protected List<CoordinateSet> coordSets;
+
+   protected boolean parallel;
+
+   // number of uniforms of the model
+   private int dim;
+
+   // evaluations: masks[e][c] is true if coordinate c is taken from b;
+   // evaluation 0 is at a and evaluation 1 at b
+   private boolean[][] masks;
+
+   // evalIndex[j]: evaluation of coordinate set j
+   private int[] evalIndex;
+
+   // sums over the samples
+   private int numSamples;
+   private double sumA, sumB, sumSquares;
+   private double[] sumFirst, sumTotal;
+
+   /**
+    * Constructs an estimator of the indices of each single coordinate of \c
+    * model.
+    *
+    * Best precision is achieved when the mean value of the model is close to \c
+    * approxMean.
+    *
+    */
+   public SobolIndicesEstimator(MonteCarloModelDoubleRQMC model, double approxMean) {
+      this(new MonteCarloModelDoubleRQMC[] { model }, approxMean, null);
+   }
+
+   /**
+    * Constructs an estimator of the indices of the coordinate sets \c coordSets
+    * of \c model.
+    *
+    */
+   public SobolIndicesEstimator(MonteCarloModelDoubleRQMC model, double approxMean,
+         List<CoordinateSet> coordSets) {
+      this(new MonteCarloModelDoubleRQMC[] { model }, approxMean, coordSets);
+   }
+
+   /**
+    * Constructs an estimator of the indices of the coordinate sets \c
+    * coordSets, or of each single coordinate if \c coordSets is \c null, for
+    * the model of which \c models are independent copies. The copies must give
+    * the same results, and are used by the threads in parallel mode.
+    *
+    */
+   public SobolIndicesEstimator(MonteCarloModelDoubleRQMC[] models, double approxMean,
+         List<CoordinateSet> coordSets) {
+      if (models == null || models.length == 0)
+         throw new IllegalArgumentException("no model");
+      for (MonteCarloModelDoubleRQMC m : models) {
+         if (m == null || m.getDimension() != models[0].getDimension())
+            throw new IllegalArgumentException("the models must be copies of the same model");
+      }
+      this.models = models;
+      this.approxMean = approxMean;
+      this.coordSets = coordSets;
+      this.dim = models[0].getDimension();
+      initEvaluations();
+      init();
+   }
+
+   public MonteCarloModelDoubleRQMC getModel() {
+      return models[0];
+   }
+
+   public double getApproximateMean() {
+      return approxMean;
+   }
+
+   /**
+    * Returns the list of coordinate sets under consideration, or \c null if the
+    * single coordinates are considered.
+    *
+    */
+   public List<CoordinateSet> getCoordinateSets() {
+      return coordSets;
+   }
+
+   /**
+    * Returns the number of coordinate sets under consideration.
+    *
+    */
+   public int getNumSets() {
+      return evalIndex.length;
+   }
+
+   /**
+    * Returns the number of model runs per sample, which is 2 plus the number
+    * of distinct sets that are neither empty nor the set of all coordinates.
+    *
+    */
+   public int getNumEvaluations() {
+      return masks.length;
+   }
+
+   /**
+    * Sets the parallel mode. In parallel mode, the evaluations of a batch are
+    * distributed among the copies of the model given to the constructor, and
+    * run in parallel in the common fork-join pool. By default, the parallel
+    * mode is off.
+    *
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   public boolean isParallel() {
+      return parallel;
+   }
+
+   /**
+    * Discards all the samples.
+    *
+    */
+   public void init() {
+      numSamples = 0;
+      sumA = sumB = sumSquares = 0;
+      sumFirst = new double[evalIndex.length];
+      sumTotal = new double[evalIndex.length];
+   }
+
+   /**
+    * Simulates a batch of \c n samples with the uniforms of \c stream, and adds
+    * them to the previous samples.
+    *
+    */
+   public void simulate(RandomStream stream, int n) {
+      if (n < 1)
+         throw new IllegalArgumentException("n must be positive");
+
+      // base points: b at even indices and a at odd indices, as in SplitStream
+      final double[][] vals = new double[n][2 * dim];
+      for (int i = 0; i < n; i++)
+         stream.nextArrayOfDouble(vals[i], 0, 2 * dim);
+
+      final int nEvals = masks.length;
+      final double[][] f = new double[nEvals][n];
+      final int nTasks = parallel ? Math.min(models.length, nEvals) : 1;
+      if (nTasks > 1) {
+         List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(nTasks);
+         for (int t = 0; t < nTasks; t++) {
+            final int task = t;
+            tasks.add(ForkJoinTask.adapt(new Runnable() {
+               public void run() {
+                  for (int e = task; e < masks.length; e += nTasks)
+                     evaluate(models[task], e, vals, f[e]);
+               }
+            }));
+         }
+         ForkJoinTask.invokeAll(tasks);
+      } else {
+         for (int e = 0; e < nEvals; e++)
+            evaluate(models[0], e, vals, f[e]);
+      }
+
+      final double[] fa = f[0];
+      final double[] fb = f[1];
+      for (int i = 0; i < n; i++) {
+         sumA += fa[i];
+         sumB += fb[i];
+         sumSquares += fa[i] * fa[i] + fb[i] * fb[i];
+      }
+      for (int j = 0; j < evalIndex.length; j++) {
+         final double[] fc = f[evalIndex[j]];
+         double first = 0;
+         double total = 0;
+         for (int i = 0; i < n; i++) {
+            first += fb[i] * (fc[i] - fa[i]);
+            total += (fa[i] - fc[i]) * (fa[i] - fc[i]);
+         }
+         sumFirst[j] += first;
+         sumTotal[j] += 0.5 * total;
+      }
+      numSamples += n;
+   }
+
+   /**
+    * Returns the number of samples simulated since the last call to init().
+    *
+    */
+   public int getNumSamples() {
+      return numSamples;
+   }
+
+   /**
+    * Returns the estimated mean of the model, over the two base points.
+    *
+    */
+   public double getMean() {
+      return approxMean + (sumA + sumB) / (2.0 * numSamples);
+   }
+
+   /**
+    * Returns the estimated variance of the model, over the two base points.
+    *
+    */
+   public double getVariance() {
+      double m = (sumA + sumB) / (2.0 * numSamples);
+      return sumSquares / (2.0 * numSamples) - m * m;
+   }
+
+   /**
+    * Returns the estimated closed first-order variance of coordinate set \c j,
+    * that is, the variance of the conditional expectation of the model given
+    * the coordinates in the set.
+    *
+    */
+   public double getFirstOrderVariance(int j) {
+      return sumFirst[j] / numSamples;
+   }
+
+   /**
+    * Returns the estimated total variance of coordinate set \c j, that is, the
+    * expected conditional variance of the model given the coordinates outside
+    * the set.
+    *
+    */
+   public double getTotalVariance(int j) {
+      return sumTotal[j] / numSamples;
+   }
+
+   /**
+    * Returns the estimated closed first-order Sobol' index of coordinate set \c
+    * j.
+    *
+    */
+   public double getFirstOrderIndex(int j) {
+      return getFirstOrderVariance(j) / getVariance();
+   }
+
+   /**
+    * Returns the estimated total Sobol' index of coordinate set \c j.
+    *
+    */
+   public double getTotalIndex(int j) {
+      return getTotalVariance(j) / getVariance();
+   }
+
+   /**
+    * Returns a description of the estimator.
+    *
+    */
+   @Override
+   public String toString() {
+      String s = String.format("Sobol' Indices Estimator" + " [model=%s] [evaluations=%d]", models[0].toString(),
+            masks.length);
+      return s;
+   }
+
+   // builds the distinct evaluations and the evaluation of each set
+   private void initEvaluations() {
+      int nSets = (coordSets == null) ? dim : coordSets.size();
+      evalIndex = new int[nSets];
+      Map<BitSet, Integer> index = new HashMap<BitSet, Integer>();
+      List<boolean[]> list = new ArrayList<boolean[]>();
+      BitSet none = new BitSet(dim);
+      BitSet all = new BitSet(dim);
+      all.set(0, dim);
+      index.put(none, 0);
+      list.add(new boolean[dim]);
+      index.put(all, 1);
+      boolean[] maskAll = new boolean[dim];
+      Arrays.fill(maskAll, true);
+      list.add(maskAll);
+      for (int j = 0; j < nSets; j++) {
+         boolean[] mask = new boolean[dim];
+         BitSet key = new BitSet(dim);
+         for (int c = 0; c < dim; c++) {
+            mask[c] = (coordSets == null) ? c == j : coordSets.get(j).contains(c);
+            if (mask[c])
+               key.set(c);
+         }
+         Integer e = index.get(key);
+         if (e == null) {
+            e = list.size();
+            index.put(key, e);
+            list.add(mask);
+         }
+         evalIndex[j] = e;
+      }
+      masks = list.toArray(new boolean[list.size()][]);
+   }
+
+   // runs model at the points of evaluation e of the batch
+   private void evaluate(MonteCarloModelDoubleRQMC model, int e, double[][] vals, double[] f) {
+      MixedStream s = new MixedStream(masks[e]);
+      for (int i = 0; i < vals.length; i++) {
+         s.setValues(vals[i]);
+         model.simulate(s);
+         f[i] = model.getPerformance() - approxMean;
+      }
+   }
+
+   // returns the coordinates of b in the mask and of a elsewhere
+   private static class MixedStream extends RandomStreamBase {
+      private final boolean[] mask;
+      private double[] vals;
+      private int curCoordIndex;
+
+      MixedStream(boolean[] mask) {
+         this.mask = mask;
+      }
+
+      void setValues(double[] vals) {
+         this.vals = vals;
+         curCoordIndex = 0;
+      }
+
+      @Override
+      protected double nextValue() {
+         int a = mask[curCoordIndex] ? 0 : 1;
+         return vals[2 * (curCoordIndex++) + a];
+      }
+
+      @Override
+      public void resetNextSubstream() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void resetStartStream() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void resetStartSubstream() {
+         curCoordIndex = 0;
+      }
+
+      @Override
+      public String toString() {
+         return getClass().getSimpleName();
+      }
+   }
+}
@@ -138,6 +138,49 @@ public class BetaDist extends ContinuousDistribution {
       return a + (b - a) * inverseF(alpha, beta, u);
    }
 
+   /**
+    * Computes #inverseF(double) at the `n` values `u[start]`, ...,
+    * `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. The logarithm of the beta function is computed only
+    * once. If @f$\alpha\le1@f$ or @f$\beta\le1@f$, the inversion used by
+    * #inverseF(double) starts with a slow interval halving; in that case, when
+    * a value of `u` is slightly larger than the previous one, the root is
+    * found instead by #inverseNewton in the interval between the previous
+    * root and @f$b@f$, starting from the previous root.
+    */
+   @Override
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (!inverseFDeclaredIn(BetaDist.class)) {
+         super.inverseF(u, out, start, n);
+         return;
+      }
+      final double WARMGAP = 1.0 / 32.0;
+      final double tol = EPSARRAY[decPrec];
+      final boolean warm = alpha <= 1.0 || beta <= 1.0;
+      final double lgmAB = Num.lnGamma(alpha + beta) - Num.lnGamma(alpha) - Num.lnGamma(beta);
+      final double lgmBA = Num.lnGamma(beta + alpha) - Num.lnGamma(beta) - Num.lnGamma(alpha);
+      double uPrev = Double.NaN;
+      double xPrev = a;
+      for (int i = start; i < start + n; i++) {
+         double v = u[i];
+         double x;
+         if (v == uPrev)
+            x = xPrev;
+         else if (!(v > 0.0 && v < 1.0))
+            x = inverseF(v);
+         else {
+            x = Double.NaN;
+            if (warm && v > uPrev && v - uPrev < WARMGAP)
+               x = inverseNewton(xPrev, b, v, xPrev, tol);
+            if (Double.isNaN(x))
+               x = a + (b - a) * inverseCephes(alpha, beta, v, lgmAB, lgmBA);
+         }
+         out[i] = x;
+         uPrev = v;
+         xPrev = x;
+      }
+   }
+
    @Override
    public double getMean() {
       return BetaDist.getMean(alpha, beta, a, b);
@@ -385,6 +428,14 @@ public class BetaDist extends ContinuousDistribution {
          return 0;
       if (u >= 1)
          return 1;
+      return inverseCephes(alpha, beta, u, Double.NaN, Double.NaN);
+   }
+
+   // Does the work of inverseF(alpha, beta, d, u) for 0 < u < 1. If they are
+   // not NaN, lgmAB and lgmBA are the precomputed values of
+   // lnGamma(alpha + beta) - lnGamma(alpha) - lnGamma(beta) and of
+   // lnGamma(beta + alpha) - lnGamma(beta) - lnGamma(alpha).
+   private static double inverseCephes(double alpha, double beta, double u, double lgmAB, double lgmBA) {
       /*
        * Code taken from Cephes Math Library Release 2.8: June, 2000 Copyright 1984,
        * 1996, 2000 by Stephen L. Moshier
@@ -519,7 +570,9 @@ public class BetaDist extends ContinuousDistribution {
             if (nflg)
                break mainloop;
             nflg = true;
-            lgm = Num.lnGamma(p + q) - Num.lnGamma(p) - Num.lnGamma(q);
+            lgm = rflg ? lgmBA : lgmAB;
+            if (Double.isNaN(lgm))
+               lgm = Num.lnGamma(p + q) - Num.lnGamma(p) - Num.lnGamma(q);
 
             for (i = 0; i < 8; i++) {
                /* Compute the function at this point. */
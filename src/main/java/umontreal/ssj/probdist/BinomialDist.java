@@ -98,7 +98,9 @@ public class BinomialDist extends DiscreteDistributionInt {
     * {@link REF_probdist_BinomialDist_eq_fmass_binomial fmass-binomial} ),
     * for @f$0\le x\le n@f$, and the corresponding cumulative function. These
     * values are computed and stored in dynamic arrays, unless @f$n@f$ exceeds
-    * `MAXN`.
+    * `MAXN`. The arrays are shared with the other objects created with the
+    * same @f$n@f$ and @f$p@f$ while they remain in the cache of tables (see
+    * DiscreteDistributionInt.setTableCacheSize).
     */
    public BinomialDist(int n, double p) {
       setBinomial(n, p);
@@ -229,6 +231,20 @@ public class BinomialDist extends DiscreteDistributionInt {
          return super.inverseFInt(u);
    }
 
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, by a search in the precomputed table as in
+    * umontreal.ssj.probdist.DiscreteDistributionInt.inverseF(double[],double[],int,int),
+    * except for the values of `u` that #inverseFInt does not handle with the
+    * table.
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (cdf == null || !inverseFIntDeclaredIn(BinomialDist.class))
+         super.inverseF(u, out, start, n);
+      else
+         inverseFTable(u, out, start, n, EPS2);
+   }
+
    public double getMean() {
       return BinomialDist.getMean(n, p);
    }
@@ -709,6 +725,8 @@ public class BinomialDist extends DiscreteDistributionInt {
          cdf = null;
          return;
       }
+      if (tablesFromCache(BinomialDist.class, n, p))
+         return;
 
       P = new double[1 + n];
       F = new double[1 + n];
@@ -780,7 +798,7 @@ public class BinomialDist extends DiscreteDistributionInt {
       cdf = new double[imax + 1 - imin];
       System.arraycopy(P, imin, pdf, 0, imax + 1 - imin);
       System.arraycopy(F, imin, cdf, 0, imax + 1 - imin);
-
+      tablesToCache(BinomialDist.class, n, p);
    }
 
    /**
@@ -0,0 +1,481 @@
+/*
+ * Class:        CachedInverseDistribution
+ * Description:  tabulated inverse of an arbitrary continuous distribution
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.probdist;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import umontreal.ssj.util.Misc;
+
+/**
+ * This container class takes a continuous distribution whose inverse
+ * distribution function is expensive to compute, and replaces this function by
+ * a fast approximation. As in @ref InverseDistFromDensity @cite rDER09a, the
+ * inverse is approximated by Newton interpolating polynomials in @f$u@f$ over
+ * small intervals, but the values of @f$u@f$ at the interpolation points are
+ * computed with the exact distribution function of the original distribution,
+ * instead of by numerical integration of the density. The intervals are chosen
+ * so that the @f$u@f$-resolution is smaller than `eps`, i.e., for @f$x@f$
+ * returned by #inverseF(double), @f$|F(x) - u| \le@f$ `eps` at test points in
+ * each interval, where @f$F@f$ is the original distribution function.
+ *
+ * The table covers @f$u \in[10^{-10}, 1 - 10^{-10}]@f$; for @f$u@f$ outside
+ * this interval, #inverseF(double) calls the inverse of the original
+ * distribution. Near a pole of the density or in a long tail, the intervals
+ * shrink geometrically, down to a length relative to their position. If the
+ * resolution `eps` still cannot be reached on an interval, for example because
+ * @f$F@f$ is not accurate enough there, #inverseF(double) also calls the
+ * inverse of the original distribution for the @f$u@f$ in that interval, so
+ * the table never returns a value that misses `eps` at the test points. The
+ * other methods, such as #cdf and #density, are those of the original
+ * distribution.
+ *
+ * The table is built once by the constructor and is never modified after, so an
+ * object of this class can be shared by several threads, provided the original
+ * distribution can. The table can also be saved to a file with #save, and read
+ * back with
+ * #CachedInverseDistribution(ContinuousDistribution,File), which avoids
+ * building it again in subsequent runs.
+ *
+ * The setup takes a few thousand evaluations of @f$F@f$, so this class is
+ * useful when many inverses are needed, for distributions such as
+ * @ref ChiSquareNoncentralDist or @ref InverseGaussianDist whose `inverseF`
+ * uses a root-finding method. The original distribution must implement `cdf`;
+ * for a distribution that does not, such as
+ * @ref NormalInverseGaussianDist, use @ref InverseDistFromDensity.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup probdist_general
+ */
+public class CachedInverseDistribution extends ContinuousDistribution {
+   private static final int MAGIC = 0x53534a49; // "SSJI"
+   private static final int VERSION = 1;
+   private static final double UTAIL = 1.0e-10; // tails not in the table
+   private static final int K0 = 128; // initial number of intervals
+   private static final double HMIN = 1.0e-12; // smallest relative interval
+
+   private final ContinuousDistribution dist;
+   private final double epsu;
+   private final int order;
+   private final double uLow; // F(A[0])
+   private final double uHigh; // F(A[numIntervals])
+   private final int numIntervals;
+   private final double[] A; // left ends of the intervals in x
+   private final double[] F; // F(A[k])
+   private final double[] U; // interpolation u-points: U[k*(order+1) + j]
+   private final double[] C; // Newton coefficients: C[k*(order+1) + j]
+   private final int[] index; // for indexed search in F
+
+   /**
+    * Builds a table for the inverse of `dist`, with @f$u@f$-resolution `eps`
+    * and interpolating polynomials of degree 5. Values of `eps` from
+    * @f$10^{-6}@f$ to @f$10^{-12}@f$ are usually good choices.
+    *
+    * @param dist the original distribution
+    * @param eps  the @f$u@f$-resolution
+    */
+   public CachedInverseDistribution(ContinuousDistribution dist, double eps) {
+      this(dist, eps, 5);
+   }
+
+   /**
+    * Builds a table for the inverse of `dist`, with @f$u@f$-resolution `eps`
+    * and interpolating polynomials of degree `order`. Restrictions: @f$3 \le
+    * \mathtt{order} \le12@f$ and @f$10^{-15} \le\mathtt{eps} < 10^{-2}@f$.
+    *
+    * @param dist  the original distribution
+    * @param eps   the @f$u@f$-resolution
+    * @param order the degree of the interpolating polynomials
+    * @exception IllegalArgumentException if `dist` does not implement `cdf`
+    */
+   public CachedInverseDistribution(ContinuousDistribution dist, double eps, int order) {
+      if (order < 3 || order > 12)
+         throw new IllegalArgumentException("order must be in [3, 12]");
+      if (!(eps >= 1.0e-15 && eps < 1.0e-2))
+         throw new IllegalArgumentException("eps must be in [1e-15, 1e-2)");
+      this.dist = dist;
+      this.epsu = eps;
+      this.order = order;
+      supportA = dist.getXinf();
+      supportB = dist.getXsup();
+
+      final int n = order;
+      double[] z = new double[n + 1];
+      double[] xs = new double[n + 1];
+      double[] us = new double[n + 1];
+      double[] cs = new double[n + 1];
+      double[] vs = new double[n + 1];
+      calcChebyZ(z, n);
+
+      double xlow, xhigh, flow;
+      try {
+         xlow = dist.inverseF(UTAIL);
+         xhigh = dist.inverseF(1.0 - UTAIL);
+         flow = dist.cdf(xlow);
+      } catch (UnsupportedOperationException e) {
+         throw new IllegalArgumentException(
+               dist.getClass().getSimpleName() + " has no cdf: use InverseDistFromDensity instead");
+      }
+      int cap = K0;
+      double[] a = new double[cap + 1];
+      double[] f = new double[cap + 1];
+      double[] uu = new double[cap * (n + 1)];
+      double[] cc = new double[cap * (n + 1)];
+      a[0] = xlow;
+      f[0] = flow;
+      double h = (xhigh - xlow) / K0;
+      final double epsTarget = 0.9 * eps;
+      int k = 0;
+      while (a[k] < xhigh) {
+         // The smallest step is relative to a[k], so that the intervals can
+         // shrink geometrically near a pole at 0 or in a tail
+         final double hmin = Math.max(HMIN * Math.abs(a[k]), Double.MIN_NORMAL);
+         final double h0 = Math.min(Math.max(h, hmin), xhigh - a[k]);
+         h = h0;
+         double err;
+         while (true) {
+            err = fitInterval(a[k], f[k], h, z, xs, us, cs, vs);
+            if (err <= epsTarget || h <= hmin)
+               break;
+            // far from the tolerance, shrink on a log scale
+            h *= (err > 1.0e3 * epsTarget) ? 0.1 : 0.8;
+            if (h < hmin)
+               h = hmin;
+         }
+         if (k + 1 >= cap) {
+            cap *= 2;
+            a = Arrays.copyOf(a, cap + 1);
+            f = Arrays.copyOf(f, cap + 1);
+            uu = Arrays.copyOf(uu, cap * (n + 1));
+            cc = Arrays.copyOf(cc, cap * (n + 1));
+         }
+         if (err <= epsTarget) {
+            System.arraycopy(us, 0, uu, k * (n + 1), n + 1);
+            System.arraycopy(cs, 0, cc, k * (n + 1), n + 1);
+            a[k + 1] = (a[k] + h >= xhigh) ? xhigh : a[k] + h;
+            f[k + 1] = f[k] + us[n];
+            if (err < epsTarget / 100.0)
+               h *= 2.0;
+            else if (err < epsTarget / 3.0)
+               h *= 1.3;
+         } else {
+            // The tolerance cannot be met even with the smallest step: this
+            // interval, of the initial length, is marked by a NaN
+            // coefficient, and inverseF uses the original distribution on it
+            h = h0;
+            Arrays.fill(uu, k * (n + 1), (k + 1) * (n + 1), 0.0);
+            Arrays.fill(cc, k * (n + 1), (k + 1) * (n + 1), Double.NaN);
+            a[k + 1] = (a[k] + h >= xhigh) ? xhigh : a[k] + h;
+            f[k + 1] = dist.cdf(a[k + 1]);
+            if (!(f[k + 1] >= f[k]))
+               f[k + 1] = f[k];
+         }
+         k++;
+      }
+      numIntervals = k;
+      A = Arrays.copyOf(a, k + 1);
+      F = Arrays.copyOf(f, k + 1);
+      U = Arrays.copyOf(uu, k * (n + 1));
+      C = Arrays.copyOf(cc, k * (n + 1));
+      uLow = F[0];
+      uHigh = F[k];
+      index = createIndex(F, k);
+   }
+
+   /**
+    * Reads a table saved by #save for the distribution `dist`. The class and
+    * the parameters of `dist` must be the same as those of the distribution for
+    * which the table was built.
+    *
+    * @param dist the original distribution
+    * @param file file containing the table
+    * @exception IOException              if the file cannot be read
+    * @exception IllegalArgumentException if the file does not contain a table
+    *                                     for `dist`
+    */
+   public CachedInverseDistribution(ContinuousDistribution dist, File file) throws IOException {
+      this.dist = dist;
+      supportA = dist.getXinf();
+      supportB = dist.getXsup();
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+         if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IllegalArgumentException("not a table of inverse distribution function: " + file);
+         String name = in.readUTF();
+         double[] params = new double[in.readInt()];
+         for (int i = 0; i < params.length; i++)
+            params[i] = in.readDouble();
+         if (!name.equals(dist.getClass().getName()) || !Arrays.equals(params, dist.getParams()))
+            throw new IllegalArgumentException("the table in " + file + " was built for another distribution: " + name
+                  + " " + Arrays.toString(params));
+         epsu = in.readDouble();
+         order = in.readInt();
+         numIntervals = in.readInt();
+         A = readArray(in, numIntervals + 1);
+         F = readArray(in, numIntervals + 1);
+         U = readArray(in, numIntervals * (order + 1));
+         C = readArray(in, numIntervals * (order + 1));
+      } finally {
+         in.close();
+      }
+      uLow = F[0];
+      uHigh = F[numIntervals];
+      index = createIndex(F, numIntervals);
+   }
+
+   /**
+    * Saves the table to file `file`, which can then be read by
+    * #CachedInverseDistribution(ContinuousDistribution,File).
+    *
+    * @param file file where the table is written
+    * @exception IOException if the file cannot be written
+    */
+   public void save(File file) throws IOException {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      try {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeUTF(dist.getClass().getName());
+         double[] params = dist.getParams();
+         out.writeInt(params.length);
+         for (double p : params)
+            out.writeDouble(p);
+         out.writeDouble(epsu);
+         out.writeInt(order);
+         out.writeInt(numIntervals);
+         writeArray(out, A);
+         writeArray(out, F);
+         writeArray(out, U);
+         writeArray(out, C);
+      } finally {
+         out.close();
+      }
+   }
+
+   private static double[] readArray(DataInputStream in, int n) throws IOException {
+      double[] t = new double[n];
+      for (int i = 0; i < n; i++)
+         t[i] = in.readDouble();
+      return t;
+   }
+
+   private static void writeArray(DataOutputStream out, double[] t) throws IOException {
+      for (int i = 0; i < t.length; i++)
+         out.writeDouble(t[i]);
+   }
+
+   private double fitInterval(double a, double fa, double h, double[] z, double[] xs, double[] us, double[] cs,
+         double[] vs) {
+      // Interpolates x - a as a function of u - fa at the Chebyshev points in
+      // [a, a + h], and returns the largest u-error at the test points.
+      final int n = order;
+      for (int j = 0; j <= n; j++) {
+         xs[j] = h * z[j];
+         us[j] = (j == 0) ? 0.0 : dist.cdf(a + xs[j]) - fa;
+         if (j > 0 && !(us[j] > us[j - 1]))
+            return Double.POSITIVE_INFINITY;
+      }
+      Misc.interpol(n, us, xs, cs);
+      calcTestPoints(us, vs, n);
+      double err = 0.0;
+      for (int j = 1; j <= n; j++) {
+         double e = testPoint(a, fa, us, cs, vs[j]);
+         if (!(e <= err))
+            err = e;
+      }
+      // Extra points near the ends, where the error is largest when the density
+      // has a pole or vanishes at an end of the interval
+      for (double r = 0.25; r > 0.01; r *= 0.25) {
+         double e = Math.max(testPoint(a, fa, us, cs, r * us[1]),
+               testPoint(a, fa, us, cs, us[n] - r * (us[n] - us[n - 1])));
+         if (!(e <= err))
+            err = e;
+      }
+      return err;
+   }
+
+   private double testPoint(double a, double fa, double[] us, double[] cs, double v) {
+      double x = Misc.evalPoly(order, us, cs, v);
+      return Math.abs(dist.cdf(a + x) - fa - v);
+   }
+
+   private static void calcChebyZ(double[] z, int n) {
+      // Chebyshev points in [0, 1], as in InverseDistFromDensity
+      double phi = Math.PI / 2.0 / (n + 1);
+      double c = Math.cos(phi);
+      double y;
+      double temp = 0;
+      for (int j = 0; j < n; j++) {
+         y = temp;
+         temp = Math.sin((j + 1) * phi);
+         y *= temp;
+         z[j] = y / c;
+      }
+      z[n] = 1;
+   }
+
+   private static void calcTestPoints(double[] u, double[] t, int n) {
+      // Points where the interpolation error is largest, approximately:
+      // routine NTest in cite{rDER09a}
+      t[0] = 0;
+      for (int k = 1; k <= n; k++) {
+         t[k] = (u[k - 1] + u[k]) / 2.;
+         for (int j = 0; j < 2; j++) {
+            double s = 0;
+            double sq = 0;
+            for (int i = 0; i <= n; i++) {
+               double tem = t[k] - u[i];
+               if (tem == 0.)
+                  break;
+               tem = 1.0 / tem;
+               s += tem;
+               sq += tem * tem;
+            }
+            if (sq != 0.)
+               t[k] += s / sq;
+         }
+      }
+   }
+
+   private static int[] createIndex(double[] F, int kmax) {
+      // index[i] is the interval that contains u = i/imax
+      final int imax = 2 * kmax;
+      int[] index = new int[imax + 1];
+      int k = 0;
+      for (int i = 0; i <= imax; i++) {
+         double u = (double) i / imax;
+         while (k < kmax - 1 && u >= F[k + 1])
+            k++;
+         index[i] = k;
+      }
+      return index;
+   }
+
+   /**
+    * Returns an approximation of the inverse distribution function of the
+    * original distribution at @f$u@f$, computed by interpolation in the table
+    * if @f$u \in[10^{-10}, 1 - 10^{-10}]@f$, and by the original distribution
+    * otherwise.
+    */
+   public double inverseF(double u) {
+      if (!(u >= uLow && u < uHigh))
+         return dist.inverseF(u);
+      final int imax = index.length - 1;
+      int k = index[(int) (u * imax)];
+      while (k < numIntervals - 1 && u >= F[k + 1])
+         k++;
+      // The index may point slightly too far because of rounding in u*imax
+      while (k > 0 && u < F[k])
+         k--;
+      final int off = k * (order + 1);
+      if (Double.isNaN(C[off]))
+         return dist.inverseF(u);
+      final double z = u - F[k];
+      double v = C[off + order];
+      for (int j = order - 1; j >= 0; --j)
+         v = v * (z - U[off + j]) + C[off + j];
+      double x = A[k] + v;
+      // Keep the result in the interval, so it is monotone across intervals
+      if (x < A[k])
+         return A[k];
+      if (x > A[k + 1])
+         return A[k + 1];
+      return x;
+   }
+
+   public double density(double x) {
+      return dist.density(x);
+   }
+
+   public double cdf(double x) {
+      return dist.cdf(x);
+   }
+
+   public double barF(double x) {
+      return dist.barF(x);
+   }
+
+   public double getMean() {
+      return dist.getMean();
+   }
+
+   public double getVariance() {
+      return dist.getVariance();
+   }
+
+   public double getStandardDeviation() {
+      return dist.getStandardDeviation();
+   }
+
+   /**
+    * Returns the original distribution.
+    */
+   public ContinuousDistribution getDistribution() {
+      return dist;
+   }
+
+   /**
+    * Returns the @f$u@f$-resolution `eps` associated with this object.
+    */
+   public double getEpsilon() {
+      return epsu;
+   }
+
+   /**
+    * Returns the degree of the interpolating polynomials.
+    */
+   public int getOrder() {
+      return order;
+   }
+
+   /**
+    * Returns the number of intervals in the table.
+    */
+   public int getNumIntervals() {
+      return numIntervals;
+   }
+
+   /**
+    * Returns the parameters of the original distribution.
+    */
+   public double[] getParams() {
+      return dist.getParams();
+   }
+
+   /**
+    * Returns a `String` containing information about the current distribution.
+    */
+   public String toString() {
+      return getClass().getSimpleName() + " : eps = " + epsu + ", order = " + order + ", " + numIntervals
+            + " intervals, for " + dist;
+   }
+}
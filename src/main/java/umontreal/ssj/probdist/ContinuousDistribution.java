@@ -349,6 +349,139 @@ public abstract class ContinuousDistribution implements Distribution {
       return inverseBrent(iv[0], iv[1], u, EPSARRAY[decPrec]);
    }
 
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. If the subclass does not override #inverseF(double),
+    * each root is found with the Brent-Dekker method, as in #inverseF(double).
+    * When the values of `u` are sorted in increasing order, the root for the
+    * previous value is then used as the left endpoint of the search interval,
+    * and the interval is found by doubling the last step, instead of starting
+    * from scratch each time. Otherwise, this method calls #inverseF(double) for
+    * each value.
+    *
+    * @param u     values in the interval @f$(0,1)@f$ for which the inverse
+    *              distribution function is evaluated
+    * @param out   array receiving the values of the inverse distribution
+    *              function
+    * @param start index of the first value in `u` and `out`
+    * @param n     number of values
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (!inverseFDeclaredIn(ContinuousDistribution.class)) {
+         for (int i = start; i < start + n; i++)
+            out[i] = inverseF(u[i]);
+         return;
+      }
+      final double tol = EPSARRAY[decPrec];
+      double uPrev = Double.NaN;
+      double xPrev = 0.0;
+      double step = 1.0;
+      for (int i = start; i < start + n; i++) {
+         double v = u[i];
+         double x;
+         if (v == uPrev)
+            x = xPrev;
+         else if (v > uPrev && v < 1.0 && Double.isFinite(xPrev) && cdf(xPrev) <= v) {
+            // The root is larger than xPrev: search to the right of xPrev
+            double a = xPrev;
+            double b = Math.min(xPrev + step, supportB);
+            while (cdf(b) < v) {
+               a = b;
+               step *= 2.0;
+               b = Math.min(xPrev + step, supportB);
+            }
+            x = inverseBrent(a, b, v, tol);
+         } else
+            x = inverseF(v);
+         if (!Double.isFinite(xPrev))
+            step = 1.0;
+         else if (x > xPrev && v > uPrev)
+            step = x - xPrev;
+         out[i] = x;
+         uPrev = v;
+         xPrev = x;
+      }
+   }
+
+   // Class that declares the method inverseF(double) of each subclass,
+   // found by reflection once per class.
+   private static final ClassValue<Class<?>> INVERSE_F_DECLARER = new ClassValue<Class<?>>() {
+      protected Class<?> computeValue(Class<?> type) {
+         try {
+            return type.getMethod("inverseF", double.class).getDeclaringClass();
+         } catch (NoSuchMethodException e) {
+            return null;
+         }
+      }
+   };
+
+   // Returns true if the method inverseF(double) of this object is the one
+   // declared in class c. Used by the batch methods, which can replace it
+   // only if it has not been overridden by a subclass.
+   boolean inverseFDeclaredIn(Class<?> c) {
+      return INVERSE_F_DECLARER.get(getClass()) == c;
+   }
+
+   // Same as INVERSE_F_DECLARER, for the method cdf(double).
+   private static final ClassValue<Class<?>> CDF_DECLARER = new ClassValue<Class<?>>() {
+      protected Class<?> computeValue(Class<?> type) {
+         try {
+            return type.getMethod("cdf", double.class).getDeclaringClass();
+         } catch (NoSuchMethodException e) {
+            return null;
+         }
+      }
+   };
+
+   // Same as inverseFDeclaredIn, for the method cdf(double).
+   boolean cdfDeclaredIn(Class<?> c) {
+      return CDF_DECLARER.get(getClass()) == c;
+   }
+
+   /**
+    * Computes the inverse distribution function @f$x = F^{-1}(u)@f$ with Newton's
+    * method, safeguarded by bisection, starting from `x0`. The finite interval
+    * 
+    * @f$[a, b]@f$ must contain `x0` and the root @f$x@f$. This is efficient when
+    *         `x0` is close to the root, for example when it is the root for a
+    *         nearby value of @f$u@f$. For @f$u > 1/2@f$, the method solves
+    *         @f$\bar{F}(x) = 1 - u@f$ instead, which is more precise in the
+    *         upper tail. The iterations stop when the relative change in
+    *         @f$x@f$ is smaller than `tol`. Returns `NaN` if there is no
+    *         convergence after 100 iterations.
+    * @param a   left endpoint of initial interval
+    * @param b   right endpoint of initial interval
+    * @param u   value at which the inverse distribution function is evaluated
+    * @param x0  starting point
+    * @param tol accuracy goal
+    * @return inverse distribution function evaluated at `u`, or `NaN`
+    */
+   public double inverseNewton(double a, double b, double u, double x0, double tol) {
+      final int MAXITER = 100; // Maximum number of iterations
+      final boolean upper = u > 0.5;
+      final double v = upper ? 1.0 - u : u;
+      double x = x0;
+      for (int i = 0; i < MAXITER; i++) {
+         // g is increasing in x
+         double g = upper ? v - barF(x) : cdf(x) - v;
+         if (g == 0.0)
+            return x;
+         if (g < 0.0)
+            a = x;
+         else
+            b = x;
+         double y = x - g / density(x);
+         if (!(y > a && y < b))
+            y = 0.5 * (a + b);
+         double eps = tol * Math.abs(y) + Double.MIN_NORMAL;
+         if (Math.abs(y - x) <= eps || b - a <= eps)
+            return y;
+         x = y;
+      }
+      return Double.NaN;
+   }
+
    /**
     * Returns the mean.
     * 
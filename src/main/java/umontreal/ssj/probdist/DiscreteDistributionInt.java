@@ -24,6 +24,11 @@
  */
 package umontreal.ssj.probdist;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Classes implementing discrete distributions over the integers should inherit
  * from this class. It specifies the signatures of methods for computing the
@@ -92,6 +97,188 @@ public abstract class DiscreteDistributionInt implements Distribution {
    protected int supportA = Integer.MIN_VALUE;
    protected int supportB = Integer.MAX_VALUE;
 
+   private boolean guided = false; // true if inverseFInt uses the guide table
+   private GuideTable guide = null;
+   private AliasTable alias = null;
+
+   private static final TableCache tableCache = new TableCache(128);
+
+   /*
+    * Guide table of Chen and Asau for the table cdf: start[j] is the index
+    * returned by the search for u = j/m, where m = start.length - 1, so that
+    * the search for any u in [j/m, (j+1)/m) can start at start[j]. The table
+    * is rebuilt when cdf is replaced by a new array.
+    */
+   private static class GuideTable {
+      final double[] cdf;
+      final int[] start;
+
+      GuideTable(double[] cdf, int[] start) {
+         this.cdf = cdf;
+         this.start = start;
+      }
+   }
+
+   /*
+    * Alias table of Walker for the probabilities in pdf: the cell j returns
+    * j with probability q[j] and alias[j] otherwise.
+    */
+   private static class AliasTable {
+      final double[] pdf;
+      final double[] q;
+      final int[] alias;
+
+      AliasTable(double[] pdf, double[] q, int[] alias) {
+         this.pdf = pdf;
+         this.q = q;
+         this.alias = alias;
+      }
+   }
+
+   /*
+    * Key of the table cache: the class of the distribution, its parameters,
+    * and the value of EPSILON, which decides where the tables are truncated.
+    */
+   private static class TableKey {
+      final Class<?> c;
+      final double[] params;
+      final double eps;
+      final int hash;
+
+      TableKey(Class<?> c, double[] params) {
+         this.c = c;
+         this.params = params;
+         this.eps = EPSILON;
+         this.hash = 31 * (31 * c.hashCode() + Arrays.hashCode(params)) + Double.hashCode(eps);
+      }
+
+      public int hashCode() {
+         return hash;
+      }
+
+      public boolean equals(Object o) {
+         if (!(o instanceof TableKey))
+            return false;
+         TableKey k = (TableKey) o;
+         return c == k.c && eps == k.eps && Arrays.equals(params, k.params);
+      }
+   }
+
+   /*
+    * Tables of a distribution, as computed by the subclass. They are never
+    * modified once computed, so they can be shared by several objects.
+    */
+   private static class Tables {
+      final double[] pdf;
+      final double[] cdf;
+      final int xmin;
+      final int xmax;
+      final int xmed;
+
+      Tables(double[] pdf, double[] cdf, int xmin, int xmax, int xmed) {
+         this.pdf = pdf;
+         this.cdf = cdf;
+         this.xmin = xmin;
+         this.xmax = xmax;
+         this.xmed = xmed;
+      }
+   }
+
+   /*
+    * Bounded cache of tables, which removes the least recently used entry when
+    * it is full. All its methods are synchronized.
+    */
+   private static class TableCache extends LinkedHashMap<TableKey, Tables> {
+      private static final long serialVersionUID = 1L;
+      private int capacity;
+
+      TableCache(int capacity) {
+         super(16, 0.75f, true);
+         this.capacity = capacity;
+      }
+
+      protected boolean removeEldestEntry(Map.Entry<TableKey, Tables> eldest) {
+         return size() > capacity;
+      }
+
+      synchronized Tables getTables(TableKey key) {
+         return capacity > 0 ? get(key) : null;
+      }
+
+      synchronized void putTables(TableKey key, Tables t) {
+         if (capacity > 0)
+            put(key, t);
+      }
+
+      synchronized int getCapacity() {
+         return capacity;
+      }
+
+      synchronized void setCapacity(int capacity) {
+         this.capacity = capacity;
+         Iterator<TableKey> it = keySet().iterator();
+         while (size() > capacity) {
+            it.next();
+            it.remove();
+         }
+      }
+   }
+
+   /**
+    * Sets the maximal number of tables kept in the cache shared by the
+    * distributions that precompute tables of probabilities, such as
+    * @ref PoissonDist and @ref BinomialDist. When an object of these classes
+    * is created, or its parameters are changed, the tables are taken from the
+    * cache if they have already been computed for the same parameters and
+    * the same value of #EPSILON; otherwise they are computed and added to
+    * the cache, and the tables that have been used least recently are removed
+    * when the cache is full. This avoids recomputing the tables in
+    * simulations in which the parameters take the same values repeatedly,
+    * e.g., a Poisson arrival rate that changes periodically. The cache can be
+    * used by several threads. The default size is 128; a size of 0 disables
+    * the cache.
+    *
+    * @param size maximal number of tables in the cache
+    * @exception IllegalArgumentException if `size` is negative
+    */
+   public static void setTableCacheSize(int size) {
+      if (size < 0)
+         throw new IllegalArgumentException("size < 0");
+      tableCache.setCapacity(size);
+   }
+
+   /**
+    * Returns the maximal number of tables in the cache. See
+    * #setTableCacheSize.
+    *
+    * @return the size of the table cache
+    */
+   public static int getTableCacheSize() {
+      return tableCache.getCapacity();
+   }
+
+   // Replaces the tables of this object by those in the cache for the
+   // distribution class c with parameters params, and returns true, or
+   // returns false if they are not in the cache.
+   boolean tablesFromCache(Class<?> c, double... params) {
+      Tables t = tableCache.getTables(new TableKey(c, params));
+      if (t == null)
+         return false;
+      pdf = t.pdf;
+      cdf = t.cdf;
+      xmin = t.xmin;
+      xmax = t.xmax;
+      xmed = t.xmed;
+      return true;
+   }
+
+   // Puts the tables of this object in the cache, for the distribution class
+   // c with parameters params.
+   void tablesToCache(Class<?> c, double... params) {
+      if (pdf != null && cdf != null)
+         tableCache.putTables(new TableKey(c, params), new Tables(pdf, cdf, xmin, xmax, xmed));
+   }
+
    /**
     * Returns @f$p(x)@f$, the probability of @f$x@f$.
     * 
@@ -199,14 +386,21 @@ public abstract class DiscreteDistributionInt implements Distribution {
     *                                     theoritical context
     */
    public int inverseFInt(double u) {
-      int i, j, k;
-
       if (u < 0.0 || u > 1.0)
          throw new IllegalArgumentException("u is not in [0,1]");
       if (u <= 0.0)
          return supportA;
       if (u >= 1.0)
          return supportB;
+      if (guided)
+         return guidedSearch(u) + xmin;
+      return tableSearch(u) + xmin;
+   }
+
+   // Binary search in the table cdf: returns x - xmin, where x is the inverse
+   // of u.
+   private int tableSearch(double u) {
+      int i, j, k;
 
       // Remember: the upper part of cdf contains the complementary distribu-
       // tion for xmed < s <= xmax, and the lower part of cdf the
@@ -215,7 +409,7 @@ public abstract class DiscreteDistributionInt implements Distribution {
       if (u <= cdf[xmed - xmin]) {
          // In the lower part of cdf
          if (u <= cdf[0])
-            return xmin;
+            return 0;
          i = 0;
          j = xmed - xmin;
          while (i < j) {
@@ -229,7 +423,7 @@ public abstract class DiscreteDistributionInt implements Distribution {
          // In the upper part of cdf
          u = 1 - u;
          if (u < cdf[xmax - xmin])
-            return xmax;
+            return xmax - xmin;
 
          i = xmed - xmin + 1;
          j = xmax - xmin;
@@ -243,7 +437,265 @@ public abstract class DiscreteDistributionInt implements Distribution {
          i--;
       }
 
-      return i + xmin;
+      return i;
+   }
+
+   // Same as tableSearch, but the search starts at the position given by the
+   // guide table.
+   private int guidedSearch(double u) {
+      GuideTable g = getGuideTable();
+      final int mid = xmed - xmin;
+      final int last = xmax - xmin;
+      final int m = g.start.length - 1;
+      int i = g.start[(int) (u * m)];
+      if (u <= cdf[mid]) {
+         while (u > cdf[i])
+            ++i;
+      } else {
+         double v = 1.0 - u;
+         if (i < mid)
+            i = mid;
+         while (i < last && v < cdf[i + 1])
+            ++i;
+      }
+      return i;
+   }
+
+   private GuideTable getGuideTable() {
+      GuideTable g = guide;
+      if (g != null && g.cdf == cdf)
+         return g;
+      final int m = xmax - xmin + 1;
+      int[] start = new int[m + 1];
+      // The points j/m are slightly decreased, because u*m may be rounded up
+      // to j when u is slightly smaller than j/m.
+      final double h = (1.0 - 1.0e-12) / m;
+      for (int j = 0; j <= m; j++)
+         start[j] = tableSearch(j * h);
+      guide = g = new GuideTable(cdf, start);
+      return g;
+   }
+
+   /**
+    * Decides if the inversion by #inverseFInt uses a guide table, also called
+    * indexed search @cite rDEV86a&thinsp;, instead of a binary search in the
+    * table of cumulative probabilities. The guide table has one entry per
+    * value in the table; it is built on the first inversion after this method
+    * is called with `true`, and rebuilt when the parameters change. The search
+    * then takes a constant expected time, instead of a time logarithmic in the
+    * size of the table, and returns exactly the same values, so the inversion
+    * remains monotone and can be used with RQMC. This applies only when the
+    * table of cumulative probabilities is used by #inverseFInt, which depends
+    * on the subclass and on the parameters.
+    *
+    * @param b `true` to use the guide table
+    */
+   public void setGuideTable(boolean b) {
+      guided = b;
+      if (!b)
+         guide = null;
+   }
+
+   /**
+    * Returns `true` if #inverseFInt uses a guide table. See #setGuideTable.
+    *
+    * @return `true` if the guide table is used
+    */
+   public boolean hasGuideTable() {
+      return guided;
+   }
+
+   /**
+    * Returns a random value from this distribution, obtained from the
+    * uniform @f$u\in[0,1)@f$ by the alias method of Walker
+    * @cite rDEV86a&thinsp;. This takes a constant time, like the guide table
+    * of #setGuideTable, with a smaller constant, but the returned value is not
+    * a monotone function of @f$u@f$, so it should be used only for Monte Carlo,
+    * and not with RQMC or common random numbers. The alias table is built
+    * from the table of probabilities at the first call and rebuilt when the
+    * parameters change; the probabilities smaller than #EPSILON that are not
+    * in the table are neglected. If there is no table of probabilities, this
+    * method returns `inverseFInt(u)`.
+    *
+    * @param u value in @f$[0,1)@f$ used to generate the random value
+    * @return a random value from this distribution
+    */
+   public int aliasInt(double u) {
+      if (pdf == null)
+         return inverseFInt(u);
+      AliasTable t = alias;
+      if (t == null || t.pdf != pdf)
+         alias = t = buildAliasTable();
+      final int m = t.q.length;
+      double y = u * m;
+      int j = (int) y;
+      if (j >= m)
+         j = m - 1;
+      return (y - j < t.q[j] ? j : t.alias[j]) + xmin;
+   }
+
+   private AliasTable buildAliasTable() {
+      final int m = xmax - xmin + 1;
+      double[] q = new double[m];
+      int[] alias = new int[m];
+      double sum = 0.0;
+      for (int i = 0; i < m; i++)
+         sum += pdf[i];
+      // The cells with q[i] < 1 are in small[0..ns-1], the others in
+      // large[0..nl-1].
+      int[] small = new int[m];
+      int[] large = new int[m];
+      int ns = 0, nl = 0;
+      for (int i = 0; i < m; i++) {
+         alias[i] = i;
+         q[i] = pdf[i] * m / sum;
+         if (q[i] < 1.0)
+            small[ns++] = i;
+         else
+            large[nl++] = i;
+      }
+      while (ns > 0 && nl > 0) {
+         int s = small[--ns];
+         int l = large[nl - 1];
+         alias[s] = l;
+         q[l] -= 1.0 - q[s];
+         if (q[l] < 1.0) {
+            --nl;
+            small[ns++] = l;
+         }
+      }
+      // The remaining cells are full, up to rounding errors.
+      while (nl > 0)
+         q[large[--nl]] = 1.0;
+      while (ns > 0)
+         q[small[--ns]] = 1.0;
+      return new AliasTable(pdf, q, alias);
+   }
+
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. When the table of cumulative probabilities has been
+    * precomputed and #inverseFInt is not overridden, each value is found by a
+    * search in the table that starts at the result for the previous value of
+    * `u`, if it is smaller, or at the position given by the guide table if
+    * #setGuideTable has been called with `true`. When the values of `u` are
+    * sorted in increasing order, this is a merge of `u` with the table, whose
+    * total cost is linear in `n` plus the size of the table. Otherwise, this
+    * method calls #inverseFInt for each value.
+    *
+    * @param u     values in the interval @f$(0,1)@f$ for which the inverse
+    *              distribution function is evaluated
+    * @param out   array receiving the values of the inverse distribution
+    *              function
+    * @param start index of the first value in `u` and `out`
+    * @param n     number of values
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (cdf == null || !inverseFIntDeclaredIn(DiscreteDistributionInt.class)) {
+         for (int i = start; i < start + n; i++)
+            out[i] = inverseFInt(u[i]);
+         return;
+      }
+      inverseFTable(u, out, start, n, 0.0);
+   }
+
+   // Class that declares the method inverseFInt(double) of each subclass,
+   // found by reflection once per class.
+   private static final ClassValue<Class<?>> INVERSE_F_INT_DECLARER = new ClassValue<Class<?>>() {
+      protected Class<?> computeValue(Class<?> type) {
+         try {
+            return type.getMethod("inverseFInt", double.class).getDeclaringClass();
+         } catch (NoSuchMethodException e) {
+            return null;
+         }
+      }
+   };
+
+   // Returns true if the method inverseFInt(double) of this object is the one
+   // declared in class c. Used by the batch methods, which can replace it
+   // only if it has not been overridden by a subclass.
+   boolean inverseFIntDeclaredIn(Class<?> c) {
+      return INVERSE_F_INT_DECLARER.get(getClass()) == c;
+   }
+
+   /**
+    * Does the work of #inverseF(double[],double[],int,int) with the table of
+    * cumulative probabilities, which must not be `null`. The values of `u` not
+    * larger than `uMin`, and those for which the result is not inside the
+    * table, are passed to #inverseFInt. This is intended for subclasses whose
+    * #inverseFInt uses the table only for @f$u > @f$ `uMin`.
+    *
+    * @param u     values in the interval @f$(0,1)@f$ for which the inverse
+    *              distribution function is evaluated
+    * @param out   array receiving the values of the inverse distribution
+    *              function
+    * @param start index of the first value in `u` and `out`
+    * @param n     number of values
+    * @param uMin  values of `u` not larger than this are passed to #inverseFInt
+    */
+   protected void inverseFTable(double[] u, double[] out, int start, int n, double uMin) {
+      // Linear steps taken from the previous position before switching to a
+      // binary search
+      final int SCAN = 8;
+      final int mid = xmed - xmin;
+      final int last = xmax - xmin;
+      final GuideTable gt = guided ? getGuideTable() : null;
+      double uPrev = Double.NaN;
+      int kPrev = 0;
+      for (int m = start; m < start + n; m++) {
+         double w = u[m];
+         if (!(w > cdf[0] && w > uMin) || w >= 1.0 || (w > cdf[mid] && 1.0 - w < cdf[last])) {
+            out[m] = inverseFInt(w);
+            continue;
+         }
+         int i, j, k;
+         // The result for w is at least the one for uPrev, and at least g
+         boolean warm = w >= uPrev;
+         int g = (gt == null) ? 0 : gt.start[(int) (w * (gt.start.length - 1))];
+         if (warm && kPrev > g)
+            g = kPrev;
+         if (w <= cdf[mid]) {
+            // In the lower part of cdf: smallest i with w <= cdf[i]
+            i = g;
+            j = mid;
+            int end = Math.min(j, i + SCAN);
+            while (i < end && w > cdf[i])
+               ++i;
+            if (w > cdf[i]) {
+               ++i;
+               while (i < j) {
+                  k = (i + j) / 2;
+                  if (w > cdf[k])
+                     i = k + 1;
+                  else
+                     j = k;
+               }
+            }
+         } else {
+            // In the upper part of cdf: smallest i with 1 - w >= cdf[i], minus 1
+            double v = 1.0 - w;
+            i = Math.max(g + 1, mid + 1);
+            j = last;
+            int end = Math.min(j, i + SCAN);
+            while (i < end && v < cdf[i])
+               ++i;
+            if (v < cdf[i]) {
+               ++i;
+               while (i < j) {
+                  k = (i + j) / 2;
+                  if (v < cdf[k])
+                     i = k + 1;
+                  else
+                     j = k;
+               }
+            }
+            i--;
+         }
+         out[m] = i + xmin;
+         uPrev = w;
+         kPrev = i;
+      }
    }
 
 }
\ No newline at end of file
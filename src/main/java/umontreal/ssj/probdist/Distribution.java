@@ -64,6 +64,43 @@ public interface Distribution {
     */
    public double inverseF(double u);
 
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. The arrays `u` and `out` may be the same. The default
+    * implementation calls #inverseF(double) for each value. Some implementations
+    * reuse work from one value to the next, and are faster when the values
+    * of `u` are sorted in increasing order.
+    *
+    * @param u     values in the interval @f$(0,1)@f$ for which the inverse
+    *              distribution function is evaluated
+    * @param out   array receiving the values of the inverse distribution
+    *              function
+    * @param start index of the first value in `u` and `out`
+    * @param n     number of values
+    */
+   default public void inverseF(double[] u, double[] out, int start, int n) {
+      for (int i = start; i < start + n; i++)
+         out[i] = inverseF(u[i]);
+   }
+
+   /**
+    * Computes the distribution function at the `n` values `x[start]`, ...,
+    * `x[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. The arrays `x` and `out` may be the same. The default
+    * implementation calls #cdf(double) for each value; some implementations
+    * evaluate their series for all the values together, which is faster.
+    *
+    * @param x     values at which the distribution function is evaluated
+    * @param out   array receiving the values of the distribution function
+    * @param start index of the first value in `x` and `out`
+    * @param n     number of values
+    */
+   default public void cdf(double[] x, double[] out, int start, int n) {
+      for (int i = start; i < start + n; i++)
+         out[i] = cdf(x[i]);
+   }
+
    /**
     * Returns the mean of the distribution function.
     */
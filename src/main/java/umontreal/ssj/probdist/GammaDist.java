@@ -167,6 +167,52 @@ public class GammaDist extends ContinuousDistribution {
       return inverseF(alpha, decPrec, u) / lambda;
    }
 
+   /**
+    * Computes #inverseF(double) at the `n` values `u[start]`, ...,
+    * `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`. The quantities that depend only on the parameters
+    * are computed once. When a value of `u` is slightly larger than the
+    * previous one, the root is found by #inverseNewton, starting from the
+    * previous root; otherwise, or if it is smaller than @f$10^{-d}@f$, where
+    * @f$d@f$ is the number of decimal digits of precision, it is found as in
+    * #inverseF(double).
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (!inverseFDeclaredIn(GammaDist.class) || decPrec <= 0) {
+         super.inverseF(u, out, start, n);
+         return;
+      }
+      final double WARMGAP = 1.0 / 32.0;
+      final int d = Math.min(decPrec, 15);
+      final double eps = Math.pow(10.0, -d);
+      final double sigma = getStandardDeviation(alpha, 1.0);
+      final double xmax = (alpha < 1.0) ? 100.0 : alpha + 40.0 * sigma;
+      final double xsup = xmax / lambda;
+      myFunc f = new myFunc(alpha, d, 0.0);
+      double uPrev = Double.NaN;
+      double xPrev = 0.0;
+      for (int i = start; i < start + n; i++) {
+         double v = u[i];
+         double x;
+         if (v == uPrev)
+            x = xPrev;
+         else if (!(v > 0.0 && v < 1.0))
+            x = inverseF(v);
+         else {
+            x = Double.NaN;
+            // In the far lower tail, an error on F much smaller than eps is
+            // still large relative to v, so we use the scalar method.
+            if (v >= eps && v > uPrev && v - uPrev < WARMGAP && xPrev < xsup)
+               x = inverseNewton(xPrev, xsup, v, xPrev, eps);
+            if (Double.isNaN(x))
+               x = inverseF(alpha, d, v, sigma, xmax, f) / lambda;
+         }
+         out[i] = x;
+         uPrev = v;
+         xPrev = x;
+      }
+   }
+
    public double getMean() {
       return GammaDist.getMean(alpha, lambda);
    }
@@ -360,19 +406,25 @@ public class GammaDist extends ContinuousDistribution {
          throw new IllegalArgumentException("d <= 0");
       if (d > 15)
          d = 15;
-      final double EPS = Math.pow(10.0, -d);
 
       double sigma = GammaDist.getStandardDeviation(alpha, 1.0);
-      double x = NormalDist.inverseF(alpha, sigma, u);
-      if (x < 0.)
-         x = 0.;
-      double v = GammaDist.cdf(alpha, d, x);
       double xmax;
       if (alpha < 1.0)
          xmax = 100.0;
       else
          xmax = alpha + 40.0 * sigma;
-      myFunc f = new myFunc(alpha, d, u);
+      return inverseF(alpha, d, u, sigma, xmax, new myFunc(alpha, d, u));
+   }
+
+   // Does the work of inverseF(alpha, d, u) for 0 < u < 1 and 0 < d <= 15,
+   // with sigma and xmax precomputed and f reused.
+   private static double inverseF(double alpha, int d, double u, double sigma, double xmax, myFunc f) {
+      final double EPS = Math.pow(10.0, -d);
+      double x = NormalDist.inverseF(alpha, sigma, u);
+      if (x < 0.)
+         x = 0.;
+      double v = GammaDist.cdf(alpha, d, x);
+      f.u = u;
 
       if (u <= 1.0e-8 || alpha <= 1.5) {
          if (v < u)
@@ -248,6 +248,20 @@ public class NegativeBinomialDist extends DiscreteDistributionInt {
          return super.inverseFInt(u);
    }
 
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, by a search in the precomputed table as in
+    * umontreal.ssj.probdist.DiscreteDistributionInt.inverseF(double[],double[],int,int),
+    * except for the values of `u` that #inverseFInt does not handle with the
+    * table.
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (cdf == null || !inverseFIntDeclaredIn(NegativeBinomialDist.class))
+         super.inverseF(u, out, start, n);
+      else
+         inverseFTable(u, out, start, n, EPS2);
+   }
+
    public double getMean() {
       return NegativeBinomialDist.getMean(n, p);
    }
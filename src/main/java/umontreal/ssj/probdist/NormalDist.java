@@ -92,6 +92,58 @@ public class NormalDist extends ContinuousDistribution {
       return mu + sigma * inverseF01(u);
    }
 
+   /**
+    * Computes #inverseF(double) at the `n` values `u[start]`, ...,
+    * `u[start + n - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + n - 1]`, with #inverseF01.
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (!inverseFDeclaredIn(NormalDist.class)) {
+         super.inverseF(u, out, start, n);
+         return;
+      }
+      final double m = mu;
+      final double s = sigma;
+      for (int i = start; i < start + n; i++)
+         out[i] = m + s * inverseF01(u[i]);
+   }
+
+   /**
+    * Computes #cdf(double) at the `n` values `x[start]`, ..., `x[start + n - 1]`,
+    * and puts the results in `out[start]`, ..., `out[start + n - 1]`. The
+    * results are the same as those of #cdf(double), but the Chebyshev series
+    * are evaluated together, with
+    * umontreal.ssj.util.Num.evalCheby(double[],int,double[],double[],int).
+    */
+   public void cdf(double[] x, double[] out, int start, int n) {
+      if (!cdfDeclaredIn(NormalDist.class)) {
+         super.cdf(x, out, start, n);
+         return;
+      }
+      final double[] t = new double[n];
+      final double[] y = new double[n];
+      final int[] idx = new int[n];
+      int m = 0;
+      for (int i = start; i < start + n; i++) {
+         final double z = (x[i] - mu) / sigma;
+         if (z > -XBIG && z < XBIG) {
+            // Same as in cdf01
+            final double v = -z / Num.RAC2;
+            final double a = Math.abs(v);
+            idx[m] = i;
+            y[m] = v;
+            t[m++] = (a - 3.75) / (a + 3.75);
+         } else
+            out[i] = cdf01(z);
+      }
+      Num.evalCheby(NORMAL2_A, COEFFMAX, t, t, m);
+      for (int k = 0; k < m; k++) {
+         final double a = Math.abs(y[k]);
+         final double r = 0.5 * Math.exp(-a * a) * t[k];
+         out[idx[k]] = y[k] < 0.0 ? 1.0 - r : r;
+      }
+   }
+
    public double getMean() {
       return NormalDist.getMean(mu, sigma);
    }
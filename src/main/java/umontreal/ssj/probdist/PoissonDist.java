@@ -74,7 +74,9 @@ public class PoissonDist extends DiscreteDistributionInt {
    /**
     * Creates an object that contains the probability and distribution functions,
     * for the Poisson distribution with parameter `lambda`, which are computed and
-    * stored in dynamic arrays inside that object.
+    * stored in dynamic arrays inside that object. The arrays are shared with the
+    * other objects created with the same `lambda` while they remain in the
+    * cache of tables (see DiscreteDistributionInt.setTableCacheSize).
     */
    public PoissonDist(double lambda) {
       setLambda(lambda);
@@ -173,6 +175,20 @@ public class PoissonDist extends DiscreteDistributionInt {
       return super.inverseFInt(u);
    }
 
+   /**
+    * Computes the inverse distribution function at the `n` values `u[start]`,
+    * ..., `u[start + n - 1]`, by a search in the precomputed table as in
+    * umontreal.ssj.probdist.DiscreteDistributionInt.inverseF(double[],double[],int,int),
+    * except for the values of `u` that #inverseFInt does not handle with the
+    * table.
+    */
+   public void inverseF(double[] u, double[] out, int start, int n) {
+      if (cdf == null || !inverseFIntDeclaredIn(PoissonDist.class))
+         super.inverseF(u, out, start, n);
+      else
+         inverseFTable(u, out, start, n, EPSILON);
+   }
+
    public double getMean() {
       return PoissonDist.getMean(lambda);
    }
@@ -506,6 +522,8 @@ public class PoissonDist extends DiscreteDistributionInt {
          cdf = null;
          return;
       }
+      if (tablesFromCache(PoissonDist.class, lambda))
+         return;
 
       double epsilon;
       int i, mid, Nmax;
@@ -593,6 +611,7 @@ public class PoissonDist extends DiscreteDistributionInt {
       cdf = new double[imax + 1 - imin];
       System.arraycopy(P, imin, pdf, 0, imax - imin + 1);
       System.arraycopy(F, imin, cdf, 0, imax - imin + 1);
+      tablesToCache(PoissonDist.class, lambda);
    }
 
    /**
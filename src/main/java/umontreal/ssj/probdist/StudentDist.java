@@ -47,6 +47,7 @@ import umontreal.ssj.functions.MathFunction;
 public class StudentDist extends ContinuousDistribution {
    protected int n;
    private double factor;
+   private BetaSymmetricalDist betaDist; // for the batch inverseF
    private static final int NLIM1 = 100000;
    /*
     * private static double cdfPeizer (int n, double x) { // Peizer-Pratt normal
@@ -129,6 +130,31 @@ public class StudentDist extends ContinuousDistribution {
       return inverseF(n, u);
    }
 
+   /**
+    * Computes #inverseF(double) at the `count` values `u[start]`, ...,
+    * `u[start + count - 1]`, and puts the results in `out[start]`, ...,
+    * `out[start + count - 1]`. For @f$2 < n \le10^5@f$, the inversion goes
+    * through a symmetrical beta distribution, whose constants are computed only
+    * once.
+    */
+   public void inverseF(double[] u, double[] out, int start, int count) {
+      if (n <= 2 || n > NLIM1 || !inverseFDeclaredIn(StudentDist.class)) {
+         super.inverseF(u, out, start, count);
+         return;
+      }
+      BetaSymmetricalDist beta = betaDist;
+      if (beta == null)
+         betaDist = beta = new BetaSymmetricalDist(0.5 * n, 14);
+      for (int i = start; i < start + count; i++) {
+         double v = u[i];
+         if (v > 0.0 && v < 1.0) {
+            double z = beta.inverseF(v);
+            out[i] = (z - 0.5) * Math.sqrt(n / (z * (1.0 - z)));
+         } else
+            out[i] = inverseF(v);
+      }
+   }
+
    public double getMean() {
       return StudentDist.getMean(n);
    }
@@ -368,6 +394,7 @@ public class StudentDist extends ContinuousDistribution {
          throw new IllegalArgumentException("n <= 0");
       this.n = n;
       factor = Num.gammaRatioHalf(n / 2.0) / Math.sqrt(n * Math.PI);
+      betaDist = null;
    }
 
    /**
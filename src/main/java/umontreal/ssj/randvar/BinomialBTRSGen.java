@@ -0,0 +1,188 @@
+/*
+ * Class:        BinomialBTRSGen
+ * Description:  binomial random variate generators using transformed rejection
+ *               with squeeze
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import umontreal.ssj.probdist.*;
+import umontreal.ssj.rng.*;
+import umontreal.ssj.util.Num;
+
+/**
+ * This class implements random variate generators for the *binomial*
+ * distribution (see @ref BinomialGen ), using the transformed rejection with
+ * squeeze (*BTRS*) method of Hörmann when @f$n\min(p, 1-p)\ge10@f$, and
+ * inversion by sequential search otherwise @cite rHOR04a&thinsp;. When
+ * @f$p>1/2@f$, the generator returns @f$n - X@f$, where @f$X@f$ is binomial
+ * with parameters @f$n@f$ and @f$1-p@f$. Unlike BinomialGen, this method uses
+ * no table: its setup computes only a few constants, so it is well suited to
+ * the case where the parameters change at every call; the static method
+ * #nextInt(RandomStream,int,double) can then be used directly. Each trial of
+ * the rejection method takes two uniforms, and the expected number of trials
+ * decreases from about 1.36 when @f$n\min(p, 1-p)=10@f$ to about 1.13 for a
+ * large mean. With inversion, each variate takes exactly one uniform.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_discrete
+ */
+public class BinomialBTRSGen extends BinomialGen {
+   private static final double MEAN_MIN = 10.0; // BTRS for n*min(p, q) >= MEAN_MIN
+   private boolean flip; // true if p > 1/2
+   private double pp; // min(p, 1-p)
+   private double a, b, c, vr, alpha, lpq, h, qn, r;
+   private int m;
+
+   /**
+    * Creates a binomial random variate generator with parameters @f$n@f$
+    * and @f$p@f$, using stream `s`.
+    */
+   public BinomialBTRSGen(RandomStream s, int n, double p) {
+      super(s, null);
+      init(n, p);
+   }
+
+   /**
+    * Creates a random variate generator for the *binomial* distribution `dist` and
+    * stream `s`.
+    */
+   public BinomialBTRSGen(RandomStream s, BinomialDist dist) {
+      super(s, dist);
+      init(dist.getN(), dist.getP());
+   }
+
+   public int nextInt() {
+      final int x;
+      if (n * pp < MEAN_MIN)
+         x = inversion(stream, n, qn, r);
+      else
+         x = btrs(stream, n, a, b, c, vr, alpha, lpq, m, h);
+      return flip ? n - x : x;
+   }
+
+   /**
+    * Generates `k` values and puts them in `v[start..start+k-1]`, in a single
+    * loop. The values are the same as those returned by `k` calls to
+    * #nextInt.
+    *
+    * @param v     array into which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param k     number of variates being generated
+    */
+   public void nextArrayOfInt(int[] v, int start, int k) {
+      if (k < 0)
+         throw new IllegalArgumentException("k must be non-negative.");
+      final RandomStream s = stream;
+      if (n * pp < MEAN_MIN) {
+         for (int i = start; i < start + k; i++) {
+            final int x = inversion(s, n, qn, r);
+            v[i] = flip ? n - x : x;
+         }
+      } else {
+         for (int i = start; i < start + k; i++) {
+            final int x = btrs(s, n, a, b, c, vr, alpha, lpq, m, h);
+            v[i] = flip ? n - x : x;
+         }
+      }
+   }
+
+   /**
+    * Generates a variate from the *binomial* distribution with parameters
+    * @f$n = @f$&nbsp;`n` and @f$p = @f$&nbsp;`p`, using stream `s`. The
+    * constants of the method are recomputed at each call, so the parameters can
+    * be different at each call.
+    */
+   public static int nextInt(RandomStream s, int n, double p) {
+      if (p < 0.0 || p > 1.0)
+         throw new IllegalArgumentException("p not in range [0, 1]");
+      if (n <= 0)
+         throw new IllegalArgumentException("n <= 0");
+      final boolean flip = p > 0.5;
+      final double pp = flip ? 1.0 - p : p;
+      final double q = 1.0 - pp;
+      final int x;
+      if (n * pp < MEAN_MIN)
+         x = inversion(s, n, Math.pow(q, n), pp / q);
+      else {
+         final double spq = Math.sqrt(n * pp * q);
+         final double b = 1.15 + 2.53 * spq;
+         final int m = (int) ((n + 1) * pp);
+         x = btrs(s, n, -0.0873 + 0.0248 * b + 0.01 * pp, b, n * pp + 0.5, 0.92 - 4.2 / b,
+               (2.83 + 5.1 / b) * spq, Math.log(pp / q), m, Num.lnFactorial(m) + Num.lnFactorial(n - m));
+      }
+      return flip ? n - x : x;
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   private void init(int n, double p) {
+      setParams(n, p);
+      flip = p > 0.5;
+      pp = flip ? 1.0 - p : p;
+      final double q = 1.0 - pp;
+      qn = Math.pow(q, n);
+      r = pp / q;
+      final double spq = Math.sqrt(n * pp * q);
+      b = 1.15 + 2.53 * spq;
+      a = -0.0873 + 0.0248 * b + 0.01 * pp;
+      c = n * pp + 0.5;
+      vr = 0.92 - 4.2 / b;
+      alpha = (2.83 + 5.1 / b) * spq;
+      lpq = Math.log(pp / q);
+      m = (int) ((n + 1) * pp);
+      h = Num.lnFactorial(m) + Num.lnFactorial(n - m);
+   }
+
+   // Sequential search from 0, for a small mean; qn = (1-p)^n, r = p/(1-p).
+   private static int inversion(RandomStream s, int n, double qn, double r) {
+      final double u = s.nextDouble();
+      double f = qn;
+      double sum = f;
+      int x = 0;
+      while (u > sum && x < n) {
+         f *= r * (n - x) / (x + 1);
+         x++;
+         sum += f;
+      }
+      return x;
+   }
+
+   private static int btrs(RandomStream s, int n, double a, double b, double c, double vr, double alpha,
+         double lpq, int m, double h) {
+      for (;;) {
+         final double u = s.nextDouble() - 0.5;
+         double v = s.nextDouble();
+         final double us = 0.5 - Math.abs(u);
+         final double k = Math.floor((2.0 * a / us + b) * u + c);
+         if (k < 0.0 || k > n)
+            continue;
+         if (us >= 0.07 && v <= vr)
+            return (int) k;
+         final int kk = (int) k;
+         v = Math.log(v * alpha / (a / (us * us) + b));
+         if (v <= h - Num.lnFactorial(kk) - Num.lnFactorial(n - kk) + (kk - m) * lpq)
+            return kk;
+      }
+   }
+}
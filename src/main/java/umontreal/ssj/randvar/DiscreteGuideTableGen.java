@@ -0,0 +1,269 @@
+/*
+ * Class:        DiscreteGuideTableGen
+ * Description:  discrete random variate generators using inversion with a
+ *               guide table
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import java.util.Arrays;
+import umontreal.ssj.rng.RandomStream;
+import umontreal.ssj.probdist.DiscreteDistributionInt;
+
+/**
+ * Generates random integers by inversion of a finite table of probabilities
+ * with a guide table, also called indexed search @cite rDEV86a&thinsp;, as
+ * the DGT method of UNURAN, but in Java. The probabilities
+ * @f$p_0,…,p_{m-1}@f$ of the values @f$x_{\min},…,x_{\min}+m-1@f$ are given
+ * directly, or are taken from a
+ * @ref umontreal.ssj.probdist.DiscreteDistributionInt, and they need not sum
+ * to 1: they are normalized in the setup. They are kept in the tables of a
+ * @ref umontreal.ssj.probdist.DiscreteDistributionInt, whose guide table
+ * (see umontreal.ssj.probdist.DiscreteDistributionInt.setGuideTable) has one
+ * entry per value; entry @f$j@f$ gives the smallest value whose cumulative
+ * probability reaches @f$j/m@f$, so the sequential search that starts there
+ * takes less than two comparisons on average, whatever the distribution.
+ * Each variate takes exactly one uniform, and is a nondecreasing function of
+ * it, so this generator can be used with common random numbers and
+ * randomized quasi-Monte Carlo.
+ *
+ * The tables are computed once in the constructor and never modified, so the
+ * values returned do not change if the parameters of the distribution object
+ * are changed later.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_general
+ */
+public class DiscreteGuideTableGen extends RandomVariateGenInt {
+   private static final int MAX_SIZE = 1 << 26;
+   private TableDist table;
+
+   /**
+    * Creates a generator for the values @f$x_{\min}+j@f$ with probabilities
+    * proportional to `p[j]`, for @f$j=0,…,m-1@f$, where @f$m@f$ is the length
+    * of `p`, using stream `s`. The distribution returned by #getDistribution
+    * is the one of these values, with the normalized probabilities.
+    *
+    * @param s    stream used for the uniforms
+    * @param xmin smallest value
+    * @param p    probabilities, or weights
+    * @exception IllegalArgumentException if a weight is negative or if they are
+    *                                     all zero
+    */
+   public DiscreteGuideTableGen(RandomStream s, int xmin, double[] p) {
+      super(s, new TableDist(xmin, p, p.length));
+      table = (TableDist) dist;
+   }
+
+   /**
+    * Creates a generator for the distribution `dist`, using stream `s`. The
+    * probabilities are computed by
+    * umontreal.ssj.probdist.DiscreteDistributionInt.prob, from
+    * umontreal.ssj.probdist.DiscreteDistributionInt.getXinf up to
+    * umontreal.ssj.probdist.DiscreteDistributionInt.getXsup, or, if the support
+    * is infinite, up to the point where the remaining probabilities are
+    * smaller than umontreal.ssj.probdist.DiscreteDistributionInt.EPSILON.
+    *
+    * @param s    stream used for the uniforms
+    * @param dist distribution of the generated values
+    * @exception IllegalArgumentException if the table would be too large
+    */
+   public DiscreteGuideTableGen(RandomStream s, DiscreteDistributionInt dist) {
+      super(s, dist);
+      final int x0 = dist.getXinf();
+      final int x1 = dist.getXsup();
+      double[] p = new double[64];
+      int m = 0;
+      double sum = 0.0;
+      for (int x = x0;; x++) {
+         if (m == MAX_SIZE)
+            throw new IllegalArgumentException("support of dist is too large");
+         if (m == p.length)
+            p = Arrays.copyOf(p, 2 * m);
+         final double q = dist.prob(x);
+         p[m++] = q;
+         sum += q;
+         if (x == x1 || sum >= 1.0 - DiscreteDistributionInt.EPSILON
+               || (sum > 0.5 && q < DiscreteDistributionInt.EPSILON * sum))
+            break;
+      }
+      table = new TableDist(x0, p, m);
+   }
+
+   /**
+    * Generates a new value by inversion, with the guide table.
+    */
+   public int nextInt() {
+      return table.inverseFInt(stream.nextDouble());
+   }
+
+   /**
+    * Returns `nextInt()`.
+    */
+   public double nextDouble() {
+      return nextInt();
+   }
+
+   /**
+    * Generates `n` values and puts them in `v[start..start+n-1]`, in a single
+    * loop. The values are the same as those returned by `n` calls to
+    * #nextInt.
+    *
+    * @param v     array into which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates being generated
+    */
+   public void nextArrayOfInt(int[] v, int start, int n) {
+      if (n < 0)
+         throw new IllegalArgumentException("n must be non-negative.");
+      final RandomStream s = stream;
+      final TableDist t = table;
+      for (int i = start; i < start + n; i++)
+         v[i] = t.inverseFInt(s.nextDouble());
+   }
+
+   /**
+    * Returns the value obtained by inversion of the uniform `u`. This is the
+    * function used by #nextInt.
+    *
+    * @param u value in @f$[0,1)@f$
+    * @return the inverse of the normalized distribution at `u`
+    */
+   public int inverseFInt(double u) {
+      return table.inverseFInt(u);
+   }
+
+   /**
+    * Returns the number @f$m@f$ of values in the table.
+    */
+   public int getNumValues() {
+      return table.getNumValues();
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   /*
+    * Finite distribution of the values xmin, ..., xmin + m - 1, with the
+    * normalized probabilities p[0..m-1], stored in the tables of
+    * DiscreteDistributionInt: cdf holds F(x) up to the median xmed and the
+    * complementary distribution above, so the inversion uses the guide table
+    * of DiscreteDistributionInt.
+    */
+   private static class TableDist extends DiscreteDistributionInt {
+
+      TableDist(int x0, double[] p, int m) {
+         if (m < 1)
+            throw new IllegalArgumentException("no probabilities");
+         double sum = 0.0;
+         for (int j = 0; j < m; j++) {
+            if (!(p[j] >= 0.0))
+               throw new IllegalArgumentException("p[" + j + "] < 0");
+            sum += p[j];
+         }
+         if (!(sum > 0.0) || Double.isInfinite(sum))
+            throw new IllegalArgumentException("the sum of the probabilities is not positive and finite");
+         pdf = new double[m];
+         cdf = new double[m];
+         for (int j = 0; j < m; j++)
+            pdf[j] = p[j] / sum;
+         int med = 0;
+         double c = pdf[0];
+         while (c < 0.5 && med < m - 1)
+            c += pdf[++med];
+         c = 0.0;
+         for (int j = 0; j <= med; j++)
+            cdf[j] = c += pdf[j];
+         c = 0.0;
+         for (int j = m - 1; j > med; j--)
+            cdf[j] = c += pdf[j];
+         if (med == m - 1)
+            cdf[med] = 1.0;
+         xmin = x0;
+         xmax = x0 + m - 1;
+         xmed = x0 + med;
+         // the values returned for u = 0 and u = 1 have positive probability
+         int j = 0;
+         while (pdf[j] == 0.0)
+            j++;
+         supportA = x0 + j;
+         j = m - 1;
+         while (pdf[j] == 0.0)
+            j--;
+         supportB = x0 + j;
+         setGuideTable(true);
+      }
+
+      int getNumValues() {
+         return pdf.length;
+      }
+
+      public double prob(int x) {
+         if (x < xmin || x > xmax)
+            return 0.0;
+         return pdf[x - xmin];
+      }
+
+      public double cdf(int x) {
+         if (x < xmin)
+            return 0.0;
+         if (x >= xmax)
+            return 1.0;
+         if (x <= xmed)
+            return cdf[x - xmin];
+         return 1.0 - cdf[x - xmin + 1];
+      }
+
+      public double barF(int x) {
+         if (x <= xmin)
+            return 1.0;
+         if (x > xmax)
+            return 0.0;
+         if (x > xmed)
+            return cdf[x - xmin];
+         return 1.0 - cdf[x - xmin - 1];
+      }
+
+      public double getMean() {
+         double mean = 0.0;
+         for (int j = 0; j < pdf.length; j++)
+            mean += (xmin + j) * pdf[j];
+         return mean;
+      }
+
+      public double getVariance() {
+         final double mean = getMean();
+         double var = 0.0;
+         for (int j = 0; j < pdf.length; j++)
+            var += (xmin + j - mean) * (xmin + j - mean) * pdf[j];
+         return var;
+      }
+
+      public double getStandardDeviation() {
+         return Math.sqrt(getVariance());
+      }
+
+      public double[] getParams() {
+         return pdf.clone();
+      }
+   }
+}
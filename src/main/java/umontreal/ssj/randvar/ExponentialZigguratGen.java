@@ -0,0 +1,143 @@
+/*
+ * Class:        ExponentialZigguratGen
+ * Description:  exponential random variate generators using the ziggurat method
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import umontreal.ssj.rng.*;
+import umontreal.ssj.probdist.*;
+
+/**
+ * This class implements random variate generators for the *exponential*
+ * distribution, using the *ziggurat* method of Marsaglia and Tsang. The area
+ * under the density is covered by @f$C = 256@f$ horizontal layers of equal
+ * area, whose coordinates are computed once in static tables. Most variates
+ * are obtained with a single uniform, a table look-up and one multiplication,
+ * without computing a logarithm, and about 1.03 uniforms are used per variate
+ * on average. As for NormalZigguratGen, this method uses rejection, so it is
+ * not compatible with randomized quasi-Monte Carlo; use inversion
+ * (ExponentialGen) in that case.
+ *
+ * The number of uniforms taken from the stream is a deterministic function of
+ * the values returned by the stream, so the same stream state always gives the
+ * same variates. Each trial takes one uniform @f$U@f$; the layer is
+ * @f$i = \lfloor CU \rfloor@f$ and @f$u = CU - i@f$ gives the abscissa. If
+ * @f$u@f$ is below the ratio of the widths of layers @f$i+1@f$ and @f$i@f$,
+ * the variate is returned. Otherwise, if @f$i > 0@f$, one more uniform is used
+ * to accept or reject the point in the wedge, and in the base layer @f$i =
+ * 0@f$, one more uniform gives the variate in the tail beyond
+ * @f$r\approx7.6971@f$ by inversion. After a rejection, a new trial starts.
+ * The variates generated by #nextDouble and by
+ * #nextArrayOfDouble(double[],int,int) are the same.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_continuous
+ */
+public class ExponentialZigguratGen extends ExponentialGen {
+   private static final int C = 256;            // number of layers
+   private static final double R = 7.69711747013104972; // start of the tail
+   private static final double V = 3.949659822581572e-3; // area of a layer
+   private static final double[] X = new double[C + 1]; // right end of layers
+   private static final double[] RATIO = new double[C]; // X[i+1] / X[i]
+
+   static {
+      double f = Math.exp(-R);
+      X[0] = V / f;
+      X[1] = R;
+      X[C] = 0.0;
+      for (int i = 2; i < C; i++) {
+         X[i] = -Math.log(V / X[i - 1] + f);
+         f = Math.exp(-X[i]);
+      }
+      for (int i = 0; i < C; i++)
+         RATIO[i] = X[i + 1] / X[i];
+   }
+
+   /**
+    * Creates an exponential random variate generator with parameter
+    * @f$\lambda@f$ = `lambda`, using stream `s`.
+    */
+   public ExponentialZigguratGen(RandomStream s, double lambda) {
+      super(s, null);
+      setParams(lambda);
+   }
+
+   /**
+    * Creates a new generator for the exponential distribution `dist` and stream
+    * `s`.
+    */
+   public ExponentialZigguratGen(RandomStream s, ExponentialDist dist) {
+      super(s, dist);
+   }
+
+   public double nextDouble() {
+      return ziggurat(stream) / lambda;
+   }
+
+   /**
+    * Generates `n` variates and puts them in `v[start..start+n-1]`, in a single
+    * loop. The variates are the same as those returned by `n` calls to
+    * #nextDouble.
+    *
+    * @param v     array in which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates to generate
+    */
+   public void nextArrayOfDouble(double[] v, int start, int n) {
+      if (n <= 0)
+         throw new IllegalArgumentException("n must be positive.");
+      final RandomStream s = stream;
+      final double lam = lambda;
+      for (int i = start; i < start + n; i++)
+         v[i] = ziggurat(s) / lam;
+   }
+
+   /**
+    * Generates a variate from the exponential distribution with parameter
+    * @f$\lambda= @f$&nbsp;`lambda`, using stream `s`.
+    */
+   public static double nextDouble(RandomStream s, double lambda) {
+      return ziggurat(s) / lambda;
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   // Returns an exponential variate with mean 1.
+   private static double ziggurat(RandomStream s) {
+      for (;;) {
+         final double t = C * s.nextDouble();
+         final int i = (int) t;
+         final double u = t - i;
+         if (u < RATIO[i])
+            return u * X[i];
+         if (i == 0)
+            return R - Math.log(s.nextDouble());
+         final double x = u * X[i];
+         final double f0 = Math.exp(x - X[i]);
+         final double f1 = Math.exp(x - X[i + 1]);
+         if (f1 + s.nextDouble() * (f0 - f1) < 1.0)
+            return x;
+      }
+   }
+}
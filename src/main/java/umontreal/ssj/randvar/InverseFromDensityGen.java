@@ -282,6 +282,26 @@ public class InverseFromDensityGen extends RandomVariateGen {
       return dist.inverseF(stream.nextDouble());
    }
 
+   /**
+    * Generates `n` variates and puts them in `v[start..start+n-1]`. The `n`
+    * uniforms are first generated in `v` by a single call to
+    * umontreal.ssj.rng.RandomStream.nextArrayOfDouble, then they are inverted
+    * in place, so the variates are the same as those returned by `n` calls to
+    * #nextDouble.
+    *
+    * @param v     array in which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates to generate
+    */
+   public void nextArrayOfDouble(double[] v, int start, int n) {
+      if (n <= 0)
+         throw new IllegalArgumentException("n must be positive.");
+      stream.nextArrayOfDouble(v, start, n);
+      final InverseDistFromDensity d = (InverseDistFromDensity) dist;
+      for (int i = start; i < start + n; i++)
+         v[i] = d.inverseF(v[i]);
+   }
+
    /**
     * Returns the `xc` given in the constructor.
     */
@@ -0,0 +1,165 @@
+/*
+ * Class:        NormalZigguratGen
+ * Description:  normal random variate generators using the ziggurat method
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import umontreal.ssj.rng.*;
+import umontreal.ssj.probdist.*;
+
+/**
+ * This class implements *normal* random variate generators using the
+ * *ziggurat* method of Marsaglia and Tsang, in the form given by Doornik, which
+ * takes both the layer and the abscissa from the same uniform. The area under
+ * the density is covered by @f$C = 128@f$ horizontal layers of equal area,
+ * whose coordinates are computed once in static tables. Most variates are
+ * obtained with a single uniform, a table look-up and one multiplication,
+ * without calling any elementary function, and about 1.04 uniforms are used
+ * per variate on average. This is usually the fastest normal generator in
+ * this package, but since it uses rejection, it is not compatible with the
+ * randomized quasi-Monte Carlo methods or with common random numbers across
+ * different parameter values; use inversion (NormalGen) for those.
+ *
+ * The number of uniforms taken from the stream is a deterministic function of
+ * the values returned by the stream, so the same stream state always gives the
+ * same variates. Each trial takes one uniform @f$U@f$; the layer is
+ * @f$i = \lfloor CU \rfloor@f$ and @f$u = 2(CU - i) - 1 \in(-1, 1)@f$ gives the
+ * abscissa and the sign. If @f$|u|@f$ is below the ratio of the widths of layers
+ * @f$i+1@f$ and @f$i@f$, the variate is returned. Otherwise, if @f$i > 0@f$,
+ * one more uniform is used to accept or reject the point in the wedge, and in
+ * the base layer @f$i = 0@f$, the tail beyond @f$r\approx3.4426@f$ is
+ * generated by Marsaglia's method with two uniforms per trial. After a
+ * rejection, a new trial starts. The variates generated by #nextDouble and by
+ * #nextArrayOfDouble(double[],int,int) are the same.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_continuous
+ */
+public class NormalZigguratGen extends NormalGen {
+   private static final int C = 128;            // number of layers
+   private static final double R = 3.442619855899; // start of the tail
+   private static final double V = 9.91256303526217e-3; // area of a layer
+   private static final double[] X = new double[C + 1]; // right end of layers
+   private static final double[] RATIO = new double[C]; // X[i+1] / X[i]
+
+   static {
+      double f = Math.exp(-0.5 * R * R);
+      X[0] = V / f;
+      X[1] = R;
+      X[C] = 0.0;
+      for (int i = 2; i < C; i++) {
+         X[i] = Math.sqrt(-2.0 * Math.log(V / X[i - 1] + f));
+         f = Math.exp(-0.5 * X[i] * X[i]);
+      }
+      for (int i = 0; i < C; i++)
+         RATIO[i] = X[i + 1] / X[i];
+   }
+
+   /**
+    * Creates a normal random variate generator with mean `mu` and standard
+    * deviation `sigma`, using stream `s`.
+    */
+   public NormalZigguratGen(RandomStream s, double mu, double sigma) {
+      super(s, null);
+      setParams(mu, sigma);
+   }
+
+   /**
+    * Creates a standard normal random variate generator with mean `0` and standard
+    * deviation `1`, using stream `s`.
+    */
+   public NormalZigguratGen(RandomStream s) {
+      this(s, 0.0, 1.0);
+   }
+
+   /**
+    * Creates a random variate generator for the normal distribution `dist` and
+    * stream `s`.
+    */
+   public NormalZigguratGen(RandomStream s, NormalDist dist) {
+      super(s, dist);
+      if (dist != null)
+         setParams(dist.getMu(), dist.getSigma());
+   }
+
+   public double nextDouble() {
+      return mu + sigma * ziggurat(stream);
+   }
+
+   /**
+    * Generates `n` variates and puts them in `v[start..start+n-1]`, in a single
+    * loop. The variates are the same as those returned by `n` calls to
+    * #nextDouble.
+    *
+    * @param v     array in which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates to generate
+    */
+   public void nextArrayOfDouble(double[] v, int start, int n) {
+      if (n <= 0)
+         throw new IllegalArgumentException("n must be positive.");
+      final RandomStream s = stream;
+      final double m = mu, sd = sigma;
+      for (int i = start; i < start + n; i++)
+         v[i] = m + sd * ziggurat(s);
+   }
+
+   /**
+    * Generates a variate from the normal distribution with parameters @f$\mu=
+    * @f$&nbsp;`mu` and @f$\sigma= @f$&nbsp;`sigma`, using stream `s`.
+    */
+   public static double nextDouble(RandomStream s, double mu, double sigma) {
+      return mu + sigma * ziggurat(s);
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   // Returns a standard normal variate.
+   private static double ziggurat(RandomStream s) {
+      for (;;) {
+         final double t = C * s.nextDouble();
+         final int i = (int) t;
+         final double u = 2.0 * (t - i) - 1.0;
+         if (Math.abs(u) < RATIO[i])
+            return u * X[i];
+         if (i == 0)
+            return tail(s, u < 0.0);
+         final double x = u * X[i];
+         final double f0 = Math.exp(-0.5 * (X[i] * X[i] - x * x));
+         final double f1 = Math.exp(-0.5 * (X[i + 1] * X[i + 1] - x * x));
+         if (f1 + s.nextDouble() * (f0 - f1) < 1.0)
+            return x;
+      }
+   }
+
+   // Returns a variate from the normal tail beyond R, negated if neg.
+   private static double tail(RandomStream s, boolean neg) {
+      double x, y;
+      do {
+         x = Math.log(s.nextDouble()) / R;
+         y = Math.log(s.nextDouble());
+      } while (-2.0 * y < x * x);
+      return neg ? x - R : R - x;
+   }
+}
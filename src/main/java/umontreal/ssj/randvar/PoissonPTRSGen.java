@@ -0,0 +1,158 @@
+/*
+ * Class:        PoissonPTRSGen
+ * Description:  Poisson random variate generators using transformed rejection
+ *               with squeeze
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import umontreal.ssj.probdist.*;
+import umontreal.ssj.rng.*;
+import umontreal.ssj.util.Num;
+
+/**
+ * This class implements random variate generators having the *Poisson*
+ * distribution (see @ref PoissonGen ), using the transformed rejection with
+ * squeeze (*PTRS*) method of Hörmann for @f$\lambda\ge10@f$, and inversion by
+ * sequential search for @f$\lambda< 10@f$ @cite rHOR04a&thinsp;. Unlike
+ * PoissonGen and PoissonTIACGen, this method uses no table: its setup
+ * computes only a few constants, which takes about as much time as generating
+ * one variate. It is thus well suited to the case where @f$\lambda@f$ changes
+ * at every call, for example with a time-varying arrival rate; the static
+ * method #nextInt(RandomStream,double) can then be used directly. Each trial
+ * takes two uniforms, and the expected number of trials decreases from about
+ * 1.33 for @f$\lambda=10@f$ to about 1.13 for a large @f$\lambda@f$. For
+ * @f$\lambda< 10@f$, each variate takes exactly one uniform.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_discrete
+ */
+public class PoissonPTRSGen extends PoissonGen {
+   private static final double LAMBDA_MIN = 10.0; // PTRS for lambda >= LAMBDA_MIN
+   private double loglam, a, b, invAlpha, vr, expmlam;
+
+   /**
+    * Creates a Poisson random variate generator with parameter
+    * @f$\lambda= @f$ `lambda`, using stream `s`.
+    */
+   public PoissonPTRSGen(RandomStream s, double lambda) {
+      super(s, null);
+      init(lambda);
+   }
+
+   /**
+    * Creates a new random variate generator using the Poisson distribution `dist`
+    * and stream `s`.
+    */
+   public PoissonPTRSGen(RandomStream s, PoissonDist dist) {
+      super(s, dist);
+      init(dist.getLambda());
+   }
+
+   public int nextInt() {
+      if (lambda < LAMBDA_MIN)
+         return inversion(stream, lambda, expmlam);
+      return ptrs(stream, lambda, loglam, a, b, invAlpha, vr);
+   }
+
+   /**
+    * Generates `n` values and puts them in `v[start..start+n-1]`, in a single
+    * loop. The values are the same as those returned by `n` calls to
+    * #nextInt.
+    *
+    * @param v     array into which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates being generated
+    */
+   public void nextArrayOfInt(int[] v, int start, int n) {
+      if (n < 0)
+         throw new IllegalArgumentException("n must be non-negative.");
+      final RandomStream s = stream;
+      if (lambda < LAMBDA_MIN) {
+         for (int i = start; i < start + n; i++)
+            v[i] = inversion(s, lambda, expmlam);
+      } else {
+         for (int i = start; i < start + n; i++)
+            v[i] = ptrs(s, lambda, loglam, a, b, invAlpha, vr);
+      }
+   }
+
+   /**
+    * Generates a variate from the *Poisson* distribution with parameter
+    * @f$\lambda@f$ = `lambda`, using stream `s`. The constants of the method
+    * are recomputed at each call, so `lambda` can be different at each call.
+    * For @f$\lambda=0@f$, returns 0, after taking one uniform from `s`, as
+    * #nextInt does.
+    */
+   public static int nextInt(RandomStream s, double lambda) {
+      if (lambda < 0.0)
+         throw new IllegalArgumentException("lambda < 0");
+      if (lambda < LAMBDA_MIN)
+         return inversion(s, lambda, Math.exp(-lambda));
+      final double b = 0.931 + 2.53 * Math.sqrt(lambda);
+      return ptrs(s, lambda, Math.log(lambda), -0.059 + 0.02483 * b, b, 1.1239 + 1.1328 / (b - 3.4),
+            0.9277 - 3.6224 / (b - 2.0));
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   private void init(double lam) {
+      setParams(lam);
+      expmlam = Math.exp(-lam);
+      loglam = Math.log(lam);
+      b = 0.931 + 2.53 * Math.sqrt(lam);
+      a = -0.059 + 0.02483 * b;
+      invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+      vr = 0.9277 - 3.6224 / (b - 2.0);
+   }
+
+   // Sequential search from 0, for small lambda.
+   private static int inversion(RandomStream s, double lambda, double expmlam) {
+      final double u = s.nextDouble();
+      double p = expmlam;
+      double f = p;
+      int x = 0;
+      while (u > f && p > 0.0) {
+         x++;
+         p *= lambda / x;
+         f += p;
+      }
+      return x;
+   }
+
+   private static int ptrs(RandomStream s, double lambda, double loglam, double a, double b, double invAlpha,
+         double vr) {
+      for (;;) {
+         final double u = s.nextDouble() - 0.5;
+         final double v = s.nextDouble();
+         final double us = 0.5 - Math.abs(u);
+         final double k = Math.floor((2.0 * a / us + b) * u + lambda + 0.43);
+         if (us >= 0.07 && v <= vr)
+            return (int) k;
+         if (k < 0.0 || k > Integer.MAX_VALUE || (us < 0.013 && v > us))
+            continue;
+         if (Math.log(v * invAlpha / (a / (us * us) + b)) <= -lambda + k * loglam - Num.lnFactorial((int) k))
+            return (int) k;
+      }
+   }
+}
@@ -0,0 +1,488 @@
+/*
+ * Class:        TransformedDensityRejectionGen
+ * Description:  transformed density rejection for log-concave densities
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.randvar;
+
+import java.util.Arrays;
+import umontreal.ssj.rng.RandomStream;
+import umontreal.ssj.probdist.ContinuousDistribution;
+
+/**
+ * Implements the *transformed density rejection* method (TDR) for an arbitrary
+ * continuous distribution whose density @f$f@f$ is *log-concave*, i.e., such
+ * that @f$\log f@f$ is concave on the support of the distribution
+ * @cite iLEY02a&thinsp;. This is the case, for example, for the normal, the
+ * gamma and Weibull with shape parameter @f$\alpha\ge1@f$, and the beta with
+ * both parameters @f$\ge1@f$. Only the `density` method of the distribution is
+ * used during the generation, so this class is useful for distributions whose
+ * inverse cdf is slow to compute. It is written entirely in Java, and can
+ * replace the TDR method of UNURAN.
+ *
+ * In the setup, @f$\log f@f$ is evaluated at @f$n\ge3@f$ construction points
+ * @f$x_0 < \cdots< x_{n-1}@f$, and the hat function is the exponential of a
+ * piecewise linear function that is above @f$\log f@f$: on each interval
+ * @f$[x_i, x_{i+1}]@f$, it is the minimum of the lines through the two
+ * neighboring secants, as in the derivative-free version of adaptive
+ * rejection sampling, and in the tails, it is the extension of the outermost
+ * secants. The secants themselves give a squeeze under the density, which is
+ * 0 in the tails. Points are added in the intervals where the hat is far
+ * above the squeeze until the ratio of the area below the squeeze over the
+ * area below the hat is at least `ratio`, or until there are `maxPoints`
+ * points; in the latter case, the ratio can be smaller than `ratio`, and
+ * #getSqueezeHatRatio returns it. In a tail, the point is added where the hat
+ * is @f$e@f$ times smaller than at the outermost point if the hat decreases
+ * toward the end of the support, and in the middle of the tail otherwise,
+ * which happens only for a finite end, for example for the exponential or
+ * the uniform distribution. The hat and the squeeze are then fixed: unlike
+ * adaptive rejection sampling, the generator does not add points during the
+ * generation.
+ *
+ * Each trial takes two uniforms: the first one selects a piece of the hat by a
+ * guide table and is reused to generate the candidate @f$X@f$ in that piece by
+ * inversion, and the second one decides whether @f$X@f$ is accepted. The
+ * density is evaluated only when the point falls between the squeeze and the
+ * hat. The expected number of trials is at most @f$1/\mathtt{ratio}@f$. The
+ * first uniform is taken from the main stream and all the other uniforms,
+ * including those of the second and later trials, from the auxiliary stream,
+ * which is the main stream unless another one is given.
+ *
+ * <div class="SSJ-bigskip"></div>
+ *
+ * @ingroup randvar_general
+ */
+public class TransformedDensityRejectionGen extends RandomVariateGen {
+   private static final double[] QUANTILES = { 0.01, 0.1, 0.3, 0.5, 0.7, 0.9, 0.99 };
+   private RandomStream auxStream;
+   private double ratio;
+   private int numPoints;
+   private double hatArea;
+   private double squeezeArea;
+
+   // Piece k of the hat is on [left[k], right[k]]; its anchor is left[k], or
+   // right[k] if left[k] is infinite. The hat is exp(hatLog[k] + hatSlope[k]
+   // * (x - anchor)) and the squeeze exp(sqLog[k] + sqSlope[k] * (x -
+   // anchor)). cum[k] is the area below the hat up to right[k].
+   private double[] left;
+   private double[] right;
+   private double[] hatLog;
+   private double[] hatSlope;
+   private double[] hatInv; // exp(-hatLog[k]) * hatSlope[k]
+   private double[] hatAtAnchor; // exp(hatLog[k]), or 0 if left[k] is infinite
+   private double[] sqLog;
+   private double[] sqSlope;
+   private double[] cum;
+   private int[] guide;
+
+   /**
+    * Creates a TDR generator for the distribution `dist`, using main stream `s`
+    * and auxiliary stream `aux`, with the construction points `points`, to
+    * which points are added until the ratio of the area below the squeeze over
+    * the area below the hat is at least `ratio`, or until there are `maxPoints`
+    * points, in which case the ratio may be smaller than `ratio` (see
+    * #getSqueezeHatRatio). The density of `dist` must be log-concave and
+    * positive at the construction points; its support is taken from
+    * umontreal.ssj.probdist.ContinuousDistribution.getXinf and
+    * umontreal.ssj.probdist.ContinuousDistribution.getXsup. If the support is
+    * infinite on one side, the density must decrease on that side of the
+    * construction points; the mode should thus lie between the first and the
+    * last point.
+    *
+    * @param s         main stream
+    * @param aux       auxiliary stream
+    * @param dist      log-concave distribution
+    * @param points    initial construction points, at least 3
+    * @param ratio     squeeze to hat area ratio, in @f$[0, 1)@f$
+    * @param maxPoints maximal number of construction points
+    * @exception IllegalArgumentException if the density is not log-concave, if
+    *                                     the hat cannot be built from the
+    *                                     points, if no point can be added before
+    *                                     `ratio` is reached, or if a parameter
+    *                                     is invalid
+    */
+   public TransformedDensityRejectionGen(RandomStream s, RandomStream aux, ContinuousDistribution dist,
+         double[] points, double ratio, int maxPoints) {
+      super(s, dist);
+      if (ratio < 0.0 || ratio >= 1.0)
+         throw new IllegalArgumentException("ratio not in [0, 1)");
+      if (points.length < 3 || maxPoints < points.length)
+         throw new IllegalArgumentException("need at least 3 points, and at most maxPoints");
+      auxStream = aux;
+      this.ratio = ratio;
+      init(points.clone(), maxPoints);
+   }
+
+   /**
+    * Creates a TDR generator for the log-concave distribution `dist`, using
+    * stream `s`, with the construction points `points`, and with `ratio` =
+    * 0.99 and `maxPoints` = 200. See the other constructor.
+    */
+   public TransformedDensityRejectionGen(RandomStream s, ContinuousDistribution dist, double[] points) {
+      this(s, s, dist, points, 0.99, 200);
+   }
+
+   /**
+    * Creates a TDR generator for the log-concave distribution `dist`, using
+    * stream `s`, with `ratio` = 0.99 and `maxPoints` = 200. The initial
+    * construction points are the quantiles of `dist` of orders 0.01, 0.1, 0.3,
+    * 0.5, 0.7, 0.9 and 0.99, computed once by the `inverseF` method of `dist`.
+    */
+   public TransformedDensityRejectionGen(RandomStream s, ContinuousDistribution dist) {
+      this(s, dist, quantiles(dist));
+   }
+
+   /**
+    * Generates a new random variate.
+    */
+   public double nextDouble() {
+      return tdr(stream, auxStream);
+   }
+
+   /**
+    * Generates `n` variates and puts them in `v[start..start+n-1]`, in a single
+    * loop. The variates are the same as those returned by `n` calls to
+    * #nextDouble.
+    *
+    * @param v     array in which the variates will be stored
+    * @param start starting index, in `v`, of the new variates
+    * @param n     number of variates to generate
+    */
+   public void nextArrayOfDouble(double[] v, int start, int n) {
+      if (n <= 0)
+         throw new IllegalArgumentException("n must be positive.");
+      final RandomStream s = stream, aux = auxStream;
+      for (int i = start; i < start + n; i++)
+         v[i] = tdr(s, aux);
+   }
+
+   /**
+    * Returns the auxiliary stream associated with this object.
+    */
+   public RandomStream getAuxStream() {
+      return auxStream;
+   }
+
+   /**
+    * Returns the number of construction points of the hat.
+    */
+   public int getNumPoints() {
+      return numPoints;
+   }
+
+   /**
+    * Returns the ratio of the area below the squeeze over the area below the
+    * hat. Its inverse bounds the expected number of trials per variate. It is
+    * smaller than the `ratio` given to the constructor only if the number of
+    * construction points has reached `maxPoints`.
+    */
+   public double getSqueezeHatRatio() {
+      return squeezeArea / hatArea;
+   }
+
+   /**
+    * Returns the area below the hat. It is an upper bound on the expected
+    * number of trials per variate if the density integrates to 1.
+    */
+   public double getHatArea() {
+      return hatArea;
+   }
+
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   private static double[] quantiles(ContinuousDistribution dist) {
+      double[] x = new double[QUANTILES.length];
+      for (int i = 0; i < x.length; i++)
+         x[i] = dist.inverseF(QUANTILES[i]);
+      return x;
+   }
+
+   private double tdr(RandomStream s, RandomStream aux) {
+      final ContinuousDistribution d = (ContinuousDistribution) dist;
+      final int m = guide.length;
+      double u = s.nextDouble();
+      for (;;) {
+         final double w = u * hatArea;
+         int k = guide[(int) (u * m)];
+         while (w >= cum[k] && k < m - 1)
+            k++;
+         final double v = k > 0 ? w - cum[k - 1] : w;
+         final double b = hatSlope[k];
+         double x;
+         if (hatAtAnchor[k] == 0.0)
+            x = right[k] + (Math.log(v * b) - hatLog[k]) / b;
+         else if (b == 0.0)
+            x = left[k] + v * hatInv[k];
+         else
+            x = left[k] + Math.log1p(v * hatInv[k]) / b;
+         if (x < left[k])
+            x = left[k];
+         else if (x > right[k])
+            x = right[k];
+         // The hat at x is exp(hatLog[k]) + b*v, without calling exp.
+         final double y = aux.nextDouble() * (hatAtAnchor[k] + b * v);
+         final double dx = x - (hatAtAnchor[k] == 0.0 ? right[k] : left[k]);
+         if (y <= Math.exp(sqLog[k] + sqSlope[k] * dx) || y < d.density(x))
+            return x;
+         u = aux.nextDouble();
+      }
+   }
+
+   private double logDensity(double x) {
+      return Math.log(((ContinuousDistribution) dist).density(x));
+   }
+
+   private void init(double[] x, int maxPoints) {
+      final ContinuousDistribution d = (ContinuousDistribution) dist;
+      final double xinf = d.getXinf();
+      final double xsup = d.getXsup();
+      Arrays.sort(x);
+      for (int i = 0; i < x.length; i++)
+         if (!(x[i] > xinf && x[i] < xsup) || (i > 0 && x[i] == x[i - 1]))
+            throw new IllegalArgumentException("construction points not distinct or not inside the support");
+      double[] g = new double[x.length];
+      for (int i = 0; i < x.length; i++) {
+         g[i] = logDensity(x[i]);
+         if (Double.isInfinite(g[i]) || Double.isNaN(g[i]))
+            throw new IllegalArgumentException("density is not positive and finite at x = " + x[i]);
+      }
+      for (;;) {
+         build(x, g, xinf, xsup);
+         if (squeezeArea >= ratio * hatArea || x.length >= maxPoints)
+            break;
+         // Split the intervals where the hat is far above the squeeze.
+         final int n = x.length;
+         final double threshold = (hatArea - squeezeArea) / (n + 1);
+         double[] xn = new double[2 * n + 1];
+         int nn = 0;
+         for (int i = -1; i < n && n + nn < maxPoints; i++) {
+            double diff = intervalHatArea(x, g, xinf, xsup, i) - intervalSqueezeArea(x, g, i);
+            if (diff < threshold)
+               continue;
+            double z = splitPoint(x, g, xinf, xsup, i);
+            if (!(z > xinf && z < xsup) || Arrays.binarySearch(x, z) >= 0)
+               continue;
+            double gz = logDensity(z);
+            if (Double.isInfinite(gz) || Double.isNaN(gz))
+               continue;
+            xn[nn++] = z;
+         }
+         if (nn == 0)
+            throw new IllegalArgumentException("no point can be added to reach ratio " + ratio + " with "
+                  + n + " points: the ratio is " + squeezeArea / hatArea);
+         double[] x2 = new double[n + nn];
+         System.arraycopy(x, 0, x2, 0, n);
+         System.arraycopy(xn, 0, x2, n, nn);
+         Arrays.sort(x2);
+         double[] g2 = new double[x2.length];
+         for (int i = 0; i < x2.length; i++)
+            g2[i] = logDensity(x2[i]);
+         x = x2;
+         g = g2;
+      }
+      numPoints = x.length;
+   }
+
+   // Slope of the secant on [x[i], x[i+1]].
+   private static double secant(double[] x, double[] g, int i) {
+      return (g[i + 1] - g[i]) / (x[i + 1] - x[i]);
+   }
+
+   // Area below exp(a + b*(t - l)) for t in [l, r], where l is finite.
+   private static double area(double a, double b, double l, double r) {
+      if (r == Double.POSITIVE_INFINITY)
+         return Math.exp(a) / -b;
+      final double t = b * (r - l);
+      if (Math.abs(t) < 1.0e-12)
+         return Math.exp(a) * (r - l);
+      return Math.exp(a) * Math.expm1(t) / b;
+   }
+
+   // Point z of [x[i], x[i+1]] where the hat changes from the line through
+   // x[i] with the slope of the secant on the left, used on [x[i], z], to the
+   // line through x[i+1] with the slope of the secant on the right, used on
+   // [z, x[i+1]]. The first interval has only the second line, and the last
+   // one only the first line.
+   private static double split(double[] x, double[] g, int i) {
+      if (i == 0)
+         return x[0];
+      if (i == x.length - 2)
+         return x[i + 1];
+      final double sl = secant(x, g, i - 1);
+      final double sr = secant(x, g, i + 1);
+      if (sl <= sr)
+         return x[i + 1];
+      final double z = (g[i + 1] - g[i] - sr * x[i + 1] + sl * x[i]) / (sl - sr);
+      return Math.min(Math.max(z, x[i]), x[i + 1]);
+   }
+
+   // Area below the hat on interval i, where i = -1 and i = n-1 are the tails.
+   private static double intervalHatArea(double[] x, double[] g, double xinf, double xsup, int i) {
+      final int n = x.length;
+      if (i < 0) {
+         final double s0 = secant(x, g, 0);
+         if (xinf == Double.NEGATIVE_INFINITY)
+            return Math.exp(g[0]) / s0;
+         return area(g[0] + s0 * (xinf - x[0]), s0, xinf, x[0]);
+      }
+      if (i == n - 1)
+         return area(g[n - 1], secant(x, g, n - 2), x[n - 1], xsup);
+      final double z = split(x, g, i);
+      double a = 0.0;
+      if (z > x[i])
+         a += area(g[i], secant(x, g, i - 1), x[i], z);
+      if (z < x[i + 1]) {
+         final double sr = secant(x, g, i + 1);
+         a += area(g[i + 1] + sr * (z - x[i + 1]), sr, z, x[i + 1]);
+      }
+      return a;
+   }
+
+   private static double intervalSqueezeArea(double[] x, double[] g, int i) {
+      if (i < 0 || i >= x.length - 1)
+         return 0.0;
+      return area(g[i], secant(x, g, i), x[i], x[i + 1]);
+   }
+
+   // Point added in interval i when it is split. In a tail, it is the point
+   // where the hat is e times smaller than at the outer point, if the hat
+   // decreases toward the end of the support and this point is inside the
+   // tail; otherwise, the support is finite on that side (see build) and the
+   // tail is bisected.
+   private static double splitPoint(double[] x, double[] g, double xinf, double xsup, int i) {
+      final int n = x.length;
+      if (i < 0) {
+         final double s0 = secant(x, g, 0);
+         final double z = x[0] - 1.0 / s0;
+         return s0 > 0.0 && z > xinf ? z : 0.5 * (xinf + x[0]);
+      }
+      if (i == n - 1) {
+         final double s = secant(x, g, n - 2);
+         final double z = x[n - 1] - 1.0 / s;
+         return s < 0.0 && z < xsup ? z : 0.5 * (x[n - 1] + xsup);
+      }
+      final double z = split(x, g, i);
+      return z > x[i] && z < x[i + 1] ? z : 0.5 * (x[i] + x[i + 1]);
+   }
+
+   // Builds the pieces of the hat and the guide table from the points x and
+   // the log densities g.
+   private void build(double[] x, double[] g, double xinf, double xsup) {
+      final int n = x.length;
+      double[] s = new double[n - 1];
+      for (int i = 0; i < n - 1; i++)
+         s[i] = secant(x, g, i);
+      for (int i = 1; i < n - 1; i++)
+         if (s[i] > s[i - 1] + 1.0e-8 * (Math.abs(s[i - 1]) + 1.0))
+            throw new IllegalArgumentException("density is not log-concave near x = " + x[i]);
+      if (xinf == Double.NEGATIVE_INFINITY && !(s[0] > 0.0))
+         throw new IllegalArgumentException("density does not increase at the left of the points");
+      if (xsup == Double.POSITIVE_INFINITY && !(s[n - 2] < 0.0))
+         throw new IllegalArgumentException("density does not decrease at the right of the points");
+
+      final int maxPieces = 2 * n + 2;
+      left = new double[maxPieces];
+      right = new double[maxPieces];
+      hatLog = new double[maxPieces];
+      hatSlope = new double[maxPieces];
+      sqLog = new double[maxPieces];
+      sqSlope = new double[maxPieces];
+      int p = 0;
+      // Left tail, anchored at x[0] if it is infinite.
+      if (xinf < x[0]) {
+         left[p] = xinf;
+         right[p] = x[0];
+         hatSlope[p] = s[0];
+         hatLog[p] = xinf == Double.NEGATIVE_INFINITY ? g[0] : g[0] + s[0] * (xinf - x[0]);
+         sqLog[p] = Double.NEGATIVE_INFINITY;
+         p++;
+      }
+      for (int i = 0; i < n - 1; i++) {
+         final double z = split(x, g, i);
+         if (z > x[i]) {
+            // Line through x[i] with the slope of the secant on the left.
+            left[p] = x[i];
+            right[p] = z;
+            hatSlope[p] = s[i - 1];
+            hatLog[p] = g[i];
+            sqSlope[p] = s[i];
+            sqLog[p] = g[i];
+            p++;
+         }
+         if (z < x[i + 1]) {
+            // Line through x[i+1] with the slope of the secant on the right.
+            left[p] = z;
+            right[p] = x[i + 1];
+            hatSlope[p] = s[i + 1];
+            hatLog[p] = g[i + 1] + s[i + 1] * (z - x[i + 1]);
+            sqSlope[p] = s[i];
+            sqLog[p] = g[i] + s[i] * (z - x[i]);
+            p++;
+         }
+      }
+      // Right tail.
+      if (x[n - 1] < xsup) {
+         left[p] = x[n - 1];
+         right[p] = xsup;
+         hatSlope[p] = s[n - 2];
+         hatLog[p] = g[n - 1];
+         sqLog[p] = Double.NEGATIVE_INFINITY;
+         p++;
+      }
+
+      left = Arrays.copyOf(left, p);
+      right = Arrays.copyOf(right, p);
+      hatLog = Arrays.copyOf(hatLog, p);
+      hatSlope = Arrays.copyOf(hatSlope, p);
+      sqLog = Arrays.copyOf(sqLog, p);
+      sqSlope = Arrays.copyOf(sqSlope, p);
+      hatInv = new double[p];
+      hatAtAnchor = new double[p];
+      cum = new double[p];
+      double sum = 0.0;
+      for (int k = 0; k < p; k++) {
+         if (left[k] == Double.NEGATIVE_INFINITY) {
+            hatAtAnchor[k] = 0.0;
+            sum += Math.exp(hatLog[k]) / hatSlope[k];
+         } else {
+            hatAtAnchor[k] = Math.exp(hatLog[k]);
+            hatInv[k] = hatSlope[k] == 0.0 ? 1.0 / hatAtAnchor[k] : hatSlope[k] / hatAtAnchor[k];
+            sum += area(hatLog[k], hatSlope[k], left[k], right[k]);
+         }
+         cum[k] = sum;
+      }
+      hatArea = sum;
+      squeezeArea = 0.0;
+      for (int i = 0; i < n - 1; i++)
+         squeezeArea += intervalSqueezeArea(x, g, i);
+
+      // Guide table: guide[j] is the first piece k with cum[k] > j*hatArea/p.
+      guide = new int[p];
+      int k = 0;
+      for (int j = 0; j < p; j++) {
+         final double w = j * hatArea / p;
+         while (k < p - 1 && cum[k] <= w)
+            k++;
+         guide[j] = k;
+      }
+   }
+}
@@ -107,6 +107,14 @@
  * efficient to generate them in a single call, via the methods
  * `RandomVariateGen.nextArrayOfDouble` and
  * `RandomVariateGenInt.nextArrayOfInt`.
+ *
+ * Some of the most used UNURAN methods are also implemented directly in Java,
+ * without native code: numerical inversion from the density (the PINV method)
+ * in @ref InverseFromDensityGen, transformed density rejection (TDR) for
+ * log-concave densities in @ref TransformedDensityRejectionGen, and inversion
+ * of a table of probabilities with a guide table (DGT) in
+ * @ref DiscreteGuideTableGen. These classes have no overhead per call, and
+ * their array methods generate all the variates in a single loop.
  */
 
  package umontreal.ssj.randvar;
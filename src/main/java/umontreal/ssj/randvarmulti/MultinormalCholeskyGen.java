@@ -49,9 +49,19 @@ import umontreal.ssj.rng.RandomStream;
  *                           uses the <tt>CholeskyDecomposition</tt> class in
  *                           `colt`.
  *
+ * The factor @f$\mathbf{A}@f$ is also kept as a packed array of its rows
+ * (lower triangle only), which is used by #nextPoint. The methods
+ * #nextArrayOfPoints and #generatePoints produce many vectors at once: they
+ * multiply @f$\mathbf{A}@f$ by 4 vectors at a time, with the 4 sums in local
+ * variables, so each element of @f$\mathbf{A}@f$ is read once for 4 vectors
+ * instead of once per vector; this is much faster for large dimensions.
+ * #generatePoint and #generatePoints take uniforms instead of using `gen1`,
+ * for use with RQMC point sets.
+ *
  *                           <div class="SSJ-bigskip"></div>
  */
 public class MultinormalCholeskyGen extends MultinormalGen {
+   private double[] packedL; // row i of A is in packedL[i(i+1)/2 .. i(i+1)/2 + i]
 
    private void initL() {
       if (mu.length != sigma.rows() || mu.length != sigma.columns())
@@ -61,6 +71,15 @@ public class MultinormalCholeskyGen extends MultinormalGen {
       // throw new IllegalArgumentException
       // ("The covariance matrix must be symmetric and positive-definite");
       sqrtSigma = decomp.getL();
+      initPacked();
+   }
+
+   private void initPacked() {
+      int d = mu.length;
+      packedL = new double[d * (d + 1) / 2];
+      for (int i = 0, k = 0; i < d; i++)
+         for (int c = 0; c <= i; c++)
+            packedL[k++] = sqrtSigma.getQuick(i, c);
    }
 
    /**
@@ -128,6 +147,7 @@ public class MultinormalCholeskyGen extends MultinormalGen {
       // ("The new covariance matrix must be symmetric and positive-definite");
       this.sigma.assign(sigma);
       this.sqrtSigma = decomp.getL();
+      initPacked();
    }
 
    /**
@@ -191,27 +211,90 @@ public class MultinormalCholeskyGen extends MultinormalGen {
    }
 
    /**
-    * Generates a point from this multinormal distribution. This is much faster
-    * than the static method as it computes the singular value decomposition matrix
-    * only once in the constructor.
-    * 
-    * @param p the array to be filled with the generated point
+    * Puts in `p` the point @f$\boldsymbol{\mu}+ \mathbf{A}\mathbf{Z}@f$,
+    * where @f$Z_i = \Phi^{-1}(u_i)@f$ and @f$u_i@f$ is `uniform01[i]`, for
+    * @f$i=0,…,d-1@f$. The generator `gen1` is not used. Infinite values of
+    * @f$Z_i@f$ are replaced by @f$\pm37.54@f$, as in #nextPoint.
+    *
+    * @param uniform01 the @f$d@f$ uniforms
+    * @param p         the array to be filled with the point
     */
-   public void nextPoint(double[] p) {
-      int n = mu.length;
-      for (int i = 0; i < n; i++) {
-         temp[i] = gen1.nextDouble();
-         if (temp[i] == Double.NEGATIVE_INFINITY)
-            temp[i] = -MYINF;
-         if (temp[i] == Double.POSITIVE_INFINITY)
-            temp[i] = MYINF;
+   public void generatePoint(double[] uniform01, double[] p) {
+      double[] z = new double[mu.length];
+      inverseNormals(uniform01, z);
+      multiply(z, p);
+   }
+
+   /**
+    * Same as `generatePoint(uniforms[r], v[r])` for @f$r =
+    * \mathtt{start},…,\mathtt{start}+n-1@f$, but the products with
+    * @f$\mathbf{A}@f$ are computed 4 points at a time, as in
+    * #nextArrayOfPoints. With the rows of an RQMC point set as `uniforms`,
+    * this generates randomized quasi-Monte Carlo multinormal vectors.
+    *
+    * @param uniforms the uniforms, @f$d@f$ per point
+    * @param v        array in which the points will be stored
+    * @param start    index, in `uniforms` and `v`, of the first point
+    * @param n        number of points to generate
+    */
+   public void generatePoints(double[][] uniforms, double[][] v, int start, int n) {
+      final int m = Math.min(n, POINT_BLOCK);
+      double[][] zb = new double[m][mu.length];
+      double[][] xb = new double[m][];
+      for (int b = start; b < start + n; b += m) {
+         final int nb = Math.min(m, start + n - b);
+         for (int r = 0; r < nb; r++) {
+            inverseNormals(uniforms[b + r], zb[r]);
+            xb[r] = v[b + r];
+         }
+         multiply(zb, xb, nb);
       }
-      for (int i = 0; i < n; i++) {
-         p[i] = 0;
-         // Matrix is lower-triangular
+   }
+
+   private void inverseNormals(double[] u, double[] z) {
+      final int d = mu.length;
+      for (int i = 0; i < d; i++) {
+         final double x = NormalDist.inverseF01(u[i]);
+         z[i] = Double.isInfinite(x) ? (x > 0.0 ? MYINF : -MYINF) : x;
+      }
+   }
+
+   // p = mu + A z, with A lower-triangular
+   protected void multiply(double[] z, double[] p) {
+      final double[] L = packedL;
+      final int d = mu.length;
+      for (int i = 0, row = 0; i < d; row += ++i) {
+         double sum = 0.0;
          for (int c = 0; c <= i; c++)
-            p[i] += sqrtSigma.getQuick(i, c) * temp[c];
-         p[i] += mu[i];
+            sum += L[row + c] * z[c];
+         p[i] = sum + mu[i];
+      }
+   }
+
+   // x[r] = mu + A z[r] for r = 0,...,n-1, BLOCK vectors at a time
+   protected void multiply(double[][] z, double[][] x, int n) {
+      final double[] L = packedL;
+      final int d = mu.length;
+      int r = 0;
+      for (; r + BLOCK <= n; r += BLOCK) {
+         final double[] z0 = z[r], z1 = z[r + 1], z2 = z[r + 2], z3 = z[r + 3];
+         final double[] x0 = x[r], x1 = x[r + 1], x2 = x[r + 2], x3 = x[r + 3];
+         for (int i = 0, row = 0; i < d; row += ++i) {
+            double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+            for (int c = 0; c <= i; c++) {
+               final double a = L[row + c];
+               s0 += a * z0[c];
+               s1 += a * z1[c];
+               s2 += a * z2[c];
+               s3 += a * z3[c];
+            }
+            x0[i] = s0 + mu[i];
+            x1[i] = s1 + mu[i];
+            x2[i] = s2 + mu[i];
+            x3[i] = s3 + mu[i];
+         }
       }
+      for (; r < n; r++)
+         multiply(z[r], x[r]);
    }
-}
\ No newline at end of file
+}
@@ -30,6 +30,7 @@ import umontreal.ssj.probdist.NormalDist;
 import umontreal.ssj.randvar.NormalGen;
 import umontreal.ssj.rng.RandomStream;
 import cern.colt.matrix.impl.DenseDoubleMatrix2D;
+import umontreal.ssj.util.PCADecomposition;
 
 /**
  * Extends @ref MultinormalGen for a *multivariate normal* distribution
@@ -53,31 +54,33 @@ import cern.colt.matrix.impl.DenseDoubleMatrix2D;
  *                  normal random variates. The decomposition method uses the
  *                  `SingularValueDecomposition` class in `colt`.
  *
+ * The decomposition is kept in an immutable
+ * umontreal.ssj.util.PCADecomposition, which can be shared by several
+ * generators, possibly in other threads, with #getPCADecomposition and the
+ * constructor #MultinormalPCAGen(NormalGen,double[],PCADecomposition). If it is
+ * truncated to @f$k@f$ principal components, only @f$k@f$ normals are generated
+ * per point.
+ *
  *                  <div class="SSJ-bigskip"></div>
  */
 public class MultinormalPCAGen extends MultinormalGen {
    private double[] lambda;
+   private PCADecomposition plan;
 
    private static SingularValueDecomposition getSvd(DoubleMatrix2D sigma) {
       return (new SingularValueDecomposition(sigma));
    }
 
-   private DoubleMatrix2D decompPCA(SingularValueDecomposition svd) {
-      DoubleMatrix2D D = svd.getS();
-      // Calculer la racine carree des valeurs propres
-      for (int i = 0; i < D.rows(); ++i) {
-         lambda[i] = D.getQuick(i, i);
-         D.setQuick(i, i, Math.sqrt(D.getQuick(i, i)));
-      }
-      DoubleMatrix2D P = svd.getV();
-      return P.zMult(D, null);
-   }
-
    private void initL() {
       if (mu.length != sigma.rows() || mu.length != sigma.columns())
          throw new IllegalArgumentException("Incompatible mean vector and covariance matrix");
-      lambda = new double[mu.length];
-      sqrtSigma = decompPCA(getSvd(sigma));
+      setPlan(new PCADecomposition(sigma));
+   }
+
+   private void setPlan(PCADecomposition plan) {
+      this.plan = plan;
+      lambda = plan.getEigenvalues();
+      sqrtSigma = new DenseDoubleMatrix2D(plan.getMatrix());
    }
 
    /**
@@ -110,6 +113,35 @@ public class MultinormalPCAGen extends MultinormalGen {
       initL();
    }
 
+   /**
+    * Constructs a multinormal generator with mean vector `mu` and the covariance
+    * matrix decomposed by `plan`, which is used directly instead of computing
+    * the decomposition again. The vector @f$\mathbf{Z}@f$ is generated by
+    * calling @f$k@f$ times the generator `gen1`, where @f$k@f$ is the number of
+    * principal components of `plan`.
+    *
+    * @param gen1 the one-dimensional generator
+    * @param mu   the mean vector.
+    * @param plan the decomposition of the covariance matrix.
+    * @exception IllegalArgumentException if the length of the mean vector is
+    *                                     different from the dimension of `plan`.
+    */
+   public MultinormalPCAGen(NormalGen gen1, double[] mu, PCADecomposition plan) {
+      super(gen1, mu, plan.getCovariance());
+      if (mu.length != plan.getDimension())
+         throw new IllegalArgumentException("Incompatible mean vector and covariance matrix");
+      setPlan(plan);
+   }
+
+   /**
+    * Returns the decomposition of the covariance matrix used by this
+    * generator. It can be shared with other generators by
+    * #MultinormalPCAGen(NormalGen,double[],PCADecomposition).
+    */
+   public PCADecomposition getPCADecomposition() {
+      return plan;
+   }
+
    /**
     * Computes the decomposition `sigma` = @f$\boldsymbol{\Sigma}=
     * \mathbf{V}\boldsymbol{\Lambda}\mathbf{V}^{\mathsf{t}}@f$. Returns
@@ -182,7 +214,7 @@ public class MultinormalPCAGen extends MultinormalGen {
       if (sigma.rows() != mu.length || sigma.columns() != mu.length)
          throw new IllegalArgumentException("Invalid dimensions of covariance matrix");
       this.sigma.assign(sigma);
-      this.sqrtSigma = decompPCA(getSvd(sigma));
+      setPlan(new PCADecomposition(sigma));
    }
 
    /**
@@ -247,27 +279,23 @@ public class MultinormalPCAGen extends MultinormalGen {
       nextPoint(gen1, mu, new DenseDoubleMatrix2D(sigma), p);
    }
 
-   /**
-    * Generates a point from this multinormal distribution. This is much faster
-    * than the static method as it computes the singular value decomposition matrix
-    * only once in the constructor.
-    * 
-    * @param p the array to be filled with the generated point
-    */
-   public void nextPoint(double[] p) {
-      int n = mu.length;
-      for (int i = 0; i < n; i++) {
-         temp[i] = gen1.nextDouble();
-         if (temp[i] == Double.NEGATIVE_INFINITY)
-            temp[i] = -MYINF;
-         if (temp[i] == Double.POSITIVE_INFINITY)
-            temp[i] = MYINF;
-      }
-      for (int i = 0; i < n; i++) {
-         p[i] = 0;
-         for (int c = 0; c < n; c++)
-            p[i] += sqrtSigma.getQuick(i, c) * temp[c];
+   // only the k principal components of the decomposition are used
+   protected int getNumNormals() {
+      return plan.getNumComponents();
+   }
+
+   // p = mu + A z
+   protected void multiply(double[] z, double[] p) {
+      plan.multiply(z, p);
+      for (int i = 0; i < dimension; i++)
          p[i] += mu[i];
-      }
+   }
+
+   // x[r] = mu + A z[r] for r = 0,...,n-1, 4 vectors at a time
+   protected void multiply(double[][] z, double[][] x, int n) {
+      plan.multiply(z, 0, x, 0, 0, n);
+      for (int r = 0; r < n; r++)
+         for (int i = 0; i < dimension; i++)
+            x[r][i] += mu[i];
    }
 }
\ No newline at end of file
@@ -77,41 +77,7 @@ public class LFSR113 extends RandomStreamBase {
 
       resetStartStream();
 
-      // Les operations qui suivent permettent de faire sauter en avant
-      // de 2^90 iterations chacunes des composantes du generateur.
-      // L'etat interne apres le saut est cependant legerement different
-      // de celui apres 2^90 iterations puisqu'il ignore l'etat dans
-      // lequel se retrouvent les premiers bits de chaque composantes,
-      // puisqu'ils sont ignores dans la recurrence. L'etat redevient
-      // identique a ce que l'on aurait avec des iterations normales
-      // apres un appel a nextValue().
-
-      int z, b;
-
-      z = curr_stream[0] & -2;
-      b = (z << 6) ^ z;
-      z = (z) ^ (z << 2) ^ (z << 3) ^ (z << 10) ^ (z << 13) ^ (z << 16) ^ (z << 19) ^ (z << 22) ^ (z << 25) ^ (z << 27)
-            ^ (z << 28) ^ (b >>> 3) ^ (b >>> 4) ^ (b >>> 6) ^ (b >>> 9) ^ (b >>> 12) ^ (b >>> 15) ^ (b >>> 18)
-            ^ (b >>> 21);
-      curr_stream[0] = z;
-
-      z = curr_stream[1] & -8;
-      b = (z << 2) ^ z;
-      z = (b >>> 13) ^ (z << 16);
-      curr_stream[1] = z;
-
-      z = curr_stream[2] & -16;
-      b = (z << 13) ^ z;
-      z = (z << 2) ^ (z << 4) ^ (z << 10) ^ (z << 12) ^ (z << 13) ^ (z << 17) ^ (z << 25) ^ (b >>> 3) ^ (b >>> 11)
-            ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 24);
-      curr_stream[2] = z;
-
-      z = curr_stream[3] & -128;
-      b = (z << 3) ^ z;
-      z = (z << 9) ^ (z << 10) ^ (z << 11) ^ (z << 14) ^ (z << 16) ^ (z << 18) ^ (z << 23) ^ (z << 24) ^ (b >>> 1)
-            ^ (b >>> 2) ^ (b >>> 7) ^ (b >>> 9) ^ (b >>> 11) ^ (b >>> 14) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 23)
-            ^ (b >>> 24);
-      curr_stream[3] = z;
+      streamJump(curr_stream);
    }
 
    /**
@@ -228,6 +194,52 @@ public class LFSR113 extends RandomStreamBase {
     */
 
    public void resetNextSubstream() {
+      substreamJump(substream);
+      resetStartSubstream();
+   }
+
+   // Moves each component of the seed s ahead by Z steps. This is the jump made
+   // by the constructor from one stream to the next.
+   private static void streamJump(int[] s) {
+      // Les operations qui suivent permettent de faire sauter en avant
+      // de 2^90 iterations chacunes des composantes du generateur.
+      // L'etat interne apres le saut est cependant legerement different
+      // de celui apres 2^90 iterations puisqu'il ignore l'etat dans
+      // lequel se retrouvent les premiers bits de chaque composantes,
+      // puisqu'ils sont ignores dans la recurrence. L'etat redevient
+      // identique a ce que l'on aurait avec des iterations normales
+      // apres un appel a nextValue().
+
+      int z, b;
+
+      z = s[0] & -2;
+      b = (z << 6) ^ z;
+      z = (z) ^ (z << 2) ^ (z << 3) ^ (z << 10) ^ (z << 13) ^ (z << 16) ^ (z << 19) ^ (z << 22) ^ (z << 25) ^ (z << 27)
+            ^ (z << 28) ^ (b >>> 3) ^ (b >>> 4) ^ (b >>> 6) ^ (b >>> 9) ^ (b >>> 12) ^ (b >>> 15) ^ (b >>> 18)
+            ^ (b >>> 21);
+      s[0] = z;
+
+      z = s[1] & -8;
+      b = (z << 2) ^ z;
+      z = (b >>> 13) ^ (z << 16);
+      s[1] = z;
+
+      z = s[2] & -16;
+      b = (z << 13) ^ z;
+      z = (z << 2) ^ (z << 4) ^ (z << 10) ^ (z << 12) ^ (z << 13) ^ (z << 17) ^ (z << 25) ^ (b >>> 3) ^ (b >>> 11)
+            ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 24);
+      s[2] = z;
+
+      z = s[3] & -128;
+      b = (z << 3) ^ z;
+      z = (z << 9) ^ (z << 10) ^ (z << 11) ^ (z << 14) ^ (z << 16) ^ (z << 18) ^ (z << 23) ^ (z << 24) ^ (b >>> 1)
+            ^ (b >>> 2) ^ (b >>> 7) ^ (b >>> 9) ^ (b >>> 11) ^ (b >>> 14) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 23)
+            ^ (b >>> 24);
+      s[3] = z;
+   }
+
+   // Moves each component of the seed s ahead by W steps.
+   private static void substreamJump(int[] s) {
       // Les operations qui suivent permettent de faire sauter en avant
       // de 2^55 iterations chacunes des composantes du generateur.
       // L'etat interne apres le saut est cependant legerement different
@@ -239,16 +251,16 @@ public class LFSR113 extends RandomStreamBase {
 
       int z, b;
 
-      z = substream[0] & -2;
+      z = s[0] & -2;
       b = (z << 6) ^ z;
       z = (z) ^ (z << 3) ^ (z << 4) ^ (z << 6) ^ (z << 7) ^ (z << 8) ^ (z << 10) ^ (z << 11) ^ (z << 13) ^ (z << 14)
             ^ (z << 16) ^ (z << 17) ^ (z << 18) ^ (z << 22) ^ (z << 24) ^ (z << 25) ^ (z << 26) ^ (z << 28) ^ (z << 30);
       z ^= (b >>> 1) ^ (b >>> 3) ^ (b >>> 5) ^ (b >>> 6) ^ (b >>> 7) ^ (b >>> 9) ^ (b >>> 13) ^ (b >>> 14) ^ (b >>> 15)
             ^ (b >>> 17) ^ (b >>> 18) ^ (b >>> 20) ^ (b >>> 21) ^ (b >>> 23) ^ (b >>> 24) ^ (b >>> 25) ^ (b >>> 26)
             ^ (b >>> 27) ^ (b >>> 30);
-      substream[0] = z;
+      s[0] = z;
 
-      z = substream[1] & -8;
+      z = s[1] & -8;
       b = z ^ (z << 1);
       b ^= (b << 2);
       b ^= (b << 4);
@@ -261,18 +273,98 @@ public class LFSR113 extends RandomStreamBase {
       if ((z & 0x40000000) != 0)
          b ^= 0x55FFF800;
       z = b ^ (z >>> 7) ^ (z >>> 20) ^ (z >>> 21);
-      substream[1] = z;
+      s[1] = z;
 
-      z = substream[2] & -16;
+      z = s[2] & -16;
       b = (z << 13) ^ z;
       z = (b >>> 3) ^ (b >>> 17) ^ (z << 10) ^ (z << 11) ^ (z << 25);
-      substream[2] = z;
+      s[2] = z;
 
-      z = substream[3] & -128;
+      z = s[3] & -128;
       b = (z << 3) ^ z;
       z = (z << 14) ^ (z << 16) ^ (z << 20) ^ (b >>> 5) ^ (b >>> 9) ^ (b >>> 11);
-      substream[3] = z;
+      s[3] = z;
+   }
+
+   // Each jump is a linear transformation of the bits of each component.
+   // jumpZ[e][i][j] and jumpW[e][i][j] contain the image of bit j of component i
+   // by 2^e stream jumps and 2^e substream jumps, respectively, for
+   // e = 0,...,62. They are computed when first needed.
+   private static int[][][] jumpZ, jumpW;
+
+   // Applies the linear transformation whose columns are cols to z.
+   private static int applyJump(int[] cols, int z) {
+      int r = 0;
+      for (int j = 0; z != 0; j++, z >>>= 1)
+         if ((z & 1) != 0)
+            r ^= cols[j];
+      return r;
+   }
+
+   private static int[][][] powersOfTwo(boolean streams) {
+      int[][][] pow = new int[63][4][32];
+      int[] v = new int[4];
+      for (int j = 0; j < 32; j++) {
+         for (int i = 0; i < 4; i++)
+            v[i] = 1 << j;
+         if (streams)
+            streamJump(v);
+         else
+            substreamJump(v);
+         for (int i = 0; i < 4; i++)
+            pow[0][i][j] = v[i];
+      }
+      for (int e = 1; e < pow.length; e++)
+         for (int i = 0; i < 4; i++)
+            for (int j = 0; j < 32; j++)
+               pow[e][i][j] = applyJump(pow[e - 1][i], pow[e - 1][i][j]);
+      return pow;
+   }
+
+   private static synchronized void initJumps() {
+      if (jumpZ != null)
+         return;
+      jumpW = powersOfTwo(false);
+      jumpZ = powersOfTwo(true);
+   }
 
+   // Applies k jumps to s, in O(log k) steps.
+   private static void advance(int[] s, long k, int[][][] pow) {
+      if (k < 0)
+         throw new IllegalArgumentException("k must be non-negative");
+      for (int e = 0; k != 0; e++, k >>>= 1)
+         if ((k & 1) != 0)
+            for (int i = 0; i < 4; i++)
+               s[i] = applyJump(pow[e][i], s[i]);
+   }
+
+   /**
+    * Moves the initial seed of this stream @f$kZ@f$ steps ahead and resets the
+    * stream to this new seed. After the call, this stream is the one that would
+    * have been created @f$k@f$ streams after it by the constructor. For example,
+    * a worker with index @f$k@f$ can build the @f$k@f$-th stream from the package
+    * seed with `new LFSR113()` followed by `advanceStreams(k)`, without creating
+    * the @f$k@f$ previous streams. The jump is made in @f$O(\log k)@f$
+    * operations, using precomputed powers of the jump transformation.
+    *
+    * @param k number of streams to skip (must be non-negative)
+    */
+   public void advanceStreams(long k) {
+      initJumps();
+      advance(stream, k, jumpZ);
+      resetStartStream();
+   }
+
+   /**
+    * Moves the starting point of the current substream @f$kW@f$ steps ahead and
+    * resets the stream to it. This has the same effect as calling
+    * #resetNextSubstream @f$k@f$ times, but takes @f$O(\log k)@f$ operations.
+    *
+    * @param k number of substreams to skip (must be non-negative)
+    */
+   public void advanceSubstreams(long k) {
+      initJumps();
+      advance(substream, k, jumpW);
       resetStartSubstream();
    }
 
@@ -85,57 +85,7 @@ public class LFSR258 extends RandomStreamBase {
 
       resetStartStream();
 
-      // Les operations qui suivent permettent de faire sauter en avant
-      // de 2^200 iterations chacunes des composantes du generateur.
-      // L'etat interne apres le saut est cependant legerement different
-      // de celui apres 2^200 iterations puisqu'il ignore l'etat dans
-      // lequel se retrouvent les premiers bits de chaque composantes,
-      // puisqu'ils sont ignores dans la recurrence. L'etat redevient
-      // identique a ce que l'on aurait avec des iterations normales
-      // apres un appel a nextValue().
-
-      long z, b;
-
-      z = curr_stream[0] & 0xfffffffffffffffeL;
-      b = z ^ (z << 1);
-      z = (b >>> 58) ^ (b >>> 55) ^ (b >>> 46) ^ (b >>> 43) ^ (z << 5) ^ (z << 8) ^ (z << 17) ^ (z << 20);
-      curr_stream[0] = z;
-
-      z = curr_stream[1] & 0xfffffffffffffe00L;
-      b = z ^ (z << 24);
-      z = (b >>> 54) ^ (b >>> 53) ^ (b >>> 52) ^ (b >>> 50) ^ (b >>> 49) ^ (b >>> 48) ^ (b >>> 43) ^ (b >>> 41)
-            ^ (b >>> 38) ^ (b >>> 37) ^ (b >>> 30) ^ (b >>> 25) ^ (b >>> 24) ^ (b >>> 23) ^ (b >>> 19) ^ (b >>> 16)
-            ^ (b >>> 15) ^ (b >>> 14) ^ (b >>> 13) ^ (b >>> 11) ^ (b >>> 8) ^ (b >>> 7) ^ (b >>> 5) ^ (b >>> 3)
-            ^ (z << 0) ^ (z << 2) ^ (z << 3) ^ (z << 6) ^ (z << 7) ^ (z << 8) ^ (z << 9) ^ (z << 10) ^ (z << 11)
-            ^ (z << 12) ^ (z << 13) ^ (z << 14) ^ (z << 16) ^ (z << 18) ^ (z << 19) ^ (z << 21) ^ (z << 25) ^ (z << 30)
-            ^ (z << 31) ^ (z << 32) ^ (z << 36) ^ (z << 39) ^ (z << 40) ^ (z << 41) ^ (z << 42) ^ (z << 44) ^ (z << 47)
-            ^ (z << 48) ^ (z << 50) ^ (z << 52);
-      curr_stream[1] = z;
-
-      z = curr_stream[2] & 0xfffffffffffff000L;
-      b = z ^ (z << 3);
-      z = (b >>> 50) ^ (b >>> 49) ^ (b >>> 46) ^ (b >>> 42) ^ (b >>> 40) ^ (b >>> 39) ^ (b >>> 38) ^ (b >>> 37)
-            ^ (b >>> 36) ^ (b >>> 32) ^ (b >>> 29) ^ (b >>> 28) ^ (b >>> 27) ^ (b >>> 25) ^ (b >>> 23) ^ (b >>> 20)
-            ^ (b >>> 19) ^ (b >>> 15) ^ (b >>> 12) ^ (b >>> 11) ^ (b >>> 2) ^ (z << 1) ^ (z << 2) ^ (z << 3) ^ (z << 6)
-            ^ (z << 10) ^ (z << 12) ^ (z << 13) ^ (z << 14) ^ (z << 15) ^ (z << 16) ^ (z << 20) ^ (z << 23) ^ (z << 24)
-            ^ (z << 25) ^ (z << 27) ^ (z << 29) ^ (z << 32) ^ (z << 33) ^ (z << 37) ^ (z << 40) ^ (z << 41) ^ (z << 50);
-      curr_stream[2] = z;
-
-      z = curr_stream[3] & 0xfffffffffffe0000L;
-      b = z ^ (z << 5);
-      z = (b >>> 46) ^ (b >>> 44) ^ (b >>> 42) ^ (b >>> 41) ^ (b >>> 40) ^ (b >>> 38) ^ (b >>> 36) ^ (b >>> 32)
-            ^ (b >>> 30) ^ (b >>> 25) ^ (b >>> 18) ^ (b >>> 16) ^ (b >>> 15) ^ (b >>> 14) ^ (b >>> 12) ^ (b >>> 11)
-            ^ (b >>> 10) ^ (b >>> 9) ^ (b >>> 8) ^ (b >>> 6) ^ (b >>> 5) ^ (b >>> 4) ^ (b >>> 3) ^ (b >>> 2) ^ (z << 2)
-            ^ (z << 5) ^ (z << 6) ^ (z << 7) ^ (z << 9) ^ (z << 11) ^ (z << 15) ^ (z << 17) ^ (z << 22) ^ (z << 29)
-            ^ (z << 31) ^ (z << 32) ^ (z << 33) ^ (z << 35) ^ (z << 36) ^ (z << 37) ^ (z << 38) ^ (z << 39) ^ (z << 41)
-            ^ (z << 42) ^ (z << 43) ^ (z << 44) ^ (z << 45);
-      curr_stream[3] = z;
-
-      z = curr_stream[4] & 0xffffffffff800000L;
-      b = z ^ (z << 3);
-      z = (b >>> 40) ^ (b >>> 29) ^ (b >>> 10) ^ (z << 1) ^ (z << 12) ^ (z << 31);
-      curr_stream[4] = z;
-
+      streamJump(curr_stream);
    }
 
    /**
@@ -240,6 +190,67 @@ public class LFSR258 extends RandomStreamBase {
    }
 
    public void resetNextSubstream() {
+      substreamJump(substream);
+      resetStartSubstream();
+   }
+
+   // Moves each component of the seed s ahead by Z steps. This is the jump made
+   // by the constructor from one stream to the next.
+   private static void streamJump(long[] s) {
+      // Les operations qui suivent permettent de faire sauter en avant
+      // de 2^200 iterations chacunes des composantes du generateur.
+      // L'etat interne apres le saut est cependant legerement different
+      // de celui apres 2^200 iterations puisqu'il ignore l'etat dans
+      // lequel se retrouvent les premiers bits de chaque composantes,
+      // puisqu'ils sont ignores dans la recurrence. L'etat redevient
+      // identique a ce que l'on aurait avec des iterations normales
+      // apres un appel a nextValue().
+
+      long z, b;
+
+      z = s[0] & 0xfffffffffffffffeL;
+      b = z ^ (z << 1);
+      z = (b >>> 58) ^ (b >>> 55) ^ (b >>> 46) ^ (b >>> 43) ^ (z << 5) ^ (z << 8) ^ (z << 17) ^ (z << 20);
+      s[0] = z;
+
+      z = s[1] & 0xfffffffffffffe00L;
+      b = z ^ (z << 24);
+      z = (b >>> 54) ^ (b >>> 53) ^ (b >>> 52) ^ (b >>> 50) ^ (b >>> 49) ^ (b >>> 48) ^ (b >>> 43) ^ (b >>> 41)
+            ^ (b >>> 38) ^ (b >>> 37) ^ (b >>> 30) ^ (b >>> 25) ^ (b >>> 24) ^ (b >>> 23) ^ (b >>> 19) ^ (b >>> 16)
+            ^ (b >>> 15) ^ (b >>> 14) ^ (b >>> 13) ^ (b >>> 11) ^ (b >>> 8) ^ (b >>> 7) ^ (b >>> 5) ^ (b >>> 3)
+            ^ (z << 0) ^ (z << 2) ^ (z << 3) ^ (z << 6) ^ (z << 7) ^ (z << 8) ^ (z << 9) ^ (z << 10) ^ (z << 11)
+            ^ (z << 12) ^ (z << 13) ^ (z << 14) ^ (z << 16) ^ (z << 18) ^ (z << 19) ^ (z << 21) ^ (z << 25) ^ (z << 30)
+            ^ (z << 31) ^ (z << 32) ^ (z << 36) ^ (z << 39) ^ (z << 40) ^ (z << 41) ^ (z << 42) ^ (z << 44) ^ (z << 47)
+            ^ (z << 48) ^ (z << 50) ^ (z << 52);
+      s[1] = z;
+
+      z = s[2] & 0xfffffffffffff000L;
+      b = z ^ (z << 3);
+      z = (b >>> 50) ^ (b >>> 49) ^ (b >>> 46) ^ (b >>> 42) ^ (b >>> 40) ^ (b >>> 39) ^ (b >>> 38) ^ (b >>> 37)
+            ^ (b >>> 36) ^ (b >>> 32) ^ (b >>> 29) ^ (b >>> 28) ^ (b >>> 27) ^ (b >>> 25) ^ (b >>> 23) ^ (b >>> 20)
+            ^ (b >>> 19) ^ (b >>> 15) ^ (b >>> 12) ^ (b >>> 11) ^ (b >>> 2) ^ (z << 1) ^ (z << 2) ^ (z << 3) ^ (z << 6)
+            ^ (z << 10) ^ (z << 12) ^ (z << 13) ^ (z << 14) ^ (z << 15) ^ (z << 16) ^ (z << 20) ^ (z << 23) ^ (z << 24)
+            ^ (z << 25) ^ (z << 27) ^ (z << 29) ^ (z << 32) ^ (z << 33) ^ (z << 37) ^ (z << 40) ^ (z << 41) ^ (z << 50);
+      s[2] = z;
+
+      z = s[3] & 0xfffffffffffe0000L;
+      b = z ^ (z << 5);
+      z = (b >>> 46) ^ (b >>> 44) ^ (b >>> 42) ^ (b >>> 41) ^ (b >>> 40) ^ (b >>> 38) ^ (b >>> 36) ^ (b >>> 32)
+            ^ (b >>> 30) ^ (b >>> 25) ^ (b >>> 18) ^ (b >>> 16) ^ (b >>> 15) ^ (b >>> 14) ^ (b >>> 12) ^ (b >>> 11)
+            ^ (b >>> 10) ^ (b >>> 9) ^ (b >>> 8) ^ (b >>> 6) ^ (b >>> 5) ^ (b >>> 4) ^ (b >>> 3) ^ (b >>> 2) ^ (z << 2)
+            ^ (z << 5) ^ (z << 6) ^ (z << 7) ^ (z << 9) ^ (z << 11) ^ (z << 15) ^ (z << 17) ^ (z << 22) ^ (z << 29)
+            ^ (z << 31) ^ (z << 32) ^ (z << 33) ^ (z << 35) ^ (z << 36) ^ (z << 37) ^ (z << 38) ^ (z << 39) ^ (z << 41)
+            ^ (z << 42) ^ (z << 43) ^ (z << 44) ^ (z << 45);
+      s[3] = z;
+
+      z = s[4] & 0xffffffffff800000L;
+      b = z ^ (z << 3);
+      z = (b >>> 40) ^ (b >>> 29) ^ (b >>> 10) ^ (z << 1) ^ (z << 12) ^ (z << 31);
+      s[4] = z;
+   }
+
+   // Moves each component of the seed s ahead by W steps.
+   private static void substreamJump(long[] s) {
       // Les operations qui suivent permettent de faire sauter en avant
       // de 2^100 iterations chacunes des composantes du generateur.
       // L'etat interne apres le saut est cependant legerement different
@@ -251,15 +262,15 @@ public class LFSR258 extends RandomStreamBase {
 
       long z, b;
 
-      z = substream[0] & 0xfffffffffffffffeL;
+      z = s[0] & 0xfffffffffffffffeL;
       b = z ^ (z << 1);
       z = (b >>> 61) ^ (b >>> 59) ^ (b >>> 58) ^ (b >>> 57) ^ (b >>> 51) ^ (b >>> 47) ^ (b >>> 46) ^ (b >>> 45)
             ^ (b >>> 43) ^ (b >>> 39) ^ (b >>> 30) ^ (b >>> 29) ^ (b >>> 23) ^ (b >>> 15) ^ (z << 2) ^ (z << 4)
             ^ (z << 5) ^ (z << 6) ^ (z << 12) ^ (z << 16) ^ (z << 17) ^ (z << 18) ^ (z << 20) ^ (z << 24) ^ (z << 33)
             ^ (z << 34) ^ (z << 40) ^ (z << 48);
-      substream[0] = z;
+      s[0] = z;
 
-      z = substream[1] & 0xfffffffffffffe00L;
+      z = s[1] & 0xfffffffffffffe00L;
       b = z ^ (z << 24);
       z = (b >>> 52) ^ (b >>> 50) ^ (b >>> 49) ^ (b >>> 46) ^ (b >>> 43) ^ (b >>> 40) ^ (b >>> 37) ^ (b >>> 34)
             ^ (b >>> 30) ^ (b >>> 28) ^ (b >>> 26) ^ (b >>> 25) ^ (b >>> 23) ^ (b >>> 21) ^ (b >>> 20) ^ (b >>> 19)
@@ -268,23 +279,23 @@ public class LFSR258 extends RandomStreamBase {
             ^ (z << 17) ^ (z << 21) ^ (z << 22) ^ (z << 25) ^ (z << 27) ^ (z << 29) ^ (z << 30) ^ (z << 32) ^ (z << 34)
             ^ (z << 35) ^ (z << 36) ^ (z << 38) ^ (z << 40) ^ (z << 42) ^ (z << 43) ^ (z << 45) ^ (z << 47) ^ (z << 48)
             ^ (z << 49) ^ (z << 53);
-      substream[1] = z;
+      s[1] = z;
 
-      z = substream[2] & 0xfffffffffffff000L;
+      z = s[2] & 0xfffffffffffff000L;
       b = z ^ (z << 3);
       z = (b >>> 49) ^ (b >>> 45) ^ (b >>> 41) ^ (b >>> 40) ^ (b >>> 32) ^ (b >>> 27) ^ (b >>> 23) ^ (b >>> 14)
             ^ (b >>> 1) ^ (z << 2) ^ (z << 3) ^ (z << 7) ^ (z << 11) ^ (z << 12) ^ (z << 20) ^ (z << 25) ^ (z << 29)
             ^ (z << 38) ^ (z << 51);
-      substream[2] = z;
+      s[2] = z;
 
-      z = substream[3] & 0xfffffffffffe0000L;
+      z = s[3] & 0xfffffffffffe0000L;
       b = z ^ (z << 5);
       z = (b >>> 45) ^ (b >>> 32) ^ (b >>> 27) ^ (b >>> 22) ^ (b >>> 17) ^ (b >>> 13) ^ (b >>> 12) ^ (b >>> 7)
             ^ (b >>> 3) ^ (b >>> 2) ^ (z << 3) ^ (z << 15) ^ (z << 20) ^ (z << 25) ^ (z << 30) ^ (z << 34) ^ (z << 35)
             ^ (z << 40) ^ (z << 44) ^ (z << 45);
-      substream[3] = z;
+      s[3] = z;
 
-      z = substream[4] & 0xffffffffff800000L;
+      z = s[4] & 0xffffffffff800000L;
       b = z ^ (z << 3);
       z = (b >>> 40) ^ (b >>> 39) ^ (b >>> 38) ^ (b >>> 37) ^ (b >>> 35) ^ (b >>> 34) ^ (b >>> 31) ^ (b >>> 30)
             ^ (b >>> 29) ^ (b >>> 28) ^ (b >>> 27) ^ (b >>> 26) ^ (b >>> 24) ^ (b >>> 23) ^ (b >>> 21) ^ (b >>> 20)
@@ -293,8 +304,88 @@ public class LFSR258 extends RandomStreamBase {
             ^ (z << 11) ^ (z << 12) ^ (z << 13) ^ (z << 14) ^ (z << 15) ^ (z << 17) ^ (z << 18) ^ (z << 20) ^ (z << 21)
             ^ (z << 23) ^ (z << 26) ^ (z << 29) ^ (z << 31) ^ (z << 32) ^ (z << 34) ^ (z << 35) ^ (z << 36) ^ (z << 37)
             ^ (z << 38);
-      substream[4] = z;
+      s[4] = z;
+   }
+
+   // Each jump is a linear transformation of the bits of each component.
+   // jumpZ[e][i][j] and jumpW[e][i][j] contain the image of bit j of component i
+   // by 2^e stream jumps and 2^e substream jumps, respectively, for
+   // e = 0,...,62. They are computed when first needed.
+   private static long[][][] jumpZ, jumpW;
+
+   // Applies the linear transformation whose columns are cols to z.
+   private static long applyJump(long[] cols, long z) {
+      long r = 0;
+      for (int j = 0; z != 0; j++, z >>>= 1)
+         if ((z & 1) != 0)
+            r ^= cols[j];
+      return r;
+   }
 
+   private static long[][][] powersOfTwo(boolean streams) {
+      long[][][] pow = new long[63][5][64];
+      long[] v = new long[5];
+      for (int j = 0; j < 64; j++) {
+         for (int i = 0; i < 5; i++)
+            v[i] = 1L << j;
+         if (streams)
+            streamJump(v);
+         else
+            substreamJump(v);
+         for (int i = 0; i < 5; i++)
+            pow[0][i][j] = v[i];
+      }
+      for (int e = 1; e < pow.length; e++)
+         for (int i = 0; i < 5; i++)
+            for (int j = 0; j < 64; j++)
+               pow[e][i][j] = applyJump(pow[e - 1][i], pow[e - 1][i][j]);
+      return pow;
+   }
+
+   private static synchronized void initJumps() {
+      if (jumpZ != null)
+         return;
+      jumpW = powersOfTwo(false);
+      jumpZ = powersOfTwo(true);
+   }
+
+   // Applies k jumps to s, in O(log k) steps.
+   private static void advance(long[] s, long k, long[][][] pow) {
+      if (k < 0)
+         throw new IllegalArgumentException("k must be non-negative");
+      for (int e = 0; k != 0; e++, k >>>= 1)
+         if ((k & 1) != 0)
+            for (int i = 0; i < 5; i++)
+               s[i] = applyJump(pow[e][i], s[i]);
+   }
+
+   /**
+    * Moves the initial seed of this stream @f$kZ@f$ steps ahead and resets the
+    * stream to this new seed. After the call, this stream is the one that would
+    * have been created @f$k@f$ streams after it by the constructor. For example,
+    * a worker with index @f$k@f$ can build the @f$k@f$-th stream from the package
+    * seed with `new LFSR258()` followed by `advanceStreams(k)`, without creating
+    * the @f$k@f$ previous streams. The jump is made in @f$O(\log k)@f$
+    * operations, using precomputed powers of the jump transformation.
+    *
+    * @param k number of streams to skip (must be non-negative)
+    */
+   public void advanceStreams(long k) {
+      initJumps();
+      advance(stream, k, jumpZ);
+      resetStartStream();
+   }
+
+   /**
+    * Moves the starting point of the current substream @f$kW@f$ steps ahead and
+    * resets the stream to it. This has the same effect as calling
+    * #resetNextSubstream @f$k@f$ times, but takes @f$O(\log k)@f$ operations.
+    *
+    * @param k number of substreams to skip (must be non-negative)
+    */
+   public void advanceSubstreams(long k) {
+      initJumps();
+      advance(substream, k, jumpW);
       resetStartSubstream();
    }
 
@@ -109,6 +109,38 @@ public class MRG31k3p extends RandomStreamBase {
 
    }
 
+   // Jump matrices A^{Z 2^e} and A^{W 2^e}, e = 0,...,62, for both components,
+   // computed when first needed by advanceStreams or advanceSubstreams.
+   private static int[][][] A1pZ2e, A2pZ2e, A1pW2e, A2pW2e;
+
+   // Returns the matrices A^{2^e} mod m, for e = 0,...,62.
+   private static int[][][] powersOfTwo(int[][] A, int m) {
+      int[][][] pow = new int[63][3][3];
+      ArithmeticMod.matTwoPowModM(A, pow[0], m, 0);
+      for (int e = 1; e < pow.length; e++)
+         ArithmeticMod.matMatModM(pow[e - 1], pow[e - 1], pow[e], m);
+      return pow;
+   }
+
+   private static synchronized void initJumpMatrices() {
+      if (A1pZ2e != null)
+         return;
+      A1pW2e = powersOfTwo(A1p72, M1);
+      A2pW2e = powersOfTwo(A2p72, M2);
+      A1pZ2e = powersOfTwo(A1p134, M1);
+      A2pZ2e = powersOfTwo(A2p134, M2);
+   }
+
+   // Moves the state v by k jumps, where A[e] and B[e] are the jump matrices
+   // raised to the power 2^e, in O(log k) matrix-vector products.
+   private static void advance(int[] v, long k, int[][][] A, int[][][] B) {
+      if (k < 0)
+         throw new IllegalArgumentException("k must be non-negative");
+      for (int e = 0; k != 0; e++, k >>>= 1)
+         if ((k & 1) != 0)
+            multMatVect(v, A[e], M1, B[e], M2);
+   }
+
    /**
     * Constructs a new stream, initialized to its seed, which is
     * 
@@ -215,6 +247,37 @@ public class MRG31k3p extends RandomStreamBase {
       resetStartSubstream();
    }
 
+   /**
+    * Moves the initial seed of this stream @f$kZ@f$ steps ahead and
+    * resets the stream to this new seed. After the call, this stream is the one
+    * that would have been created @f$k@f$ streams after it by the constructor.
+    * For example, a worker with index @f$k@f$ can build the @f$k@f$-th stream
+    * from the package seed with `new MRG31k3p()` followed by `advanceStreams(k)`,
+    * without creating the @f$k@f$ previous streams. The jump is made in
+    * @f$O(\log k)@f$ operations, using precomputed powers of the
+    * transition matrix.
+    *
+    * @param k number of streams to skip (must be non-negative)
+    */
+   public void advanceStreams(long k) {
+      initJumpMatrices();
+      advance(stream, k, A1pZ2e, A2pZ2e);
+      resetStartStream();
+   }
+
+   /**
+    * Moves the starting point of the current substream @f$kW@f$ steps
+    * ahead and resets the stream to it. This has the same effect as calling
+    * #resetNextSubstream @f$k@f$ times, but takes @f$O(\log k)@f$ operations.
+    *
+    * @param k number of substreams to skip (must be non-negative)
+    */
+   public void advanceSubstreams(long k) {
+      initJumpMatrices();
+      advance(substream, k, A1pW2e, A2pW2e);
+      resetStartSubstream();
+   }
+
    /**
     * Returns the current state @f$C_g@f$ of this stream. This is a vector of 6
     * integers represented. This method is convenient if we want to save the state
@@ -292,4 +355,69 @@ public class MRG31k3p extends RandomStreamBase {
          return (x11 - x21) * NORM;
    }
 
-}
\ No newline at end of file
+   /**
+    * Generates `n` uniform random numbers in the same way as #nextDouble and
+    * stores them in `u[start..start+n-1]`. The values are identical to those of
+    * `n` successive calls to #nextDouble, but unless the antithetic switch or the
+    * increased precision is on, the state is kept in local variables during the
+    * whole block, which is faster than calling #nextDouble in a loop.
+    */
+   public void nextArrayOfDouble(double[] u, int start, int n) {
+      if (anti || prec53) {
+         super.nextArrayOfDouble(u, start, n);
+         return;
+      }
+      if (u.length == 0)
+         throw new NullPointerException("The array must be initialized.");
+      if (u.length < n + start)
+         throw new IndexOutOfBoundsException("The array is too small.");
+      if (start < 0)
+         throw new IndexOutOfBoundsException("Must start at a " + "non-negative index.");
+      if (n < 0)
+         throw new IllegalArgumentException("Must have a non-negative " + "number of elements.");
+
+      int s11 = x11, s12 = x12, s13 = x13, s21 = x21, s22 = x22, s23 = x23;
+      int y1, y2;
+      for (int i = start; i < start + n; i++) {
+         // first component
+         y1 = ((s12 & MASK12) << 22) + (s12 >>> 9) + ((s13 & MASK13) << 7) + (s13 >>> 24);
+         if (y1 < 0 || y1 >= M1) // must also check overflow
+            y1 -= M1;
+         y1 += s13;
+         if (y1 < 0 || y1 >= M1)
+            y1 -= M1;
+
+         s13 = s12;
+         s12 = s11;
+         s11 = y1;
+
+         // second component
+         y1 = ((s21 & MASK2) << 15) + (MULT2 * (s21 >>> 16));
+         if (y1 < 0 || y1 >= M2)
+            y1 -= M2;
+         y2 = ((s23 & MASK2) << 15) + (MULT2 * (s23 >>> 16));
+         if (y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += s23;
+         if (y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += y1;
+         if (y2 < 0 || y2 >= M2)
+            y2 -= M2;
+
+         s23 = s22;
+         s22 = s21;
+         s21 = y2;
+
+         // Must never return either 0 or 1
+         u[i] = (s11 <= s21) ? (s11 - s21 + M1) * NORM : (s11 - s21) * NORM;
+      }
+      x11 = s11;
+      x12 = s12;
+      x13 = s13;
+      x21 = s21;
+      x22 = s22;
+      x23 = s23;
+   }
+
+}
@@ -108,6 +108,38 @@ public class MRG32k3a extends RandomStreamBase {
          v[i + 3] = vv[i];
    }
 
+   // Jump matrices A^{Z 2^e} and A^{W 2^e}, e = 0,...,62, for both components,
+   // computed when first needed by advanceStreams or advanceSubstreams.
+   private static double[][][] A1pZ2e, A2pZ2e, A1pW2e, A2pW2e;
+
+   // Returns the matrices A^{2^e} mod m, for e = 0,...,62.
+   private static double[][][] powersOfTwo(double[][] A, double m) {
+      double[][][] pow = new double[63][3][3];
+      ArithmeticMod.matTwoPowModM(A, pow[0], m, 0);
+      for (int e = 1; e < pow.length; e++)
+         ArithmeticMod.matMatModM(pow[e - 1], pow[e - 1], pow[e], m);
+      return pow;
+   }
+
+   private static synchronized void initJumpMatrices() {
+      if (A1pZ2e != null)
+         return;
+      A1pW2e = powersOfTwo(A1p76, m1);
+      A2pW2e = powersOfTwo(A2p76, m2);
+      A1pZ2e = powersOfTwo(A1p127, m1);
+      A2pZ2e = powersOfTwo(A2p127, m2);
+   }
+
+   // Moves the state v by k jumps, where A[e] and B[e] are the jump matrices
+   // raised to the power 2^e, in O(log k) matrix-vector products.
+   private static void advance(double[] v, long k, double[][][] A, double[][][] B) {
+      if (k < 0)
+         throw new IllegalArgumentException("k must be non-negative");
+      for (int e = 0; k != 0; e++, k >>>= 1)
+         if ((k & 1) != 0)
+            multMatVect(v, A[e], m1, B[e], m2);
+   }
+
    /**
     * Constructs a new stream, initializes its seed @f$I_g@f$, sets
     * 
@@ -195,6 +227,37 @@ public class MRG32k3a extends RandomStreamBase {
       resetStartSubstream();
    }
 
+   /**
+    * Moves the initial seed @f$I_g@f$ of this stream @f$kZ@f$ steps ahead and
+    * resets the stream to this new seed. After the call, this stream is the one
+    * that would have been created @f$k@f$ streams after it by the constructor.
+    * For example, a worker with index @f$k@f$ can build the @f$k@f$-th stream
+    * from the package seed with `new MRG32k3a()` followed by `advanceStreams(k)`,
+    * without creating the @f$k@f$ previous streams. The jump is made in
+    * @f$O(\log k)@f$ operations, using precomputed powers of the
+    * transition matrix.
+    *
+    * @param k number of streams to skip (must be non-negative)
+    */
+   public void advanceStreams(long k) {
+      initJumpMatrices();
+      advance(Ig, k, A1pZ2e, A2pZ2e);
+      resetStartStream();
+   }
+
+   /**
+    * Moves the starting point @f$B_g@f$ of the current substream @f$kW@f$ steps
+    * ahead and resets the stream to it. This has the same effect as calling
+    * #resetNextSubstream @f$k@f$ times, but takes @f$O(\log k)@f$ operations.
+    *
+    * @param k number of substreams to skip (must be non-negative)
+    */
+   public void advanceSubstreams(long k) {
+      initJumpMatrices();
+      advance(Bg, k, A1pW2e, A2pW2e);
+      resetStartSubstream();
+   }
+
    /**
     * Returns the current state @f$C_g@f$ of this stream. This is a vector of 6
     * integers. This method is convenient if we want to save the state for
@@ -307,6 +370,60 @@ public class MRG32k3a extends RandomStreamBase {
       return ((p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm);
    }
 
+   /**
+    * Generates `n` uniform random numbers in the same way as #nextDouble and
+    * stores them in `u[start..start+n-1]`. The values are identical to those of
+    * `n` successive calls to #nextDouble, but unless the antithetic switch or the
+    * increased precision is on, the state is kept in local variables during the
+    * whole block, which is faster than calling #nextDouble in a loop.
+    */
+   public void nextArrayOfDouble(double[] u, int start, int n) {
+      if (anti || prec53) {
+         super.nextArrayOfDouble(u, start, n);
+         return;
+      }
+      if (u.length == 0)
+         throw new NullPointerException("The array must be initialized.");
+      if (u.length < n + start)
+         throw new IndexOutOfBoundsException("The array is too small.");
+      if (start < 0)
+         throw new IndexOutOfBoundsException("Must start at a " + "non-negative index.");
+      if (n < 0)
+         throw new IllegalArgumentException("Must have a non-negative " + "number of elements.");
+
+      double c0 = Cg0, c1 = Cg1, c2 = Cg2, c3 = Cg3, c4 = Cg4, c5 = Cg5;
+      int k;
+      double p1, p2;
+      for (int i = start; i < start + n; i++) {
+         /* Component 1 */
+         p1 = a12 * c1 - a13n * c0;
+         k = (int) (p1 / m1);
+         p1 -= k * m1;
+         if (p1 < 0.0)
+            p1 += m1;
+         c0 = c1;
+         c1 = c2;
+         c2 = p1;
+         /* Component 2 */
+         p2 = a21 * c5 - a23n * c3;
+         k = (int) (p2 / m2);
+         p2 -= k * m2;
+         if (p2 < 0.0)
+            p2 += m2;
+         c3 = c4;
+         c4 = c5;
+         c5 = p2;
+         /* Combination */
+         u[i] = (p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm;
+      }
+      Cg0 = c0;
+      Cg1 = c1;
+      Cg2 = c2;
+      Cg3 = c3;
+      Cg4 = c4;
+      Cg5 = c5;
+   }
+
    private static void validateSeed(long seed[]) {
       if (seed.length < 6)
          throw new IllegalArgumentException("Seed must contain 6 values");
@@ -82,6 +82,25 @@ public abstract class Event implements Comparable<Event> {
       myra = r;
    }
 
+   boolean recyclable = false;
+   // True if the simulator recycles this event after its execution.
+
+   boolean pooled = false;
+   // True if this event is in the pool of recycled events of its simulator.
+
+   private int listIndex = -1;
+   // Position of this event in an array-based event list such as DaryHeap,
+   // or -1 if it is not in such a list.
+
+   // For internal use
+   public final int getListIndex() {
+      return listIndex;
+   }
+
+   public final void setListIndex(int i) {
+      listIndex = i;
+   }
+
    /**
     * Constructs a new event instance, which can be placed afterwards into the
     * event list of the default simulator by calling one of the `schedule...`
@@ -250,6 +269,30 @@ public abstract class Event implements Comparable<Event> {
       return ev.cancel();
    }
 
+   /**
+    * Marks this event as recyclable or not. After a recyclable event occurs, if
+    * its `actions` method did not schedule it again, its simulator puts it in
+    * its pool of recycled events, from which it can be taken by
+    * umontreal.ssj.simevents.Simulator.takeEvent or
+    * umontreal.ssj.simevents.Simulator.schedule(Class,double). The program must
+    * then not use this event anymore, e.g., to cancel it, unless it takes it
+    * back from the pool. By default, events are not recyclable.
+    *
+    * @param recyclable `true` if this event is recycled after its execution
+    */
+   public final void setRecyclable(boolean recyclable) {
+      this.recyclable = recyclable;
+   }
+
+   /**
+    * Returns `true` if this event is recycled after its execution.
+    *
+    * @return `true` if the event is recyclable
+    */
+   public final boolean isRecyclable() {
+      return recyclable;
+   }
+
    /**
     * Returns the simulator linked to this event.
     * 
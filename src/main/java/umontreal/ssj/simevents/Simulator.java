@@ -24,6 +24,9 @@
  */
 package umontreal.ssj.simevents;
 
+import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.HashMap;
 import umontreal.ssj.simevents.eventlist.EventList;
 import umontreal.ssj.simevents.eventlist.SplayTree;
 
@@ -46,6 +49,17 @@ import umontreal.ssj.simevents.eventlist.SplayTree;
  * can launch many simulations in parallel with as many threads, as long as
  * *each thread has its own* `Simulator`.
  *
+ * To reduce the number of objects created by models with high event rates, a
+ * simulator can recycle its events. An event for which
+ * {@link Event#setRecyclable(boolean) setRecyclable(true)} was called is put in
+ * a pool of the simulator, keyed by the class of the event, after its
+ * `actions` method returns, unless it was scheduled again by this method. The
+ * pooled events can then be reused with #takeEvent or #schedule(Class,double).
+ * A recycled event keeps the values of its fields, including its priority, so
+ * it is up to the program to reset them if needed. A recyclable event must not
+ * be referenced by the program after its execution, unless it is scheduled
+ * again.
+ *
  * <div class="SSJ-bigskip"></div>
  */
 public class Simulator {
@@ -65,6 +79,9 @@ public class Simulator {
 
    protected ContinuousState continuousState = null;
 
+   private HashMap<Class<?>, ArrayDeque<Event>> eventPool = null;
+   // Recycled events, by class.
+
    /**
     * Represents the default simulator being used by the class @ref Sim, and the
     * no-argument constructor of @ref Event. This simulator is usually obtained
@@ -192,6 +209,8 @@ public class Simulator {
             // currentTime = ev.eventTime;
             // ev.eventTime = -10.0;
             ev.actions();
+            if (ev.recyclable && ev.eventTime < -1.0)
+               recycle(ev);
             // if ev is a thread object associated to a process,
             // the control will be transfered to this thread and the
             // executive will be passivated in the actions() method.
@@ -213,6 +232,106 @@ public class Simulator {
       stopped = true;
    }
 
+   /**
+    * Puts the event `ev`, which must not be scheduled, in the pool of recycled
+    * events of this simulator. This is done automatically after the execution
+    * of the events for which {@link Event#setRecyclable(boolean)
+    * setRecyclable(true)} was called, but it can also be called directly, e.g.,
+    * for an event that was cancelled. An event can be put only once in the
+    * pool, until it is taken back by #takeEvent.
+    *
+    * @param ev event to recycle
+    * @exception IllegalStateException if `ev` is scheduled or already in the
+    *                                  pool
+    */
+   public void recycle(Event ev) {
+      if (ev.eventTime > -1.0)
+         throw new IllegalStateException("Cannot recycle a scheduled event");
+      if (ev.pooled)
+         throw new IllegalStateException("Event already recycled");
+      if (eventPool == null)
+         eventPool = new HashMap<Class<?>, ArrayDeque<Event>>();
+      ArrayDeque<Event> pool = eventPool.get(ev.getClass());
+      if (pool == null) {
+         pool = new ArrayDeque<Event>();
+         eventPool.put(ev.getClass(), pool);
+      }
+      ev.pooled = true;
+      pool.push(ev);
+   }
+
+   /**
+    * Returns an event of class `cl` taken from the pool of recycled events of
+    * this simulator, or `null` if there is no such event. The fields of the
+    * returned event have the values they had when it was recycled.
+    *
+    * @param cl class of the event
+    * @return a recycled event, or `null`
+    */
+   @SuppressWarnings("unchecked")
+   public <E extends Event> E takeEvent(Class<E> cl) {
+      if (eventPool == null)
+         return null;
+      ArrayDeque<Event> pool = eventPool.get(cl);
+      if (pool == null || pool.isEmpty())
+         return null;
+      Event ev = pool.pop();
+      ev.pooled = false;
+      return (E) ev;
+   }
+
+   /**
+    * Schedules an event of class `cl` to happen in `delay` time units, and
+    * returns it. The event is taken from the pool of recycled events if
+    * possible, without reinitializing its fields; otherwise, a new event is
+    * constructed with the constructor of `cl` taking a @ref Simulator as its
+    * only argument or, if there is none, with its constructor without
+    * arguments. This constructor must be accessible. The new event is made
+    * recyclable, so the program should not keep a reference to it after it
+    * occurs.
+    *
+    * @param cl    class of the event
+    * @param delay simulation time that must pass before the event happens
+    * @return the scheduled event
+    */
+   public <E extends Event> E schedule(Class<E> cl, double delay) {
+      E ev = takeEvent(cl);
+      if (ev == null) {
+         ev = newEvent(cl);
+         ev.setRecyclable(true);
+      }
+      ev.schedule(delay);
+      return ev;
+   }
+
+   private <E extends Event> E newEvent(Class<E> cl) {
+      try {
+         Constructor<E> c;
+         try {
+            c = cl.getDeclaredConstructor(Simulator.class);
+            return c.newInstance(this);
+         } catch (NoSuchMethodException e) {
+            c = cl.getDeclaredConstructor();
+            E ev = c.newInstance();
+            ev.setSimulator(this);
+            return ev;
+         }
+      } catch (ReflectiveOperationException e) {
+         throw new IllegalArgumentException("Cannot construct an event of " + cl, e);
+      }
+   }
+
+   /**
+    * Empties the pool of recycled events of this simulator.
+    */
+   public void clearEventPool() {
+      if (eventPool != null)
+         for (ArrayDeque<Event> pool : eventPool.values())
+            for (Event ev : pool)
+               ev.pooled = false;
+      eventPool = null;
+   }
+
    /**
     * Returns the current state of continuous variables being integrated during the
     * simulation. This state is used by the @ref Continuous class when performing
@@ -0,0 +1,475 @@
+/*
+ * Class:        CalendarQueue
+ * Description:  implementation of class EventList using a self-resizing
+                 calendar queue
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.simevents.eventlist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import umontreal.ssj.util.PrintfFormat;
+import umontreal.ssj.simevents.Event;
+
+/**
+ * An implementation of @ref EventList using the calendar queue of Brown
+ * (R. Brown, *Calendar Queues: A Fast O(1) Priority Queue Implementation for
+ * the Simulation Event Set Problem*, Communications of the ACM, 31(10), 1988).
+ * The time axis is divided in *days* of equal width, and the days are mapped
+ * cyclically to an array of buckets, as the days of a year in a calendar. Each
+ * bucket contains a sorted list of its events. The first event is found by
+ * scanning the buckets from the current day. When the number of events becomes
+ * larger than twice, or smaller than half, the number of buckets, this number
+ * is doubled or halved, and the width of the days is recomputed from the
+ * average separation between the first events. When the times between events
+ * are fairly regular, this gives an amortized @f$O(1)@f$ time for adding an
+ * event and removing the first one, regardless of the number of events.
+ *
+ * Events with the same time and priority are in the same bucket, in the order
+ * they were scheduled, except that the events added by #addFirst are put
+ * before the others, so the ordering is the same as with the other
+ * implementations. The lists are stored in arrays, and each event stores its
+ * position in these arrays (see umontreal.ssj.simevents.Event.getListIndex),
+ * so adding an event allocates nothing and an event can be removed in constant
+ * time, as can be done by #addBefore and #addAfter. The iterators enumerate a
+ * sorted copy of the list. Their `remove` method removes the event from the
+ * list, but they do not support `add` and `set`.
+ *
+ * <div class="SSJ-bigskip"></div>
+ */
+public class CalendarQueue implements EventList {
+   private static final int MIN_BUCKETS = 16;
+   private static final int NUM_SAMPLES = 25; // Used to estimate the width.
+
+   private int size = 0;
+   private int numBuckets;
+   private int mask; // numBuckets - 1.
+   private double width = 1.0; // Width of a day.
+   private long day = 0; // Day of the last event found.
+   private int[] head; // First entry of each bucket, -1 if empty.
+   private int[] tail; // Last entry of each bucket.
+
+   // Entries, linked in a doubly-linked list for each bucket.
+   private Event[] events;
+   private double[] times;
+   private double[] prios;
+   private int[] next; // Also links the free entries.
+   private int[] prev;
+   private int free = -1; // First free entry.
+   private int numEntries = 0; // Number of entries used at least once.
+   private int modCount = 0;
+
+   /**
+    * Constructs an empty calendar queue.
+    */
+   public CalendarQueue() {
+      setBuckets(MIN_BUCKETS);
+      allocate(64);
+   }
+
+   private void setBuckets(int n) {
+      numBuckets = n;
+      mask = n - 1;
+      head = new int[n];
+      tail = new int[n];
+      Arrays.fill(head, -1);
+      Arrays.fill(tail, -1);
+   }
+
+   private void allocate(int capacity) {
+      events = events == null ? new Event[capacity] : Arrays.copyOf(events, capacity);
+      times = times == null ? new double[capacity] : Arrays.copyOf(times, capacity);
+      prios = prios == null ? new double[capacity] : Arrays.copyOf(prios, capacity);
+      next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+      prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public void clear() {
+      for (int b = 0; b < numBuckets; b++)
+         for (int e = head[b]; e >= 0; e = next[e])
+            events[e].setListIndex(-1);
+      Arrays.fill(events, null);
+      setBuckets(MIN_BUCKETS);
+      size = 0;
+      free = -1;
+      numEntries = 0;
+      day = 0;
+      ++modCount;
+   }
+
+   public void add(Event ev) {
+      int e = newEntry(ev, ev.time(), ev.priority());
+      insertSorted(e, false);
+      added();
+   }
+
+   public void addFirst(Event ev) {
+      int e = newEntry(ev, ev.time(), ev.priority());
+      insertSorted(e, true);
+      added();
+   }
+
+   public void addBefore(Event ev, Event other) {
+      int o = indexOf(other);
+      if (o < 0)
+         throw new IllegalArgumentException("Event not in list.");
+      int e = newEntry(ev, times[o], prios[o]);
+      link(e, bucketOf(times[o]), prev[o], o);
+      added();
+   }
+
+   public void addAfter(Event ev, Event other) {
+      int o = indexOf(other);
+      if (o < 0)
+         throw new IllegalArgumentException("Event not in list.");
+      int e = newEntry(ev, times[o], prios[o]);
+      link(e, bucketOf(times[o]), o, next[o]);
+      added();
+   }
+
+   public Event getFirst() {
+      return size == 0 ? null : events[findFirst()];
+   }
+
+   public Event getFirstOfClass(String cl) {
+      for (Event ev : sortedEvents())
+         if (ev.getClass().getName().equals(cl))
+            return ev;
+      return null;
+   }
+
+   @SuppressWarnings("unchecked")
+   public <E extends Event> E getFirstOfClass(Class<E> cl) {
+      for (Event ev : sortedEvents())
+         if (ev.getClass() == cl)
+            return (E) ev;
+      return null;
+   }
+
+   public Iterator<Event> iterator() {
+      return listIterator();
+   }
+
+   public ListIterator<Event> listIterator() {
+      return new CQItr();
+   }
+
+   public boolean remove(Event ev) {
+      int e = indexOf(ev);
+      if (e < 0)
+         return false;
+      removeEntry(e);
+      return true;
+   }
+
+   public Event removeFirst() {
+      if (size == 0)
+         return null;
+      int e = findFirst();
+      Event ev = events[e];
+      removeEntry(e);
+      return ev;
+   }
+
+   public String toString() {
+      StringBuilder sb = new StringBuilder("Contents of the event list CalendarQueue:");
+      for (Event ev : sortedEvents())
+         sb.append(PrintfFormat.NEWLINE + PrintfFormat.g(12, 7, ev.time()) + ", "
+               + PrintfFormat.g(8, 4, ev.priority()) + " : " + ev.toString());
+      return sb.toString();
+   }
+
+   private long dayOf(double t) {
+      return (long) Math.floor(t / width);
+   }
+
+   private int bucketOf(double t) {
+      return (int) (dayOf(t) & mask);
+   }
+
+   // Returns the entry of ev, or -1 if it is not in this list.
+   private int indexOf(Event ev) {
+      int e = ev.getListIndex();
+      return (e >= 0 && e < numEntries && events[e] == ev) ? e : -1;
+   }
+
+   private int newEntry(Event ev, double time, double prio) {
+      int e;
+      if (free >= 0) {
+         e = free;
+         free = next[e];
+      } else {
+         if (numEntries == events.length)
+            allocate(2 * numEntries);
+         e = numEntries++;
+      }
+      events[e] = ev;
+      times[e] = time;
+      prios[e] = prio;
+      ev.setListIndex(e);
+      return e;
+   }
+
+   // Inserts entry e in the bucket b, between entries p and n (-1 for none).
+   private void link(int e, int b, int p, int n) {
+      prev[e] = p;
+      next[e] = n;
+      if (p >= 0)
+         next[p] = e;
+      else
+         head[b] = e;
+      if (n >= 0)
+         prev[n] = e;
+      else
+         tail[b] = e;
+   }
+
+   // Inserts entry e in its bucket, after the entries with the same time and
+   // priority, or before them if beforeEquals is true.
+   private void insertSorted(int e, boolean beforeEquals) {
+      double t = times[e];
+      double p = prios[e];
+      int b = bucketOf(t);
+      if (beforeEquals) {
+         int n = head[b];
+         while (n >= 0 && (times[n] < t || (times[n] == t && prios[n] < p)))
+            n = next[n];
+         link(e, b, n >= 0 ? prev[n] : tail[b], n);
+      } else {
+         // New events usually come after the others, so we search from the end.
+         int q = tail[b];
+         while (q >= 0 && (times[q] > t || (times[q] == t && prios[q] > p)))
+            q = prev[q];
+         link(e, b, q, q >= 0 ? next[q] : head[b]);
+      }
+      if (dayOf(t) < day)
+         day = dayOf(t);
+   }
+
+   private void added() {
+      ++size;
+      ++modCount;
+      if (size > 2 * numBuckets)
+         resize(2 * numBuckets);
+   }
+
+   private void removeEntry(int e) {
+      int b = bucketOf(times[e]);
+      if (prev[e] >= 0)
+         next[prev[e]] = next[e];
+      else
+         head[b] = next[e];
+      if (next[e] >= 0)
+         prev[next[e]] = prev[e];
+      else
+         tail[b] = prev[e];
+      events[e].setListIndex(-1);
+      events[e] = null;
+      next[e] = free;
+      free = e;
+      --size;
+      ++modCount;
+      if (size < numBuckets / 2 && numBuckets > MIN_BUCKETS)
+         resize(numBuckets / 2);
+   }
+
+   // Returns the entry of the first event, which must exist, and moves the
+   // current day to the day of this event.
+   private int findFirst() {
+      for (int k = 0; k < numBuckets; k++) {
+         int e = head[(int) (day & mask)];
+         if (e >= 0 && dayOf(times[e]) <= day)
+            return e;
+         ++day;
+      }
+      // No event in the next year: direct search among the first events of
+      // the buckets. Events with the same time are in the same bucket.
+      int first = -1;
+      for (int b = 0; b < numBuckets; b++) {
+         int e = head[b];
+         if (e >= 0 && (first < 0 || times[e] < times[first]))
+            first = e;
+      }
+      day = dayOf(times[first]);
+      return first;
+   }
+
+   // Changes the number of buckets to n, recomputes the width of the days, and
+   // moves the events to the new buckets.
+   private void resize(int n) {
+      double w = newWidth();
+      int[] oldHead = head;
+      setBuckets(n);
+      width = w;
+      day = Long.MAX_VALUE;
+      // The events of an old bucket are moved in order, so the events with the
+      // same time and priority, which are all in the same bucket, keep their
+      // order.
+      for (int b = 0; b < oldHead.length; b++) {
+         int e = oldHead[b];
+         while (e >= 0) {
+            int nxt = next[e];
+            insertSorted(e, false);
+            e = nxt;
+         }
+      }
+      if (size == 0)
+         day = 0;
+   }
+
+   // Estimates a good width for the days from the separation between the
+   // first events, as suggested by Brown.
+   private double newWidth() {
+      int k = Math.min(size, NUM_SAMPLES);
+      if (k < 2)
+         return width;
+      // Keep the k smallest times in a sorted array.
+      double[] t = new double[k];
+      int m = 0;
+      for (int b = 0; b < numBuckets; b++)
+         for (int e = head[b]; e >= 0; e = next[e]) {
+            double x = times[e];
+            if (m == k && x >= t[k - 1])
+               continue;
+            int j = m < k ? m++ : k - 1;
+            while (j > 0 && t[j - 1] > x) {
+               t[j] = t[j - 1];
+               --j;
+            }
+            t[j] = x;
+         }
+      double avg = (t[k - 1] - t[0]) / (k - 1);
+      double sum = 0.0;
+      int num = 0;
+      for (int j = 1; j < k; j++) {
+         double gap = t[j] - t[j - 1];
+         if (gap <= 2.0 * avg) {
+            sum += gap;
+            ++num;
+         }
+      }
+      double w = num > 0 ? 3.0 * sum / num : 0.0;
+      return w > 0.0 ? w : width;
+   }
+
+   // Returns the events in the order in which they will occur.
+   private List<Event> sortedEvents() {
+      final int[] rank = new int[numEntries];
+      Integer[] index = new Integer[size];
+      int i = 0;
+      for (int b = 0; b < numBuckets; b++) {
+         int r = 0;
+         for (int e = head[b]; e >= 0; e = next[e]) {
+            rank[e] = r++;
+            index[i++] = e;
+         }
+      }
+      Arrays.sort(index, new Comparator<Integer>() {
+         public int compare(Integer e1, Integer e2) {
+            if (times[e1] != times[e2])
+               return times[e1] < times[e2] ? -1 : 1;
+            if (prios[e1] != prios[e2])
+               return prios[e1] < prios[e2] ? -1 : 1;
+            return rank[e1] - rank[e2];
+         }
+      });
+      List<Event> list = new ArrayList<Event>(size);
+      for (Integer e : index)
+         list.add(events[e]);
+      return list;
+   }
+
+   private class CQItr implements ListIterator<Event> {
+      private ListIterator<Event> itr;
+      private Event lastRet = null;
+      private int expectedModCount;
+
+      CQItr() {
+         itr = sortedEvents().listIterator();
+         expectedModCount = modCount;
+      }
+
+      private void check() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+      }
+
+      public void add(Event ev) {
+         throw new UnsupportedOperationException();
+      }
+
+      public boolean hasNext() {
+         check();
+         return itr.hasNext();
+      }
+
+      public boolean hasPrevious() {
+         check();
+         return itr.hasPrevious();
+      }
+
+      public Event next() {
+         check();
+         lastRet = itr.next();
+         return lastRet;
+      }
+
+      public int nextIndex() {
+         check();
+         return itr.nextIndex();
+      }
+
+      public Event previous() {
+         check();
+         lastRet = itr.previous();
+         return lastRet;
+      }
+
+      public int previousIndex() {
+         check();
+         return itr.previousIndex();
+      }
+
+      public void remove() {
+         check();
+         if (lastRet == null)
+            throw new IllegalStateException();
+         itr.remove();
+         CalendarQueue.this.remove(lastRet);
+         lastRet = null;
+         expectedModCount = modCount;
+      }
+
+      public void set(Event ev) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
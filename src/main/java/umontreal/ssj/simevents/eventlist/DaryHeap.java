@@ -0,0 +1,419 @@
+/*
+ * Class:        DaryHeap
+ * Description:  implementation of class EventList using an array-based
+                 d-ary heap
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.simevents.eventlist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import umontreal.ssj.util.PrintfFormat;
+import umontreal.ssj.simevents.Event;
+
+/**
+ * An implementation of @ref EventList using a @f$d@f$-ary heap stored in
+ * arrays, with @f$d=4@f$ by default. The events are kept in an array, and their
+ * times, priorities and insertion numbers are kept in parallel arrays of
+ * primitive types, so adding an event allocates no node and comparisons do not
+ * need to dereference the events. Each event stores its position in the heap
+ * (see umontreal.ssj.simevents.Event.getListIndex), so an event can be removed
+ * (cancelled or rescheduled) in @f$O(\log(n))@f$ time, as the first event,
+ * where @f$n@f$ is the size of the event list.
+ *
+ * Events with the same time and priority are ordered by an insertion number,
+ * so they occur in the order they were scheduled, as in the other
+ * implementations. The events added by #addFirst get negative, decreasing
+ * insertion numbers, so they come before the events with the same time and
+ * priority, but an event added later with a smaller priority still comes
+ * before them. The methods #addBefore and #addAfter must find the
+ * neighbors of the reference event among the events with the same time and
+ * priority, which takes @f$O(n)@f$ time; they are meant to be used
+ * occasionally. The iterators enumerate a sorted copy of the list. Their
+ * `remove` method removes the event from the list, but they do not support
+ * `add` and `set`.
+ *
+ * <div class="SSJ-bigskip"></div>
+ */
+public class DaryHeap implements EventList {
+   // Insertion numbers are spaced by 2^SEQ_SHIFT, to leave room for the events
+   // inserted by addBefore and addAfter.
+   private static final int SEQ_SHIFT = 20;
+
+   private final int d; // Number of children of each node.
+   private int size = 0;
+   private Event[] events;
+   private double[] times;
+   private double[] prios;
+   private long[] seqs; // Insertion numbers, negative for addFirst.
+   private long numAdded = 0; // Number of calls to add.
+   private long numAddedFirst = 0; // Number of calls to addFirst.
+   private int modCount = 0;
+
+   /**
+    * Constructs an empty event list using a 4-ary heap.
+    */
+   public DaryHeap() {
+      this(4);
+   }
+
+   /**
+    * Constructs an empty event list using a `d`-ary heap. Values of `d` from 2
+    * to 8 are reasonable; larger values give shallower heaps, and thus faster
+    * insertions, but removals look at more children at each level.
+    *
+    * @param d number of children of each node of the heap
+    */
+   public DaryHeap(int d) {
+      if (d < 2)
+         throw new IllegalArgumentException("d must be at least 2");
+      this.d = d;
+      allocate(64);
+   }
+
+   private void allocate(int capacity) {
+      events = events == null ? new Event[capacity] : Arrays.copyOf(events, capacity);
+      times = times == null ? new double[capacity] : Arrays.copyOf(times, capacity);
+      prios = prios == null ? new double[capacity] : Arrays.copyOf(prios, capacity);
+      seqs = seqs == null ? new long[capacity] : Arrays.copyOf(seqs, capacity);
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public void clear() {
+      for (int i = 0; i < size; i++) {
+         events[i].setListIndex(-1);
+         events[i] = null;
+      }
+      size = 0;
+      ++modCount;
+   }
+
+   public void add(Event ev) {
+      insert(ev, ev.time(), ev.priority(), ++numAdded << SEQ_SHIFT);
+   }
+
+   public void addFirst(Event ev) {
+      insert(ev, ev.time(), ev.priority(), -(++numAddedFirst << SEQ_SHIFT));
+   }
+
+   public void addBefore(Event ev, Event other) {
+      int i = indexOf(other);
+      if (i < 0)
+         throw new IllegalArgumentException("Event not in list.");
+      long hi = seqs[i];
+      long lo = neighborSeq(i, false);
+      if (hi - lo < 2) {
+         renumber(times[i], prios[i]);
+         hi = seqs[i];
+         lo = neighborSeq(i, false);
+      }
+      insert(ev, times[i], prios[i], lo + (hi - lo) / 2);
+   }
+
+   public void addAfter(Event ev, Event other) {
+      int i = indexOf(other);
+      if (i < 0)
+         throw new IllegalArgumentException("Event not in list.");
+      long lo = seqs[i];
+      long hi = neighborSeq(i, true);
+      if (hi - lo < 2) {
+         renumber(times[i], prios[i]);
+         lo = seqs[i];
+         hi = neighborSeq(i, true);
+      }
+      insert(ev, times[i], prios[i], lo + (hi - lo) / 2);
+   }
+
+   public Event getFirst() {
+      return size == 0 ? null : events[0];
+   }
+
+   public Event getFirstOfClass(String cl) {
+      int best = -1;
+      for (int i = 0; i < size; i++)
+         if (events[i].getClass().getName().equals(cl) && (best < 0 || less(i, best)))
+            best = i;
+      return best < 0 ? null : events[best];
+   }
+
+   @SuppressWarnings("unchecked")
+   public <E extends Event> E getFirstOfClass(Class<E> cl) {
+      int best = -1;
+      for (int i = 0; i < size; i++)
+         if (events[i].getClass() == cl && (best < 0 || less(i, best)))
+            best = i;
+      return best < 0 ? null : (E) events[best];
+   }
+
+   public Iterator<Event> iterator() {
+      return listIterator();
+   }
+
+   public ListIterator<Event> listIterator() {
+      return new DHItr();
+   }
+
+   public boolean remove(Event ev) {
+      int i = indexOf(ev);
+      if (i < 0)
+         return false;
+      removeAt(i);
+      return true;
+   }
+
+   public Event removeFirst() {
+      if (size == 0)
+         return null;
+      Event first = events[0];
+      removeAt(0);
+      return first;
+   }
+
+   public String toString() {
+      StringBuilder sb = new StringBuilder("Contents of the event list DaryHeap:");
+      for (Event ev : sortedEvents())
+         sb.append(PrintfFormat.NEWLINE + PrintfFormat.g(12, 7, ev.time()) + ", "
+               + PrintfFormat.g(8, 4, ev.priority()) + " : " + ev.toString());
+      return sb.toString();
+   }
+
+   // Returns the position of ev in the heap, or -1 if it is not in this list.
+   private int indexOf(Event ev) {
+      int i = ev.getListIndex();
+      return (i >= 0 && i < size && events[i] == ev) ? i : -1;
+   }
+
+   // Returns true if the event at position i comes before the one at j.
+   private boolean less(int i, int j) {
+      if (times[i] != times[j])
+         return times[i] < times[j];
+      if (prios[i] != prios[j])
+         return prios[i] < prios[j];
+      return seqs[i] < seqs[j];
+   }
+
+   private void insert(Event ev, double time, double prio, long seq) {
+      if (size == events.length)
+         allocate(2 * size);
+      events[size] = ev;
+      times[size] = time;
+      prios[size] = prio;
+      seqs[size] = seq;
+      ev.setListIndex(size);
+      siftUp(size++);
+      ++modCount;
+   }
+
+   private void removeAt(int i) {
+      Event ev = events[i];
+      ev.setListIndex(-1);
+      --size;
+      if (i < size) {
+         move(size, i);
+         events[size] = null;
+         if (i > 0 && less(i, (i - 1) / d))
+            siftUp(i);
+         else
+            siftDown(i);
+      } else
+         events[size] = null;
+      ++modCount;
+   }
+
+   private void move(int from, int to) {
+      events[to] = events[from];
+      times[to] = times[from];
+      prios[to] = prios[from];
+      seqs[to] = seqs[from];
+      events[to].setListIndex(to);
+   }
+
+   private void siftUp(int i) {
+      Event ev = events[i];
+      double t = times[i];
+      double p = prios[i];
+      long s = seqs[i];
+      while (i > 0) {
+         int parent = (i - 1) / d;
+         double tp = times[parent];
+         if (tp < t || (tp == t && (prios[parent] < p || (prios[parent] == p && seqs[parent] < s))))
+            break;
+         move(parent, i);
+         i = parent;
+      }
+      events[i] = ev;
+      times[i] = t;
+      prios[i] = p;
+      seqs[i] = s;
+      ev.setListIndex(i);
+   }
+
+   private void siftDown(int i) {
+      Event ev = events[i];
+      double t = times[i];
+      double p = prios[i];
+      long s = seqs[i];
+      while (true) {
+         int first = d * i + 1;
+         if (first >= size)
+            break;
+         int last = Math.min(first + d, size);
+         int c = first;
+         for (int k = first + 1; k < last; k++)
+            if (less(k, c))
+               c = k;
+         double tc = times[c];
+         if (t < tc || (t == tc && (p < prios[c] || (p == prios[c] && s < seqs[c]))))
+            break;
+         move(c, i);
+         i = c;
+      }
+      events[i] = ev;
+      times[i] = t;
+      prios[i] = p;
+      seqs[i] = s;
+      ev.setListIndex(i);
+   }
+
+   // Returns the insertion number of the event that comes just after (if after
+   // is true) or just before the event at position i among the events with the
+   // same time and priority. If there is no such event, returns the number that
+   // the next event added by add, or by addFirst, would get.
+   private long neighborSeq(int i, boolean after) {
+      long best = after ? (numAdded + 1) << SEQ_SHIFT : -((numAddedFirst + 1) << SEQ_SHIFT);
+      for (int k = 0; k < size; k++) {
+         if (times[k] != times[i] || prios[k] != prios[i])
+            continue;
+         if (after && seqs[k] > seqs[i] && seqs[k] < best)
+            best = seqs[k];
+         else if (!after && seqs[k] < seqs[i] && seqs[k] > best)
+            best = seqs[k];
+      }
+      return best;
+   }
+
+   // Gives new, evenly spaced insertion numbers to the events with the given
+   // time and priority, keeping their order. The heap order is not affected.
+   private void renumber(double time, double prio) {
+      int n = 0;
+      long[] group = new long[size];
+      for (int k = 0; k < size; k++)
+         if (times[k] == time && prios[k] == prio)
+            group[n++] = seqs[k];
+      group = Arrays.copyOf(group, n);
+      Arrays.sort(group);
+      for (int k = 0; k < size; k++)
+         if (times[k] == time && prios[k] == prio)
+            seqs[k] = (numAdded + 1 + Arrays.binarySearch(group, seqs[k])) << SEQ_SHIFT;
+      numAdded += n;
+   }
+
+   // Returns the events in the order in which they will occur.
+   private List<Event> sortedEvents() {
+      Integer[] index = new Integer[size];
+      for (int i = 0; i < size; i++)
+         index[i] = i;
+      Arrays.sort(index, new Comparator<Integer>() {
+         public int compare(Integer i, Integer j) {
+            return less(i, j) ? -1 : (less(j, i) ? 1 : 0);
+         }
+      });
+      List<Event> list = new ArrayList<Event>(size);
+      for (Integer i : index)
+         list.add(events[i]);
+      return list;
+   }
+
+   private class DHItr implements ListIterator<Event> {
+      private ListIterator<Event> itr;
+      private Event lastRet = null;
+      private int expectedModCount;
+
+      DHItr() {
+         itr = sortedEvents().listIterator();
+         expectedModCount = modCount;
+      }
+
+      private void check() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+      }
+
+      public void add(Event ev) {
+         throw new UnsupportedOperationException();
+      }
+
+      public boolean hasNext() {
+         check();
+         return itr.hasNext();
+      }
+
+      public boolean hasPrevious() {
+         check();
+         return itr.hasPrevious();
+      }
+
+      public Event next() {
+         check();
+         lastRet = itr.next();
+         return lastRet;
+      }
+
+      public int nextIndex() {
+         check();
+         return itr.nextIndex();
+      }
+
+      public Event previous() {
+         check();
+         lastRet = itr.previous();
+         return lastRet;
+      }
+
+      public int previousIndex() {
+         check();
+         return itr.previousIndex();
+      }
+
+      public void remove() {
+         check();
+         if (lastRet == null)
+            throw new IllegalStateException();
+         itr.remove();
+         DaryHeap.this.remove(lastRet);
+         lastRet = null;
+         expectedModCount = modCount;
+      }
+
+      public void set(Event ev) {
+         throw new UnsupportedOperationException();
+      }
+   }
+}
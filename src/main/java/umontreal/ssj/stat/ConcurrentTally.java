@@ -0,0 +1,179 @@
+/*
+ * Class:        ConcurrentTally
+ * Description:  statistical collector shared by several threads
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001--2018  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.stat;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A statistical collector that can receive observations from several threads
+ * at the same time. Each thread that calls #add gets its own @ref Tally, called
+ * a *stripe*, so the threads never compete for the same lock. When a
+ * statistic is requested, the stripes are merged with
+ * umontreal.ssj.stat.Tally.merge into a new @ref Tally, which is then queried.
+ * Reading is thus more expensive than adding, and this class is intended for
+ * collectors that receive many observations and are read rarely, e.g., at the
+ * end of a simulation.
+ *
+ * The statistics returned while other threads are still adding observations
+ * include the observations of each stripe up to some point in time, which may
+ * differ from one stripe to another. Observations are not broadcast to
+ * observers. A stripe remains attached to this collector for as long as the
+ * collector is used, even after its thread terminates, so it is better to use
+ * a pool of long-lived threads.
+ *
+ * <div class="SSJ-bigskip"></div>
+ */
+public class ConcurrentTally {
+   private String name;
+   private final CopyOnWriteArrayList<Tally> stripes = new CopyOnWriteArrayList<Tally>();
+   private final ThreadLocal<Tally> localStripe = new ThreadLocal<Tally>() {
+      protected Tally initialValue() {
+         Tally stripe = new Tally();
+         stripes.add(stripe);
+         return stripe;
+      }
+   };
+
+   /**
+    * Constructs a new unnamed collector.
+    */
+   public ConcurrentTally() {
+   }
+
+   /**
+    * Constructs a new collector with name `name`.
+    *
+    * @param name name of the collector
+    */
+   public ConcurrentTally(String name) {
+      this.name = name;
+   }
+
+   /**
+    * Returns the name of this collector.
+    */
+   public String getName() {
+      return name;
+   }
+
+   /**
+    * Removes all the observations from this collector. This should not be called
+    * while other threads are adding observations.
+    */
+   public void init() {
+      for (Tally stripe : stripes)
+         synchronized (stripe) {
+            stripe.init();
+         }
+   }
+
+   /**
+    * Adds the observation `x` to the stripe of the calling thread.
+    *
+    * @param x observation being added to this collector
+    */
+   public void add(double x) {
+      Tally stripe = localStripe.get();
+      // Only the owner thread and the readers lock the stripe, so the lock is
+      // almost never contended.
+      synchronized (stripe) {
+         stripe.add(x);
+      }
+   }
+
+   /**
+    * Returns a new @ref Tally, with the same name as this collector, that
+    * contains the observations of all the stripes. The returned tally is not
+    * affected by subsequent additions to this collector.
+    *
+    * @return a snapshot of the observations of this collector
+    */
+   public Tally snapshot() {
+      Tally t = new Tally(name);
+      for (Tally stripe : stripes)
+         synchronized (stripe) {
+            t.merge(stripe);
+         }
+      return t;
+   }
+
+   /**
+    * Returns the number of observations given to this collector since its last
+    * initialization.
+    */
+   public int numberObs() {
+      return snapshot().numberObs();
+   }
+
+   /**
+    * Returns the average of the observations, as in
+    * umontreal.ssj.stat.Tally.average.
+    */
+   public double average() {
+      return snapshot().average();
+   }
+
+   /**
+    * Returns the sample variance of the observations, as in
+    * umontreal.ssj.stat.Tally.variance.
+    */
+   public double variance() {
+      return snapshot().variance();
+   }
+
+   /**
+    * Returns the sample standard deviation of the observations, as in
+    * umontreal.ssj.stat.Tally.standardDeviation.
+    */
+   public double standardDeviation() {
+      return snapshot().standardDeviation();
+   }
+
+   /**
+    * Returns the smallest observation.
+    */
+   public double min() {
+      return snapshot().min();
+   }
+
+   /**
+    * Returns the largest observation.
+    */
+   public double max() {
+      return snapshot().max();
+   }
+
+   /**
+    * Returns a report on the observations, as in
+    * umontreal.ssj.stat.Tally.report.
+    */
+   public String report() {
+      return snapshot().report();
+   }
+
+   public String toString() {
+      return report();
+   }
+}
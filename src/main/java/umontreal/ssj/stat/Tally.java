@@ -141,6 +141,35 @@ public class Tally extends StatProbe implements Cloneable {
             add(x[i]);
    }
 
+   /**
+    * Merges the observations collected by `other` into this tally, as if they
+    * had been added to this tally by #add. The number of observations, the
+    * average and the sum of squared deviations are combined with the pairwise
+    * update of Chan, Golub and LeVeque (1983), which is numerically as stable as
+    * the one-pass recurrence used in #add. The minimum and maximum are updated as
+    * well, but no observation is sent to the registered observers. This makes it
+    * possible to collect statistics in separate tallies, e.g., one per thread,
+    * and to combine them afterwards. The tally `other` is not modified. Nothing
+    * is done if collecting is turned OFF for this tally.
+    *
+    * @param other the tally whose observations are merged into this one
+    */
+   public void merge(Tally other) {
+      if (!collect || other.numObs == 0)
+         return;
+      if (other.minValue < minValue)
+         minValue = other.minValue;
+      if (other.maxValue > maxValue)
+         maxValue = other.maxValue;
+      double n1 = numObs;
+      double n2 = other.numObs;
+      double n = n1 + n2;
+      double delta = other.curAverage - curAverage;
+      curAverage += delta * n2 / n;
+      curSum2 += other.curSum2 + delta * delta * n1 * n2 / n;
+      numObs += other.numObs;
+   }
+
    /**
     * Returns the number of observations given to this probe since its last
     * initialization.
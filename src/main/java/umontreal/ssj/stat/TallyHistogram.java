@@ -160,6 +160,32 @@ public class TallyHistogram extends Tally {
       }
    }
 
+   /**
+    * Merges the observations of `other` into this probe, as in
+    * umontreal.ssj.stat.Tally.merge, and adds the bin counters of `other`,
+    * including the counters of the values outside @f$[a,b]@f$, to those of
+    * this histogram. The probe `other` must also be a `TallyHistogram` with the
+    * same interval @f$[a,b]@f$ and the same number of bins.
+    *
+    * @param other the tally whose observations are merged into this one
+    * @exception IllegalArgumentException if `other` is not a `TallyHistogram`
+    *                                     with the same bins
+    */
+   public void merge(Tally other) {
+      if (!(other instanceof TallyHistogram))
+         throw new IllegalArgumentException("Cannot merge a Tally which does not count its observations in bins");
+      TallyHistogram h = (TallyHistogram) other;
+      if (h.numBins != numBins || h.m_a != m_a || h.m_b != m_b)
+         throw new IllegalArgumentException("Cannot merge histograms with different bins");
+      if (collect) {
+         for (int i = 0; i < numBins; i++)
+            count[i] += h.count[i];
+         leftCount += h.leftCount;
+         rightCount += h.rightCount;
+      }
+      super.merge(other);
+   }
+
    /**
     * Remove empty bins in the tails (left and right), without changing the bin
     * size. This gives a new @ref TallyHistogram which may have fewer bins.
@@ -130,6 +130,23 @@ public class TallyStore extends Tally {
       super.add(x);
    }
 
+   /**
+    * Merges the observations of `other` into this probe, as in
+    * umontreal.ssj.stat.Tally.merge, and appends the observations stored in
+    * `other` to those of this probe. The probe `other` must also be a
+    * `TallyStore`, since otherwise its individual observations are unknown.
+    *
+    * @param other the tally whose observations are merged into this one
+    * @exception IllegalArgumentException if `other` is not a `TallyStore`
+    */
+   public void merge(Tally other) {
+      if (!(other instanceof TallyStore))
+         throw new IllegalArgumentException("Cannot merge a Tally which does not store its observations");
+      if (collect)
+         array.addAllOf(((TallyStore) other).array);
+      super.merge(other);
+   }
+
    /**
     * Returns the observations stored in this probe.
     * 
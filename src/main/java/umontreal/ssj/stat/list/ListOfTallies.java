@@ -126,6 +126,28 @@ public class ListOfTallies<E extends Tally> extends ListOfStatProbes<E> {
       notifyListeners(x);
    }
 
+   /**
+    * Merges each tally of `other` into the tally with the same index in this
+    * list, using umontreal.ssj.stat.Tally.merge. The two lists must have the
+    * same size. Nothing is done if collecting is turned OFF for this list.
+    *
+    * @param other the list whose observations are merged into this one.
+    * @exception IllegalArgumentException if the two lists do not have the same
+    *                                     size.
+    */
+   public void merge(ListOfTallies<? extends Tally> other) {
+      int l = size();
+      if (other.size() != l)
+         throw new IllegalArgumentException("Incompatible list size: given " + other.size() + ", required " + l);
+      if (collect)
+         for (int i = 0; i < l; i++) {
+            Tally ta = get(i);
+            Tally to = other.get(i);
+            if (ta != null && to != null)
+               ta.merge(to);
+         }
+   }
+
    /**
     * Assuming that each tally in this list contains the same number of
     * observations, returns the number of observations in tally&nbsp;0, or 0 if
@@ -218,6 +218,55 @@ public class ListOfTalliesWithCovariance<E extends Tally> extends ListOfTallies<
                sxy[i1][i2 - i1 - 1] += x[i1] * x[i2];
    }
 
+   /**
+    * Merges the observations of `other` into this list, as in
+    * umontreal.ssj.stat.list.ListOfTallies.merge, and also combines the sums of
+    * products used to estimate the covariances. The list `other` must be a
+    * `ListOfTalliesWithCovariance` of the same size, initialized with #init,
+    * whose observations have been added with #add, like this list.
+    *
+    * @param other the list whose observations are merged into this one.
+    * @exception IllegalArgumentException if `other` is not a
+    *                                     `ListOfTalliesWithCovariance` of the
+    *                                     same size.
+    * @exception IllegalStateException    if this list or `other` has never
+    *                                     been initialized with #init.
+    */
+   public void merge(ListOfTallies<? extends Tally> other) {
+      if (!(other instanceof ListOfTalliesWithCovariance))
+         throw new IllegalArgumentException("Cannot merge a list of tallies without covariance support");
+      ListOfTalliesWithCovariance<? extends Tally> lo = (ListOfTalliesWithCovariance<? extends Tally>) other;
+      int l = size();
+      if (lo.size() != l)
+         throw new IllegalArgumentException("Incompatible list size: given " + lo.size() + ", required " + l);
+      if (!collect || l == 0)
+         return;
+      // the sums of products are created by the first call to init
+      if (tempArray == null || lo.tempArray == null)
+         throw new IllegalStateException("init must be called before merging lists of tallies with covariance");
+      if (lo.isStable != isStable)
+         throw new IllegalArgumentException("Cannot merge lists using different covariance formulas");
+      double n1 = numberObs();
+      double n2 = lo.numberObs();
+      super.merge(other);
+      if (n2 == 0)
+         return;
+      double n = n1 + n2;
+      if (isStable) {
+         double[] delta = tempArray;
+         for (int i = 0; i < l; i++)
+            delta[i] = lo.curAverages[i] - curAverages[i];
+         for (int i1 = 0; i1 < l - 1; i1++)
+            for (int i2 = i1 + 1; i2 < l; i2++)
+               curSum2[i1][i2 - i1 - 1] += lo.curSum2[i1][i2 - i1 - 1] + delta[i1] * delta[i2] * n1 * n2 / n;
+         for (int i = 0; i < l; i++)
+            curAverages[i] += delta[i] * n2 / n;
+      } else
+         for (int i1 = 0; i1 < l - 1; i1++)
+            for (int i2 = i1 + 1; i2 < l; i2++)
+               sxy[i1][i2 - i1 - 1] += lo.sxy[i1][i2 - i1 - 1];
+   }
+
    public void add(DoubleMatrix1D x) {
       x.toArray(tempArray);
       add(tempArray);
@@ -56,6 +56,7 @@ public class BrownianMotion extends StochasticProcess {
    protected double mu, sigma;
    // Precomputed values for standard BM
    protected double[] mudt, sigmasqrdt;
+   private final boolean reentrant = generatePathDeclaredIn(BrownianMotion.class);
 
    /**
     * Constructs a new `BrownianMotion` with parameters @f$\mu=@f$ `mu`,
@@ -152,6 +153,32 @@ public class BrownianMotion extends StochasticProcess {
       return path;
    }
 
+   /**
+    * Same as `generatePath(uniform01)`, but the path is written in `pathOut`
+    * and the state of this object is not modified. The uniforms are first all
+    * transformed into normals, then the random walk is computed.
+    */
+   public void generatePathInto(double[] uniform01, double[] pathOut) {
+      if (!reentrant) {
+         super.generatePathInto(uniform01, pathOut);
+         return;
+      }
+      final double[] mudt = this.mudt;
+      final double[] sigmasqrdt = this.sigmasqrdt;
+      for (int j = 0; j < d; j++)
+         pathOut[j + 1] = NormalDist.inverseF01(uniform01[j]);
+      double x = x0;
+      pathOut[0] = x;
+      for (int j = 0; j < d; j++) {
+         x += mudt[j] + sigmasqrdt[j] * pathOut[j + 1];
+         pathOut[j + 1] = x;
+      }
+   }
+
+   protected boolean isPathGenerationReentrant() {
+      return reentrant;
+   }
+
    public double[] generatePath(RandomStream stream) {
       gen.setStream(stream);
       return generatePath();
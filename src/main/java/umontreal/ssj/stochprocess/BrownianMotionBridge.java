@@ -77,6 +77,7 @@ public class BrownianMotionBridge extends BrownianMotion {
    // For precomputations for B Bridge
    protected double[] wMuDt, wSqrtDt;
    protected int[] wIndexList, ptIndex;
+   private final boolean reentrant = generatePathDeclaredIn(BrownianMotionBridge.class);
 
    /**
     * Constructs a new `BrownianMotionBridge` with parameters @f$\mu=
@@ -201,6 +202,39 @@ public class BrownianMotionBridge extends BrownianMotion {
       return path;
    }
 
+   /**
+    * Same as `generatePath(uniform01)`, but the path is written in `pathOut`
+    * and the state of this object is not modified. The uniforms are first all
+    * transformed into normals, stored at the positions of the observations
+    * they generate, then the bridge is computed in place.
+    */
+   public void generatePathInto(double[] uniform01, double[] pathOut) {
+      if (!reentrant) {
+         super.generatePathInto(uniform01, pathOut);
+         return;
+      }
+      final double[] wMuDt = this.wMuDt;
+      final double[] wSqrtDt = this.wSqrtDt;
+      final int[] wIndexList = this.wIndexList;
+      pathOut[d] = NormalDist.inverseF01(uniform01[0]);
+      for (int j = 0; j < 3 * (d - 1); j += 3)
+         pathOut[wIndexList[j + 1]] = NormalDist.inverseF01(uniform01[1 + j / 3]);
+
+      pathOut[0] = x0;
+      pathOut[d] = x0 + mu * (t[d] - t[0]) + wSqrtDt[0] * pathOut[d];
+      for (int j = 0; j < 3 * (d - 1); j += 3) {
+         int oldIndexL = wIndexList[j];
+         int newIndex = wIndexList[j + 1];
+         int oldIndexR = wIndexList[j + 2];
+         pathOut[newIndex] = pathOut[oldIndexL] + (pathOut[oldIndexR] - pathOut[oldIndexL]) * wMuDt[newIndex]
+               + wSqrtDt[newIndex] * pathOut[newIndex];
+      }
+   }
+
+   protected boolean isPathGenerationReentrant() {
+      return reentrant;
+   }
+
    public void resetStartProcess() {
       observationIndex = 0;
       observationCounter = 0;
@@ -30,6 +30,7 @@ import umontreal.ssj.randvar.*;
 import cern.colt.matrix.DoubleMatrix2D;
 import cern.colt.matrix.impl.DenseDoubleMatrix2D;
 import cern.colt.matrix.linalg.*;
+import umontreal.ssj.util.PCADecomposition;
 
 /**
  * A Brownian motion process @f$\{X(t) : t \geq0 \}@f$ sampled using the
@@ -37,6 +38,14 @@ import cern.colt.matrix.linalg.*;
  * 
  * @cite fLEC04a&thinsp;.
  *
+ * The decomposition is kept in an immutable
+ * umontreal.ssj.util.PCADecomposition, which can be obtained by
+ * #getPCADecomposition and given to other `BrownianMotionPCA` objects with the
+ * same parameters and observation times, possibly in other threads, by
+ * #setPCADecomposition, so they do not compute it again. The decomposition can
+ * also be truncated to the first @f$k@f$ principal components, in which case
+ * only @f$k@f$ uniforms or normals are used per path.
+ *
  *       <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
  */
 public class BrownianMotionPCA extends BrownianMotion {
@@ -47,6 +56,11 @@ public class BrownianMotionPCA extends BrownianMotion {
    protected double[] z; // vector of standard normals.
    protected double[] sortedEigenvalues;
    protected boolean isDecompPCA;
+   protected PCADecomposition plan; // the decomposition, possibly shared
+   private static final int PATH_BLOCK = 64; // paths whose normals are kept at once in generatePaths
+   private final boolean reentrant = generatePathDeclaredIn(BrownianMotionPCA.class);
+   // Normals used by generatePathInto, one vector per thread.
+   private final ThreadLocal<double[]> localZ = new ThreadLocal<double[]>();
 
    /**
     * Constructs a new `BrownianMotionPCA` with parameters @f$\mu=
@@ -83,14 +97,12 @@ public class BrownianMotionPCA extends BrownianMotion {
       if (!isDecompPCA) {
          init();
       } // if the decomposition is not done, do it...
-      for (int j = 0; j < d; j++)
+      final int k = plan.getNumComponents();
+      for (int j = 0; j < k; j++)
          z[j] = gen.nextDouble();
-      for (int j = 0; j < d; j++) {
-         double sum = 0.0;
-         for (int k = 0; k < d; k++)
-            sum += A[j][k] * z[k];
-         path[j + 1] = x0 + mu * t[j + 1] + sum;
-      }
+      plan.multiply(z, 0, path, 1);
+      for (int j = 0; j < d; j++)
+         path[j + 1] = x0 + mu * t[j + 1] + path[j + 1];
       observationIndex = d;
       observationCounter = d;
       return path;
@@ -100,19 +112,87 @@ public class BrownianMotionPCA extends BrownianMotion {
       if (!isDecompPCA) {
          init();
       } // if the decomposition is not done, do it...
-      for (int j = 0; j < d; j++)
+      final int k = plan.getNumComponents();
+      for (int j = 0; j < k; j++)
          z[j] = NormalDist.inverseF01(uniform01[j]);
-      for (int j = 0; j < d; j++) {
-         double sum = 0.0;
-         for (int k = 0; k < d; k++)
-            sum += A[j][k] * z[k];
-         path[j + 1] = x0 + mu * t[j + 1] + sum;
-      }
+      plan.multiply(z, 0, path, 1);
+      for (int j = 0; j < d; j++)
+         path[j + 1] = x0 + mu * t[j + 1] + path[j + 1];
       observationIndex = d;
       observationCounter = d;
       return path;
    }
 
+   /**
+    * Same as `generatePath(uniform01)`, but the path is written in `pathOut`
+    * and, once the decomposition has been computed, the state of this object is
+    * not modified.
+    */
+   public void generatePathInto(double[] uniform01, double[] pathOut) {
+      if (!reentrant) {
+         super.generatePathInto(uniform01, pathOut);
+         return;
+      }
+      if (!isDecompPCA) {
+         init();
+      } // if the decomposition is not done, do it...
+      final int k = plan.getNumComponents();
+      double[] z = localZ.get();
+      if (z == null || z.length != k) {
+         z = new double[k];
+         localZ.set(z);
+      }
+      for (int j = 0; j < k; j++)
+         z[j] = NormalDist.inverseF01(uniform01[j]);
+      plan.multiply(z, 0, pathOut, 1);
+      pathOut[0] = x0;
+      for (int j = 0; j < d; j++)
+         pathOut[j + 1] = x0 + mu * t[j + 1] + pathOut[j + 1];
+   }
+
+   /**
+    * Same as in @ref StochasticProcess, but the paths are generated in blocks
+    * of 64: the normal vectors of a block are generated, then multiplied by
+    * the decomposition matrix 4 vectors at a time (see
+    * umontreal.ssj.util.PCADecomposition.multiply), which is much faster than
+    * one matrix-vector product per path when @f$d@f$ is large.
+    * The paths are the same as those returned by `generatePath(uniforms[i])`.
+    */
+   public void generatePaths(double[][] uniforms, double[][] paths, int start, int n) {
+      if (!reentrant) {
+         super.generatePaths(uniforms, paths, start, n);
+         return;
+      }
+      if (!isDecompPCA) {
+         init();
+      } // if the decomposition is not done, do it...
+      final int k = plan.getNumComponents();
+      final int m = Math.min(n, PATH_BLOCK);
+      double[][] zb = new double[m][k];
+      double[][] xb = new double[m][d];
+      for (int b = start; b < start + n; b += m) {
+         final int nb = Math.min(m, start + n - b);
+         for (int r = 0; r < nb; r++) {
+            final double[] u = uniforms[b + r];
+            final double[] z = zb[r];
+            for (int j = 0; j < k; j++)
+               z[j] = NormalDist.inverseF01(u[j]);
+         }
+         plan.multiply(zb, 0, xb, 0, 0, nb);
+         for (int r = 0; r < nb; r++) {
+            final double[] x = xb[r];
+            final double[] p = paths[b + r];
+            p[0] = x0;
+            for (int j = 0; j < d; j++)
+               p[j + 1] = x0 + mu * t[j + 1] + x[j];
+         }
+      }
+   }
+
+   protected boolean isPathGenerationReentrant() {
+      return reentrant;
+   }
+
    public double[][] decompPCA(double[][] sigma) {
       // L'objet SingularValueDecomposition permet de recuperer la matrice
       // des valeurs propres en ordre decroissant et celle des vecteurs propres de
@@ -128,6 +208,40 @@ public class BrownianMotionPCA extends BrownianMotion {
       return P.zMult(D, null).toArray();
    }
 
+   /**
+    * Returns the decomposition of the covariance matrix of
+    * @f$(X(t_1),…,X(t_d))@f$ used by this object. It can be shared with other
+    * objects by #setPCADecomposition.
+    */
+   public PCADecomposition getPCADecomposition() {
+      if (!isDecompPCA) {
+         init();
+      } // if the decomposition is not done, do it...
+      return plan;
+   }
+
+   /**
+    * Sets the decomposition used by this object to `plan`, which must be a
+    * decomposition, possibly truncated, of the covariance matrix of
+    * @f$(X(t_1),…,X(t_d))@f$, as returned by #getPCADecomposition for another
+    * object with the same @f$\sigma@f$ and observation times. This method can
+    * be called before `setObservationTimes`, which then uses `plan` instead of
+    * computing the decomposition. If @f$\sigma@f$ or the observation times are
+    * later changed, the decomposition is recomputed.
+    *
+    * @param plan the decomposition to use
+    * @exception IllegalArgumentException if the observation times are set and
+    *                                     `plan` is not a decomposition of the
+    *                                     covariance matrix of this process
+    */
+   public void setPCADecomposition(PCADecomposition plan) {
+      if (observationTimesSet && !plan.isDecompositionOf(sigmaCov))
+         throw new IllegalArgumentException("plan is not a decomposition of the covariance matrix of this process");
+      this.plan = plan;
+      if (observationTimesSet)
+         init();
+   }
+
    /**
     * Returns the sorted eigenvalues obtained in the PCA decomposition.
     */
@@ -138,7 +252,6 @@ public class BrownianMotionPCA extends BrownianMotion {
    protected void init() {
       super.init();
       z = new double[d];
-      sortedEigenvalues = new double[d];
 
       // Initialize sigmaCov, based on the observation times.
       sigmaCov = new double[d][d];
@@ -148,7 +261,10 @@ public class BrownianMotionPCA extends BrownianMotion {
             sigmaCov[j][i] = sigmaCov[i][j];
          }
       }
-      A = decompPCA(sigmaCov);
+      if (plan == null || !plan.isDecompositionOf(sigmaCov))
+         plan = new PCADecomposition(sigmaCov);
+      A = plan.getMatrix();
+      sortedEigenvalues = plan.getEigenvalues();
       isDecompPCA = true;
    }
 }
\ No newline at end of file
@@ -40,6 +40,9 @@ public class BrownianMotionPCAEqualSteps extends BrownianMotion {
    protected double[][] A; // sigmaCov = AA' (PCA decomposition).
    protected double[] z; // vector of standard normals.
    protected boolean isDecompPCA;
+   private final boolean reentrant = generatePathDeclaredIn(BrownianMotionPCAEqualSteps.class);
+   // Normals used by generatePathInto, one vector per thread.
+   private final ThreadLocal<double[]> localZ = new ThreadLocal<double[]>();
    protected double[] sortedEigenvalues;
 
    /**
@@ -96,6 +99,41 @@ public class BrownianMotionPCAEqualSteps extends BrownianMotion {
       return path;
    }
 
+   /**
+    * Same as `generatePath(QMCpointsBM)`, but the path is written in `pathOut`
+    * and, once the decomposition has been computed, the state of this object is
+    * not modified.
+    */
+   public void generatePathInto(double[] QMCpointsBM, double[] pathOut) {
+      if (!reentrant) {
+         super.generatePathInto(QMCpointsBM, pathOut);
+         return;
+      }
+      if (!isDecompPCA) {
+         init();
+      } // if the decomposition is not done, do it...
+      final double[][] A = this.A;
+      double[] z = localZ.get();
+      if (z == null || z.length != d) {
+         z = new double[d];
+         localZ.set(z);
+      }
+      for (int j = 0; j < d; j++)
+         z[j] = NormalDist.inverseF01(QMCpointsBM[j]);
+      pathOut[0] = x0;
+      for (int j = 0; j < d; j++) {
+         final double[] Aj = A[j];
+         double sum = 0.0;
+         for (int k = 0; k < d; k++)
+            sum += Aj[k] * z[k];
+         pathOut[j + 1] = x0 + mu * t[j + 1] + sum;
+      }
+   }
+
+   protected boolean isPathGenerationReentrant() {
+      return reentrant;
+   }
+
    public void setObservationTimes(double[] t, int d) {
       super.setObservationTimes(t, d);
       this.dt = t[1] - t[0];
@@ -181,7 +181,7 @@ public class CIRProcess extends StochasticProcess {
     * @f$d+1@f$ elements (see the `setObservationTimes` method).
     */
    public double[] generatePath(RandomStream stream) {
-      gen.setStream(stream);
+      setStream(stream);
       return generatePath();
    }
 
@@ -205,6 +205,7 @@ public class CIRProcess extends StochasticProcess {
     * Resets the random stream of the noncentral chi-square generator to `stream`.
     */
    public void setStream(RandomStream stream) {
+      this.stream = stream;
       gen.setStream(stream);
    }
 
@@ -43,6 +43,11 @@ import umontreal.ssj.stat.list.*;
  * of the Gamma process are computed as @f$ Y(t_j) - Y(t_{j-1}) =
  * G^{-1}(V_j)@f$, where @f$G@f$ is the gamma distribution function.
  *
+ * The PCA decomposition of the inner Brownian motion can be shared by several
+ * gamma processes with the same parameters and observation times through
+ * `getBMPCA().setPCADecomposition(plan)`; see
+ * @ref BrownianMotionPCA.
+ *
  * <div class="SSJ-bigskip"></div><div class="SSJ-bigskip"></div>
  */
 public class GammaProcessPCA extends GammaProcess {
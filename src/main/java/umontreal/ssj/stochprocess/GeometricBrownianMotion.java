@@ -53,6 +53,7 @@ public class GeometricBrownianMotion extends StochasticProcess {
    protected BrownianMotion bm; // The underlying BM process X.
    protected double mu, sigma;
    protected double[] mudt;
+   private final boolean reentrant = generatePathDeclaredIn(GeometricBrownianMotion.class);
 
    /**
     * Same as `GeometricBrownianMotion (s0, mu, sigma, new BrownianMotion (0.0,
@@ -106,6 +107,40 @@ public class GeometricBrownianMotion extends StochasticProcess {
       return path;
    }
 
+   /**
+    * Same as `generatePath()`, but the underlying Brownian motion is generated
+    * from the uniforms `uniform01` by `bm.generatePath(uniform01)`.
+    */
+   public double[] generatePath(double[] uniform01) {
+      path[0] = x0;
+      bm.generatePath(uniform01);
+      for (int i = 1; i <= d; ++i)
+         path[i] = x0 * Math.exp(bm.getObservation(i));
+      observationCounter = d;
+      return path;
+   }
+
+   /**
+    * Same as `generatePath(uniform01)`, but the path is written in `pathOut`,
+    * which first receives the path of the underlying Brownian motion. The
+    * state of this object is not modified if that of the Brownian motion is
+    * not.
+    */
+   public void generatePathInto(double[] uniform01, double[] pathOut) {
+      if (!reentrant) {
+         super.generatePathInto(uniform01, pathOut);
+         return;
+      }
+      bm.generatePathInto(uniform01, pathOut);
+      pathOut[0] = x0;
+      for (int i = 1; i <= d; ++i)
+         pathOut[i] = x0 * Math.exp(pathOut[i]);
+   }
+
+   protected boolean isPathGenerationReentrant() {
+      return reentrant && bm.isPathGenerationReentrant();
+   }
+
    public double[] generatePath(RandomStream stream) {
       setStream(stream);
       return generatePath();
@@ -30,6 +30,7 @@ import cern.colt.matrix.DoubleMatrix2D;
 import cern.colt.matrix.impl.*;
 import cern.colt.matrix.linalg.*;
 import cern.colt.matrix.doublealgo.*;
+import umontreal.ssj.util.PCADecomposition;
 
 /**
  * A multivariate Brownian motion process @f$\{\mathbf{X}(t) : t \geq0 \}@f$
@@ -46,6 +47,12 @@ import cern.colt.matrix.doublealgo.*;
  *                                        \mathbf{A}\mathbf{A}^{\mathsf{t}}@f$,
  *                                        as in class @ref BrownianMotionPCA.
  *
+ * The decomposition of @f$\mathbf{C}@f$, which depends only on the
+ * observation times and is the expensive one when @f$d@f$ is large, is kept in
+ * an immutable umontreal.ssj.util.PCADecomposition that can be shared by
+ * several objects, possibly in other threads, with #getPCADecomposition and
+ * #setPCADecomposition.
+ *
  *                                        <div class="SSJ-bigskip"></div><div
  *                                        class="SSJ-bigskip"></div>
  */
@@ -62,6 +69,7 @@ public class MultivariateBrownianMotionPCA extends MultivariateBrownianMotion {
                                // at position vector eigenIndex[j] in vector z.
                                // eigenIndex[0..cd-1] should be a permutation of 0,...,cd-1.
    protected boolean decompPCA;
+   protected PCADecomposition planC; // decomposition of C, possibly shared
 
    /**
     * Constructs a new `MultivariateBrownianMotionPCA` with parameters
@@ -148,6 +156,39 @@ public class MultivariateBrownianMotionPCA extends MultivariateBrownianMotion {
       return path;
    }
 
+   /**
+    * Returns the decomposition of the matrix @f$\mathbf{C}@f$ used by this
+    * object. It can be shared with other objects by #setPCADecomposition.
+    */
+   public PCADecomposition getPCADecomposition() {
+      if (!decompPCA) {
+         init();
+      }
+      return planC;
+   }
+
+   /**
+    * Sets the decomposition of the matrix @f$\mathbf{C}@f$ used by this object
+    * to `plan`, as returned by #getPCADecomposition for another object with the
+    * same observation times. Only the eigenvectors and eigenvalues of `plan` are
+    * used, so a truncation of `plan` has no effect here. This method can be
+    * called before `setObservationTimes`, which then uses `plan` instead of
+    * computing the decomposition. If the observation times are later changed,
+    * the decomposition is recomputed.
+    *
+    * @param plan the decomposition of @f$\mathbf{C}@f$ to use
+    * @exception IllegalArgumentException if the observation times are set and
+    *                                     `plan` is not a decomposition of
+    *                                     @f$\mathbf{C}@f$
+    */
+   public void setPCADecomposition(PCADecomposition plan) {
+      if (observationTimesSet && !plan.isDecompositionOf(C.toArray()))
+         throw new IllegalArgumentException("plan is not a decomposition of the matrix C of this process");
+      this.planC = plan;
+      if (observationTimesSet)
+         init();
+   }
+
    protected DoubleMatrix2D decompPCA(DoubleMatrix2D Sigma, double[] eigenValues) {
       // L'objet SingularValueDecomposition permet de recuperer la matrice
       // des valeurs propres en ordre decroissant et celle des vecteurs propres de
@@ -189,7 +230,13 @@ public class MultivariateBrownianMotionPCA extends MultivariateBrownianMotion {
          }
       }
 
-      PC = decompPCA(C, lambdaC); // v_j and \lambda_j
+      double[][] CC = C.toArray();
+      if (planC == null || !planC.isDecompositionOf(CC))
+         planC = new PCADecomposition(CC);
+      PC = new DenseDoubleMatrix2D(planC.getEigenvectors()); // v_j and \lambda_j
+      double[] eigenC = planC.getEigenvalues();
+      for (j = 0; j < d; j++)
+         lambdaC[j] = Math.sqrt(eigenC[j]);
       PcovZ = decompPCA(covZ, etaB); // w_i \eta_i
 
       for (j = 0; j < d; j++)
@@ -24,7 +24,12 @@
  */
 package umontreal.ssj.stochprocess;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import umontreal.ssj.rng.RandomStream;
+import umontreal.ssj.rng.RandomStreamBase;
 
 /**
  * Abstract base class for a stochastic process @f$\{X(t) : t \geq 0 \}@f$
@@ -144,6 +149,169 @@ public abstract class StochasticProcess {
       return generatePath();
    }
 
+   /**
+    * Same as `generatePath()`, but the path is generated from the vector of
+    * uniform random numbers `uniform01`, usually by inversion. The number of
+    * uniforms needed and the way they are used depend on the process type. In
+    * this class, the stream of the process is temporarily replaced by a stream
+    * that returns `uniform01[0]`, `uniform01[1]`, ... in this order, and
+    * `generatePath()` is called; the stream returned by #getStream before the
+    * call is then set back with #setStream. The uniforms are thus used as the
+    * process would use the values of its stream: one uniform per normal
+    * variate for the processes generated by inversion, such as
+    * @ref OrnsteinUhlenbeckProcess or @ref CIRProcessEuler, but a random
+    * number of uniforms for those that use rejection, such as
+    * @ref CIRProcess. Subclasses override this method when they can generate
+    * the path directly from the uniforms.
+    *
+    * @param uniform01 the uniform random numbers used to generate the path
+    * @return the generated path
+    * @exception IllegalArgumentException if the process needs more than
+    *                                     `uniform01.length` uniforms
+    */
+   public double[] generatePath(double[] uniform01) {
+      RandomStream old = getStream();
+      setStream(new ArrayStream(uniform01));
+      try {
+         return generatePath();
+      } finally {
+         if (old != null)
+            setStream(old);
+      }
+   }
+
+   /**
+    * Same as `generatePath(uniform01)`, but the path is written in `pathOut`,
+    * which must have the same size as the array returned by #getPath. In this
+    * class, this method calls `generatePath(uniform01)` and copies the path, so
+    * the internal path is also modified. Subclasses for which
+    * #isPathGenerationReentrant returns `true` override it to write directly in
+    * `pathOut`, without modifying the state of this object.
+    *
+    * @param uniform01 the uniform random numbers used to generate the path
+    * @param pathOut   array where the path is written
+    */
+   public void generatePathInto(double[] uniform01, double[] pathOut) {
+      double[] p = generatePath(uniform01);
+      System.arraycopy(p, 0, pathOut, 0, p.length);
+   }
+
+   /**
+    * Generates the paths number `start` to `start + n - 1`: path @f$i@f$ is
+    * generated from the uniforms `uniforms[i]` by
+    * `generatePathInto(uniforms[i], paths[i])`. Unlike `generatePath`, the
+    * paths are not overwritten by the next call, so the caller does not need to
+    * copy them. For a @ref MultivariateStochasticProcess, each row of `paths`
+    * has size @f$c(d+1)@f$.
+    *
+    * @param uniforms the uniform random numbers, one row per path
+    * @param paths    the generated paths, one row per path
+    * @param start    index of the first path
+    * @param n        number of paths
+    */
+   public void generatePaths(double[][] uniforms, double[][] paths, int start, int n) {
+      for (int i = start; i < start + n; i++)
+         generatePathInto(uniforms[i], paths[i]);
+   }
+
+   /**
+    * Generates `uniforms.length` paths as in
+    * #generatePaths(double[][],double[][],int,int). If `parallel` is `true` and
+    * #isPathGenerationReentrant returns `true`, the paths are split in blocks
+    * that are generated in parallel in the common fork-join pool; otherwise
+    * they are generated sequentially. The results are the same in both cases.
+    * The first path is always generated first, by the calling thread, so the
+    * lazy initializations done by some processes happen only once.
+    *
+    * @param uniforms the uniform random numbers, one row per path
+    * @param paths    the generated paths, one row per path
+    * @param parallel `true` to generate the paths in parallel
+    */
+   public void generatePaths(final double[][] uniforms, final double[][] paths, boolean parallel) {
+      final int n = uniforms.length;
+      if (n == 0)
+         return;
+      generatePathInto(uniforms[0], paths[0]);
+      int numBlocks = Math.min(4 * ForkJoinPool.getCommonPoolParallelism(), (n - 1) / MIN_PATHS_PER_BLOCK);
+      if (!parallel || numBlocks <= 1 || !isPathGenerationReentrant()) {
+         generatePaths(uniforms, paths, 1, n - 1);
+         return;
+      }
+      List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(numBlocks);
+      for (int b = 0; b < numBlocks; b++) {
+         final int lo = 1 + (int) ((long) (n - 1) * b / numBlocks);
+         final int hi = 1 + (int) ((long) (n - 1) * (b + 1) / numBlocks);
+         tasks.add(ForkJoinTask.adapt(new Runnable() {
+            public void run() {
+               generatePaths(uniforms, paths, lo, hi - lo);
+            }
+         }));
+      }
+      ForkJoinTask.invokeAll(tasks);
+   }
+
+   private static final int MIN_PATHS_PER_BLOCK = 256;
+
+   // Stream that returns the values of an array, used by
+   // generatePath(double[]).
+   private static class ArrayStream extends RandomStreamBase {
+      private final double[] u;
+      private int i;
+
+      ArrayStream(double[] u) {
+         this.u = u;
+      }
+
+      protected double nextValue() {
+         if (i >= u.length)
+            throw new IllegalArgumentException("the path needs more than " + u.length + " uniforms");
+         return u[i++];
+      }
+
+      public void resetStartStream() {
+         i = 0;
+      }
+
+      public void resetStartSubstream() {
+         i = 0;
+      }
+
+      public void resetNextSubstream() {
+         throw new UnsupportedOperationException();
+      }
+
+      public String toString() {
+         return "ArrayStream";
+      }
+   }
+
+   /**
+    * Returns `true` if #generatePathInto does not modify the state of this
+    * object, once the first path has been generated, so it can be called by
+    * several threads at the same time. In this class, returns `false`.
+    */
+   protected boolean isPathGenerationReentrant() {
+      return false;
+   }
+
+   // Class that declares the method generatePath(double[]) of each subclass,
+   // found by reflection once per class.
+   private static final ClassValue<Class<?>> GENERATE_PATH_DECLARER = new ClassValue<Class<?>>() {
+      protected Class<?> computeValue(Class<?> type) {
+         try {
+            return type.getMethod("generatePath", double[].class).getDeclaringClass();
+         } catch (NoSuchMethodException e) {
+            return null;
+         }
+      }
+   };
+
+   // Returns true if generatePath(double[]) is declared in class c, and not
+   // overridden in a subclass of c.
+   boolean generatePathDeclaredIn(Class<?> c) {
+      return GENERATE_PATH_DECLARER.get(getClass()) == c;
+   }
+
    /**
     * Returns a *reference* to the last generated sample path @f$\{X(t_0), ... ,
     * X(t_d)\}@f$. *Warning*: The returned array and its size should not be
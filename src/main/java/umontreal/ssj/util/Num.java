@@ -77,6 +77,23 @@ public class Num {
          0.00000000020624998806, -0.00000000001266351116, 0.00000000000079531007, -0.00000000000005082077,
          0.00000000000000329187, -0.00000000000000021556, 0.00000000000000001424, -0.00000000000000000095 };
 
+   private static final double[][] DigammaC7 = {
+         // used in digamma(x) for 0.5 <= x < 3
+         { 1.3524999667726346383e4, 4.5285601699547289655e4, 4.5135168469736662555e4, 1.8529011818582610168e4,
+               3.3291525149406935532e3, 2.4068032474357201831e2, 5.1577892000139084710, 6.2283506918984745826e-3 },
+         { 6.9389111753763444376e-7, 1.9768574263046736421e4, 4.1255160835353832333e4, 2.9390287119932681918e4,
+               9.0819666074855170271e3, 1.2447477785670856039e3, 6.7429129516378593773e1, 1.0 } };
+
+   private static final double[][] DigammaC4 = {
+         // used in digamma(x) for x >= 3
+         { -2.728175751315296783e-15, -6.481571237661965099e-1, -4.486165439180193579, -7.016772277667586642,
+               -2.129404451310105168 },
+         { 7.777885485229616042, 5.461177381032150702e1, 8.929207004818613702e1, 3.227034937911433614e1, 1.0 } };
+
+   // The array methods process their values by blocks of this size, so that
+   // their work arrays stay in the cache.
+   private static final int BLOCK = 256;
+
    private Num() {
    }
 
@@ -466,6 +483,61 @@ public class Num {
       return z + DK1 + y;
    }
 
+   /**
+    * Computes #lnGamma(double) at the @f$n@f$ values `x[0..n-1]` and puts the
+    * results in `out[0..n-1]`. The arrays `x` and `out` may be the same. The
+    * results are the same as those of #lnGamma(double), but the Chebyshev
+    * series for the values in @f$(0, 18]@f$ are evaluated together, in loops
+    * over the values that the just-in-time compiler can vectorize.
+    *
+    * @param x   the values at which the function is computed
+    * @param out array receiving the results
+    * @param n   number of values
+    */
+   public static void lnGamma(double[] x, double[] out, int n) {
+      final double DK1 = 0.9574186990510627;
+      final double[][] w = workArrays(n);
+      final double[] t = w[4];
+      final double[] y = w[5];
+      final int[] idx = new int[t.length];
+      for (int start = 0; start < n; start += BLOCK) {
+         final int end = Math.min(start + BLOCK, n);
+         int m = 0;
+         for (int i = start; i < end; i++) {
+            final double v = x[i];
+            if (!(v > 0.0 && v <= 18.0)) {
+               out[i] = lnGamma(v);
+               continue;
+            }
+            // Same reduction to [3, 4] as in lnGamma(double)
+            final int k = (int) v;
+            double z, p;
+            if (v > 4.0) {
+               z = v - k;
+               p = 1.0;
+               for (int j = 3; j < k; j++)
+                  p *= z + j;
+               p = Math.log(p);
+            } else if (v < 3.0) {
+               z = v - k;
+               p = 1.0;
+               for (int j = 2; j >= k; j--)
+                  p *= z + j;
+               p = -Math.log(p);
+            } else {
+               z = v - 3.0;
+               p = 0.0;
+            }
+            idx[m] = i;
+            t[m] = 2.0 * z - 1.0;
+            y[m++] = p;
+         }
+         chebyBlock(AlnGamma, 15, t, 0, t, 0, m, w);
+         for (int k = 0; k < m; k++)
+            out[idx[k]] = t[k] + DK1 + y[k];
+      }
+   }
+
    /**
     * Computes the natural logarithm of the Beta function @f$B(\lambda, \nu)@f$. It
     * is defined in terms of the Gamma function as @f[ B(\lambda, \nu) =
@@ -485,15 +557,8 @@ public class Num {
     * function @f$\psi(x) = \Gamma’(x) / \Gamma(x)@f$.
     */
    public static double digamma(double x) {
-      final double C7[][] = {
-            { 1.3524999667726346383e4, 4.5285601699547289655e4, 4.5135168469736662555e4, 1.8529011818582610168e4,
-                  3.3291525149406935532e3, 2.4068032474357201831e2, 5.1577892000139084710, 6.2283506918984745826e-3 },
-            { 6.9389111753763444376e-7, 1.9768574263046736421e4, 4.1255160835353832333e4, 2.9390287119932681918e4,
-                  9.0819666074855170271e3, 1.2447477785670856039e3, 6.7429129516378593773e1, 1.0 } };
-      final double C4[][] = {
-            { -2.728175751315296783e-15, -6.481571237661965099e-1, -4.486165439180193579, -7.016772277667586642,
-                  -2.129404451310105168 },
-            { 7.777885485229616042, 5.461177381032150702e1, 8.929207004818613702e1, 3.227034937911433614e1, 1.0 } };
+      final double C7[][] = DigammaC7;
+      final double C4[][] = DigammaC4;
 
       if (Double.isNaN(x))
          return Double.NaN;
@@ -525,6 +590,54 @@ public class Num {
       return digX;
    }
 
+   /**
+    * Computes #digamma(double) at the @f$n@f$ values `x[0..n-1]` and puts the
+    * results in `out[0..n-1]`. The arrays `x` and `out` may be the same. The
+    * results are the same as those of #digamma(double), but the rational
+    * approximations for the values @f$x\ge0.5@f$ are evaluated together, in
+    * loops over the values that the just-in-time compiler can vectorize.
+    *
+    * @param x   the values at which the function is computed
+    * @param out array receiving the results
+    * @param n   number of values
+    */
+   public static void digamma(double[] x, double[] out, int n) {
+      final double X0 = 1.46163214496836234126;
+      final double[][] w = workArrays(n);
+      final double[] p = w[0];
+      final double[] q = w[1];
+      final double[] u = w[2]; // values in [0.5, 3)
+      final double[] t = w[4]; // 1/v^2 for the values v >= 3
+      final double[] s = w[5]; // values >= 3
+      final int[] idx = new int[t.length];
+      final int[] jdx = new int[t.length];
+      for (int start = 0; start < n; start += BLOCK) {
+         final int end = Math.min(start + BLOCK, n);
+         int m = 0;
+         int l = 0;
+         for (int i = start; i < end; i++) {
+            final double v = x[i];
+            if (v >= 3.0) {
+               jdx[l] = i;
+               s[l] = v;
+               t[l++] = 1.0 / (v * v);
+            } else if (v >= 0.5) {
+               idx[m] = i;
+               u[m++] = v;
+            } else
+               out[i] = digamma(v);
+         }
+         polyBlock(DigammaC7[0], 7, u, p, m);
+         polyBlock(DigammaC7[1], 7, u, q, m);
+         for (int k = 0; k < m; k++)
+            out[idx[k]] = (u[k] - X0) * (p[k] / q[k]);
+         polyBlock(DigammaC4[0], 4, t, p, l);
+         polyBlock(DigammaC4[1], 4, t, q, l);
+         for (int k = 0; k < l; k++)
+            out[jdx[k]] = Math.log(s[k]) - (0.5 / s[k]) + (p[k] / q[k]);
+      }
+   }
+
    /**
     * Returns the value of the trigamma function @f$d\psi(x)/dx@f$, the derivative
     * of the digamma function, evaluated at @f$x@f$.
@@ -824,6 +937,31 @@ public class Num {
       return (b0 - b2) / 2.0;
    }
 
+   /**
+    * Evaluates the series of Chebyshev polynomials of
+    * #evalCheby(double[],int,double) at the @f$m@f$ values `x[0..m-1]`, and puts
+    * the results in `out[0..m-1]`. The arrays `x` and `out` may be the same. The
+    * results are the same as with #evalCheby(double[],int,double), but the
+    * recurrence of Clenshaw is applied to a block of values at each step, in a
+    * loop over the values that the just-in-time compiler can vectorize.
+    *
+    * @param a   coefficients of the polynomials
+    * @param n   largest degree of polynomials
+    * @param x   the parameters of the @f$T_j@f$ functions
+    * @param out array receiving the values of the series
+    * @param m   number of values
+    */
+   public static void evalCheby(double a[], int n, double[] x, double[] out, int m) {
+      for (int i = 0; i < m; i++)
+         if (Math.abs(x[i]) > 1.0) {
+            System.err.println("Chebychev polynomial evaluated " + "at x outside [-1, 1]");
+            break;
+         }
+      final double[][] w = workArrays(m);
+      for (int start = 0; start < m; start += BLOCK)
+         chebyBlock(a, n, x, start, out, start, Math.min(BLOCK, m - start), w);
+   }
+
    /**
     * Evaluates a series of shifted Chebyshev polynomials @f$T_j^*@f$ at
     * 
@@ -942,6 +1080,40 @@ public class Num {
       return x * y;
    }
 
+   /**
+    * Computes #erf(double) at the @f$n@f$ values `x[0..n-1]` and puts the
+    * results in `out[0..n-1]`. The arrays `x` and `out` may be the same. The
+    * results are the same as those of #erf(double), but the Chebyshev series
+    * for the values in @f$(-2, 2)@f$ are evaluated together, in loops over the
+    * values that the just-in-time compiler can vectorize.
+    *
+    * @param x   the values at which the function is computed
+    * @param out array receiving the results
+    * @param n   number of values
+    */
+   public static void erf(double[] x, double[] out, int n) {
+      final double[][] w = workArrays(n);
+      final double[] t = w[4];
+      final double[] s = w[5];
+      final int[] idx = new int[t.length];
+      for (int start = 0; start < n; start += BLOCK) {
+         final int end = Math.min(start + BLOCK, n);
+         int m = 0;
+         for (int i = start; i < end; i++) {
+            final double v = x[i];
+            if (Math.abs(v) < 2.0) {
+               idx[m] = i;
+               s[m] = v;
+               t[m++] = 0.5 * v * v - 1.0;
+            } else
+               out[i] = erf(v);
+         }
+         chebyBlock(AERF, 16, t, 0, t, 0, m, w);
+         for (int k = 0; k < m; k++)
+            out[idx[k]] = s[k] * t[k];
+      }
+   }
+
    /**
     * Returns the value of <tt>erfc</tt>(@f$x@f$), the complementary error
     * function. It is defined as @f[ \mbox{erfc}(x) =
@@ -963,6 +1135,44 @@ public class Num {
       return y;
    }
 
+   /**
+    * Computes #erfc(double) at the @f$n@f$ values `x[0..n-1]` and puts the
+    * results in `out[0..n-1]`. The arrays `x` and `out` may be the same. The
+    * results are the same as those of #erfc(double), but the Chebyshev series
+    * are evaluated together, in loops over the values that the just-in-time
+    * compiler can vectorize.
+    *
+    * @param x   the values at which the function is computed
+    * @param out array receiving the results
+    * @param n   number of values
+    */
+   public static void erfc(double[] x, double[] out, int n) {
+      final double[][] w = workArrays(n);
+      final double[] t = w[4];
+      final double[] s = w[5];
+      final int[] idx = new int[t.length];
+      for (int start = 0; start < n; start += BLOCK) {
+         final int end = Math.min(start + BLOCK, n);
+         int m = 0;
+         for (int i = start; i < end; i++) {
+            final double v = x[i];
+            final double a = Math.abs(v);
+            if (a < XBIG) {
+               idx[m] = i;
+               s[m] = v;
+               t[m++] = (a - 3.75) / (a + 3.75);
+            } else
+               out[i] = erfc(v);
+         }
+         chebyBlock(AERFC, 24, t, 0, t, 0, m, w);
+         for (int k = 0; k < m; k++) {
+            final double a = Math.abs(s[k]);
+            final double y = t[k] * Math.exp(-a * a);
+            out[idx[k]] = s[k] < 0.0 ? 2.0 - y : y;
+         }
+      }
+   }
+
    private static final double[] InvP1 = { 0.160304955844066229311e2, -0.90784959262960326650e2,
          0.18644914861620987391e3, -0.16900142734642382420e3, 0.6545466284794487048e2, -0.864213011587247794e1,
          0.1760587821390590 };
@@ -1030,6 +1240,44 @@ public class Num {
       return z;
    }
 
+   /**
+    * Computes #erfInv(double) at the @f$n@f$ values `u[0..n-1]` and puts the
+    * results in `out[0..n-1]`. The arrays `u` and `out` may be the same. The
+    * results are the same as those of #erfInv(double), but the rational
+    * approximation for the values in @f$[-0.75, 0.75]@f$ is evaluated for a
+    * block of values at a time, in loops that the just-in-time compiler can
+    * vectorize.
+    *
+    * @param u   the values at which the function is computed
+    * @param out array receiving the results
+    * @param n   number of values
+    */
+   public static void erfInv(double[] u, double[] out, int n) {
+      final double[][] w = workArrays(n);
+      final double[] p = w[0];
+      final double[] q = w[1];
+      final double[] t = w[4];
+      final double[] s = w[5];
+      final int[] idx = new int[t.length];
+      for (int start = 0; start < n; start += BLOCK) {
+         final int end = Math.min(start + BLOCK, n);
+         int m = 0;
+         for (int i = start; i < end; i++) {
+            final double v = u[i];
+            if (Math.abs(v) <= 0.75) {
+               idx[m] = i;
+               s[m] = v;
+               t[m++] = v * v - 0.5625;
+            } else
+               out[i] = erfInv(v);
+         }
+         polyBlock(InvP1, 6, t, p, m);
+         polyBlock(InvQ1, 6, t, q, m);
+         for (int k = 0; k < m; k++)
+            out[idx[k]] = (p[k] / q[k]) * s[k];
+      }
+   }
+
    /**
     * Returns the value of <tt>erfc</tt>@f${}^{-1}(u)@f$, the inverse of the
     * complementary error function. If @f$u =
@@ -1065,4 +1313,51 @@ public class Num {
       return x;
    }
 
+//>>>>>>>>>>>>>>>>>>>>  P R I V A T E S    M E T H O D S   <<<<<<<<<<<<<<<<<<<<
+
+   // Work arrays for the array methods: w[0..3] for chebyBlock and polyBlock,
+   // w[4] and w[5] for the values gathered by the callers.
+   private static double[][] workArrays(int n) {
+      return new double[6][Math.max(1, Math.min(n, BLOCK))];
+   }
+
+   // Same as evalCheby(a, deg, t[tOff + i]) for i = 0, ..., m-1, with the result
+   // in res[resOff + i]; uses w[0..3]. The inner loops have no dependence
+   // between iterations, so they can be vectorized, and the operations are done
+   // in the same order as in evalCheby, so the results are the same.
+   private static void chebyBlock(double[] a, int deg, double[] t, int tOff, double[] res, int resOff, int m,
+         double[][] w) {
+      final double[] xx = w[0];
+      double[] b0 = w[1];
+      double[] b1 = w[2];
+      double[] b2 = w[3];
+      for (int i = 0; i < m; i++) {
+         xx[i] = 2.0 * t[tOff + i];
+         b0[i] = 0.0;
+         b1[i] = 0.0;
+      }
+      for (int j = deg; j >= 0; j--) {
+         final double[] tmp = b2;
+         b2 = b1;
+         b1 = b0;
+         b0 = tmp;
+         final double aj = a[j];
+         for (int i = 0; i < m; i++)
+            b0[i] = (xx[i] * b1[i] - b2[i]) + aj;
+      }
+      for (int i = 0; i < m; i++)
+         res[resOff + i] = (b0[i] - b2[i]) / 2.0;
+   }
+
+   // Same as Misc.evalPoly(c, deg, t[i]) for i = 0, ..., m-1, with the result in
+   // res[i]; res must not be t.
+   private static void polyBlock(double[] c, int deg, double[] t, double[] res, int m) {
+      for (int i = 0; i < m; i++)
+         res[i] = c[deg];
+      for (int j = deg - 1; j >= 0; j--) {
+         final double cj = c[j];
+         for (int i = 0; i < m; i++)
+            res[i] = res[i] * t[i] + cj;
+      }
+   }
 }
\ No newline at end of file
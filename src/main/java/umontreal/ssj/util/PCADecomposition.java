@@ -0,0 +1,300 @@
+/*
+ * Class:        PCADecomposition
+ * Description:  immutable principal components decomposition of a matrix
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author
+ * @since
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package umontreal.ssj.util;
+
+import cern.colt.matrix.DoubleMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix2D;
+import cern.colt.matrix.linalg.SingularValueDecomposition;
+
+/**
+ * Principal components decomposition @f$\boldsymbol{\Sigma}=
+ * \mathbf{V}\boldsymbol{\Lambda}\mathbf{V}^{\mathsf{t}}@f$ of a @f$d\times d@f$
+ * covariance matrix @f$\boldsymbol{\Sigma}@f$, where the eigenvalues on the
+ * diagonal of @f$\boldsymbol{\Lambda}@f$ are sorted by decreasing size, together
+ * with the matrix @f$\mathbf{A}= \mathbf{V}\sqrt{\boldsymbol{\Lambda}}@f$ used
+ * to generate normal vectors as @f$\mathbf{X}= \mathbf{A}\mathbf{Z}@f$. The
+ * decomposition is computed as in umontreal.ssj.util.DMatrix.PCADecompose, by
+ * the `SingularValueDecomposition` class of `colt`.
+ *
+ * An object of this class is immutable: it can be computed once and shared by
+ * any number of generators, in any number of threads, which then do not have
+ * to compute the decomposition again. See for example
+ * umontreal.ssj.stochprocess.BrownianMotionPCA.setPCADecomposition. The matrix
+ * @f$\mathbf{A}@f$ is stored row by row in a single array, for fast
+ * matrix-vector products by the `multiply` methods. It can be restricted to its
+ * first @f$k@f$ columns by #truncate, in which case only the first @f$k@f$
+ * coordinates of @f$\mathbf{Z}@f$ are used.
+ *
+ * <div class="SSJ-bigskip"></div>
+ */
+public final class PCADecomposition {
+   private static final int BLOCK = 4; // vectors multiplied together, in registers
+
+   private final int d; // dimension
+   private final int k; // number of columns of A
+   private final double[] cov; // Sigma, row-major
+   private final double[] v; // eigenvectors V, row-major
+   private final double[] lambda; // eigenvalues, decreasing
+   private final double[] a; // A = V sqrt(Lambda), first k columns, row-major
+
+   /**
+    * Computes the decomposition of the covariance matrix `sigma`, which must be
+    * symmetric and positive semi-definite.
+    *
+    * @param sigma the covariance matrix
+    * @exception IllegalArgumentException if `sigma` is not square
+    */
+   public PCADecomposition(double[][] sigma) {
+      this(new DenseDoubleMatrix2D(sigma));
+   }
+
+   /**
+    * Computes the decomposition of the covariance matrix `sigma`, which must be
+    * symmetric and positive semi-definite.
+    *
+    * @param sigma the covariance matrix
+    * @exception IllegalArgumentException if `sigma` is not square
+    */
+   public PCADecomposition(DoubleMatrix2D sigma) {
+      if (sigma.rows() != sigma.columns())
+         throw new IllegalArgumentException("sigma is not a square matrix");
+      d = k = sigma.rows();
+      cov = new double[d * d];
+      for (int i = 0; i < d; i++)
+         for (int j = 0; j < d; j++)
+            cov[i * d + j] = sigma.getQuick(i, j);
+      SingularValueDecomposition sv = new SingularValueDecomposition(sigma);
+      DoubleMatrix2D D = sv.getS();
+      DoubleMatrix2D V = sv.getV();
+      lambda = new double[d];
+      for (int j = 0; j < d; j++)
+         lambda[j] = D.getQuick(j, j);
+      v = new double[d * d];
+      a = new double[d * d];
+      for (int i = 0; i < d; i++)
+         for (int j = 0; j < d; j++) {
+            v[i * d + j] = V.getQuick(i, j);
+            a[i * d + j] = v[i * d + j] * Math.sqrt(lambda[j]);
+         }
+   }
+
+   private PCADecomposition(PCADecomposition p, int k) {
+      this.d = p.d;
+      this.k = k;
+      this.cov = p.cov;
+      this.v = p.v;
+      this.lambda = p.lambda;
+      a = new double[d * k];
+      for (int i = 0; i < d; i++)
+         for (int j = 0; j < k; j++)
+            a[i * k + j] = p.v[i * d + j] * Math.sqrt(p.lambda[j]);
+   }
+
+   /**
+    * Returns a decomposition that uses only the @f$k@f$ principal components
+    * with the largest eigenvalues: its matrix @f$\mathbf{A}@f$ has only the
+    * first @f$k@f$ columns of that of this object, and generates vectors with
+    * covariance matrix @f$\mathbf{A}\mathbf{A}^{\mathsf{t}}@f$, which
+    * approximates @f$\boldsymbol{\Sigma}@f$. The fraction of the total variance
+    * that is kept is returned by #getVarianceFraction.
+    *
+    * @param k the number of principal components kept
+    * @return the truncated decomposition
+    * @exception IllegalArgumentException if @f$k < 1@f$ or @f$k > d@f$
+    */
+   public PCADecomposition truncate(int k) {
+      if (k < 1 || k > d)
+         throw new IllegalArgumentException("k must be in [1, " + d + "]");
+      if (k == this.k)
+         return this;
+      return new PCADecomposition(this, k);
+   }
+
+   /**
+    * Returns the dimension @f$d@f$ of the covariance matrix.
+    */
+   public int getDimension() {
+      return d;
+   }
+
+   /**
+    * Returns the number @f$k@f$ of principal components used, i.e., the number of
+    * columns of @f$\mathbf{A}@f$.
+    */
+   public int getNumComponents() {
+      return k;
+   }
+
+   /**
+    * Returns a copy of the @f$d@f$ eigenvalues of @f$\boldsymbol{\Sigma}@f$,
+    * sorted by decreasing size.
+    */
+   public double[] getEigenvalues() {
+      return lambda.clone();
+   }
+
+   /**
+    * Returns the fraction of the total variance of @f$\boldsymbol{\Sigma}@f$
+    * explained by the @f$k@f$ principal components used, i.e., the sum of the
+    * @f$k@f$ largest eigenvalues divided by the sum of all the eigenvalues.
+    */
+   public double getVarianceFraction() {
+      double sum = 0.0;
+      double sumk = 0.0;
+      for (int j = 0; j < d; j++) {
+         sum += lambda[j];
+         if (j < k)
+            sumk += lambda[j];
+      }
+      return sumk / sum;
+   }
+
+   /**
+    * Returns a copy of the @f$d\times d@f$ matrix @f$\mathbf{V}@f$, whose
+    * columns are the eigenvectors of @f$\boldsymbol{\Sigma}@f$.
+    */
+   public double[][] getEigenvectors() {
+      return toMatrix(v, d, d);
+   }
+
+   /**
+    * Returns a copy of the @f$d\times k@f$ matrix @f$\mathbf{A}@f$.
+    */
+   public double[][] getMatrix() {
+      return toMatrix(a, d, k);
+   }
+
+   /**
+    * Returns a copy of the covariance matrix @f$\boldsymbol{\Sigma}@f$.
+    */
+   public double[][] getCovariance() {
+      return toMatrix(cov, d, d);
+   }
+
+   /**
+    * Returns `true` if this object is a decomposition of the covariance matrix
+    * `sigma`, i.e., if `sigma` has exactly the same elements as the matrix
+    * @f$\boldsymbol{\Sigma}@f$ given to the constructor.
+    *
+    * @param sigma a covariance matrix
+    * @return `true` if this is a decomposition of `sigma`
+    */
+   public boolean isDecompositionOf(double[][] sigma) {
+      if (sigma.length != d)
+         return false;
+      for (int i = 0; i < d; i++) {
+         if (sigma[i].length != d)
+            return false;
+         for (int j = 0; j < d; j++)
+            if (sigma[i][j] != cov[i * d + j])
+               return false;
+      }
+      return true;
+   }
+
+   private static double[][] toMatrix(double[] m, int rows, int cols) {
+      double[][] M = new double[rows][cols];
+      for (int i = 0; i < rows; i++)
+         System.arraycopy(m, i * cols, M[i], 0, cols);
+      return M;
+   }
+
+   /**
+    * Computes @f$\mathbf{x}= \mathbf{A}\mathbf{z}@f$, where @f$\mathbf{z}@f$ is
+    * made of the @f$k@f$ values `z[zOffset..zOffset+k-1]`, and puts the @f$d@f$
+    * values of @f$\mathbf{x}@f$ in `x[xOffset..xOffset+d-1]`. The arrays `z` and
+    * `x` must be different.
+    *
+    * @param z       the input vector
+    * @param zOffset index of the first element of @f$\mathbf{z}@f$ in `z`
+    * @param x       the output vector
+    * @param xOffset index of the first element of @f$\mathbf{x}@f$ in `x`
+    */
+   public void multiply(double[] z, int zOffset, double[] x, int xOffset) {
+      final double[] a = this.a;
+      for (int i = 0; i < d; i++) {
+         final int row = i * k;
+         double sum = 0.0;
+         for (int j = 0; j < k; j++)
+            sum += a[row + j] * z[zOffset + j];
+         x[xOffset + i] = sum;
+      }
+   }
+
+   /**
+    * Equivalent to `multiply(z, 0, x, 0)`.
+    *
+    * @param z the input vector
+    * @param x the output vector
+    */
+   public void multiply(double[] z, double[] x) {
+      multiply(z, 0, x, 0);
+   }
+
+   /**
+    * Computes @f$\mathbf{x}_r = \mathbf{A}\mathbf{z}_r@f$ for @f$r =
+    * \mathtt{start},…,\mathtt{start}+n-1@f$, as `multiply(z[r], zOffset, x[r],
+    * xOffset)` does, but the vectors are processed 4 at a time: each element
+    * of @f$\mathbf{A}@f$ is read once for the 4 vectors, whose 4 sums are kept
+    * in local variables. This register blocking reads @f$\mathbf{A}@f$ 4 times
+    * less often than @f$n@f$ matrix-vector products, which is much faster when
+    * @f$d@f$ is large. There is no cache blocking: the callers bound the
+    * number of vectors per call instead. The results are exactly the same.
+    *
+    * @param z       the input vectors
+    * @param zOffset index of the first element of each @f$\mathbf{z}_r@f$ in
+    *                `z[r]`
+    * @param x       the output vectors
+    * @param xOffset index of the first element of each @f$\mathbf{x}_r@f$ in
+    *                `x[r]`
+    * @param start   index of the first vector
+    * @param n       number of vectors
+    */
+   public void multiply(double[][] z, int zOffset, double[][] x, int xOffset, int start, int n) {
+      final double[] a = this.a;
+      int r = start;
+      for (; r + BLOCK <= start + n; r += BLOCK) {
+         final double[] z0 = z[r], z1 = z[r + 1], z2 = z[r + 2], z3 = z[r + 3];
+         final double[] x0 = x[r], x1 = x[r + 1], x2 = x[r + 2], x3 = x[r + 3];
+         for (int i = 0; i < d; i++) {
+            final int row = i * k;
+            double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+            for (int j = 0; j < k; j++) {
+               final double aij = a[row + j];
+               s0 += aij * z0[zOffset + j];
+               s1 += aij * z1[zOffset + j];
+               s2 += aij * z2[zOffset + j];
+               s3 += aij * z3[zOffset + j];
+            }
+            x0[xOffset + i] = s0;
+            x1[xOffset + i] = s1;
+            x2[xOffset + i] = s2;
+            x3[xOffset + i] = s3;
+         }
+      }
+      for (; r < start + n; r++)
+         multiply(z[r], zOffset, x[r], xOffset);
+   }
+}
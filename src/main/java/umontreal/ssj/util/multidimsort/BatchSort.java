@@ -24,6 +24,7 @@
 package umontreal.ssj.util.multidimsort;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * This class implements a @ref MultiDimSortComparable that performs a batch
@@ -66,6 +67,10 @@ import java.util.Arrays;
  * \cdots n_{d-1}@f$. When @f$n < p@f$, some batches (the last ones) have fewer
  * objects than the others.
  *
+ * In parallel mode (see #setParallel), the batches of each level are sorted in
+ * parallel, and a single large batch is sorted with `Arrays.parallelSort`. The
+ * result is the same as in sequential mode, because the sorts are stable.
+ *
  * <div class="SSJ-bigskip"></div>
  */
 
@@ -77,6 +82,7 @@ public class BatchSort<T extends MultiDimComparable<? super T>> implements Multi
    double[] batchExponents; // The alpha_j.
    int batchProduct = 1; // Product p of numbers in batchNumbers.
    int nSaved = 0; // Number n of objects last time sort was called.
+   boolean parallel = false; // True if the batches are sorted in parallel.
 
    /**
     * Constructs a BatchSort that will always use the (fixed) batch numbers given
@@ -183,6 +189,21 @@ public class BatchSort<T extends MultiDimComparable<? super T>> implements Multi
       return batchExponents;
    }
 
+   /**
+    * Sorts in parallel in the common fork-join pool if `parallel` is `true`,
+    * and sequentially otherwise (the default).
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   /**
+    * Returns `true` if this sort runs in parallel.
+    */
+   public boolean isParallel() {
+      return parallel;
+   }
+
    public int dimension() {
       return dimension;
    }
@@ -203,6 +224,11 @@ public class BatchSort<T extends MultiDimComparable<? super T>> implements Multi
          if (batchNumbers[j] == 1)
             continue; // Can skip the sort for this dim j.
          // if (bsize <= 1) break;
+         if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE) {
+            sortBatchesParallel(a, iMin, iMax, bsize, compar);
+            bsize = (int) Math.ceil(bsize / batchNumbers[j]); // New batch size.
+            continue;
+         }
          i1 = iMin;
          while (i1 < iMax) {
             i2 = i1 + bsize;
@@ -237,6 +263,11 @@ public class BatchSort<T extends MultiDimComparable<? super T>> implements Multi
          // Sort all the batches (entire array) according to coordinate j.
          if (batchNumbers[j] == 1)
             continue; // Can skip the sort for this dim j.
+         if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE) {
+            sortBatchesParallel(a, iMin, iMax, bsize, compar);
+            bsize = (int) Math.ceil(bsize / batchNumbers[j]); // New batch size.
+            continue;
+         }
          i1 = iMin;
          while (i1 < iMax) {
             i2 = i1 + bsize;
@@ -256,4 +287,22 @@ public class BatchSort<T extends MultiDimComparable<? super T>> implements Multi
       sort(a, 0, a.length);
    }
 
+   // Sorts the batches of size bsize of a[iMin..iMax-1] in parallel.
+   private <U> void sortBatchesParallel(final U[] a, final int iMin, final int iMax, final int bsize,
+         final Comparator<? super U> compar) {
+      int numBatches = (int) (((long) iMax - iMin + bsize - 1) / bsize);
+      if (numBatches == 1) {
+         Arrays.parallelSort(a, iMin, iMax, compar);
+         return;
+      }
+      new ParallelChunks() {
+         void run(int chunk, int lo, int hi) {
+            for (int b = lo; b < hi; b++) {
+               int i1 = iMin + b * bsize;
+               Arrays.sort(a, i1, Math.min(i1 + bsize, iMax), compar);
+            }
+         }
+      }.invoke(0, numBatches, Math.min(numBatches, ParallelChunks.numChunks(iMax - iMin)));
+   }
+
 }
@@ -114,6 +114,12 @@ import java.util.Arrays;
  *       to another array of objects. Certain subclasses of HilbertCurveSort use
  *       this.
  *
+ *       In parallel mode (see #setParallel), the Hilbert indexes are computed
+ *       in parallel and the index is sorted by a parallel radix sort on the
+ *       Hilbert indexes. This sort is stable, as is the sequential one, so
+ *       both modes give the same order, including for the points that have
+ *       the same Hilbert index.
+ *
  *       <div class="SSJ-bigskip"></div>
  */
 public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
@@ -124,6 +130,7 @@ public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
    // gives the permutation made by that sort.
    // This index is recomputed each time we sort.
    HilbertCurveMap hcMap; // The map used for sorting
+   boolean parallel = false; // True if the sort runs in parallel.
 
    /**
     * Constructs a HilbertCurveSort object that will use the first
@@ -154,11 +161,19 @@ public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
     * Sorts the subarray `a[iMin..iMax-1]` with this Hilbert curve sort. The type
     * `T` must actually be MultiDimComparable01. This is verified in the method.
     */
-   public void sort(MultiDim01[] a, int iMin, int iMax) {
+   public void sort(final MultiDim01[] a, int iMin, int iMax) {
       // Copy the (0,1)^d transformations of the states in array b.
-      double b[][] = new double[iMax][dimension];
-      for (int i = iMin; i < iMax; ++i)
-         b[i] = a[i].getPoint();
+      final double b[][] = new double[iMax][dimension];
+      if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE)
+         new ParallelChunks() {
+            void run(int chunk, int lo, int hi) {
+               for (int i = lo; i < hi; ++i)
+                  b[i] = a[i].getPoint();
+            }
+         }.invoke(iMin, iMax, ParallelChunks.numChunks(iMax - iMin));
+      else
+         for (int i = iMin; i < iMax; ++i)
+            b[i] = a[i].getPoint();
       // Sort this array b by Hilbert sort. The index
       // indexForSort will contain the permutation made by that sort.
       sort(b, iMin, iMax);
@@ -183,6 +198,10 @@ public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
    public void sort(double[][] a, int iMin, int iMax) {
       if (iMin + 1 == iMax)
          return;
+      if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE) {
+         sortParallel(a, iMin, iMax);
+         return;
+      }
       indexForSort = new long[iMax][2]; // Index used for sort.
       int[] icoord = new int[dimension]; // To store integer coordinates.
       for (int i = 0; i < a.length; ++i) {
@@ -200,6 +219,102 @@ public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
       }
    }
 
+   // Same as sort(a, iMin, iMax), but the Hilbert indexes are computed in
+   // parallel and sorted by a parallel radix sort.
+   private void sortParallel(final double[][] a, final int iMin, int iMax) {
+      final long[] key = new long[iMax];
+      int numChunks = ParallelChunks.numChunks(iMax);
+      new ParallelChunks() {
+         void run(int chunk, int lo, int hi) {
+            int[] icoord = new int[dimension]; // To store integer coordinates.
+            for (int i = lo; i < hi; ++i) {
+               hcMap.pointToCoordinates(a[i], icoord);
+               key[i] = hcMap.coordinatesToIndex(icoord);
+            }
+         }
+      }.invoke(0, iMax, numChunks);
+      final int[] perm = new int[iMax - iMin];
+      long[] sortedKey = new long[iMax - iMin];
+      for (int i = iMin; i < iMax; ++i) {
+         perm[i - iMin] = i;
+         sortedKey[i - iMin] = key[i];
+      }
+      radixSortParallel(sortedKey, perm, hcMap.dimension * hcMap.getM());
+      indexForSort = new long[iMax][2];
+      for (int i = 0; i < iMin; ++i) {
+         indexForSort[i][0] = i;
+         indexForSort[i][1] = key[i];
+      }
+      final double[][] aclone = a.clone(); // Save copy of a before the sort.
+      new ParallelChunks() {
+         void run(int chunk, int lo, int hi) {
+            for (int i = lo; i < hi; ++i) {
+               int k = perm[i - iMin];
+               indexForSort[i][0] = k;
+               indexForSort[i][1] = key[k];
+               a[i] = aclone[k];
+            }
+         }
+      }.invoke(iMin, iMax, numChunks);
+   }
+
+   // Stable LSD radix sort of idx by key, with 8-bit digits, where key[i] is the
+   // key of idx[i] and the keys are non-negative with at most `bits` bits. Each
+   // pass counts the digits in each chunk, then moves the elements of each chunk
+   // to their places, in parallel. The array key is used as work space.
+   private static void radixSortParallel(long[] key, int[] idx, int bits) {
+      int n = idx.length;
+      int numChunks = ParallelChunks.numChunks(n);
+      final int[][] count = new int[numChunks][256];
+      long[] ka = key, kb = new long[n];
+      int[] ia = idx, ib = new int[n];
+      for (int shift = 0; shift < bits; shift += 8) {
+         final long[] kSrc = ka, kDst = kb;
+         final int[] iSrc = ia, iDst = ib;
+         final int sh = shift;
+         new ParallelChunks() {
+            void run(int chunk, int lo, int hi) {
+               int[] cnt = count[chunk];
+               Arrays.fill(cnt, 0);
+               for (int i = lo; i < hi; ++i)
+                  ++cnt[(int) (kSrc[i] >>> sh) & 0xff];
+            }
+         }.invoke(0, n, numChunks);
+         // Starting positions, by digit and then by chunk, so that the elements
+         // keep their relative order. A digit shared by all keys needs no pass.
+         boolean skip = false;
+         int pos = 0;
+         for (int dig = 0; dig < 256; ++dig) {
+            int start = pos;
+            for (int c = 0; c < numChunks; ++c) {
+               int t = count[c][dig];
+               count[c][dig] = pos;
+               pos += t;
+            }
+            if (pos - start == n)
+               skip = true;
+         }
+         if (skip)
+            continue;
+         new ParallelChunks() {
+            void run(int chunk, int lo, int hi) {
+               int[] next = count[chunk];
+               for (int i = lo; i < hi; ++i) {
+                  int k = next[(int) (kSrc[i] >>> sh) & 0xff]++;
+                  kDst[k] = kSrc[i];
+                  iDst[k] = iSrc[i];
+               }
+            }
+         }.invoke(0, n, numChunks);
+         ka = kDst;
+         kb = kSrc;
+         ia = iDst;
+         ib = iSrc;
+      }
+      if (ia != idx)
+         System.arraycopy(ia, 0, idx, 0, n);
+   }
+
    public void sort(double[][] a) {
       sort(a, 0, a.length);
    }
@@ -220,6 +335,21 @@ public class HilbertCurveSort implements MultiDimSort01<MultiDim01> {
       return dimension;
    }
 
+   /**
+    * Sorts in parallel in the common fork-join pool if `parallel` is `true`,
+    * and sequentially otherwise (the default).
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   /**
+    * Returns `true` if this sort runs in parallel.
+    */
+   public boolean isParallel() {
+      return parallel;
+   }
+
    /**
     * Returns the @ref HilbertCurveMap used for the mapping.
     */
@@ -0,0 +1,87 @@
+/*
+ * Class:        ParallelChunks
+ * Description:  runs a loop over chunks in the fork-join pool
+ * Environment:  Java
+ * Software:     SSJ 
+ * Copyright (C) 2001  Pierre L'Ecuyer and Universite de Montreal
+ * Organization: DIRO, Universite de Montreal
+ * @author       
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+package umontreal.ssj.util.multidimsort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs the body #run of a loop over an index range, split in contiguous chunks
+ * that are processed in parallel in the common fork-join pool. Used by the
+ * sorts of this package in their parallel mode.
+ */
+abstract class ParallelChunks {
+
+   /**
+    * Ranges smaller than this are not worth splitting.
+    */
+   static final int MIN_PARALLEL_SIZE = 8192;
+
+   /**
+    * Processes the indices `lo` (inclusive) to `hi` (exclusive), which form
+    * chunk number `chunk`.
+    */
+   abstract void run(int chunk, int lo, int hi);
+
+   /**
+    * Returns a reasonable number of chunks for a range of `n` indices.
+    */
+   static int numChunks(int n) {
+      int c = 4 * ForkJoinPool.getCommonPoolParallelism();
+      return Math.max(1, Math.min(c, n / (MIN_PARALLEL_SIZE / 8)));
+   }
+
+   /**
+    * Splits the indices `iMin` to `iMax-1` in `numChunks` chunks of almost equal
+    * sizes, calls #run on each of them in parallel, and waits until all are
+    * done. Chunk `c` starts at index `iMin + c*(iMax-iMin)/numChunks`.
+    */
+   void invoke(int iMin, int iMax, int numChunks) {
+      List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(numChunks);
+      for (int c = 0; c < numChunks; c++) {
+         final int chunk = c;
+         final int lo = chunkStart(iMin, iMax, numChunks, c);
+         final int hi = chunkStart(iMin, iMax, numChunks, c + 1);
+         tasks.add(ForkJoinTask.adapt(new Runnable() {
+            public void run() {
+               ParallelChunks.this.run(chunk, lo, hi);
+            }
+         }));
+      }
+      ForkJoinTask.invokeAll(tasks);
+   }
+
+   static int chunkStart(int iMin, int iMax, int numChunks, int c) {
+      return iMin + (int) ((long) (iMax - iMin) * c / numChunks);
+   }
+
+   /**
+    * Runs `r1` and `r2` in parallel and waits until both are done.
+    */
+   static void invokeBoth(Runnable r1, Runnable r2) {
+      ForkJoinTask.invokeAll(ForkJoinTask.adapt(r1), ForkJoinTask.adapt(r2));
+   }
+}
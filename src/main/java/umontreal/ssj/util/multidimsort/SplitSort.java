@@ -24,6 +24,7 @@
 package umontreal.ssj.util.multidimsort;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Implements a @ref MultiDimSortComparable that performs a *split sort* on
@@ -37,10 +38,16 @@ import java.util.Arrays;
  * coordinate @f$d-1@f$, the procedure cycles back to coordinate 0, and
  * continues. The resulting order is the result of the sort.
  *
+ * In parallel mode (see #setParallel), the large parts are sorted with
+ * `Arrays.parallelSort` and the two halves of each split are processed in
+ * parallel. Since the sorts are stable, the result is the same as in sequential
+ * mode.
+ *
  * <div class="SSJ-bigskip"></div>
  */
 public class SplitSort<T extends MultiDimComparable<? super T>> implements MultiDimSortComparable<T> {
    private int dimension;
+   private boolean parallel = false;
 
    /**
     * Constructs a SplitSort that will use the first `d` dimensions to sort.
@@ -51,17 +58,54 @@ public class SplitSort<T extends MultiDimComparable<? super T>> implements Multi
       this.dimension = d;
    }
 
+   /**
+    * Sorts in parallel in the common fork-join pool if `parallel` is `true`,
+    * and sequentially otherwise (the default).
+    */
+   public void setParallel(boolean parallel) {
+      this.parallel = parallel;
+   }
+
+   /**
+    * Returns `true` if this sort runs in parallel.
+    */
+   public boolean isParallel() {
+      return parallel;
+   }
+
    public void sort(T[] a, int iMin, int iMax) {
       if (dimension == 1) {
-         Arrays.sort(a, iMin, iMax, new MultiDimComparator<T>(0));
+         if (parallel)
+            Arrays.parallelSort(a, iMin, iMax, new MultiDimComparator<T>(0));
+         else
+            Arrays.sort(a, iMin, iMax, new MultiDimComparator<T>(0));
       } else {
          splitSort(a, iMin, iMax, 0);
       }
    }
 
-   private void splitSort(T[] a, int iMin, int iMax, int splitCoord) {
+   private void splitSort(final T[] a, final int iMin, final int iMax, int splitCoord) {
       if (iMin == (iMax - 1))
          return;
+      if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE) {
+         // Below the top level, the halves already run in parallel.
+         if (ForkJoinTask.inForkJoinPool())
+            Arrays.sort(a, iMin, iMax, new MultiDimComparator<T>(splitCoord));
+         else
+            Arrays.parallelSort(a, iMin, iMax, new MultiDimComparator<T>(splitCoord));
+         final int iMid = (iMin + iMax) / 2;
+         final int nextCoord = (splitCoord + 1) % dimension;
+         ParallelChunks.invokeBoth(new Runnable() {
+            public void run() {
+               splitSort(a, iMin, iMid, nextCoord);
+            }
+         }, new Runnable() {
+            public void run() {
+               splitSort(a, iMid, iMax, nextCoord);
+            }
+         });
+         return;
+      }
       Arrays.sort(a, iMin, iMax, new MultiDimComparator<T>(splitCoord));
       int iMid = (iMin + iMax) / 2;
       splitSort(a, iMin, iMid, (splitCoord + 1) % dimension);
@@ -74,15 +118,37 @@ public class SplitSort<T extends MultiDimComparable<? super T>> implements Multi
 
    public void sort(double[][] a, int iMin, int iMax) {
       if (dimension == 1) {
-         Arrays.sort(a, iMin, iMax, new DoubleArrayComparator(0));
+         if (parallel)
+            Arrays.parallelSort(a, iMin, iMax, new DoubleArrayComparator(0));
+         else
+            Arrays.sort(a, iMin, iMax, new DoubleArrayComparator(0));
       } else {
          splitSort(a, iMin, iMax, 0);
       }
    }
 
-   private void splitSort(double[][] a, int iMin, int iMax, int splitCoord) {
+   private void splitSort(final double[][] a, final int iMin, final int iMax, int splitCoord) {
       if (iMin == (iMax - 1))
          return;
+      if (parallel && iMax - iMin >= ParallelChunks.MIN_PARALLEL_SIZE) {
+         // Below the top level, the halves already run in parallel.
+         if (ForkJoinTask.inForkJoinPool())
+            Arrays.sort(a, iMin, iMax, new DoubleArrayComparator(splitCoord));
+         else
+            Arrays.parallelSort(a, iMin, iMax, new DoubleArrayComparator(splitCoord));
+         final int iMid = (iMin + iMax) / 2;
+         final int nextCoord = (splitCoord + 1) % dimension;
+         ParallelChunks.invokeBoth(new Runnable() {
+            public void run() {
+               splitSort(a, iMin, iMid, nextCoord);
+            }
+         }, new Runnable() {
+            public void run() {
+               splitSort(a, iMid, iMax, nextCoord);
+            }
+         });
+         return;
+      }
       Arrays.sort(a, iMin, iMax, new DoubleArrayComparator(splitCoord));
       int iMid = (iMin + iMax) / 2;
       splitSort(a, iMin, iMid, (splitCoord + 1) % dimension);
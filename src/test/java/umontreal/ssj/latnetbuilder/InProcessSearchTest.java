@@ -0,0 +1,75 @@
+package umontreal.ssj.latnetbuilder;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import umontreal.ssj.hups.DigitalNetBase2;
+
+/**
+ * Test the searches of {@link umontreal.ssj.latnetbuilder.Search} done in
+ * process, see {@link umontreal.ssj.latnetbuilder.Search#setInProcess}.
+ */
+public class InProcessSearchTest {
+
+   private static void setParameters(Search search, String size, String dim, String figure, String weight,
+         String method) {
+      search.setInProcess(true);
+      search.setSizeParameter(size);
+      search.setDimension(dim);
+      search.setFigureOfMerit(figure);
+      search.setNormType("2");
+      search.addWeight(weight);
+      search.setExplorationMethod(method);
+   }
+
+   private static double ordinaryMerit(String size, String figure, String weight, String method) {
+      OrdinaryLatticeSearch search = new OrdinaryLatticeSearch();
+      setParameters(search, size, "5", figure, weight, method);
+      search.search();
+      assertTrue(search.successful());
+      return search.merit();
+   }
+
+   @Test
+   public void testFullAndFastCBCAgree() {
+      // n prime and n a power of 2; the weights are the same for all the
+      // coordinates, so the ties between a_1 and its inverse modulo n, which
+      // the two constructions may break differently, give the same merit
+      String[] sizes = { "97", "2^7" };
+      String[] figures = { "CU:P2", "CU:P4" };
+      String[] weights = { "product:0.7", "order-dependent:0.5", "POD:0.4:0.6" };
+      for (String size : sizes)
+         for (String figure : figures)
+            for (String weight : weights) {
+               double full = ordinaryMerit(size, figure, weight, "full-CBC");
+               double fast = ordinaryMerit(size, figure, weight, "fast-CBC");
+               assertEquals(full, fast, 1e-10 * full, size + " " + figure + " " + weight);
+            }
+   }
+
+   @Test
+   public void testKnownPolynomialLatticeRule() {
+      // For n = 2^3, the modulus is P(z) = z^3 + z + 1, whose inverse is
+      // 1/P(z) = z^-3 + z^-5 + z^-6 + z^-7 + ..., and the rule in dimension 1
+      // has q(z) = 1; its generating matrix is the Hankel matrix of these
+      // coefficients, C[r][c] = u_{r+c+1}.
+      PolynomialLatticeSearch search = new PolynomialLatticeSearch("lattice");
+      setParameters(search, "2^3", "1", "CU:P2", "product:0.6", "full-CBC");
+      DigitalNetBase2 net = search.search();
+      int[][][] expected = { { { 0, 0, 1 }, { 0, 1, 0 }, { 1, 0, 1 } } };
+      assertArrayEquals(expected, net.genMatricesToBitByBitFormat());
+      double[] x = { 0.0, 0.125, 0.25, 0.375, 0.625, 0.5, 0.875, 0.75 };
+      for (int i = 0; i < 8; i++)
+         assertEquals(x[i], net.getCoordinateNoGray(i, 0), 0.0);
+
+      // This rule is a (0, m, 1)-net, whose dual net is made of the multiples
+      // of 2^m, so the criterion is gamma 2^{-alpha m} / (1 - 2^{1-alpha}).
+      for (int alpha = 2; alpha <= 3; alpha++)
+         for (int m = 3; m <= 8; m += 5) {
+            search = new PolynomialLatticeSearch("lattice");
+            setParameters(search, "2^" + m, "1", "CU:P" + alpha, "product:0.6", "full-CBC");
+            search.search();
+            double merit = Math.sqrt(0.6 * Math.pow(2.0, -alpha * m) / (1.0 - Math.pow(2.0, 1 - alpha)));
+            assertEquals(merit, search.merit(), 1e-8 * merit, "alpha = " + alpha + ", m = " + m);
+         }
+   }
+}
@@ -0,0 +1,93 @@
+package umontreal.ssj.simevents.eventlist;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import umontreal.ssj.simevents.Event;
+import umontreal.ssj.simevents.Simulator;
+
+/**
+ * Test that the array-based event lists give the same order as the other
+ * implementations of {@link umontreal.ssj.simevents.eventlist.EventList}.
+ */
+public class EventListTest {
+
+   private static final Simulator SIM = new Simulator();
+
+   private static class Named extends Event {
+      final String name;
+
+      Named(String name, double time, double priority) {
+         super(SIM);
+         this.name = name;
+         setPriority(priority);
+         setTime(time);
+      }
+
+      public void actions() {
+      }
+   }
+
+   private static EventList[] lists() {
+      return new EventList[] { new SplayTree(), new DoublyLinked(), new BinaryTree(), new Henriksen(),
+            new RedblackTree(), new DaryHeap(), new DaryHeap(2), new CalendarQueue() };
+   }
+
+   // Runs the same script of insertions and removals through the list, and
+   // returns the names of the events in the order they are removed. The events
+   // added by addFirst have priority p, so they have the same time and
+   // priority as the first event if p = 0.
+   private static List<String> run(EventList list, double p) {
+      List<String> order = new ArrayList<String>();
+      list.addFirst(new Named("A", 0.0, 1.0));
+      list.add(new Named("B", 0.0, 0.0));
+      list.add(new Named("C", 0.0, 1.0));
+      list.addFirst(new Named("D", 0.0, p));
+      Named e = new Named("E", 2.0, 1.0);
+      list.add(e);
+      list.add(new Named("F", 1.0, 1.0));
+      list.addBefore(new Named("G", 2.0, 1.0), e);
+      list.addAfter(new Named("H", 2.0, 1.0), e);
+      Named i = new Named("I", 1.0, 0.5);
+      list.add(i);
+      order.add(((Named) list.removeFirst()).name);
+      list.addFirst(new Named("J", 0.0, p));
+      list.add(new Named("K", 0.0, 0.5));
+      assertTrue(list.remove(i));
+      assertFalse(list.remove(i));
+      list.add(new Named("L", 2.0, 1.0));
+      while (!list.isEmpty())
+         order.add(((Named) list.removeFirst()).name);
+      return order;
+   }
+
+   @Test
+   public void testSameOrderAsOtherLists() {
+      List<String> expected = run(new SplayTree(), -1.0);
+      for (EventList list : lists())
+         assertEquals(expected, run(list, -1.0), list.getClass().getSimpleName());
+   }
+
+   @Test
+   public void testAddFirstBeforeEqualEvents() {
+      List<String> expected = run(new SplayTree(), 0.0);
+      for (EventList list : lists()) {
+         // RedblackTree adds the event after those with the same time and
+         // priority.
+         if (list instanceof RedblackTree)
+            continue;
+         assertEquals(expected, run(list, 0.0), list.getClass().getSimpleName());
+      }
+   }
+
+   @Test
+   public void testLaterEventWithSmallerPriorityPassesAddFirst() {
+      for (EventList list : lists()) {
+         list.addFirst(new Named("A", 0.0, 1.0));
+         list.add(new Named("B", 0.0, 0.0));
+         assertEquals("B", ((Named) list.removeFirst()).name, list.getClass().getSimpleName());
+         assertEquals("A", ((Named) list.removeFirst()).name, list.getClass().getSimpleName());
+      }
+   }
+}
@@ -0,0 +1,46 @@
+package umontreal.ssj.stat;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import umontreal.ssj.rng.MRG32k3a;
+import umontreal.ssj.rng.RandomStream;
+
+/**
+ * Test the method {@link umontreal.ssj.stat.Tally#merge}.
+ */
+public class TallyTest {
+
+   @Test
+   public void testMergeMatchesSequential() {
+      RandomStream rs = new MRG32k3a();
+      Tally all = new Tally();
+      Tally part1 = new Tally();
+      Tally part2 = new Tally();
+      for (int i = 0; i < 1000; i++) {
+         double x = 5.0 + 10.0 * rs.nextDouble();
+         all.add(x);
+         if (i < 300)
+            part1.add(x);
+         else
+            part2.add(x);
+      }
+      part1.merge(part2);
+      assertEquals(all.numberObs(), part1.numberObs());
+      assertEquals(all.average(), part1.average(), 1e-12);
+      assertEquals(all.variance(), part1.variance(), 1e-12);
+      assertEquals(all.min(), part1.min());
+      assertEquals(all.max(), part1.max());
+   }
+
+   @Test
+   public void testMergeIntoEmpty() {
+      Tally t = new Tally();
+      Tally other = new Tally();
+      other.add(1.0);
+      other.add(3.0);
+      t.merge(other);
+      assertEquals(2, t.numberObs());
+      assertEquals(2.0, t.average(), 1e-15);
+      assertEquals(2.0, t.variance(), 1e-15);
+   }
+}